@@ -0,0 +1,80 @@
+#!/bin/bash
+
+##
+# Replays a dataset through a query on a local environment, with and without object reuse,
+# and compares the young GC activity recorded in the GC logs.
+#
+# USAGE: bash benchmarks/gc-replay.sh [DATASET] [METADATA] [PROGRAM]
+#   DATASET   the dataset (or archive) to replay (default: data/test/dataset.txt).
+#   METADATA  the match metadata (default: data/test/metadata.yml).
+#   PROGRAM   the program to run: all, query-1, query-2 or query-3 (default: all).
+#
+# The heap is set by SOCSTREAM_GC_HEAP (default: -Xms1g -Xmx1g -Xmn256m).
+# Requires a JDK 8 (GC logging flags) and the compiled project (mvn compile).
+##
+
+##
+# SETUP ENVARS
+##
+SOCSTREAM_HOME="$( cd "$( dirname "${BASH_SOURCE[0]}" )/.." && pwd )"
+JAVA="${JAVA_HOME:+${JAVA_HOME}/bin/}java"
+
+DATASET="${1:-${SOCSTREAM_HOME}/data/test/dataset.txt}"
+METADATA="${2:-${SOCSTREAM_HOME}/data/test/metadata.yml}"
+PROGRAM="${3:-all}"
+HEAP="${SOCSTREAM_GC_HEAP:--Xms1g -Xmx1g -Xmn256m}"
+
+##
+# SETUP: DIRECTORIES
+##
+OUTDIR="${SOCSTREAM_HOME}/out/gc-replay"
+mkdir -p "${OUTDIR}"
+rm -f ${OUTDIR}/*
+
+##
+# SETUP: CLASSPATH (Flink is a provided dependency)
+##
+mvn -q -f "${SOCSTREAM_HOME}/pom.xml" dependency:build-classpath -Dmdep.outputFile="${OUTDIR}/classpath.txt" || exit 1
+CLASSPATH="${SOCSTREAM_HOME}/target/classes:$(cat ${OUTDIR}/classpath.txt)"
+
+##
+# SOCSTREAM
+##
+SOCSTREAM_OPTS=""
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --source file:${DATASET}"
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --metadata ${METADATA}"
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --latencyInterval 0"
+if [ "${PROGRAM}" == "all" ]; then
+  SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --query1.output ${OUTDIR}/query-1.out"
+  SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --query2.output ${OUTDIR}/query-2.out"
+  SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --query3.output ${OUTDIR}/query-3.out"
+else
+  SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --output ${OUTDIR}/${PROGRAM}.out"
+fi
+
+##
+# EXECUTION
+##
+# $1: true, to enable object reuse.
+replay() {
+  local start=$(date +%s%N)
+  ${JAVA} ${HEAP} -XX:+PrintGCDetails -Xloggc:${OUTDIR}/gc-reuse-$1.log \
+    -cp "${CLASSPATH}" com.acmutv.socstream.Driver ${PROGRAM} ${SOCSTREAM_OPTS} --objectReuse $1 \
+    > ${OUTDIR}/${PROGRAM}-reuse-$1.log 2>&1 \
+    || { echo "Replay failed, see ${OUTDIR}/${PROGRAM}-reuse-$1.log"; exit 1; }
+  local end=$(date +%s%N)
+
+  local elapsed=$(( (end - start) / 1000000 ))
+  local young=$(grep -c "\[GC (" ${OUTDIR}/gc-reuse-$1.log)
+  local pause=$(grep "\[GC (" ${OUTDIR}/gc-reuse-$1.log | sed -n 's/.*, \([0-9.]*\) secs\].*/\1/p' | awk '{s += $1} END {printf "%.3f", s}')
+  printf "%-14s %10d %12d %14.2f %14s\n" "$1" "${elapsed}" "${young}" \
+    "$(echo "${young} ${elapsed}" | awk '{printf "%.2f", ($2 > 0) ? $1 * 1000 / $2 : 0}')" "${pause}"
+}
+
+echo "Replaying ${DATASET} through ${PROGRAM} (${HEAP})"
+printf "%-14s %10s %12s %14s %14s\n" "objectReuse" "time (ms)" "young GCs" "young GCs/s" "young pause (s)"
+replay false
+replay true
+echo "GC logs saved to ${OUTDIR}"
+
+exit 0
@@ -0,0 +1,136 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.benchmarks;
+
+import com.acmutv.socstream.common.tuple.PositionSensorEvent;
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import com.acmutv.socstream.query1.operator.PlayerRunningStatisticsCalculatorAggregator;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatisticsAccumulator;
+import com.acmutv.socstream.query2.operator.PlayerSpeedStatisticsCalculatorAggregator;
+import com.acmutv.socstream.query2.tuple.PlayerSpeedStatisticsAccumulator;
+import com.acmutv.socstream.query2.tuple.SpeedSensorEvent;
+import com.acmutv.socstream.query3.operator.PlayerOnGridStatisticsCalculatorAggregator;
+import com.acmutv.socstream.query3.tuple.PlayerGridStatisticsAccumulator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@code add} path of the query aggregators.
+ * Each operation adds one event of the test dataset; accumulators are reset at every iteration.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AggregatorBenchmark {
+
+  /**
+   * The events for query 1.
+   */
+  private RichSensorEvent[] richEvents;
+
+  /**
+   * The events for query 2.
+   */
+  private SpeedSensorEvent[] speedEvents;
+
+  /**
+   * The events for query 3 (timestamps are increasing).
+   */
+  private PositionSensorEvent[] positionEvents;
+
+  /**
+   * The index of the next event.
+   */
+  private int cursor;
+
+  private PlayerRunningStatisticsCalculatorAggregator query1 = new PlayerRunningStatisticsCalculatorAggregator();
+
+  private PlayerSpeedStatisticsCalculatorAggregator query2 = new PlayerSpeedStatisticsCalculatorAggregator();
+
+  private PlayerOnGridStatisticsCalculatorAggregator query3 = new PlayerOnGridStatisticsCalculatorAggregator();
+
+  private PlayerRunningStatisticsAccumulator query1Acc;
+
+  private PlayerSpeedStatisticsAccumulator query2Acc;
+
+  private PlayerGridStatisticsAccumulator query3Acc;
+
+  @Setup
+  public void setup() throws IOException {
+    this.richEvents = Dataset.events();
+    this.speedEvents = new SpeedSensorEvent[this.richEvents.length];
+    this.positionEvents = new PositionSensorEvent[this.richEvents.length];
+    for (int i = 0; i < this.richEvents.length; i++) {
+      final RichSensorEvent e = this.richEvents[i];
+      this.speedEvents[i] = new SpeedSensorEvent(e.getId(), e.getTs(), e.getV());
+      this.positionEvents[i] = new PositionSensorEvent(e.getId(), i, e.getX(), e.getY());
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void reset() {
+    this.query1Acc = this.query1.createAccumulator();
+    this.query2Acc = this.query2.createAccumulator();
+    this.query3Acc = this.query3.createAccumulator();
+  }
+
+  @Benchmark
+  public PlayerRunningStatisticsAccumulator query1() {
+    this.query1.add(this.richEvents[this.next()], this.query1Acc);
+    return this.query1Acc;
+  }
+
+  @Benchmark
+  public PlayerSpeedStatisticsAccumulator query2() {
+    this.query2.add(this.speedEvents[this.next()], this.query2Acc);
+    return this.query2Acc;
+  }
+
+  @Benchmark
+  public PlayerGridStatisticsAccumulator query3() {
+    this.query3.add(this.positionEvents[this.next()], this.query3Acc);
+    return this.query3Acc;
+  }
+
+  /**
+   * Returns the index of the next event, cycling over the dataset.
+   * @return the index of the next event.
+   */
+  private int next() {
+    final int i = this.cursor;
+    this.cursor = (i + 1 >= this.richEvents.length) ? 0 : i + 1;
+    return i;
+  }
+}
@@ -0,0 +1,106 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.benchmarks;
+
+import com.acmutv.socstream.common.source.SensorEventParser;
+import com.acmutv.socstream.common.source.archive.SensorEventArchive;
+import com.acmutv.socstream.common.source.archive.SensorEventArchiveReader;
+import com.acmutv.socstream.common.source.archive.SensorEventArchiveWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks a full scan of the test dataset, from the dataset file and from its archive.
+ * Each operation reads and decodes every record of the file, so events per second are
+ * operations per second times the number of records.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArchiveBenchmark {
+
+  /**
+   * The archive of the dataset.
+   */
+  private Path archive;
+
+  /**
+   * The reusable parser.
+   */
+  private SensorEventParser parser;
+
+  @Setup
+  public void setup() throws IOException {
+    this.archive = Files.createTempFile("socstream-archive", ".bin");
+    this.parser = new SensorEventParser();
+    try (SensorEventArchiveWriter writer = new SensorEventArchiveWriter(this.archive, Dataset.sensors(),
+        SensorEventArchive.DEFAULT_BLOCK_LENGTH)) {
+      for (byte[] line : Dataset.lines()) {
+        if (this.parser.parse(line)) writer.write(this.parser);
+      }
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(this.archive);
+  }
+
+  @Benchmark
+  public long text() throws IOException {
+    final SensorEventParser p = this.parser;
+    final byte[] bytes = Files.readAllBytes(Dataset.datasetPath());
+    long checksum = 0;
+    int from = 0;
+    for (int i = 0; i <= bytes.length; i++) {
+      if (i == bytes.length || bytes[i] == '\n') {
+        if (p.parseHead(bytes, from, i) && p.parseBody()) checksum += p.getAz();
+        from = i + 1;
+      }
+    }
+    return checksum;
+  }
+
+  @Benchmark
+  public long archive() throws IOException {
+    long checksum = 0;
+    try (SensorEventArchiveReader reader = new SensorEventArchiveReader(this.archive)) {
+      while (reader.next()) checksum += reader.getAz();
+    }
+    return checksum;
+  }
+}
@@ -0,0 +1,119 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.benchmarks;
+
+import com.acmutv.socstream.common.meta.MatchService;
+import com.acmutv.socstream.common.meta.SensorDirectory;
+import com.acmutv.socstream.common.source.SensorEventParser;
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The benchmark input, loaded from the test dataset.
+ * Paths are resolved against the working directory and can be overridden with the system properties
+ * {@code socstream.dataset} and {@code socstream.metadata}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class Dataset {
+
+  /**
+   * The default dataset path.
+   */
+  public static final String DEFAULT_DATASET = "data/test/dataset.txt";
+
+  /**
+   * The default metadata path.
+   */
+  public static final String DEFAULT_METADATA = "data/test/metadata.yml";
+
+  /**
+   * Returns the dataset path.
+   * @return the dataset path.
+   */
+  public static Path datasetPath() {
+    return Paths.get(System.getProperty("socstream.dataset", DEFAULT_DATASET));
+  }
+
+  /**
+   * Returns the metadata path.
+   * @return the metadata path.
+   */
+  public static Path metadataPath() {
+    return Paths.get(System.getProperty("socstream.metadata", DEFAULT_METADATA));
+  }
+
+  /**
+   * Reads the dataset records as raw bytes.
+   * @return the dataset records.
+   * @throws IOException when the dataset cannot be read.
+   */
+  public static byte[][] lines() throws IOException {
+    List<String> lines = Files.readAllLines(datasetPath(), StandardCharsets.US_ASCII);
+    byte[][] records = new byte[lines.size()][];
+    for (int i = 0; i < records.length; i++) {
+      records[i] = lines.get(i).getBytes(StandardCharsets.US_ASCII);
+    }
+    return records;
+  }
+
+  /**
+   * Reads the dataset records as events (the id is the sensor id).
+   * @return the dataset events.
+   * @throws IOException when the dataset cannot be read.
+   */
+  public static RichSensorEvent[] events() throws IOException {
+    SensorEventParser parser = new SensorEventParser();
+    List<RichSensorEvent> events = new ArrayList<>();
+    for (byte[] line : lines()) {
+      if (!parser.parse(line)) continue;
+      events.add(new RichSensorEvent(parser.getSid(), parser.getTs(),
+          parser.getX(), parser.getY(),
+          parser.getV(), parser.getA(),
+          parser.getVx(), parser.getVy(),
+          parser.getAx(), parser.getAy()));
+    }
+    return events.toArray(new RichSensorEvent[events.size()]);
+  }
+
+  /**
+   * Reads the sensor directory of the match.
+   * @return the sensor directory.
+   * @throws IOException when the metadata cannot be read.
+   */
+  public static SensorDirectory sensors() throws IOException {
+    return MatchService.collectSensorDirectory(MatchService.fromYamlFile(metadataPath()));
+  }
+}
@@ -0,0 +1,127 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.benchmarks;
+
+import com.acmutv.socstream.common.meta.SensorDirectory;
+import com.acmutv.socstream.common.source.SensorEventBinaryFormat;
+import com.acmutv.socstream.common.source.SensorEventParser;
+import com.acmutv.socstream.common.source.kafka.schema.RichSensorEventBinaryDeserializationSchema;
+import com.acmutv.socstream.common.source.kafka.schema.RichSensorEventDeserializationSchema;
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the deserialization of sensor events from CSV and binary records.
+ * Each operation deserializes one record of the test dataset.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeserializationBenchmark {
+
+  /**
+   * The CSV records.
+   */
+  private byte[][] lines;
+
+  /**
+   * The binary records.
+   */
+  private byte[][] records;
+
+  /**
+   * The index of the next record.
+   */
+  private int cursor;
+
+  /**
+   * The reusable parser.
+   */
+  private SensorEventParser parser;
+
+  /**
+   * The CSV schema.
+   */
+  private RichSensorEventDeserializationSchema csvSchema;
+
+  /**
+   * The binary schema.
+   */
+  private RichSensorEventBinaryDeserializationSchema binarySchema;
+
+  @Setup
+  public void setup() throws IOException {
+    this.lines = Dataset.lines();
+    RichSensorEvent[] events = Dataset.events();
+    this.records = new byte[events.length][];
+    for (int i = 0; i < events.length; i++) {
+      this.records[i] = SensorEventBinaryFormat.encode(events[i]);
+    }
+    this.parser = new SensorEventParser();
+
+    final SensorDirectory sensors = Dataset.sensors();
+    final RichSensorEvent eos = new RichSensorEvent(0, Long.MAX_VALUE, 0, 0, 0, 0, 0, 0, 0, 0);
+    this.csvSchema = new RichSensorEventDeserializationSchema(0L, Long.MAX_VALUE, 0L, 0L, sensors, eos);
+    this.binarySchema = new RichSensorEventBinaryDeserializationSchema(0L, Long.MAX_VALUE, 0L, 0L, sensors, eos);
+  }
+
+  @Benchmark
+  public long parser() {
+    final SensorEventParser p = this.parser;
+    return p.parse(this.lines[this.next(this.lines.length)]) ? p.getAz() : -1;
+  }
+
+  @Benchmark
+  public RichSensorEvent csv() throws IOException {
+    return this.csvSchema.deserialize(this.lines[this.next(this.lines.length)]);
+  }
+
+  @Benchmark
+  public RichSensorEvent binary() throws IOException {
+    return this.binarySchema.deserialize(this.records[this.next(this.records.length)]);
+  }
+
+  /**
+   * Returns the index of the next record, cycling over the dataset.
+   * @param size the number of records.
+   * @return the index of the next record.
+   */
+  private int next(int size) {
+    final int i = this.cursor;
+    this.cursor = (i + 1 >= size) ? 0 : i + 1;
+    return i;
+  }
+}
@@ -0,0 +1,95 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.benchmarks;
+
+import com.acmutv.socstream.common.sink.encode.ByteArrayBuilder;
+import com.acmutv.socstream.common.tool.GridTool;
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import com.acmutv.socstream.common.tuple.PositionSensorEvent;
+import com.acmutv.socstream.query3.operator.PlayerGridStatisticsCsvEncoder;
+import com.acmutv.socstream.query3.operator.PlayerGridStatisticsJsonEncoder;
+import com.acmutv.socstream.query3.operator.PlayerOnGridStatisticsCalculatorAggregator;
+import com.acmutv.socstream.query3.tuple.PlayerGridStatistics;
+import com.acmutv.socstream.query3.tuple.PlayerGridStatisticsAccumulator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the formatting of query 3 results.
+ * Each operation formats the statistics of a player that crossed the whole test dataset, either with
+ * {@code toString()} or with a result encoder into a reusable buffer.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GridStatisticsBenchmark {
+
+  private PlayerGridStatistics statistics;
+
+  private final PlayerGridStatisticsCsvEncoder csvEncoder = new PlayerGridStatisticsCsvEncoder();
+
+  private final PlayerGridStatisticsJsonEncoder jsonEncoder = new PlayerGridStatisticsJsonEncoder();
+
+  private final ByteArrayBuilder buffer = new ByteArrayBuilder();
+
+  @Setup
+  public void setup() throws IOException {
+    final RichSensorEvent[] events = Dataset.events();
+    final PlayerOnGridStatisticsCalculatorAggregator aggregator = new PlayerOnGridStatisticsCalculatorAggregator();
+    final PlayerGridStatisticsAccumulator acc = aggregator.createAccumulator();
+    for (int i = 0; i < events.length; i++) {
+      final RichSensorEvent e = events[i];
+      aggregator.add(new PositionSensorEvent(e.getId(), i, e.getX(), e.getY()), acc);
+    }
+    this.statistics = new PlayerGridStatistics(100, 0, GridTool.DEFAULT_GRID, acc.getCells());
+  }
+
+  @Benchmark
+  public String toStringGrid() {
+    return this.statistics.toString();
+  }
+
+  @Benchmark
+  public int csvGrid() {
+    this.csvEncoder.encode(this.statistics, this.buffer.reset());
+    return this.buffer.size();
+  }
+
+  @Benchmark
+  public int jsonGrid() {
+    this.jsonEncoder.encode(this.statistics, this.buffer.reset());
+    return this.buffer.size();
+  }
+}
@@ -0,0 +1,113 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.benchmarks;
+
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import com.acmutv.socstream.tool.physics.Motion;
+import com.acmutv.socstream.tool.physics.PhysicsUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link PhysicsUtil} over the whole test dataset, given as primitive columns.
+ * Each operation computes the pairs (distance,speed) of all events, comparing the per-event
+ * methods with the batch method.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PhysicsBatchBenchmark {
+
+  private long v[];
+  private long vx[];
+  private long vy[];
+  private long a[];
+  private long ax[];
+  private long ay[];
+
+  private double distances[];
+  private double speeds[];
+
+  private final Motion motion = new Motion();
+
+  @Setup
+  public void setup() throws IOException {
+    final RichSensorEvent events[] = Dataset.events();
+    final int n = events.length;
+    this.v = new long[n];
+    this.vx = new long[n];
+    this.vy = new long[n];
+    this.a = new long[n];
+    this.ax = new long[n];
+    this.ay = new long[n];
+    for (int i = 0; i < n; i++) {
+      final RichSensorEvent e = events[i];
+      this.v[i] = e.getV();
+      this.vx[i] = e.getVx();
+      this.vy[i] = e.getVy();
+      this.a[i] = e.getA();
+      this.ax[i] = e.getAx();
+      this.ay[i] = e.getAy();
+    }
+    this.distances = new double[n];
+    this.speeds = new double[n];
+  }
+
+  @Benchmark
+  public double[] perEventArray() {
+    for (int i = 0; i < this.v.length; i++) {
+      final double pair[] = PhysicsUtil.computeDistanceAndSpeed(this.v[i], this.vx[i], this.vy[i], this.a[i], this.ax[i], this.ay[i]);
+      this.distances[i] = pair[0];
+      this.speeds[i] = pair[1];
+    }
+    return this.speeds;
+  }
+
+  @Benchmark
+  public double[] perEventHolder() {
+    for (int i = 0; i < this.v.length; i++) {
+      PhysicsUtil.computeDistanceAndSpeed(this.v[i], this.vx[i], this.vy[i], this.a[i], this.ax[i], this.ay[i], this.motion);
+      this.distances[i] = this.motion.getDistance();
+      this.speeds[i] = this.motion.getSpeed();
+    }
+    return this.speeds;
+  }
+
+  @Benchmark
+  public double[] batch() {
+    PhysicsUtil.computeDistanceAndSpeed(this.v, this.vx, this.vy, this.a, this.ax, this.ay, 0, this.v.length, this.distances, this.speeds);
+    return this.speeds;
+  }
+}
@@ -0,0 +1,105 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.benchmarks;
+
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import com.acmutv.socstream.tool.physics.Motion;
+import com.acmutv.socstream.tool.physics.PhysicsUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link PhysicsUtil}.
+ * Each operation processes one event of the test dataset.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PhysicsBenchmark {
+
+  /**
+   * The events.
+   */
+  private RichSensorEvent[] events;
+
+  /**
+   * The index of the next event.
+   */
+  private int cursor;
+
+  /**
+   * The reusable holder for the pair (distance,speed).
+   */
+  private final Motion motion = new Motion();
+
+  @Setup
+  public void setup() throws IOException {
+    this.events = Dataset.events();
+  }
+
+  @Benchmark
+  public double computeDistance() {
+    final RichSensorEvent e = this.next();
+    return PhysicsUtil.computeDistance(e.getV(), e.getVx(), e.getVy(), e.getA(), e.getAx(), e.getAy());
+  }
+
+  @Benchmark
+  public double computeSpeed() {
+    final RichSensorEvent e = this.next();
+    return PhysicsUtil.computeSpeed(e.getV(), e.getVx(), e.getVy(), e.getA(), e.getAx(), e.getAy());
+  }
+
+  @Benchmark
+  public double[] computeDistanceAndSpeed() {
+    final RichSensorEvent e = this.next();
+    return PhysicsUtil.computeDistanceAndSpeed(e.getV(), e.getVx(), e.getVy(), e.getA(), e.getAx(), e.getAy());
+  }
+
+  @Benchmark
+  public Motion computeDistanceAndSpeedInto() {
+    final RichSensorEvent e = this.next();
+    return PhysicsUtil.computeDistanceAndSpeed(e.getV(), e.getVx(), e.getVy(), e.getA(), e.getAx(), e.getAy(), this.motion);
+  }
+
+  /**
+   * Returns the next event, cycling over the dataset.
+   * @return the next event.
+   */
+  private RichSensorEvent next() {
+    final int i = this.cursor;
+    this.cursor = (i + 1 >= this.events.length) ? 0 : i + 1;
+    return this.events[i];
+  }
+}
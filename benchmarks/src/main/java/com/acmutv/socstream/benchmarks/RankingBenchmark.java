@@ -0,0 +1,130 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.benchmarks;
+
+import com.acmutv.socstream.common.meta.PlayerKey;
+import com.acmutv.socstream.query2.operator.GlobalRankerAggregator;
+import com.acmutv.socstream.query2.operator.GlobalRankerWindowFunction;
+import com.acmutv.socstream.query2.operator.PartialRankerAggregator;
+import com.acmutv.socstream.query2.tuple.PlayerSpeedStatistics;
+import com.acmutv.socstream.query2.tuple.PlayersSpeedRanking;
+import com.acmutv.socstream.query2.tuple.RankingAccumulator;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.util.Collector;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the query 2 ranking of a window.
+ * Each operation ranks the statistics of all players and emits the ranking.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RankingBenchmark {
+
+  /**
+   * The number of players.
+   */
+  @Param({"16"})
+  private int players;
+
+  /**
+   * The size of the ranking.
+   */
+  @Param({"5"})
+  private int rankSize;
+
+  private PlayerSpeedStatistics[] statistics;
+
+  private PartialRankerAggregator partialRanker;
+
+  private GlobalRankerAggregator globalRanker;
+
+  private GlobalRankerWindowFunction windowFunction;
+
+  private TimeWindow window;
+
+  private PlayersSpeedRanking partialRanking;
+
+  @Setup
+  public void setup() {
+    this.statistics = new PlayerSpeedStatistics[this.players];
+    for (int i = 0; i < this.players; i++) {
+      this.statistics[i] = new PlayerSpeedStatistics(0, 60000, 100 + i, (i * 7919) % 3000000);
+    }
+    this.partialRanker = new PartialRankerAggregator(this.rankSize);
+    this.globalRanker = new GlobalRankerAggregator(this.rankSize);
+    this.windowFunction = new GlobalRankerWindowFunction();
+    this.window = new TimeWindow(0, 60000);
+    this.partialRanking = new PlayersSpeedRanking(0, 60000);
+  }
+
+  @Benchmark
+  public void rank(Blackhole blackhole) throws Exception {
+    final RankingAccumulator partial = this.partialRanker.createAccumulator();
+    for (PlayerSpeedStatistics stats : this.statistics) {
+      this.partialRanker.add(stats, partial);
+    }
+    partial.fill(this.partialRanking.getRank());
+
+    final RankingAccumulator global = this.globalRanker.createAccumulator();
+    this.globalRanker.add(this.partialRanking, global);
+
+    this.windowFunction.apply(PlayerKey.NO_MATCH, this.window, Collections.singletonList(global), new BlackholeCollector<>(blackhole));
+  }
+
+  /**
+   * A collector that consumes records into a {@link Blackhole}.
+   * @param <T> the type of records.
+   */
+  private static final class BlackholeCollector<T> implements Collector<T> {
+
+    private final Blackhole blackhole;
+
+    BlackholeCollector(Blackhole blackhole) {
+      this.blackhole = blackhole;
+    }
+
+    @Override
+    public void collect(T record) {
+      this.blackhole.consume(record);
+    }
+
+    @Override
+    public void close() { }
+  }
+}
@@ -0,0 +1,208 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.benchmarks;
+
+import com.acmutv.socstream.common.tool.WindowTool;
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatistics;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatisticsPanes;
+import com.acmutv.socstream.query2.tuple.PlayersSpeedRanking;
+import com.acmutv.socstream.query2.tuple.RankingAccumulator;
+import com.acmutv.socstream.query2.tuple.RankingElement;
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.PrimitiveArrayTypeInfo;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.typeutils.GenericTypeInfo;
+import org.apache.flink.api.java.typeutils.ObjectArrayTypeInfo;
+import org.apache.flink.api.java.typeutils.PojoField;
+import org.apache.flink.api.java.typeutils.PojoTypeInfo;
+import org.apache.flink.api.java.typeutils.TypeExtractor;
+import org.apache.flink.runtime.util.DataInputDeserializer;
+import org.apache.flink.runtime.util.DataOutputSerializer;
+import org.apache.flink.util.Collector;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the serialization of records shuffled on the network or kept in state.
+ * Each operation serializes a record and deserializes it into a reused instance, either with the hand-written
+ * serializer ({@code custom}) or with the serializer Flink falls back to without it ({@code fallback}):
+ * the POJO serializer for events, rankings and panes (with Kryo for the ranking list), Kryo for the ranking accumulator.
+ * The serialized length of each record is printed at setup.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+  /**
+   * The record: a sensor event, a query 2 ranking, a ranking accumulator, or query 1 panes.
+   */
+  @Param({"event", "ranking", "accumulator", "panes"})
+  private String record;
+
+  /**
+   * The serializer: {@code custom} or {@code fallback}.
+   */
+  @Param({"custom", "fallback"})
+  private String serializer;
+
+  private TypeSerializer<Object> typeSerializer;
+
+  private Object value;
+
+  private Object reuse;
+
+  private final DataOutputSerializer output = new DataOutputSerializer(4096);
+
+  private final DataInputDeserializer input = new DataInputDeserializer();
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setup() throws Exception {
+    final ExecutionConfig config = new ExecutionConfig();
+    final Class<?> type;
+    switch (this.record) {
+      case "event":
+        this.value = Dataset.events()[0];
+        type = RichSensorEvent.class;
+        break;
+      case "ranking":
+        final List<RankingElement> rank = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+          rank.add(new RankingElement(100 + i, 5.5 - i));
+        }
+        this.value = new PlayersSpeedRanking(0, 60000, rank);
+        type = PlayersSpeedRanking.class;
+        break;
+      case "accumulator":
+        final RankingAccumulator acc = new RankingAccumulator(5);
+        for (int i = 0; i < 16; i++) {
+          acc.add(100 + i, (i * 7919) % 13);
+        }
+        this.value = acc;
+        type = RankingAccumulator.class;
+        break;
+      case "panes":
+        final PlayerRunningStatisticsPanes panes = new PlayerRunningStatisticsPanes(100,
+            new long[]{TimeUnit.MINUTES.toMillis(1), TimeUnit.MINUTES.toMillis(5), WindowTool.FULL}, TimeUnit.MINUTES.toMillis(1));
+        final Collector<PlayerRunningStatistics> out = new DiscardingCollector<>();
+        panes.add(1000, 1.5, 3.0, out);
+        panes.add(61000, 2.5, 4.0, out);
+        panes.add(62000, 0.5, 1.0, out);
+        this.value = panes;
+        type = PlayerRunningStatisticsPanes.class;
+        break;
+      default:
+        throw new IllegalArgumentException(this.record);
+    }
+
+    final TypeInformation<?> info;
+    if ("custom".equals(this.serializer)) {
+      info = TypeExtractor.getForClass(type);
+    } else if (type == RankingAccumulator.class) {
+      info = new GenericTypeInfo<>(type);
+    } else {
+      info = pojo(type);
+    }
+    this.typeSerializer = (TypeSerializer<Object>) info.createSerializer(config);
+    this.reuse = this.typeSerializer.copy(this.value);
+
+    this.output.clear();
+    this.typeSerializer.serialize(this.value, this.output);
+    System.out.printf("%n%s (%s): %d bytes%n", this.record, this.serializer, this.output.length());
+  }
+
+  @Benchmark
+  public Object roundTrip() throws IOException {
+    this.output.clear();
+    this.typeSerializer.serialize(this.value, this.output);
+    this.input.setBuffer(this.output.getByteArray(), 0, this.output.length());
+    return this.reuse = this.typeSerializer.deserialize(this.reuse, this.input);
+  }
+
+  /**
+   * Returns the POJO type information of a class, as analyzed by Flink without a type information factory:
+   * primitives and primitive arrays as such, project types as nested POJOs, anything else as generic type.
+   * @param type the class.
+   * @return the POJO type information.
+   */
+  @SuppressWarnings("unchecked")
+  private static <T> PojoTypeInfo<T> pojo(Class<T> type) {
+    final List<PojoField> fields = new ArrayList<>();
+    for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+      for (Field field : c.getDeclaredFields()) {
+        if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())) continue;
+        field.setAccessible(true);
+        fields.add(new PojoField(field, field(field.getType())));
+      }
+    }
+    return new PojoTypeInfo<>(type, fields);
+  }
+
+  private static TypeInformation<?> field(Class<?> type) {
+    if (type.isPrimitive()) {
+      return TypeExtractor.getForClass(type);
+    }
+    if (type.isArray() && type.getComponentType().isPrimitive()) {
+      return PrimitiveArrayTypeInfo.getInfoFor(type);
+    }
+    if (type.isArray()) {
+      return ObjectArrayTypeInfo.getInfoFor(type, field(type.getComponentType()));
+    }
+    if (type.getName().startsWith("com.acmutv.socstream")) {
+      return pojo(type);
+    }
+    return new GenericTypeInfo<>(type);
+  }
+
+  /**
+   * A collector that discards records.
+   * @param <T> the type of records.
+   */
+  private static final class DiscardingCollector<T> implements Collector<T> {
+
+    @Override
+    public void collect(T record) { }
+
+    @Override
+    public void close() { }
+  }
+}
@@ -11,6 +11,7 @@ ES_TYPE_SCHEMA="{
 	"properties": {
 		"ts": {"type": "date"},
 		"pid":    {"type": "long"},
+		"grid":   {"type": "keyword"},
 		"cells":  {
 			"properties": {
 				"cid":      {"type": "text"},
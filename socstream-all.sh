@@ -0,0 +1,58 @@
+#!/bin/bash
+
+##
+# SETUP ENVARS
+##
+SOCSTREAM_HOME="$( cd "$( dirname "${BASH_SOURCE[0]}" )" && pwd )"
+
+##
+# FLINK COMMANDS
+##
+FLINK_RUN="${FLINK_HOME}/bin/flink run"
+
+##
+# SETUP: DIRECTORIES
+##
+OUTDIR="${SOCSTREAM_HOME}/out/all"
+mkdir -p "${OUTDIR}"
+rm -f ${OUTDIR}/*
+
+##
+# SETUP: ELASTICSEARCH
+##
+ES_CLUSTER="my-es-cluster"
+ES_ADDRESS="localhost:9300"
+ES_INDEX="socstream"
+
+##
+# SOCSTREAM
+##
+SOCSTREAM_JAR="${SOCSTREAM_HOME}/target/socstream-1.0-jar-with-dependencies.jar"
+SOCSTREAM_QUERY="all"
+SOCSTREAM_OPTS=""
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --kafka.zookeeper localhost:2181"
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --kafka.bootstrap localhost:9092"
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --kafka.topic socstream"
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --metadata ${SOCSTREAM_HOME}/data/dist/metadata.yml"
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --fusion.slot 5"
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --parallelism 3"
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --query1.output ${OUTDIR}/query-1.out"
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --query1.elasticsearch ${ES_CLUSTER}@${ES_ADDRESS}:${ES_INDEX}/query-1"
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --query1.windows 1m,5m,20m,full"
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --query2.output ${OUTDIR}/query-2.out"
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --query2.elasticsearch ${ES_CLUSTER}@${ES_ADDRESS}:${ES_INDEX}/query-2"
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --query2.windowSize 5"
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --query2.windowUnit MINUTES"
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --query2.rankSize 5"
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --query3.output ${OUTDIR}/query-3.out"
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --query3.elasticsearch ${ES_CLUSTER}@${ES_ADDRESS}:${ES_INDEX}/query-3"
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --query3.windowSize 5"
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --query3.windowUnit MINUTES"
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --query3.grids 8x13"
+
+##
+# EXECUTION
+##
+${FLINK_RUN} ${SOCSTREAM_JAR} ${SOCSTREAM_QUERY} ${SOCSTREAM_OPTS}
+
+exit 0
@@ -37,8 +37,8 @@ SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --kafka.topic socstream"
 SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --output ${OUTDIR}/main.out"
 SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --elasticsearch ${ES_CLUSTER}@${ES_ADDRESS}:${ES_INDEX}/${ES_TYPE_NAME}"
 SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --metadata ${SOCSTREAM_HOME}/data/dist/metadata.yml"
-SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --windowSize 5"
-SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --windowUnit MINUTES"
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --windows 1m,5m,20m,full"
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --fusion.slot 5"
 SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --parallelism 3"
 
 ##
@@ -39,6 +39,8 @@ SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --elasticsearch ${ES_CLUSTER}@${ES_ADDRESS}:${
 SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --metadata ${SOCSTREAM_HOME}/data/dist/metadata.yml"
 SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --windowSize 5"
 SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --windowUnit MINUTES"
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --grids 8x13"
+SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --fusion.slot 5"
 SOCSTREAM_OPTS="${SOCSTREAM_OPTS} --parallelism 3"
 
 ##
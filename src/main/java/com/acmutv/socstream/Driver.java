@@ -26,7 +26,11 @@
 
 package com.acmutv.socstream;
 
+import com.acmutv.socstream.all.TopologyAll;
 import com.acmutv.socstream.common.ProgramDriver;
+import com.acmutv.socstream.common.producer.DatasetReplay;
+import com.acmutv.socstream.common.producer.MetadataPublisher;
+import com.acmutv.socstream.common.source.archive.DatasetArchiver;
 import com.acmutv.socstream.query1.TopologyQuery1;
 import com.acmutv.socstream.query2.TopologyQuery2;
 import com.acmutv.socstream.query3.TopologyQuery3;
@@ -73,6 +77,26 @@ public class Driver {
      **********************************************************************************************/
       driver.addClass(TopologyQuery3.PROGRAM_NAME, TopologyQuery3.class, TopologyQuery3.PROGRAM_DESCRIPTION);
 
+    /* *********************************************************************************************
+     * ALL QUERIES
+     **********************************************************************************************/
+      driver.addClass(TopologyAll.PROGRAM_NAME, TopologyAll.class, TopologyAll.PROGRAM_DESCRIPTION);
+
+    /* *********************************************************************************************
+     * REPLAY
+     **********************************************************************************************/
+      driver.addClass(DatasetReplay.PROGRAM_NAME, DatasetReplay.class, DatasetReplay.PROGRAM_DESCRIPTION);
+
+    /* *********************************************************************************************
+     * ARCHIVE
+     **********************************************************************************************/
+      driver.addClass(DatasetArchiver.PROGRAM_NAME, DatasetArchiver.class, DatasetArchiver.PROGRAM_DESCRIPTION);
+
+    /* *********************************************************************************************
+     * METADATA
+     **********************************************************************************************/
+      driver.addClass(MetadataPublisher.PROGRAM_NAME, MetadataPublisher.class, MetadataPublisher.PROGRAM_DESCRIPTION);
+
       LOG.info("Running driver...");
 
       exitCode = driver.run(args);
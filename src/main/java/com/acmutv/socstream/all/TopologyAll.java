@@ -0,0 +1,270 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.all;
+
+import com.acmutv.socstream.common.meta.MatchRegistry;
+import com.acmutv.socstream.common.meta.MetadataReload;
+import com.acmutv.socstream.common.meta.SensorClass;
+import com.acmutv.socstream.common.operator.EventCounter;
+import com.acmutv.socstream.common.operator.EventMeter;
+import com.acmutv.socstream.common.operator.RichSensorEventFusion;
+import com.acmutv.socstream.common.operator.SensorFusion;
+import com.acmutv.socstream.common.operator.SubKeys;
+import com.acmutv.socstream.common.sink.encode.ResultFormat;
+import com.acmutv.socstream.common.sink.es.ESProperties;
+import com.acmutv.socstream.common.source.SourceType;
+import com.acmutv.socstream.common.source.kafka.KafkaProperties;
+import com.acmutv.socstream.common.tool.FieldGrid;
+import com.acmutv.socstream.common.tool.GridTool;
+import com.acmutv.socstream.common.tool.WindowTool;
+import com.acmutv.socstream.common.tuple.PositionSensorEvent;
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import com.acmutv.socstream.query1.TopologyQuery1;
+import com.acmutv.socstream.query1.operator.RichSensorEventKeyer;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatistics;
+import com.acmutv.socstream.query2.TopologyQuery2;
+import com.acmutv.socstream.query2.operator.SpeedSensorEventProjector;
+import com.acmutv.socstream.query2.tuple.PlayersSpeedRanking;
+import com.acmutv.socstream.query2.tuple.SpeedSensorEvent;
+import com.acmutv.socstream.query3.TopologyQuery3;
+import com.acmutv.socstream.query3.operator.PositionSensorEventProjector;
+import com.acmutv.socstream.query3.tuple.PlayerGridStatistics;
+import com.acmutv.socstream.tool.runtime.RuntimeManager;
+import org.apache.flink.api.common.JobExecutionResult;
+import org.apache.flink.api.java.utils.ParameterTool;
+import org.apache.flink.streaming.api.TimeCharacteristic;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The topology running all queries on a single source.
+ * Every record is fetched and parsed once, then projected in-process onto the events of each query.
+ * Query options are the ones of the single queries, optionally scoped by query
+ * (e.g. {@code --query2.windowSize 1} overrides {@code --windowSize 70} for query 2 only).
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see TopologyQuery1
+ * @see TopologyQuery2
+ * @see TopologyQuery3
+ * @see RuntimeManager
+ */
+public class TopologyAll {
+
+  /**
+   * The program name.
+   */
+  public static final String PROGRAM_NAME = "all";
+
+  /**
+   * The program description.
+   */
+  public static final String PROGRAM_DESCRIPTION = "Runs all queries on a single source";
+
+  /**
+   * The program main method.
+   * @param args the command line arguments.
+   */
+  public static void main(String[] args) throws Exception {
+
+    // CONFIGURATION
+    ParameterTool parameter = ParameterTool.fromArgs(args);
+    final String kafkaZookeeper = parameter.get("kafka.zookeeper", "localhost:2181");
+    final String kafkaBootstrap = parameter.get("kafka.bootstrap", "localhost:9092");
+    final String kafkaTopic = parameter.get("kafka.topic", "socstream");
+    final boolean kafkaSplit = parameter.getBoolean("kafka.split", false);
+    final String source = parameter.get("source", "kafka");
+    final SourceType sourceType = SourceType.fromName(source);
+    final double speedup = parameter.getDouble("speedup", 0);
+    final boolean bounded = parameter.getBoolean("bounded", sourceType == SourceType.FILE);
+    final Path metadataPath = FileSystems.getDefault().getPath(parameter.get("metadata", "./metadata.yml"));
+    final long matchStart = parameter.getLong("match.start", 10753295594424116L);
+    final long matchEnd = parameter.getLong("match.end", 14879639146403495L);
+    final long matchIntervalStart = parameter.getLong("match.interval.start", 12557295594424116L);
+    final long matchIntervalEnd = parameter.getLong("match.interval.end", 13086639146403495L);
+    final boolean fusion = parameter.getBoolean("fusion", false);
+    final long fusionSlot = parameter.getLong("fusion.slot", SensorFusion.DEFAULT_SLOT_LENGTH);
+    final int parallelism = parameter.getInt("parallelism", 1);
+    final long latencyInterval = parameter.getLong("latencyInterval", 2000);
+    final boolean objectReuse = parameter.getBoolean("objectReuse", false);
+
+    final ParameterTool query1 = scope(parameter, "query1");
+    final Path query1Output = FileSystems.getDefault().getPath(query1.get("output", TopologyQuery1.PROGRAM_NAME + ".out"));
+    final ResultFormat query1Format = ResultFormat.fromName(query1.get("format", ResultFormat.CSV.getName()));
+    final String query1Elasticsearch = query1.get("elasticsearch", null);
+    final String query1Windows = query1.get("windows", null);
+    final long query1WindowLengths[] = (query1Windows != null) ?
+        WindowTool.parseLengths(query1Windows) :
+        new long[]{TimeUnit.valueOf(query1.get("windowUnit", "MINUTES")).toMillis(query1.getLong("windowSize", 70))};
+    final SubKeys query1SubKeys = SubKeys.fromParameters(query1);
+
+    final ParameterTool query2 = scope(parameter, "query2");
+    final Path query2Output = FileSystems.getDefault().getPath(query2.get("output", TopologyQuery2.PROGRAM_NAME + ".out"));
+    final ResultFormat query2Format = ResultFormat.fromName(query2.get("format", ResultFormat.CSV.getName()));
+    final String query2Elasticsearch = query2.get("elasticsearch", null);
+    final long query2WindowSize = query2.getLong("windowSize", 70);
+    final TimeUnit query2WindowUnit = TimeUnit.valueOf(query2.get("windowUnit", "MINUTES"));
+    final int query2RankSize = query2.getInt("rankSize", 5);
+    final SubKeys query2SubKeys = SubKeys.fromParameters(query2);
+
+    final ParameterTool query3 = scope(parameter, "query3");
+    final Path query3Output = FileSystems.getDefault().getPath(query3.get("output", TopologyQuery3.PROGRAM_NAME + ".out"));
+    final ResultFormat query3Format = ResultFormat.fromName(query3.get("format", ResultFormat.CSV.getName()));
+    final String query3Elasticsearch = query3.get("elasticsearch", null);
+    final long query3WindowSize = query3.getLong("windowSize", 70);
+    final TimeUnit query3WindowUnit = TimeUnit.valueOf(query3.get("windowUnit", "MINUTES"));
+    final String query3Grids = query3.get("grids", GridTool.DEFAULT_GRID.getResolution());
+    final SubKeys query3SubKeys = SubKeys.fromParameters(query3);
+
+    final String matchesPath = parameter.get("matches", null);
+    final MatchRegistry matches = (matchesPath != null) ?
+        MatchRegistry.fromYamlFile(FileSystems.getDefault().getPath(matchesPath), source,
+            matchStart, matchEnd, matchIntervalStart, matchIntervalEnd) :
+        MatchRegistry.single(metadataPath, source, matchStart, matchEnd, matchIntervalStart, matchIntervalEnd);
+    final MetadataReload metadataReload = MetadataReload.fromParameters(parameter);
+    final FieldGrid[] grids = FieldGrid.parse(matches.getField(), query3Grids);
+
+    // ENVIRONMENT
+    final StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+    env.setStreamTimeCharacteristic(TimeCharacteristic.EventTime);
+    env.getConfig().setLatencyTrackingInterval(latencyInterval);
+    if (objectReuse) {
+      env.getConfig().enableObjectReuse();
+    }
+    final KafkaProperties kafkaProps = new KafkaProperties(kafkaBootstrap);
+
+    // CONFIGURATION RESUME
+    System.out.println("############################################################################");
+    System.out.printf("%s\n", PROGRAM_NAME);
+    System.out.println("----------------------------------------------------------------------------");
+    System.out.printf("%s\n", PROGRAM_DESCRIPTION);
+    System.out.println("****************************************************************************");
+    System.out.println("Kafka Zookeeper: " + kafkaZookeeper);
+    System.out.println("Kafka Bootstrap: " + kafkaBootstrap);
+    System.out.println("Kafka Topic: " + (kafkaSplit ? SensorClass.PLAYERS.topic(kafkaTopic) : kafkaTopic));
+    System.out.println("Source: " + source);
+    if (sourceType == SourceType.FILE) {
+      System.out.println("Speedup: " + ((speedup == 0) ? "max" : speedup + "x"));
+    }
+    System.out.println("Bounded: " + bounded);
+    System.out.println("Metadata: " + ((matchesPath != null) ? matchesPath : metadataPath));
+    System.out.println("Match Start: " + matchStart);
+    System.out.println("Match End: " + matchEnd);
+    System.out.println("Match Interval Start: " + matchIntervalStart);
+    System.out.println("Match Interval End: " + matchIntervalEnd);
+    System.out.println("Matches: " + matches);
+    System.out.println("Metadata Reload: " + metadataReload.describe());
+    System.out.println("Fusion: " + (fusion ? fusionSlot + " ms" : "disabled"));
+    System.out.println("Parallelism: " + parallelism);
+    System.out.println("Latency Tracking: " + ((latencyInterval > 0) ? latencyInterval + " ms" : "disabled"));
+    System.out.println("Object Reuse: " + objectReuse);
+    System.out.println("Query 1 Output: " + query1Output + " (" + query1Format.getName() + ")");
+    System.out.println("Query 1 Elasticsearch: " + query1Elasticsearch);
+    System.out.println("Query 1 Windows: " + Arrays.toString(query1WindowLengths) + " ms");
+    System.out.println("Query 1 Sub-keys: " + query1SubKeys.describe());
+    System.out.println("Query 2 Output: " + query2Output + " (" + query2Format.getName() + ")");
+    System.out.println("Query 2 Elasticsearch: " + query2Elasticsearch);
+    System.out.println("Query 2 Window: " + query2WindowSize + " " + query2WindowUnit);
+    System.out.println("Query 2 Rank Size: " + query2RankSize);
+    System.out.println("Query 2 Sub-keys: " + query2SubKeys.describe());
+    System.out.println("Query 3 Output: " + query3Output + " (" + query3Format.getName() + ")");
+    System.out.println("Query 3 Elasticsearch: " + query3Elasticsearch);
+    System.out.println("Query 3 Window: " + query3WindowSize + " " + query3WindowUnit);
+    System.out.println("Query 3 Grids: " + Arrays.toString(grids));
+    System.out.println("Query 3 Sub-keys: " + query3SubKeys.describe());
+    System.out.println("############################################################################");
+
+    // TOPOLOGY
+    DataStream<RichSensorEvent> sensorEvents = null;
+    for (MatchRegistry.Entry match : matches) {
+      final DataStream<RichSensorEvent> matchEvents =
+          TopologyQuery1.source(env, match, kafkaTopic, kafkaSplit, kafkaProps, metadataReload, speedup, bounded,
+              parallelism);
+      sensorEvents = (sensorEvents == null) ? matchEvents : sensorEvents.union(matchEvents);
+    }
+
+    sensorEvents = sensorEvents.map(new EventMeter<>(new RichSensorEventKeyer())).setParallelism(parallelism);
+
+    if (bounded) {
+      sensorEvents = sensorEvents.map(new EventCounter<>()).setParallelism(parallelism);
+    }
+
+    DataStream<RichSensorEvent> playerEvents = sensorEvents;
+    if (fusion) {
+      playerEvents = sensorEvents.keyBy(new RichSensorEventKeyer())
+          .process(new RichSensorEventFusion(fusionSlot))
+          .setParallelism(parallelism);
+    }
+
+    DataStream<PlayerRunningStatistics> query1Statistics =
+        TopologyQuery1.topology(playerEvents, query1WindowLengths, parallelism, query1SubKeys);
+    TopologyQuery1.sink(query1Statistics, query1Output, query1Format, ESProperties.fromParameters(query1));
+
+    DataStream<SpeedSensorEvent> speedEvents = sensorEvents.map(new SpeedSensorEventProjector())
+        .setParallelism(parallelism);
+    DataStream<PlayersSpeedRanking> query2Ranking =
+        TopologyQuery2.topology(speedEvents, query2WindowSize, query2WindowUnit, query2RankSize, parallelism, query2SubKeys);
+    TopologyQuery2.sink(query2Ranking, query2Output, query2Format, ESProperties.fromParameters(query2));
+
+    DataStream<PositionSensorEvent> positionEvents = playerEvents.map(new PositionSensorEventProjector())
+        .setParallelism(parallelism);
+    DataStream<PlayerGridStatistics> query3Statistics =
+        TopologyQuery3.topology(positionEvents, query3WindowSize, query3WindowUnit, grids, parallelism, query3SubKeys);
+    TopologyQuery3.sink(query3Statistics, grids, query3Output, query3Format, ESProperties.fromParameters(query3));
+
+    // EXECUTION
+    final JobExecutionResult result = env.execute(PROGRAM_NAME);
+    if (bounded) {
+      System.out.println(EventCounter.summary(result));
+    }
+  }
+
+  /**
+   * Returns the options of a query: options scoped by the query (e.g. {@code query1.output})
+   * override the unscoped ones (e.g. {@code output}).
+   * @param parameter the program options.
+   * @param query the query scope (e.g. {@code query1}).
+   * @return the query options.
+   */
+  static ParameterTool scope(ParameterTool parameter, String query) {
+    final String prefix = query + ".";
+    final Map<String,String> options = new HashMap<>(parameter.toMap());
+    for (Map.Entry<String,String> option : parameter.toMap().entrySet()) {
+      if (option.getKey().startsWith(prefix)) {
+        options.put(option.getKey().substring(prefix.length()), option.getValue());
+      }
+    }
+    return ParameterTool.fromMap(options);
+  }
+}
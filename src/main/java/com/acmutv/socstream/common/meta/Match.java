@@ -66,6 +66,9 @@ public class Match {
    */
   private Team teamB = new Team("2");
 
-
+  /**
+   * The pitch bounds.
+   */
+  private Field field = new Field();
 
 }
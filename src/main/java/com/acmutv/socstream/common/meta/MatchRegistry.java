@@ -0,0 +1,286 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+
+package com.acmutv.socstream.common.meta;
+
+import com.acmutv.socstream.common.source.SourceType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import lombok.Data;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The registry of the matches processed by a job.
+ * A single-match job registers the match {@link PlayerKey#NO_MATCH}; a multi-match job registers
+ * the matches listed in a YAML file:
+ * <pre>
+ * matches:
+ *   - id: 1
+ *     metadata: match-1.yml
+ *     source: file:match-1.txt
+ *     match.start: 10753295594424116
+ * </pre>
+ * where {@code metadata} is the match metadata (see {@link MatchService}) and every other field is
+ * optional, defaulting to the job options. Relative paths are resolved against the registry file.
+ * Sensors of every match are mapped to player keys (see {@link PlayerKey}), so that players of
+ * different matches never share a key.
+ * All matches must be played on fields of the same size.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see PlayerKey
+ */
+@Data
+public class MatchRegistry implements Iterable<MatchRegistry.Entry> {
+
+  /**
+   * The registered matches.
+   */
+  private final List<Entry> entries;
+
+  /**
+   * Creates a new registry.
+   * @param entries the registered matches.
+   * @throws IllegalArgumentException when there is no match, match ids are not unique or fields differ.
+   */
+  public MatchRegistry(List<Entry> entries) {
+    if (entries.isEmpty()) {
+      throw new IllegalArgumentException("No match registered");
+    }
+    final Set<Integer> ids = new HashSet<>();
+    for (Entry entry : entries) {
+      if (!ids.add(entry.getId())) {
+        throw new IllegalArgumentException("Duplicate match id: " + entry.getId());
+      }
+      if (!entry.getMatch().getField().equals(entries.get(0).getMatch().getField())) {
+        throw new IllegalArgumentException("The field of match " + entry.getId() + " differs from the field of match " + entries.get(0).getId());
+      }
+    }
+    this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+  }
+
+  /**
+   * Creates the registry of a single-match job.
+   * @param metadataPath the match metadata.
+   * @param source the source.
+   * @param start the match start (events before this will be ignored).
+   * @param end the match end (events after this will be ignored).
+   * @param intervalStart the halftime start.
+   * @param intervalEnd the halftime end.
+   * @return the registry.
+   * @throws IOException when metadata cannot be read.
+   */
+  public static MatchRegistry single(Path metadataPath, String source, long start, long end,
+                                     long intervalStart, long intervalEnd) throws IOException {
+    return new MatchRegistry(Collections.singletonList(new Entry(PlayerKey.NO_MATCH, metadataPath,
+        MatchService.fromYamlFile(metadataPath), source, start, end, intervalStart, intervalEnd)));
+  }
+
+  /**
+   * Parses the registry of a multi-match job from the given file.
+   * @param path the registry file.
+   * @param source the default source.
+   * @param start the default match start.
+   * @param end the default match end.
+   * @param intervalStart the default halftime start.
+   * @param intervalEnd the default halftime end.
+   * @return the registry.
+   * @throws IOException when the registry or match metadata cannot be read.
+   * @throws IllegalArgumentException when the registry is not valid.
+   */
+  public static MatchRegistry fromYamlFile(Path path, String source, long start, long end,
+                                           long intervalStart, long intervalEnd) throws IOException {
+    final JsonNode root;
+    try (Reader rd = Files.newBufferedReader(path, Charset.defaultCharset())) {
+      root = new YAMLMapper().readTree(rd);
+    }
+    if (root == null || !root.hasNonNull("matches")) {
+      throw new IllegalArgumentException("No matches in registry: " + path);
+    }
+    final Path dir = path.toAbsolutePath().getParent();
+    final List<Entry> entries = new ArrayList<>();
+    final Iterator<JsonNode> iter = root.get("matches").elements();
+    while (iter.hasNext()) {
+      final JsonNode node = iter.next();
+      if (!node.hasNonNull("id") || !node.hasNonNull("metadata")) {
+        throw new IllegalArgumentException("Missing id or metadata in registry entry: " + node);
+      }
+      final int id = node.get("id").asInt();
+      if (id <= PlayerKey.NO_MATCH || id > PlayerKey.MAX_MATCH_ID) {
+        throw new IllegalArgumentException("Invalid match id: " + id);
+      }
+      final Path metadataPath = dir.resolve(node.get("metadata").asText());
+      final Match match = MatchService.fromYamlFile(metadataPath);
+      String matchSource = node.hasNonNull("source") ? node.get("source").asText() : source;
+      if (node.hasNonNull("source") && SourceType.fromName(matchSource) == SourceType.FILE) {
+        matchSource = SourceType.FILE.getName() + ":" + dir.resolve(SourceType.argument(matchSource));
+      }
+      entries.add(new Entry(id, metadataPath, match, matchSource,
+          node.hasNonNull("match.start") ? node.get("match.start").asLong() : start,
+          node.hasNonNull("match.end") ? node.get("match.end").asLong() : end,
+          node.hasNonNull("match.interval.start") ? node.get("match.interval.start").asLong() : intervalStart,
+          node.hasNonNull("match.interval.end") ? node.get("match.interval.end").asLong() : intervalEnd));
+    }
+    return new MatchRegistry(entries);
+  }
+
+  /**
+   * Returns the field all matches are played on.
+   * @return the field.
+   */
+  public Field getField() {
+    return this.entries.get(0).getMatch().getField();
+  }
+
+  /**
+   * Returns the number of registered matches.
+   * @return the number of registered matches.
+   */
+  public int size() {
+    return this.entries.size();
+  }
+
+  @Override
+  public Iterator<Entry> iterator() {
+    return this.entries.iterator();
+  }
+
+  @Override
+  public String toString() {
+    if (this.entries.size() == 1 && this.entries.get(0).getId() == PlayerKey.NO_MATCH) {
+      return this.entries.get(0).getSensors().toString();
+    }
+    StringBuilder sb = new StringBuilder("[");
+    for (Entry entry : this.entries) {
+      if (sb.length() > 1) sb.append("; ");
+      sb.append(entry.getId()).append(": ").append(entry.getSource())
+          .append(" (").append(entry.getStart()).append("-").append(entry.getEnd()).append(")");
+    }
+    return sb.append(']').toString();
+  }
+
+  /**
+   * A registered match.
+   */
+  @Data
+  public static class Entry {
+
+    /**
+     * The match id.
+     */
+    private final int id;
+
+    /**
+     * The match metadata path.
+     */
+    private final Path metadataPath;
+
+    /**
+     * The match metadata.
+     */
+    private final Match match;
+
+    /**
+     * The source (e.g. {@code kafka} or {@code file:match-1.txt}).
+     */
+    private final String source;
+
+    /**
+     * The match start (events before this will be ignored).
+     */
+    private final long start;
+
+    /**
+     * The match end (events after this will be ignored).
+     */
+    private final long end;
+
+    /**
+     * The halftime start (events between this and {@code intervalEnd} will be ignored).
+     */
+    private final long intervalStart;
+
+    /**
+     * The halftime end (events between {@code intervalStart} and this will be ignored).
+     */
+    private final long intervalEnd;
+
+    /**
+     * The sensor directory, mapping sensors to player keys.
+     */
+    private final SensorDirectory sensors;
+
+    /**
+     * Creates a new registered match.
+     * @param id the match id.
+     * @param metadataPath the match metadata path.
+     * @param match the match metadata.
+     * @param source the source.
+     * @param start the match start.
+     * @param end the match end.
+     * @param intervalStart the halftime start.
+     * @param intervalEnd the halftime end.
+     */
+    public Entry(int id, Path metadataPath, Match match, String source, long start, long end,
+                 long intervalStart, long intervalEnd) {
+      this.id = id;
+      this.metadataPath = metadataPath;
+      this.match = match;
+      this.source = source;
+      this.start = start;
+      this.end = end;
+      this.intervalStart = intervalStart;
+      this.intervalEnd = intervalEnd;
+      this.sensors = MatchService.collectSensorDirectory(match, id);
+    }
+
+    /**
+     * Returns the Kafka topic of the match: {@code <topic>.<id>} (e.g. {@code socstream.7}), or the
+     * base topic itself for {@link PlayerKey#NO_MATCH}; split streams append the players class
+     * (e.g. {@code socstream.7.players}, see {@link SensorClass#topic(String)}).
+     * @param topic the base topic.
+     * @param split true, if the stream is split by sensor class.
+     * @return the topic of the match.
+     */
+    public String topic(String topic, boolean split) {
+      final String matchTopic = (this.id == PlayerKey.NO_MATCH) ? topic : topic + "." + this.id;
+      return split ? SensorClass.PLAYERS.topic(matchTopic) : matchTopic;
+    }
+  }
+}
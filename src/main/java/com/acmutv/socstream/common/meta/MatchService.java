@@ -133,4 +133,97 @@ public class MatchService {
 
     return sid2Pid;
   }
+
+  /**
+   * Collects the sensor directory, mapping every sensor to its player, team and role.
+   * Player ids are assigned as in {@link #collectSid2Pid(Match)}; ignored sensors are the ones
+   * returned by {@link #collectIgnoredSensors(Match)}.
+   * @param match the metdata about the match.
+   * @return the sensor directory.
+   */
+  public static SensorDirectory collectSensorDirectory(Match match) {
+    return collectSensorDirectory(match, PlayerKey.NO_MATCH);
+  }
+
+  /**
+   * Collects the sensor directory of a match among many, mapping every sensor to its player key
+   * (see {@link PlayerKey}), team and role.
+   * Player ids are assigned as in {@link #collectSid2Pid(Match)}; ignored sensors are the ones
+   * returned by {@link #collectIgnoredSensors(Match)}.
+   * @param match the metdata about the match.
+   * @param matchId the match id.
+   * @return the sensor directory.
+   */
+  public static SensorDirectory collectSensorDirectory(Match match, int matchId) {
+    SensorDirectory directory = new SensorDirectory(0);
+
+    for (Long sensor : match.getBallsHalf1()) {
+      if (sensor == null) continue;
+      directory.register(sensor, SensorDirectory.NO_PID, SensorDirectory.NO_TEAM, SensorRole.BALL, true);
+    }
+    for (Long sensor : match.getBallsHalf2()) {
+      if (sensor == null) continue;
+      directory.register(sensor, SensorDirectory.NO_PID, SensorDirectory.NO_TEAM, SensorRole.BALL, true);
+    }
+
+    registerPerson(directory, match.getReferee(), SensorDirectory.NO_PID, SensorDirectory.NO_TEAM, true);
+
+    registerTeam(directory, match.getTeamA(), PlayerKey.of(matchId, 100), SensorDirectory.TEAM_A);
+    registerTeam(directory, match.getTeamB(), PlayerKey.of(matchId, 200), SensorDirectory.TEAM_B);
+
+    return directory;
+  }
+
+  /**
+   * Registers the sensors of all players in a team.
+   * The first player is the goalkeeper, whose arm sensors are ignored.
+   * @param directory the sensor directory.
+   * @param team the team.
+   * @param firstPid the PID (or player key) of the first player.
+   * @param teamIdx the team index.
+   */
+  private static void registerTeam(SensorDirectory directory, Team team, long firstPid, byte teamIdx) {
+    long pid = firstPid;
+    boolean goalkeeper = true;
+    for (Person player : team.getPlayers()) {
+      registerPerson(directory, player, pid, teamIdx, goalkeeper);
+      goalkeeper = false;
+      pid++;
+    }
+  }
+
+  /**
+   * Registers the sensors of a person.
+   * @param directory the sensor directory.
+   * @param person the person.
+   * @param pid the PID.
+   * @param teamIdx the team index.
+   * @param ignoreArms true, if arm sensors must be ignored.
+   */
+  private static void registerPerson(SensorDirectory directory, Person person, long pid, byte teamIdx,
+                                     boolean ignoreArms) {
+    final boolean ignoreLegs = pid == SensorDirectory.NO_PID;
+    if (person.getLegLeft() != null) {
+      directory.register(person.getLegLeft(), pid, teamIdx, role(pid, SensorRole.LEG), ignoreLegs);
+    }
+    if (person.getLegRight() != null) {
+      directory.register(person.getLegRight(), pid, teamIdx, role(pid, SensorRole.LEG), ignoreLegs);
+    }
+    if (person.getArmLeft() != null) {
+      directory.register(person.getArmLeft(), pid, teamIdx, role(pid, SensorRole.ARM), ignoreArms);
+    }
+    if (person.getArmRight() != null) {
+      directory.register(person.getArmRight(), pid, teamIdx, role(pid, SensorRole.ARM), ignoreArms);
+    }
+  }
+
+  /**
+   * Returns the role of a person sensor: sensors not attached to players belong to the referee.
+   * @param pid the PID.
+   * @param limb the role for player sensors.
+   * @return the sensor role.
+   */
+  private static SensorRole role(long pid, SensorRole limb) {
+    return (pid == SensorDirectory.NO_PID) ? SensorRole.REFEREE : limb;
+  }
 }
@@ -0,0 +1,99 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+
+package com.acmutv.socstream.common.meta;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Watches the metadata file of a match, applying it whenever it is modified.
+ * Every task manager running a source instance must see the file (e.g. on a shared file system).
+ * A file modified after job submission is applied as soon as the watcher opens, so that restarted
+ * jobs pick up the latest metadata.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see MetadataWatcher
+ */
+public class MetadataFileWatcher extends MetadataWatcher {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The metadata path.
+   */
+  private final String path;
+
+  /**
+   * The last modification time of the applied metadata (ms).
+   */
+  private long lastModified;
+
+  /**
+   * Creates a new watcher of the given file.
+   * @param matchId the match id.
+   * @param field the field of the match.
+   * @param sensors the sensor directory at job submission.
+   * @param path the metadata path.
+   * @param interval the polling interval (ms).
+   * @throws IOException when the file cannot be read.
+   */
+  public MetadataFileWatcher(int matchId, Field field, SensorDirectory sensors, Path path, long interval)
+      throws IOException {
+    super(matchId, field, sensors, interval);
+    this.path = path.toAbsolutePath().toString();
+    this.lastModified = Files.getLastModifiedTime(path).toMillis();
+  }
+
+  @Override
+  protected void poll() throws Exception {
+    final Path file = Paths.get(this.path);
+    try {
+      final long modified = Files.getLastModifiedTime(file).toMillis();
+      if (modified != this.lastModified) {
+        this.lastModified = modified;
+        try (InputStream in = Files.newInputStream(file)) {
+          super.update(in);
+        }
+      }
+    } catch (NoSuchFileException exc) {
+      // being replaced
+    }
+    Thread.sleep(super.getInterval());
+  }
+
+  @Override
+  public String toString() {
+    return "file:" + this.path;
+  }
+}
@@ -0,0 +1,139 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+
+package com.acmutv.socstream.common.meta;
+
+import com.acmutv.socstream.common.source.kafka.MetadataKafkaWatcher;
+import lombok.Data;
+import org.apache.flink.api.java.utils.ParameterTool;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Properties;
+
+/**
+ * The hot reload of match metadata: sources either watch the metadata file of every match
+ * ({@code metadata.watch}) or a Kafka control topic ({@code metadata.topic}), named after the match as
+ * data topics (see {@link MatchRegistry.Entry#topic(String, boolean)}).
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see MetadataWatcher
+ */
+@Data
+public class MetadataReload implements Serializable {
+
+  /**
+   * True, to watch metadata files.
+   */
+  private final boolean watch;
+
+  /**
+   * The base control topic, or null.
+   */
+  private final String topic;
+
+  /**
+   * The polling interval (ms).
+   */
+  private final long interval;
+
+  /**
+   * Creates a new {@link MetadataReload}.
+   * @param watch true, to watch metadata files.
+   * @param topic the base control topic, or null.
+   * @param interval the polling interval (ms).
+   * @throws IllegalArgumentException when both files and a topic are watched, or the interval is not positive.
+   */
+  public MetadataReload(boolean watch, String topic, long interval) {
+    if (watch && topic != null) {
+      throw new IllegalArgumentException("Metadata can be reloaded either from files or from a topic");
+    }
+    if (interval < 1) {
+      throw new IllegalArgumentException("The metadata polling interval must be positive: " + interval);
+    }
+    this.watch = watch;
+    this.topic = topic;
+    this.interval = interval;
+  }
+
+  /**
+   * Returns the reload with metadata frozen at job submission.
+   * @return the disabled reload.
+   */
+  public static MetadataReload none() {
+    return new MetadataReload(false, null, MetadataWatcher.DEFAULT_INTERVAL);
+  }
+
+  /**
+   * Parses the reload from the program parameters ({@code metadata.watch}, {@code metadata.topic}
+   * and {@code metadata.interval}).
+   * @param parameter the program parameters.
+   * @return the reload.
+   */
+  public static MetadataReload fromParameters(ParameterTool parameter) {
+    return new MetadataReload(parameter.getBoolean("metadata.watch", false), parameter.get("metadata.topic", null),
+        parameter.getLong("metadata.interval", MetadataWatcher.DEFAULT_INTERVAL));
+  }
+
+  /**
+   * Checks if metadata is reloaded.
+   * @return true, if metadata is reloaded; false, otherwise.
+   */
+  public boolean isEnabled() {
+    return this.watch || this.topic != null;
+  }
+
+  /**
+   * Creates the watcher of the given match.
+   * @param match the match.
+   * @param kafkaProps the Kafka properties.
+   * @return the watcher, or null if metadata is not reloaded.
+   * @throws IOException when the metadata file cannot be read.
+   */
+  public MetadataWatcher watcher(MatchRegistry.Entry match, Properties kafkaProps) throws IOException {
+    if (this.watch) {
+      return new MetadataFileWatcher(match.getId(), match.getMatch().getField(), match.getSensors(),
+          match.getMetadataPath(), this.interval);
+    } else if (this.topic != null) {
+      return new MetadataKafkaWatcher(match.getId(), match.getMatch().getField(), match.getSensors(),
+          match.topic(this.topic, false), kafkaProps, this.interval);
+    }
+    return null;
+  }
+
+  /**
+   * Describes the reload.
+   * @return the description.
+   */
+  public String describe() {
+    if (this.watch) return "file (every " + this.interval + " ms)";
+    if (this.topic != null) return "topic " + this.topic + " (every " + this.interval + " ms)";
+    return "disabled";
+  }
+}
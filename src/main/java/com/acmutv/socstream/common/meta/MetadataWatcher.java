@@ -0,0 +1,247 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+
+package com.acmutv.socstream.common.meta;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+
+/**
+ * Watches for updates of the metadata of a match while a source runs, so that sensor swaps and
+ * substitutions do not need a job restart.
+ * Every source instance opens its own watcher, which polls for new metadata (in the
+ * {@link MatchService} YAML format) in a background thread, and replaces the sensor directory
+ * with a single reference swap: readers see either the old or the new directory, never a mix.
+ * Invalid metadata and metadata of a different field are logged and discarded.
+ * Players are numbered by their position in their team (see {@link MatchService#collectSid2Pid(Match)}),
+ * so substitutes must be appended to the team for the other players to keep their ids.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see MetadataFileWatcher
+ */
+public abstract class MetadataWatcher implements Serializable, Closeable {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(MetadataWatcher.class);
+
+  /**
+   * The default polling interval (ms).
+   */
+  public static final long DEFAULT_INTERVAL = 1000;
+
+  /**
+   * The match id (see {@link PlayerKey}).
+   */
+  private final int matchId;
+
+  /**
+   * The field of the match.
+   */
+  private final Field field;
+
+  /**
+   * The polling interval (ms).
+   */
+  private final long interval;
+
+  /**
+   * The sensor directory at job submission.
+   */
+  private final SensorDirectory initial;
+
+  /**
+   * The current sensor directory.
+   */
+  private transient volatile SensorDirectory sensors;
+
+  /**
+   * The number of applied updates.
+   */
+  private transient volatile long updates;
+
+  /**
+   * True, while the watcher is running.
+   */
+  private transient volatile boolean running;
+
+  /**
+   * The polling thread.
+   */
+  private transient Thread thread;
+
+  /**
+   * Creates a new watcher.
+   * @param matchId the match id.
+   * @param field the field of the match.
+   * @param sensors the sensor directory at job submission.
+   * @param interval the polling interval (ms).
+   */
+  protected MetadataWatcher(int matchId, Field field, SensorDirectory sensors, long interval) {
+    if (interval <= 0) throw new IllegalArgumentException("interval must be positive");
+    this.matchId = matchId;
+    this.field = field;
+    this.initial = sensors;
+    this.interval = interval;
+  }
+
+  /**
+   * Starts watching.
+   * @param name the name of the polling thread.
+   */
+  public void open(String name) {
+    this.sensors = this.initial;
+    this.running = true;
+    this.thread = new Thread(this::watch, name);
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /**
+   * Returns the current sensor directory.
+   * @return the current sensor directory.
+   */
+  public SensorDirectory getSensors() {
+    final SensorDirectory current = this.sensors;
+    return (current != null) ? current : this.initial;
+  }
+
+  /**
+   * Returns the number of applied updates.
+   * @return the number of applied updates.
+   */
+  public long getUpdates() {
+    return this.updates;
+  }
+
+  /**
+   * Returns the polling interval.
+   * @return the polling interval (ms).
+   */
+  public long getInterval() {
+    return this.interval;
+  }
+
+  /**
+   * Checks if the watcher is running.
+   * @return true, if the watcher is running; false, otherwise.
+   */
+  protected boolean isRunning() {
+    return this.running;
+  }
+
+  /**
+   * Polls for new metadata, applying it with {@link #update(InputStream)}.
+   * Called repeatedly by the polling thread, it should block for about the polling interval.
+   * @throws Exception when metadata cannot be polled (the watcher keeps polling).
+   */
+  protected abstract void poll() throws Exception;
+
+  /**
+   * Releases the resources of the polling thread, once it stops.
+   */
+  protected void release() {
+  }
+
+  /**
+   * Applies new metadata.
+   * @param in the metadata, in the {@link MatchService} YAML format.
+   * @return true, if the metadata has been applied; false, if it has been discarded.
+   */
+  public boolean update(InputStream in) {
+    final Match match;
+    try {
+      match = MatchService.fromYamlFile(in);
+    } catch (IOException | RuntimeException exc) {
+      LOG.warn("Discarded invalid metadata of match {}: {}", this.matchId, exc.getMessage());
+      return false;
+    }
+    if (this.field != null && !this.field.equals(match.getField())) {
+      LOG.warn("Discarded metadata of match {}: field {} differs from {}", this.matchId, match.getField(), this.field);
+      return false;
+    }
+    final SensorDirectory updated = MatchService.collectSensorDirectory(match, this.matchId);
+    if (updated.equals(this.getSensors())) {
+      return false;
+    }
+    this.sensors = updated;
+    this.updates++;
+    LOG.info("Updated sensors of match {}: {}", this.matchId, updated);
+    return true;
+  }
+
+  /**
+   * The loop of the polling thread.
+   */
+  private void watch() {
+    try {
+      while (this.running) {
+        try {
+          this.poll();
+        } catch (InterruptedException exc) {
+          break;
+        } catch (Exception exc) {
+          LOG.warn("Cannot poll metadata of match {}: {}", this.matchId, exc.getMessage());
+          try {
+            Thread.sleep(this.interval);
+          } catch (InterruptedException ignored) {
+            break;
+          }
+        }
+      }
+    } finally {
+      this.release();
+    }
+  }
+
+  /**
+   * Stops watching.
+   */
+  @Override
+  public void close() {
+    this.running = false;
+    if (this.thread != null) {
+      this.thread.interrupt();
+      try {
+        this.thread.join(this.interval);
+      } catch (InterruptedException exc) {
+        Thread.currentThread().interrupt();
+      }
+      this.thread = null;
+    }
+  }
+}
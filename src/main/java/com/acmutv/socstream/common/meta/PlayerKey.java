@@ -0,0 +1,100 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+
+package com.acmutv.socstream.common.meta;
+
+/**
+ * The composite key (match id, player id) of a player, packed into a long so that it can be carried
+ * wherever a player id is (events, keys, state and results).
+ * The match id takes the 32 high-order bits and the player id the 32 low-order ones; in the match
+ * {@link #NO_MATCH} (a single-match job) the key is the player id itself.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see MatchRegistry
+ */
+public final class PlayerKey {
+
+  /**
+   * The match id of a single-match job.
+   */
+  public static final int NO_MATCH = 0;
+
+  /**
+   * The greatest match id (keys times a few sub-keys must still fit a long).
+   */
+  public static final int MAX_MATCH_ID = (1 << 24) - 1;
+
+  /**
+   * The number of bits of the player id.
+   */
+  private static final int PID_BITS = 32;
+
+  /**
+   * The mask of the player id.
+   */
+  private static final long PID_MASK = (1L << PID_BITS) - 1;
+
+  private PlayerKey() { }
+
+  /**
+   * Returns the key of a player in a match.
+   * @param matchId the match id.
+   * @param pid the player id, or {@link SensorDirectory#NO_PID}.
+   * @return the player key, or {@link SensorDirectory#NO_PID}.
+   * @throws IllegalArgumentException when the match id or the player id is out of range.
+   */
+  public static long of(int matchId, long pid) {
+    if (matchId < NO_MATCH || matchId > MAX_MATCH_ID) {
+      throw new IllegalArgumentException("Invalid match id: " + matchId);
+    }
+    if (pid == SensorDirectory.NO_PID) return SensorDirectory.NO_PID;
+    if (pid < 0 || pid > PID_MASK) {
+      throw new IllegalArgumentException("Invalid player id: " + pid);
+    }
+    return ((long) matchId << PID_BITS) | pid;
+  }
+
+  /**
+   * Returns the match id of a player key.
+   * @param key the player key.
+   * @return the match id.
+   */
+  public static int matchId(long key) {
+    return (int) (key >>> PID_BITS);
+  }
+
+  /**
+   * Returns the player id of a player key.
+   * @param key the player key.
+   * @return the player id.
+   */
+  public static long pid(long key) {
+    return key & PID_MASK;
+  }
+}
@@ -0,0 +1,241 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.meta;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A compact, direct-indexed lookup table from sensor id (SID) to player id (PID), team and role.
+ * Sensor ids are small dense integers, so lookups are plain array accesses and never allocate.
+ * Unknown sensor ids are reported as ignored.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see MatchService#collectSensorDirectory(Match)
+ */
+public class SensorDirectory implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The PID for sensors not attached to any player.
+   */
+  public static final long NO_PID = -1;
+
+  /**
+   * The team index for sensors not attached to any team.
+   */
+  public static final byte NO_TEAM = 0;
+
+  /**
+   * The team index for the hosting team.
+   */
+  public static final byte TEAM_A = 1;
+
+  /**
+   * The team index for the hosted team.
+   */
+  public static final byte TEAM_B = 2;
+
+  /**
+   * The flag marking a registered sensor.
+   */
+  private static final byte FLAG_REGISTERED = 1;
+
+  /**
+   * The flag marking an ignored sensor.
+   */
+  private static final byte FLAG_IGNORED = 2;
+
+  /**
+   * The map (SID)->(PID).
+   */
+  private long[] pids;
+
+  /**
+   * The map (SID)->(team index).
+   */
+  private byte[] teams;
+
+  /**
+   * The map (SID)->(role ordinal).
+   */
+  private byte[] roles;
+
+  /**
+   * The map (SID)->(flags).
+   */
+  private byte[] flags;
+
+  /**
+   * Creates an empty directory.
+   * @param capacity the initial capacity (greatest expected SID + 1).
+   */
+  public SensorDirectory(int capacity) {
+    this.pids = new long[capacity];
+    this.teams = new byte[capacity];
+    this.roles = new byte[capacity];
+    this.flags = new byte[capacity];
+    Arrays.fill(this.pids, NO_PID);
+  }
+
+  /**
+   * Registers a sensor.
+   * @param sid the sensor id.
+   * @param pid the player id, or {@link #NO_PID}.
+   * @param team the team index.
+   * @param role the sensor role.
+   * @param ignored true, if events from the sensor must be ignored.
+   */
+  public void register(long sid, long pid, byte team, SensorRole role, boolean ignored) {
+    if (sid < 0 || sid > Integer.MAX_VALUE - 1) {
+      throw new IllegalArgumentException("Invalid sensor id: " + sid);
+    }
+    final int idx = (int) sid;
+    if (idx >= this.pids.length) {
+      this.grow(idx + 1);
+    }
+    this.pids[idx] = pid;
+    this.teams[idx] = team;
+    this.roles[idx] = (byte) role.ordinal();
+    this.flags[idx] = (byte) (FLAG_REGISTERED | (ignored ? FLAG_IGNORED : 0));
+  }
+
+  /**
+   * Checks if events from the given sensor must be ignored.
+   * @param sid the sensor id.
+   * @return true, if the sensor is ignored or unknown; false, otherwise.
+   */
+  public boolean isIgnored(long sid) {
+    return sid < 0 || sid >= this.flags.length || this.flags[(int) sid] != FLAG_REGISTERED;
+  }
+
+  /**
+   * Checks if the given sensor is registered.
+   * @param sid the sensor id.
+   * @return true, if the sensor is registered; false, otherwise.
+   */
+  public boolean isRegistered(long sid) {
+    return sid >= 0 && sid < this.flags.length && (this.flags[(int) sid] & FLAG_REGISTERED) != 0;
+  }
+
+  /**
+   * Returns the player id of the given sensor.
+   * @param sid the sensor id.
+   * @return the player id, or {@link #NO_PID}.
+   */
+  public long getPid(long sid) {
+    return (sid < 0 || sid >= this.pids.length) ? NO_PID : this.pids[(int) sid];
+  }
+
+  /**
+   * Returns the team index of the given sensor.
+   * @param sid the sensor id.
+   * @return the team index, or {@link #NO_TEAM}.
+   */
+  public byte getTeam(long sid) {
+    return (sid < 0 || sid >= this.teams.length) ? NO_TEAM : this.teams[(int) sid];
+  }
+
+  /**
+   * Returns the role of the given sensor.
+   * @param sid the sensor id.
+   * @return the sensor role.
+   */
+  public SensorRole getRole(long sid) {
+    return (sid < 0 || sid >= this.roles.length) ? SensorRole.UNKNOWN : SensorRole.fromOrdinal(this.roles[(int) sid]);
+  }
+
+  /**
+   * Returns the class of traffic of the given sensor.
+   * Ball and referee sensors have their own class; any other ignored or unknown sensor is
+   * {@link SensorClass#IGNORED}.
+   * @param sid the sensor id.
+   * @return the sensor class.
+   */
+  public SensorClass getSensorClass(long sid) {
+    switch (this.getRole(sid)) {
+      case BALL:
+        return SensorClass.BALL;
+      case REFEREE:
+        return SensorClass.REFEREE;
+      default:
+        return this.isIgnored(sid) ? SensorClass.IGNORED : SensorClass.PLAYERS;
+    }
+  }
+
+  /**
+   * Returns the capacity of the directory (greatest registrable SID + 1).
+   * @return the capacity.
+   */
+  public int capacity() {
+    return this.pids.length;
+  }
+
+  /**
+   * Grows the directory to the given capacity.
+   * @param capacity the new capacity.
+   */
+  private void grow(int capacity) {
+    final int oldCapacity = this.pids.length;
+    this.pids = Arrays.copyOf(this.pids, capacity);
+    this.teams = Arrays.copyOf(this.teams, capacity);
+    this.roles = Arrays.copyOf(this.roles, capacity);
+    this.flags = Arrays.copyOf(this.flags, capacity);
+    Arrays.fill(this.pids, oldCapacity, capacity, NO_PID);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) return true;
+    if (!(obj instanceof SensorDirectory)) return false;
+    SensorDirectory other = (SensorDirectory) obj;
+    return Arrays.equals(this.pids, other.pids)
+        && Arrays.equals(this.teams, other.teams)
+        && Arrays.equals(this.roles, other.roles)
+        && Arrays.equals(this.flags, other.flags);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(this.pids) * 31 + Arrays.hashCode(this.flags);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("[");
+    for (int sid = 0; sid < this.flags.length; sid++) {
+      if ((this.flags[sid] & FLAG_REGISTERED) == 0) continue;
+      if (sb.length() > 1) sb.append(',');
+      sb.append(sid).append("->").append(this.pids[sid]);
+      if ((this.flags[sid] & FLAG_IGNORED) != 0) sb.append('!');
+    }
+    return sb.append(']').toString();
+  }
+}
@@ -143,6 +143,15 @@ public class MatchMetadataConfigurationDeserializer extends StdDeserializer<Matc
       match.setTeamB(team);
     }
 
+    if (node.hasNonNull("field")) {
+      JsonNode nField = node.get("field");
+      Field field = match.getField();
+      if (nField.hasNonNull("x.min")) field.setXMin(nField.get("x.min").asLong());
+      if (nField.hasNonNull("x.max")) field.setXMax(nField.get("x.max").asLong());
+      if (nField.hasNonNull("y.min")) field.setYMin(nField.get("y.min").asLong());
+      if (nField.hasNonNull("y.max")) field.setYMax(nField.get("y.max").asLong());
+    }
+
     return match;
   }
 }
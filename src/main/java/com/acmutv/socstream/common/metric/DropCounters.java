@@ -0,0 +1,101 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.metric;
+
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.metrics.SimpleCounter;
+
+/**
+ * The counters of discarded sensor events, one per {@link DropReason}.
+ * Counters are registered in the metric group {@code dropped} of an operator (e.g. {@code dropped.malformed}),
+ * or kept locally when no metric group is available (e.g. in tests).
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see DropReason
+ */
+public class DropCounters {
+
+  /**
+   * The name of the metric group.
+   */
+  public static final String GROUP = "dropped";
+
+  /**
+   * The counters, indexed by reason ordinal.
+   */
+  private final Counter[] counters = new Counter[DropReason.values().length];
+
+  /**
+   * Creates new local counters.
+   */
+  public DropCounters() {
+    for (DropReason reason : DropReason.values()) {
+      this.counters[reason.ordinal()] = new SimpleCounter();
+    }
+  }
+
+  /**
+   * Creates new counters registered in the given metric group.
+   * @param group the operator metric group.
+   */
+  public DropCounters(MetricGroup group) {
+    final MetricGroup dropped = group.addGroup(GROUP);
+    for (DropReason reason : DropReason.values()) {
+      this.counters[reason.ordinal()] = dropped.counter(reason.getName());
+    }
+  }
+
+  /**
+   * Counts a discarded event.
+   * @param reason the reason.
+   */
+  public void inc(DropReason reason) {
+    this.counters[reason.ordinal()].inc();
+  }
+
+  /**
+   * Returns the number of events discarded for the given reason.
+   * @param reason the reason.
+   * @return the number of discarded events.
+   */
+  public long getCount(DropReason reason) {
+    return this.counters[reason.ordinal()].getCount();
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder string = new StringBuilder();
+    for (DropReason reason : DropReason.values()) {
+      if (string.length() > 0) string.append(", ");
+      string.append(reason.getName()).append("=").append(this.getCount(reason));
+    }
+    return string.toString();
+  }
+}
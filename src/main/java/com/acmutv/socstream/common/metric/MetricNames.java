@@ -0,0 +1,68 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.metric;
+
+/**
+ * The names of the metrics registered by operators.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public final class MetricNames {
+
+  /**
+   * The number of windows fired by a window operator.
+   */
+  public static final String WINDOW_FIRES = "windowFires";
+
+  /**
+   * The number of results written by a sink.
+   */
+  public static final String RESULTS = "results";
+
+  /**
+   * The rate of results written by a sink (per second).
+   */
+  public static final String RESULTS_PER_SECOND = "resultsPerSecond";
+
+  /**
+   * The number of bytes written by a sink.
+   */
+  public static final String BYTES_WRITTEN = "bytesWritten";
+
+  /**
+   * The number of documents sent to Elasticsearch.
+   */
+  public static final String DOCUMENTS = "documents";
+
+  /**
+   * The number of metadata updates applied by a source.
+   */
+  public static final String METADATA_UPDATES = "metadataUpdates";
+
+  private MetricNames() {}
+}
@@ -0,0 +1,78 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+
+package com.acmutv.socstream.common.operator;
+
+import org.apache.flink.api.common.functions.AggregateFunction;
+import org.apache.flink.api.java.tuple.Tuple2;
+
+/**
+ * The aggregator that combines the partial aggregates (pid,accumulator) of a player, as computed by
+ * {@link PartialAggregator}, into the result of an aggregator.
+ * The merge of the aggregator must be independent of the order of partial aggregates, and must
+ * merge its second argument into the first one.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see SubKeys
+ */
+public class CombiningAggregator<ACC,OUT> implements AggregateFunction<Tuple2<Long,ACC>,ACC,OUT> {
+
+  /**
+   * The aggregator.
+   */
+  private final AggregateFunction<?,ACC,OUT> aggregator;
+
+  /**
+   * Creates a new {@link CombiningAggregator}.
+   * @param aggregator the aggregator.
+   */
+  public CombiningAggregator(AggregateFunction<?,ACC,OUT> aggregator) {
+    this.aggregator = aggregator;
+  }
+
+  @Override
+  public ACC createAccumulator() {
+    return this.aggregator.createAccumulator();
+  }
+
+  @Override
+  public void add(Tuple2<Long,ACC> partial, ACC accumulator) {
+    this.aggregator.merge(accumulator, partial.f1);
+  }
+
+  @Override
+  public OUT getResult(ACC accumulator) {
+    return this.aggregator.getResult(accumulator);
+  }
+
+  @Override
+  public ACC merge(ACC a, ACC b) {
+    return this.aggregator.merge(a, b);
+  }
+}
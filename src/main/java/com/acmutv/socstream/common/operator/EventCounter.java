@@ -0,0 +1,77 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.operator;
+
+import org.apache.flink.api.common.JobExecutionResult;
+import org.apache.flink.api.common.accumulators.LongCounter;
+import org.apache.flink.api.common.functions.RichMapFunction;
+import org.apache.flink.configuration.Configuration;
+
+/**
+ * A map that counts the events it forwards in a job accumulator, so that bounded runs can report
+ * their throughput.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class EventCounter<T> extends RichMapFunction<T,T> {
+
+  /**
+   * The name of the accumulator.
+   */
+  public static final String ACCUMULATOR = "events";
+
+  /**
+   * The number of forwarded events.
+   */
+  private final LongCounter events = new LongCounter();
+
+  @Override
+  public void open(Configuration parameters) throws Exception {
+    super.getRuntimeContext().addAccumulator(ACCUMULATOR, this.events);
+  }
+
+  @Override
+  public T map(T value) throws Exception {
+    this.events.add(1L);
+    return value;
+  }
+
+  /**
+   * Summarizes the runtime and the throughput of a terminated job.
+   * @param result the job result.
+   * @return the summary.
+   */
+  public static String summary(JobExecutionResult result) {
+    final Long events = result.getAccumulatorResult(ACCUMULATOR);
+    final long count = (events != null) ? events : 0L;
+    final double seconds = result.getNetRuntime() / 1000.0;
+    return String.format("Runtime: %.3f s | Events: %d | Throughput: %.0f events/s",
+        seconds, count, (seconds > 0) ? count / seconds : 0.0);
+  }
+}
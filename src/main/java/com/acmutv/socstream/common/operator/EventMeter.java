@@ -0,0 +1,112 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.operator;
+
+import org.apache.flink.api.common.functions.RichMapFunction;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Meter;
+import org.apache.flink.metrics.MeterView;
+import org.apache.flink.metrics.MetricGroup;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A map that meters the events it forwards: overall ({@code eventsPerSecond}) and per player
+ * ({@code player.<pid>.eventsPerSecond}), averaged over the last {@link #TIME_SPAN} seconds.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class EventMeter<T> extends RichMapFunction<T,T> {
+
+  /**
+   * The name of the meters.
+   */
+  public static final String METER = "eventsPerSecond";
+
+  /**
+   * The name of the metric group of player meters.
+   */
+  public static final String PLAYER_GROUP = "player";
+
+  /**
+   * The time span (seconds) of the meters.
+   */
+  public static final int TIME_SPAN = 60;
+
+  /**
+   * The key selector, extracting the player id.
+   */
+  private final KeySelector<T,Long> keyer;
+
+  /**
+   * The metric group of player meters.
+   */
+  private transient MetricGroup playerGroup;
+
+  /**
+   * The overall meter.
+   */
+  private transient Meter events;
+
+  /**
+   * The player meters, created on the first event of each player.
+   */
+  private transient Map<Long,Meter> playerEvents;
+
+  /**
+   * Creates a new event meter.
+   * @param keyer the key selector, extracting the player id.
+   */
+  public EventMeter(KeySelector<T,Long> keyer) {
+    this.keyer = keyer;
+  }
+
+  @Override
+  public void open(Configuration parameters) throws Exception {
+    final MetricGroup group = super.getRuntimeContext().getMetricGroup();
+    this.events = group.meter(METER, new MeterView(TIME_SPAN));
+    this.playerGroup = group.addGroup(PLAYER_GROUP);
+    this.playerEvents = new HashMap<>();
+  }
+
+  @Override
+  public T map(T value) throws Exception {
+    this.events.markEvent();
+    final Long pid = this.keyer.getKey(value);
+    Meter player = this.playerEvents.get(pid);
+    if (player == null) {
+      player = this.playerGroup.addGroup(String.valueOf(pid)).meter(METER, new MeterView(TIME_SPAN));
+      this.playerEvents.put(pid, player);
+    }
+    player.markEvent();
+    return value;
+  }
+}
@@ -0,0 +1,75 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+
+package com.acmutv.socstream.common.operator;
+
+import org.apache.flink.api.common.functions.AggregateFunction;
+
+/**
+ * The aggregator that computes the partial aggregate of an aggregator, i.e. its accumulator,
+ * to be combined with the other partial aggregates of the same key (see {@link CombiningAggregator}).
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see SubKeys
+ */
+public class PartialAggregator<IN,ACC> implements AggregateFunction<IN,ACC,ACC> {
+
+  /**
+   * The aggregator.
+   */
+  private final AggregateFunction<IN,ACC,?> aggregator;
+
+  /**
+   * Creates a new {@link PartialAggregator}.
+   * @param aggregator the aggregator.
+   */
+  public PartialAggregator(AggregateFunction<IN,ACC,?> aggregator) {
+    this.aggregator = aggregator;
+  }
+
+  @Override
+  public ACC createAccumulator() {
+    return this.aggregator.createAccumulator();
+  }
+
+  @Override
+  public void add(IN value, ACC accumulator) {
+    this.aggregator.add(value, accumulator);
+  }
+
+  @Override
+  public ACC getResult(ACC accumulator) {
+    return accumulator;
+  }
+
+  @Override
+  public ACC merge(ACC a, ACC b) {
+    return this.aggregator.merge(a, b);
+  }
+}
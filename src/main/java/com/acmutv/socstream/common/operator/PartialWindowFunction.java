@@ -0,0 +1,96 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+
+package com.acmutv.socstream.common.operator;
+
+import com.acmutv.socstream.common.metric.MetricNames;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.SimpleCounter;
+import org.apache.flink.streaming.api.functions.windowing.RichWindowFunction;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.util.Collector;
+
+/**
+ * The operator that emits the partial aggregate of a sub-key window as (pid,accumulator).
+ * When the job enables object reuse, the partial aggregates are emitted into a single instance.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see SubKeys
+ */
+public class PartialWindowFunction<ACC> extends RichWindowFunction<ACC,Tuple2<Long,ACC>,Long,TimeWindow> {
+
+  /**
+   * The number of sub-keys per player.
+   */
+  private final int count;
+
+  /**
+   * The number of fired windows.
+   */
+  private transient Counter windowFires = new SimpleCounter();
+
+  /**
+   * The reused partial aggregate, if object reuse is enabled.
+   */
+  private transient Tuple2<Long,ACC> reuse;
+
+  /**
+   * Creates a new {@link PartialWindowFunction}.
+   * @param count the number of sub-keys per player.
+   */
+  public PartialWindowFunction(int count) {
+    this.count = count;
+  }
+
+  @Override
+  public void open(Configuration parameters) throws Exception {
+    this.windowFires = super.getRuntimeContext().getMetricGroup().counter(MetricNames.WINDOW_FIRES);
+    this.reuse = super.getRuntimeContext().getExecutionConfig().isObjectReuseEnabled() ? new Tuple2<>() : null;
+  }
+
+  /**
+   * Evaluates the window and outputs none or several elements.
+   *
+   * @param key    The key for which this window is evaluated.
+   * @param window The window that is being evaluated.
+   * @param inputs The elements in the window being evaluated.
+   * @param out    A collector for emitting elements.
+   * @throws Exception The function may throw exceptions to fail the program and trigger recovery.
+   */
+  @Override
+  public void apply(Long key, TimeWindow window, Iterable<ACC> inputs, Collector<Tuple2<Long,ACC>> out) throws Exception {
+    this.windowFires.inc();
+    final Tuple2<Long,ACC> partial = (this.reuse != null) ? this.reuse : new Tuple2<>();
+    partial.f0 = SubKeyer.pid(key, this.count);
+    partial.f1 = inputs.iterator().next();
+    out.collect(partial);
+  }
+}
@@ -0,0 +1,161 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.operator;
+
+import com.acmutv.socstream.common.tuple.PositionSensorEvent;
+import com.acmutv.socstream.common.tuple.SensorFusionSlot;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.functions.ProcessFunction;
+import org.apache.flink.util.Collector;
+
+/**
+ * The operator that fuses the readings of a player's sensors (legs and, for goalkeepers, arms)
+ * into a single track, emitting one event per player per time slot.
+ * It must be applied to a stream keyed by player id (PID).
+ * A slot is emitted as soon as a reading of a later slot arrives, or when the watermark passes
+ * its end; readings of already emitted slots are discarded.
+ * When the job enables object reuse, the fused events are emitted into a single instance.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see SensorFusionSlot
+ */
+public abstract class SensorFusion<T extends PositionSensorEvent> extends ProcessFunction<T,T> {
+
+  /**
+   * The default slot length (ms), one sample period at 200Hz.
+   */
+  public static final long DEFAULT_SLOT_LENGTH = 5;
+
+  /**
+   * The factor for milli to pico conversion.
+   */
+  private static final long MILLI_TO_PICO = 1000000000L;
+
+  /**
+   * The slot length (picoseconds).
+   */
+  private final long slotLength;
+
+  /**
+   * The per-player open slot.
+   */
+  private transient ValueState<SensorFusionSlot> state;
+
+  /**
+   * The reused fused event, if object reuse is enabled.
+   */
+  private transient T reuse;
+
+  /**
+   * True, if the fused event instance is reused.
+   */
+  private transient boolean objectReuse;
+
+  /**
+   * Creates a new operator.
+   * @param slotLength the slot length (ms).
+   */
+  public SensorFusion(long slotLength) {
+    if (slotLength <= 0) {
+      throw new IllegalArgumentException("Invalid slot length: " + slotLength);
+    }
+    this.slotLength = slotLength * MILLI_TO_PICO;
+  }
+
+  /**
+   * Returns the fused event of a slot.
+   * @param slot the non-empty slot.
+   * @param reuse the event to fill, or null to create a new one.
+   * @return the fused event.
+   */
+  protected abstract T fuse(SensorFusionSlot slot, T reuse);
+
+  @Override
+  public void open(Configuration parameters) throws Exception {
+    this.state = super.getRuntimeContext().getState(
+        new ValueStateDescriptor<>("slot", SensorFusionSlot.class));
+    this.objectReuse = super.getRuntimeContext().getExecutionConfig().isObjectReuseEnabled();
+  }
+
+  @Override
+  public void processElement(T event, Context ctx, Collector<T> out) throws Exception {
+    final long index = event.getTs() / this.slotLength;
+    SensorFusionSlot slot = this.state.value();
+
+    if (slot == null) {
+      slot = new SensorFusionSlot();
+      slot.reset(index);
+    } else if (index < slot.getSlot()) {
+      return;
+    } else if (index > slot.getSlot()) {
+      if (!slot.isEmpty()) {
+        this.emit(slot, out);
+      }
+      slot.reset(index);
+    }
+
+    if (slot.isEmpty()) {
+      ctx.timerService().registerEventTimeTimer(this.slotEnd(index));
+    }
+    slot.add(event);
+
+    this.state.update(slot);
+  }
+
+  @Override
+  public void onTimer(long timestamp, OnTimerContext ctx, Collector<T> out) throws Exception {
+    final SensorFusionSlot slot = this.state.value();
+    if (slot == null || slot.isEmpty() || this.slotEnd(slot.getSlot()) > timestamp) return;
+
+    this.emit(slot, out);
+    slot.reset(slot.getSlot() + 1);
+    this.state.update(slot);
+  }
+
+  /**
+   * Emits the fused event of a slot.
+   * @param slot the non-empty slot.
+   * @param out the collector.
+   */
+  private void emit(SensorFusionSlot slot, Collector<T> out) {
+    final T event = this.fuse(slot, this.reuse);
+    if (this.objectReuse) this.reuse = event;
+    out.collect(event);
+  }
+
+  /**
+   * Returns the end of a slot, as event time.
+   * @param index the slot index.
+   * @return the slot end (ms).
+   */
+  private long slotEnd(long index) {
+    return ((index + 1) * this.slotLength + MILLI_TO_PICO - 1) / MILLI_TO_PICO;
+  }
+}
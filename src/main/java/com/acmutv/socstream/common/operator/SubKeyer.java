@@ -0,0 +1,103 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+
+package com.acmutv.socstream.common.operator;
+
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.streaming.api.functions.timestamps.AscendingTimestampExtractor;
+
+/**
+ * A keyselector that splits the events of a player over a fixed number of sub-keys, by slices of
+ * event time: slice {@code i} of player {@code pid} is keyed by {@code pid * count + i % count}.
+ * Every slice is contiguous in time and entirely owned by a sub-key, so that partial aggregates
+ * of slices can be combined per player even by order-sensitive aggregations.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see SubKeys
+ */
+public class SubKeyer<T> implements KeySelector<T,Long> {
+
+  /**
+   * The player keyer.
+   */
+  private final KeySelector<T,Long> keyer;
+
+  /**
+   * The event timestamp extractor.
+   */
+  private final AscendingTimestampExtractor<T> timestamps;
+
+  /**
+   * The number of sub-keys per player.
+   */
+  private final int count;
+
+  /**
+   * The slice length (ms).
+   */
+  private final long slice;
+
+  /**
+   * Creates a new {@link SubKeyer}.
+   * @param keyer the player keyer.
+   * @param timestamps the event timestamp extractor.
+   * @param count the number of sub-keys per player.
+   * @param slice the slice length (ms).
+   */
+  public SubKeyer(KeySelector<T,Long> keyer, AscendingTimestampExtractor<T> timestamps, int count, long slice) {
+    this.keyer = keyer;
+    this.timestamps = timestamps;
+    this.count = count;
+    this.slice = slice;
+  }
+
+  /**
+   * Extracts the sub-key of the event.
+   *
+   * @param value The object to get the key from.
+   * @return The extracted key.
+   * @throws Exception Throwing an exception will cause the execution of the respective task to fail,
+   *                   and trigger recovery or cancellation of the program.
+   */
+  @Override
+  public Long getKey(T value) throws Exception {
+    final long slice = Math.floorDiv(this.timestamps.extractAscendingTimestamp(value), this.slice);
+    return this.keyer.getKey(value) * this.count + Math.floorMod(slice, (long) this.count);
+  }
+
+  /**
+   * Returns the player id of a sub-key.
+   * @param subKey the sub-key.
+   * @param count the number of sub-keys per player.
+   * @return the player id.
+   */
+  public static long pid(long subKey, int count) {
+    return Math.floorDiv(subKey, (long) count);
+  }
+}
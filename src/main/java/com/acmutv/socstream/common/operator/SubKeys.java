@@ -0,0 +1,174 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+
+package com.acmutv.socstream.common.operator;
+
+import lombok.Data;
+import org.apache.flink.api.common.functions.AggregateFunction;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.typeutils.TupleTypeInfo;
+import org.apache.flink.api.java.utils.ParameterTool;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.functions.timestamps.AscendingTimestampExtractor;
+import org.apache.flink.streaming.api.windowing.time.Time;
+
+import java.io.Serializable;
+
+/**
+ * The sub-key splitting of per-player aggregations.
+ * As queries key by player id, a keyed aggregation can use no more parallel instances than players.
+ * With sub-keys, the aggregation is split in two stages: the first stage keys events by sub-key
+ * (see {@link SubKeyer}) and computes the partial aggregates (pid,accumulator) of every slice of
+ * event time; the second stage keys partial aggregates by player (see {@link PartialKeyer}) and
+ * combines them at window end.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see SubKeyer
+ */
+@Data
+public class SubKeys implements Serializable {
+
+  public static final int COUNT_DEFAULT = 1;
+
+  public static final long SLICE_DEFAULT = 1000;
+
+  /**
+   * The number of sub-keys per player (1 means no splitting).
+   */
+  private final int count;
+
+  /**
+   * The slice length (ms).
+   */
+  private final long slice;
+
+  /**
+   * Creates a new {@link SubKeys}.
+   * @param count the number of sub-keys per player (1 means no splitting).
+   * @param slice the slice length (ms).
+   * @throws IllegalArgumentException when {@code count} or {@code slice} is not positive.
+   */
+  public SubKeys(int count, long slice) {
+    if (count < 1) {
+      throw new IllegalArgumentException("The number of sub-keys must be positive: " + count);
+    }
+    if (slice < 1) {
+      throw new IllegalArgumentException("The sub-key slice must be positive: " + slice);
+    }
+    this.count = count;
+    this.slice = slice;
+  }
+
+  /**
+   * Returns the sub-keys with no splitting.
+   * @return the sub-keys with no splitting.
+   */
+  public static SubKeys none() {
+    return new SubKeys(COUNT_DEFAULT, SLICE_DEFAULT);
+  }
+
+  /**
+   * Parses the sub-keys from the program parameters ({@code subkeys} and {@code subkeys.slice}).
+   * @param parameter the program parameters.
+   * @return the sub-keys.
+   */
+  public static SubKeys fromParameters(ParameterTool parameter) {
+    return new SubKeys(parameter.getInt("subkeys", COUNT_DEFAULT), parameter.getLong("subkeys.slice", SLICE_DEFAULT));
+  }
+
+  /**
+   * Checks if the aggregation is split.
+   * @return true, if the aggregation is split; false, otherwise.
+   */
+  public boolean isEnabled() {
+    return this.count > 1;
+  }
+
+  /**
+   * Checks that slices align with windows (or panes) of the given length.
+   * @param length the window length (ms).
+   * @throws IllegalArgumentException when the slice does not divide {@code length}.
+   */
+  public void checkAligned(long length) {
+    if (length % this.slice != 0) {
+      throw new IllegalArgumentException(String.format(
+          "The sub-key slice (%d ms) must divide the window length (%d ms)", this.slice, length));
+    }
+  }
+
+  /**
+   * Builds the first stage of a split aggregation: the partial aggregates (pid,accumulator) of
+   * every slice of event time, per sub-key.
+   * @param events the timestamped events.
+   * @param keyer the player keyer.
+   * @param timestamps the event timestamp extractor.
+   * @param aggregator the aggregator.
+   * @param accumulatorClass the accumulator class.
+   * @param length the window (or pane) length (ms) the second stage combines slices into.
+   * @param parallelism the parallelism.
+   * @param <T> the event type.
+   * @param <ACC> the accumulator type.
+   * @return the partial aggregates.
+   * @throws IllegalArgumentException when the slice does not divide {@code length}.
+   */
+  public <T,ACC> DataStream<Tuple2<Long,ACC>> partials(DataStream<T> events, KeySelector<T,Long> keyer,
+                                                       AscendingTimestampExtractor<T> timestamps,
+                                                       AggregateFunction<T,ACC,?> aggregator,
+                                                       Class<ACC> accumulatorClass, long length,
+                                                       int parallelism) {
+    this.checkAligned(length);
+    final TypeInformation<ACC> accumulatorType = TypeInformation.of(accumulatorClass);
+    return events.keyBy(new SubKeyer<>(keyer, timestamps, this.count, this.slice))
+        .timeWindow(Time.milliseconds(this.slice))
+        .aggregate(new PartialAggregator<>(aggregator), new PartialWindowFunction<>(this.count),
+            accumulatorType, accumulatorType, partialType(accumulatorType))
+        .setParallelism(parallelism);
+  }
+
+  /**
+   * Returns the type of partial aggregates (pid,accumulator).
+   * @param accumulatorType the accumulator type.
+   * @param <ACC> the accumulator type.
+   * @return the type of partial aggregates.
+   */
+  public static <ACC> TypeInformation<Tuple2<Long,ACC>> partialType(TypeInformation<ACC> accumulatorType) {
+    return new TupleTypeInfo<>(BasicTypeInfo.LONG_TYPE_INFO, accumulatorType);
+  }
+
+  /**
+   * Returns the sub-keys, for display.
+   * @return the sub-keys.
+   */
+  public String describe() {
+    return this.isEnabled() ? String.format("%d per player (%d ms slices)", this.count, this.slice) : "disabled";
+  }
+}
@@ -0,0 +1,249 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.producer;
+
+import com.acmutv.socstream.common.source.SensorEventBinaryFormat;
+import com.acmutv.socstream.common.tuple.PositionSensorEvent;
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import com.acmutv.socstream.query2.tuple.SpeedSensorEvent;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.PartitionInfo;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A Kafka producer publishing sensor events in {@link SensorEventBinaryFormat}.
+ * Records have no key, so the value is the only payload on the wire.
+ * Like {@link StringKafkaProducer}, it offers a replay mode (see {@link ReplayOptions}), used by
+ * {@link DatasetReplay} with {@code --format binary}; there, the {@link ReplayOptions.KeyMode#SID}
+ * key is the 4-byte sensor id of the record.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class BinaryKafkaProducer {
+
+  private Producer<byte[],byte[]> producer;
+
+  /**
+   * The record key.
+   */
+  private ReplayOptions.KeyMode keyMode;
+
+  /**
+   * The window of records sent but not yet acknowledged.
+   */
+  private Semaphore inFlight;
+
+  /**
+   * The callback releasing the in-flight window.
+   */
+  private Callback callback;
+
+  /**
+   * The number of acknowledged records.
+   */
+  private final AtomicLong acked = new AtomicLong();
+
+  /**
+   * The number of failed records.
+   */
+  private final AtomicLong failed = new AtomicLong();
+
+  public BinaryKafkaProducer(String bootstrapServers) {
+    Properties props = new Properties();
+    props.put("bootstrap.servers", bootstrapServers);
+    props.put("acks", "all");
+    props.put("retries", 0);
+    props.put("batch.size", 16384);
+    props.put("linger.ms", 1);
+    props.put("buffer.memory", 33554432);
+    props.put("key.serializer", "org.apache.kafka.common.serialization.ByteArraySerializer");
+    props.put("value.serializer", "org.apache.kafka.common.serialization.ByteArraySerializer");
+    this.producer = new KafkaProducer<>(props);
+    this.keyMode = ReplayOptions.KeyMode.NONE;
+  }
+
+  /**
+   * Creates a producer in replay mode.
+   * @param bootstrapServers the Kafka bootstrap servers.
+   * @param options the replay options.
+   */
+  public BinaryKafkaProducer(String bootstrapServers, ReplayOptions options) {
+    this(createProducer(bootstrapServers, options), options);
+  }
+
+  /**
+   * Creates a producer in replay mode, publishing through the given Kafka producer.
+   * @param producer the Kafka producer.
+   * @param options the replay options.
+   */
+  BinaryKafkaProducer(Producer<byte[],byte[]> producer, ReplayOptions options) {
+    this.producer = producer;
+    this.keyMode = options.getKeyMode();
+    this.inFlight = new Semaphore(options.getMaxInFlight());
+    this.callback = (RecordMetadata metadata, Exception exc) -> {
+      if (exc == null) {
+        this.acked.incrementAndGet();
+      } else {
+        this.failed.incrementAndGet();
+      }
+      this.inFlight.release();
+    };
+  }
+
+  /**
+   * Creates a Kafka producer for the replay mode.
+   * @param bootstrapServers the Kafka bootstrap servers.
+   * @param options the replay options.
+   * @return the Kafka producer.
+   */
+  private static Producer<byte[],byte[]> createProducer(String bootstrapServers, ReplayOptions options) {
+    Properties props = new Properties();
+    props.put("bootstrap.servers", bootstrapServers);
+    props.put("acks", options.getAcks());
+    props.put("retries", 0);
+    props.put("batch.size", options.getBatchSize());
+    props.put("linger.ms", options.getLingerMs());
+    props.put("buffer.memory", options.getBufferMemory());
+    props.put("compression.type", options.getCompression());
+    props.put("key.serializer", "org.apache.kafka.common.serialization.ByteArraySerializer");
+    props.put("value.serializer", "org.apache.kafka.common.serialization.ByteArraySerializer");
+    return new KafkaProducer<>(props);
+  }
+
+  /**
+   * Publishes a rich record.
+   * The event id is expected to be the sensor id (SID).
+   * @param topic the topic.
+   * @param event the event.
+   */
+  public void send(String topic, RichSensorEvent event) {
+    this.send(topic, SensorEventBinaryFormat.encode(event));
+  }
+
+  /**
+   * Publishes a position record.
+   * The event id is expected to be the sensor id (SID).
+   * @param topic the topic.
+   * @param event the event.
+   */
+  public void sendPosition(String topic, PositionSensorEvent event) {
+    this.send(topic, SensorEventBinaryFormat.encodePosition(event));
+  }
+
+  /**
+   * Publishes a speed record.
+   * The event id is expected to be the sensor id (SID).
+   * @param topic the topic.
+   * @param event the event.
+   */
+  public void sendSpeed(String topic, SpeedSensorEvent event) {
+    this.send(topic, SensorEventBinaryFormat.encodeSpeed(event));
+  }
+
+  private void send(String topic, byte[] record) {
+    this.producer.send(new ProducerRecord<byte[],byte[]>(topic, record));
+  }
+
+  /**
+   * Publishes a record, blocking while the in-flight window is full.
+   * @param topic the topic.
+   * @param record the record, in {@link SensorEventBinaryFormat}.
+   * @throws InterruptedException when interrupted while waiting for the in-flight window.
+   */
+  public void sendRecord(String topic, byte[] record) throws InterruptedException {
+    final byte[] key;
+    switch (this.keyMode) {
+      case SID: key = Arrays.copyOfRange(record, SensorEventBinaryFormat.OFFSET_SID, SensorEventBinaryFormat.OFFSET_TS); break;
+      case RECORD: key = record; break;
+      default: key = null; break;
+    }
+    this.send(new ProducerRecord<>(topic, key, record));
+  }
+
+  /**
+   * Publishes a record to every partition of a topic, blocking while the in-flight window is full.
+   * @param topic the topic.
+   * @param record the record.
+   * @return the number of partitions.
+   * @throws InterruptedException when interrupted while waiting for the in-flight window.
+   */
+  public int sendToAllPartitions(String topic, byte[] record) throws InterruptedException {
+    final List<PartitionInfo> partitions = this.producer.partitionsFor(topic);
+    for (PartitionInfo partition : partitions) {
+      this.send(new ProducerRecord<>(topic, partition.partition(), null, record));
+    }
+    return partitions.size();
+  }
+
+  /**
+   * Publishes a record, within the in-flight window in replay mode.
+   * @param record the record.
+   * @throws InterruptedException when interrupted while waiting for the in-flight window.
+   */
+  private void send(ProducerRecord<byte[],byte[]> record) throws InterruptedException {
+    if (this.inFlight == null) {
+      this.producer.send(record);
+    } else {
+      this.inFlight.acquire();
+      this.producer.send(record, this.callback);
+    }
+  }
+
+  /**
+   * Returns the number of acknowledged records (replay mode only).
+   * @return the number of acknowledged records.
+   */
+  public long getAcked() {
+    return this.acked.get();
+  }
+
+  /**
+   * Returns the number of failed records (replay mode only).
+   * @return the number of failed records.
+   */
+  public long getFailed() {
+    return this.failed.get();
+  }
+
+  public void flush() {
+    this.producer.flush();
+  }
+
+  public void close() {
+    this.producer.close();
+  }
+}
@@ -0,0 +1,228 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+package com.acmutv.socstream.common.producer;
+
+import com.acmutv.socstream.common.meta.MatchService;
+import com.acmutv.socstream.common.meta.SensorClass;
+import com.acmutv.socstream.common.meta.SensorDirectory;
+import com.acmutv.socstream.common.source.SensorEventBinaryFormat;
+import com.acmutv.socstream.common.source.SensorEventParser;
+import org.apache.flink.api.java.utils.ParameterTool;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Replays a dataset file on a Kafka topic, optionally paced at a multiple of match speed.
+ * This is the load generator for the topologies.
+ * With {@code --split}, records are routed by sensor class (see {@link SensorClass}) to the topics
+ * {@code <topic>.players}, {@code <topic>.ball}, {@code <topic>.referee} and {@code <topic>.ignored},
+ * so that queries only fetch player traffic.
+ * With {@code --format binary}, records are published as rich records in {@link SensorEventBinaryFormat}
+ * (to be read with {@code --source kafka-binary}), instead of CSV strings; records with a field out of
+ * the int range of the format are skipped and counted in the summary.
+ * Unless {@code --eos false}, the replay ends with an end-of-stream record ({@link #END_OF_STREAM},
+ * or {@link #binaryEndOfStream()} with {@code --format binary})
+ * on every partition of every topic, so that bounded queries stop even on partitions that received
+ * no event after the match end.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see StringKafkaProducer
+ * @see BinaryKafkaProducer
+ * @see ReplayOptions
+ */
+public class DatasetReplay {
+
+  /**
+   * The program name.
+   */
+  public static final String PROGRAM_NAME = "replay";
+
+  /**
+   * The program description.
+   */
+  public static final String PROGRAM_DESCRIPTION = "Replays a dataset file on a Kafka topic";
+
+  /**
+   * The end-of-stream record, later than any match end (and still within the parser limits).
+   */
+  public static final String END_OF_STREAM = "0,999999999999999999,0,0,0,0,0,0,0,0,0,0,0";
+
+  /**
+   * Returns the end-of-stream record in {@link SensorEventBinaryFormat}, that is {@link #END_OF_STREAM}
+   * as a rich record, which binary schemas read as any other event after the match end.
+   * @return the end-of-stream rich record.
+   */
+  public static byte[] binaryEndOfStream() {
+    final SensorEventParser parser = new SensorEventParser();
+    parser.parse(END_OF_STREAM.getBytes(StandardCharsets.US_ASCII));
+    return SensorEventBinaryFormat.encode(parser);
+  }
+
+  /**
+   * The CSV format.
+   */
+  public static final String FORMAT_CSV = "csv";
+
+  /**
+   * The binary format (see {@link SensorEventBinaryFormat}).
+   */
+  public static final String FORMAT_BINARY = "binary";
+
+  /**
+   * The program main method.
+   * @param args the command line arguments.
+   */
+  public static void main(String[] args) throws Exception {
+
+    // CONFIGURATION
+    ParameterTool parameter = ParameterTool.fromArgs(args);
+    final String kafkaBootstrap = parameter.get("kafka.bootstrap", "localhost:9092");
+    final String kafkaTopic = parameter.get("kafka.topic", "socstream");
+    final Path datasetPath = FileSystems.getDefault().getPath(parameter.getRequired("dataset"));
+    final boolean split = parameter.getBoolean("split", false);
+    final boolean eos = parameter.getBoolean("eos", true);
+    final String format = parameter.get("format", FORMAT_CSV);
+    if (!FORMAT_CSV.equals(format) && !FORMAT_BINARY.equals(format)) {
+      throw new IllegalArgumentException("Invalid format: " + format + " (expected csv or binary)");
+    }
+    final boolean binary = FORMAT_BINARY.equals(format);
+    final Path metadataPath = FileSystems.getDefault().getPath(parameter.get("metadata", "./metadata.yml"));
+    final SensorDirectory sensors = split ?
+        MatchService.collectSensorDirectory(MatchService.fromYamlFile(metadataPath)) : null;
+    final ReplayOptions options = new ReplayOptions();
+    options.setBatchSize(parameter.getInt("batchSize", options.getBatchSize()));
+    options.setLingerMs(parameter.getInt("lingerMs", options.getLingerMs()));
+    options.setBufferMemory(parameter.getLong("bufferMemory", options.getBufferMemory()));
+    options.setCompression(parameter.get("compression", options.getCompression()));
+    options.setAcks(parameter.get("acks", options.getAcks()));
+    options.setKeyMode(ReplayOptions.KeyMode.valueOf(parameter.get("key", options.getKeyMode().name()).toUpperCase()));
+    options.setMaxInFlight(parameter.getInt("maxInFlight", options.getMaxInFlight()));
+    options.setSpeedup(parameter.getDouble("speedup", options.getSpeedup()));
+
+    // CONFIGURATION RESUME
+    System.out.println("############################################################################");
+    System.out.printf("%s\n", PROGRAM_NAME);
+    System.out.println("----------------------------------------------------------------------------");
+    System.out.printf("%s\n", PROGRAM_DESCRIPTION);
+    System.out.println("****************************************************************************");
+    System.out.println("Kafka Bootstrap: " + kafkaBootstrap);
+    System.out.println("Kafka Topic: " + kafkaTopic);
+    System.out.println("Dataset: " + datasetPath);
+    System.out.println("Format: " + format);
+    System.out.println("Split: " + (split ? metadataPath : "disabled"));
+    System.out.println("End of Stream: " + eos);
+    System.out.println("Replay: " + options);
+    System.out.println("############################################################################");
+
+    // REPLAY
+    final StringKafkaProducer producer = binary ? null : new StringKafkaProducer(kafkaBootstrap, options);
+    final BinaryKafkaProducer binaryProducer = binary ? new BinaryKafkaProducer(kafkaBootstrap, options) : null;
+    final ReplayPacer pacer = new ReplayPacer(options.getSpeedup());
+    final SensorEventParser parser = new SensorEventParser();
+    final SensorClass classes[] = SensorClass.values();
+    final String topics[] = new String[classes.length];
+    for (SensorClass sensorClass : classes) {
+      topics[sensorClass.ordinal()] = sensorClass.topic(kafkaTopic);
+    }
+    final long sentByClass[] = new long[classes.length];
+    long sent = 0;
+    long malformed = 0;
+    long overflow = 0;
+    final long start = System.nanoTime();
+
+    try (BufferedReader reader = Files.newBufferedReader(datasetPath, StandardCharsets.US_ASCII)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        final byte[] bytes = line.getBytes(StandardCharsets.US_ASCII);
+        if (!parser.parseHead(bytes, 0, bytes.length)) {
+          malformed++;
+          continue;
+        }
+        if (binary && !parser.parseBody()) {
+          malformed++;
+          continue;
+        }
+        pacer.await(parser.getTs());
+        final int sensorClass = split ? sensors.getSensorClass(parser.getSid()).ordinal() : -1;
+        final String topic = split ? topics[sensorClass] : kafkaTopic;
+        if (binary) {
+          final byte[] record;
+          try {
+            record = SensorEventBinaryFormat.encode(parser);
+          } catch (ArithmeticException exc) {
+            overflow++;
+            continue;
+          }
+          binaryProducer.sendRecord(topic, record);
+        } else {
+          producer.send(topic, parser.getSid(), line);
+        }
+        if (split) {
+          sentByClass[sensorClass]++;
+        }
+        sent++;
+      }
+      if (eos) {
+        for (String topic : split ? topics : new String[]{kafkaTopic}) {
+          if (binary) {
+            binaryProducer.sendToAllPartitions(topic, binaryEndOfStream());
+          } else {
+            producer.sendToAllPartitions(topic, END_OF_STREAM);
+          }
+        }
+      }
+      if (binary) {
+        binaryProducer.flush();
+      } else {
+        producer.flush();
+      }
+    } finally {
+      if (binary) {
+        binaryProducer.close();
+      } else {
+        producer.close();
+      }
+    }
+
+    final double seconds = (System.nanoTime() - start) / 1e9;
+    System.out.printf("Sent: %d | Acked: %d | Failed: %d | Malformed: %d | Time: %.3f s | Throughput: %.0f events/s\n",
+        sent, binary ? binaryProducer.getAcked() : producer.getAcked(),
+        binary ? binaryProducer.getFailed() : producer.getFailed(), malformed, seconds, sent / seconds);
+    if (overflow > 0) {
+      System.out.printf("Skipped: %d records with a field out of the binary int range\n", overflow);
+    }
+    if (split) {
+      for (SensorClass sensorClass : classes) {
+        System.out.printf("Sent to %s: %d\n", topics[sensorClass.ordinal()], sentByClass[sensorClass.ordinal()]);
+      }
+    }
+  }
+}
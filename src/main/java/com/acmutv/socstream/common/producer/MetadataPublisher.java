@@ -0,0 +1,106 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+
+package com.acmutv.socstream.common.producer;
+
+import com.acmutv.socstream.common.meta.Match;
+import com.acmutv.socstream.common.meta.MatchService;
+import com.acmutv.socstream.common.meta.MetadataWatcher;
+import com.acmutv.socstream.common.meta.PlayerKey;
+import org.apache.flink.api.java.utils.ParameterTool;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Publishes the metadata of a match on a Kafka control topic, so that running queries started with
+ * {@code --metadata.topic} apply it (see {@link MetadataWatcher}).
+ * The metadata is validated before being published.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class MetadataPublisher {
+
+  /**
+   * The program name.
+   */
+  public static final String PROGRAM_NAME = "metadata";
+
+  /**
+   * The program description.
+   */
+  public static final String PROGRAM_DESCRIPTION = "Publishes match metadata on a Kafka control topic";
+
+  /**
+   * The program main method.
+   * @param args the command line arguments.
+   */
+  public static void main(String[] args) throws Exception {
+
+    // CONFIGURATION
+    ParameterTool parameter = ParameterTool.fromArgs(args);
+    final String kafkaBootstrap = parameter.get("kafka.bootstrap", "localhost:9092");
+    final String metadataTopic = parameter.get("metadata.topic", "socstream.metadata");
+    final int matchId = parameter.getInt("match", PlayerKey.NO_MATCH);
+    final String topic = (matchId == PlayerKey.NO_MATCH) ? metadataTopic : metadataTopic + "." + matchId;
+    final Path metadataPath = FileSystems.getDefault().getPath(parameter.get("metadata", "./metadata.yml"));
+
+    final Match match = MatchService.fromYamlFile(metadataPath);
+    final byte[] metadata = Files.readAllBytes(metadataPath);
+
+    // CONFIGURATION RESUME
+    System.out.println("############################################################################");
+    System.out.printf("%s\n", PROGRAM_NAME);
+    System.out.println("----------------------------------------------------------------------------");
+    System.out.printf("%s\n", PROGRAM_DESCRIPTION);
+    System.out.println("****************************************************************************");
+    System.out.println("Kafka Bootstrap: " + kafkaBootstrap);
+    System.out.println("Metadata Topic: " + topic);
+    System.out.println("Metadata: " + metadataPath);
+    System.out.println("Sensors: " + MatchService.collectSensorDirectory(match, matchId));
+    System.out.println("############################################################################");
+
+    // PUBLICATION
+    Properties props = new Properties();
+    props.put("bootstrap.servers", kafkaBootstrap);
+    props.put("acks", "all");
+    props.put("key.serializer", "org.apache.kafka.common.serialization.ByteArraySerializer");
+    props.put("value.serializer", "org.apache.kafka.common.serialization.ByteArraySerializer");
+    try (Producer<byte[],byte[]> producer = new KafkaProducer<>(props)) {
+      final RecordMetadata record = producer.send(new ProducerRecord<>(topic, metadata)).get();
+      System.out.printf("Published %d bytes to %s-%d@%d\n", metadata.length, record.topic(), record.partition(),
+          record.offset());
+    }
+  }
+}
@@ -0,0 +1,100 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+package com.acmutv.socstream.common.producer;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * The options for replaying a dataset on Kafka.
+ * Defaults favour throughput: large compressed batches, leader-only acks and no record key.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see StringKafkaProducer
+ */
+@Data
+public class ReplayOptions implements Serializable {
+
+  /**
+   * The key to attach to records.
+   */
+  public enum KeyMode {
+    /**
+     * No key: records are spread over partitions by the producer.
+     */
+    NONE,
+    /**
+     * The sensor id: all records of a sensor go to the same partition, preserving their order.
+     */
+    SID,
+    /**
+     * The whole record (legacy behaviour).
+     */
+    RECORD
+  }
+
+  /**
+   * The producer batch size (bytes).
+   */
+  private int batchSize = 262144;
+
+  /**
+   * The producer linger (ms).
+   */
+  private int lingerMs = 20;
+
+  /**
+   * The producer buffer memory (bytes).
+   */
+  private long bufferMemory = 134217728L;
+
+  /**
+   * The compression type (none, gzip, snappy, lz4).
+   */
+  private String compression = "lz4";
+
+  /**
+   * The acknowledgement policy (0, 1, all).
+   */
+  private String acks = "1";
+
+  /**
+   * The record key.
+   */
+  private KeyMode keyMode = KeyMode.NONE;
+
+  /**
+   * The maximum number of records sent but not yet acknowledged.
+   */
+  private int maxInFlight = 100000;
+
+  /**
+   * The replay speed as a multiple of match speed (0 means as fast as possible).
+   */
+  private double speedup = 0;
+}
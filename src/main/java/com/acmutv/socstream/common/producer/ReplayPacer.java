@@ -0,0 +1,102 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+package com.acmutv.socstream.common.producer;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paces a replay at a multiple of match speed, using the event timestamps (picoseconds).
+ * The first event fixes the origin: an event with timestamp {@code ts} is released
+ * {@code (ts - ts0) / speedup} after the first one.
+ * Events are never delayed for being late, so a slow consumer of the pacer only falls behind.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class ReplayPacer {
+
+  /**
+   * The number of picoseconds in a nanosecond.
+   */
+  private static final double PICOS_PER_NANO = 1000.0;
+
+  /**
+   * The replay speed as a multiple of match speed (0 means as fast as possible).
+   */
+  private final double speedup;
+
+  /**
+   * The timestamp of the first event (picoseconds), or -1 if not yet seen.
+   */
+  private long tsOrigin = -1;
+
+  /**
+   * The wall-clock time of the first event (ns).
+   */
+  private long wallOrigin;
+
+  /**
+   * Creates a new pacer.
+   * @param speedup the replay speed as a multiple of match speed (0 means as fast as possible).
+   */
+  public ReplayPacer(double speedup) {
+    if (speedup < 0) {
+      throw new IllegalArgumentException("Speedup must be non-negative: " + speedup);
+    }
+    this.speedup = speedup;
+  }
+
+  /**
+   * Returns how long to wait before releasing the event.
+   * @param ts the event timestamp (picoseconds).
+   * @param now the current wall-clock time (ns).
+   * @return the delay (ns), never negative.
+   */
+  public long delay(long ts, long now) {
+    if (this.speedup == 0) {
+      return 0;
+    }
+    if (this.tsOrigin < 0) {
+      this.tsOrigin = ts;
+      this.wallOrigin = now;
+      return 0;
+    }
+    final long due = this.wallOrigin + (long) ((ts - this.tsOrigin) / PICOS_PER_NANO / this.speedup);
+    return Math.max(0, due - now);
+  }
+
+  /**
+   * Blocks until the event is due.
+   * @param ts the event timestamp (picoseconds).
+   */
+  public void await(long ts) {
+    long delay = this.delay(ts, System.nanoTime());
+    while (delay > 0) {
+      LockSupport.parkNanos(delay);
+      delay = this.delay(ts, System.nanoTime());
+    }
+  }
+}
@@ -26,14 +26,23 @@
 package com.acmutv.socstream.common.producer;
 
 import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.PartitionInfo;
 
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * This class realizes ...
+ * A Kafka producer publishing sensor events as CSV strings.
+ * Besides the legacy {@link #send(String, RichSensorEvent)}, it offers a replay mode
+ * (see {@link ReplayOptions}) with configurable batching, compression and keys, and a bounded
+ * window of records sent but not yet acknowledged.
  * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
  * @author Michele Porretta {@literal <mporretta@acm.org>}
  * @since 1.0
@@ -42,6 +51,31 @@ public class StringKafkaProducer {
 
   private Producer<String,String> producer;
 
+  /**
+   * The record key.
+   */
+  private ReplayOptions.KeyMode keyMode;
+
+  /**
+   * The window of records sent but not yet acknowledged.
+   */
+  private Semaphore inFlight;
+
+  /**
+   * The callback releasing the in-flight window.
+   */
+  private Callback callback;
+
+  /**
+   * The number of acknowledged records.
+   */
+  private final AtomicLong acked = new AtomicLong();
+
+  /**
+   * The number of failed records.
+   */
+  private final AtomicLong failed = new AtomicLong();
+
   public StringKafkaProducer(String bootstrapServers) {
     Properties props = new Properties();
     props.put("bootstrap.servers", bootstrapServers);
@@ -53,6 +87,36 @@ public class StringKafkaProducer {
     props.put("key.serializer", "org.apache.kafka.common.serialization.StringSerializer");
     props.put("value.serializer", "org.apache.kafka.common.serialization.StringSerializer");
     this.producer = new KafkaProducer<>(props);
+    this.keyMode = ReplayOptions.KeyMode.RECORD;
+  }
+
+  /**
+   * Creates a producer in replay mode.
+   * @param bootstrapServers the Kafka bootstrap servers.
+   * @param options the replay options.
+   */
+  public StringKafkaProducer(String bootstrapServers, ReplayOptions options) {
+    Properties props = new Properties();
+    props.put("bootstrap.servers", bootstrapServers);
+    props.put("acks", options.getAcks());
+    props.put("retries", 0);
+    props.put("batch.size", options.getBatchSize());
+    props.put("linger.ms", options.getLingerMs());
+    props.put("buffer.memory", options.getBufferMemory());
+    props.put("compression.type", options.getCompression());
+    props.put("key.serializer", "org.apache.kafka.common.serialization.StringSerializer");
+    props.put("value.serializer", "org.apache.kafka.common.serialization.StringSerializer");
+    this.producer = new KafkaProducer<>(props);
+    this.keyMode = options.getKeyMode();
+    this.inFlight = new Semaphore(options.getMaxInFlight());
+    this.callback = (RecordMetadata metadata, Exception exc) -> {
+      if (exc == null) {
+        this.acked.incrementAndGet();
+      } else {
+        this.failed.incrementAndGet();
+      }
+      this.inFlight.release();
+    };
   }
 
   public void send(String topic, RichSensorEvent link) {
@@ -61,6 +125,70 @@ public class StringKafkaProducer {
     this.producer.send(record);
   }
 
+  /**
+   * Publishes a dataset record, blocking while the in-flight window is full.
+   * @param topic the topic.
+   * @param sid the sensor id of the record.
+   * @param message the record.
+   * @throws InterruptedException when interrupted while waiting for the in-flight window.
+   */
+  public void send(String topic, long sid, String message) throws InterruptedException {
+    final String key;
+    switch (this.keyMode) {
+      case SID: key = String.valueOf(sid); break;
+      case RECORD: key = message; break;
+      default: key = null; break;
+    }
+    ProducerRecord<String,String> record = new ProducerRecord<>(topic, key, message);
+    if (this.inFlight == null) {
+      this.producer.send(record);
+    } else {
+      this.inFlight.acquire();
+      this.producer.send(record, this.callback);
+    }
+  }
+
+  /**
+   * Publishes a record to every partition of a topic, blocking while the in-flight window is full.
+   * @param topic the topic.
+   * @param message the record.
+   * @return the number of partitions.
+   * @throws InterruptedException when interrupted while waiting for the in-flight window.
+   */
+  public int sendToAllPartitions(String topic, String message) throws InterruptedException {
+    final List<PartitionInfo> partitions = this.producer.partitionsFor(topic);
+    for (PartitionInfo partition : partitions) {
+      ProducerRecord<String,String> record = new ProducerRecord<>(topic, partition.partition(), null, message);
+      if (this.inFlight == null) {
+        this.producer.send(record);
+      } else {
+        this.inFlight.acquire();
+        this.producer.send(record, this.callback);
+      }
+    }
+    return partitions.size();
+  }
+
+  /**
+   * Returns the number of acknowledged records (replay mode only).
+   * @return the number of acknowledged records.
+   */
+  public long getAcked() {
+    return this.acked.get();
+  }
+
+  /**
+   * Returns the number of failed records (replay mode only).
+   * @return the number of failed records.
+   */
+  public long getFailed() {
+    return this.failed.get();
+  }
+
+  public void flush() {
+    this.producer.flush();
+  }
+
   public void close() {
     this.producer.close();
   }
@@ -26,22 +26,33 @@
 
 package com.acmutv.socstream.common.sink;
 
+import com.acmutv.socstream.common.metric.MetricNames;
+import com.acmutv.socstream.common.sink.encode.ByteArrayBuilder;
+import com.acmutv.socstream.common.sink.encode.ResultEncoder;
+import org.apache.flink.api.common.functions.RuntimeContext;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.MeterView;
+import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.streaming.api.functions.sink.RichSinkFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
-import java.io.BufferedWriter;
 import java.io.IOException;
-import java.nio.charset.Charset;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 
 /**
- * A sink operator that writes tuples to a file.
+ * A sink operator that writes tuples to a file, one per line.
+ * Tuples are encoded by a {@link ResultEncoder} into a reusable buffer, which is written to a file channel
+ * whenever it exceeds {@link #FLUSH_THRESHOLD} bytes.
+ * When the sink runs with many instances, the file path is a directory with a file per instance
+ * (named after the instance index, from 1), as for {@code writeAsText}.
+ * The sink counts the written results and bytes, and meters the results per second.
  * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
  * @author Michele Porretta {@literal <mporretta@acm.org>}
  * @since 1.0
@@ -53,39 +64,102 @@ public class FileWriterSink<T> extends RichSinkFunction<T> {
    */
   private static final Logger LOG = LoggerFactory.getLogger(FileWriterSink.class);
 
+  /**
+   * The buffer size (bytes) that triggers a write to the file.
+   */
+  public static final int FLUSH_THRESHOLD = 64 * 1024;
+
   /**
    * The output file path.
    */
   private String path;
 
   /**
-   * The writer to the output file.
+   * The tuple encoder.
+   */
+  private ResultEncoder<T> encoder;
+
+  /**
+   * The channel to the output file.
+   */
+  private transient FileChannel channel;
+
+  /**
+   * The buffer of encoded tuples.
+   */
+  private transient ByteArrayBuilder buffer;
+
+  /**
+   * The number of written results.
    */
-  private BufferedWriter writer;
+  private transient Counter results;
 
   /**
-   * Creates a new sink.
+   * The number of written bytes.
+   */
+  private transient Counter bytesWritten;
+
+  /**
+   * Creates a new sink that writes tuples with the given encoder.
    * @param path the output file path.
-   * @throws IOException when file cannot be written.
+   * @param encoder the tuple encoder.
    */
-  public FileWriterSink(@Nonnull final String path) throws IOException {
+  public FileWriterSink(@Nonnull final String path, @Nonnull final ResultEncoder<T> encoder) {
     this.path = path;
+    this.encoder = encoder;
+  }
+
+  /**
+   * Creates a new sink that writes tuples as {@code toString()}.
+   * @param path the output file path.
+   */
+  public FileWriterSink(@Nonnull final String path) {
+    this(path, (value, out) -> out.append(value.toString()));
   }
 
   @Override
   public void open(Configuration conf) throws IOException {
-    final Path path = Paths.get(this.path);
-    this.writer = Files.newBufferedWriter(path, Charset.defaultCharset(), StandardOpenOption.CREATE);
+    final RuntimeContext ctx = super.getRuntimeContext();
+    Path path = Paths.get(this.path);
+    if (ctx.getNumberOfParallelSubtasks() > 1) {
+      Files.createDirectories(path);
+      path = path.resolve(String.valueOf(ctx.getIndexOfThisSubtask() + 1));
+    }
+    this.channel = FileChannel.open(path,
+        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    this.buffer = new ByteArrayBuilder(2 * FLUSH_THRESHOLD);
+    final MetricGroup metrics = ctx.getMetricGroup();
+    this.results = metrics.counter(MetricNames.RESULTS);
+    metrics.meter(MetricNames.RESULTS_PER_SECOND, new MeterView(this.results, 60));
+    this.bytesWritten = metrics.counter(MetricNames.BYTES_WRITTEN);
   }
 
   @Override
   public void close() throws IOException {
-    this.writer.flush();
-    this.writer.close();
+    if (this.channel != null) {
+      this.flush();
+      this.channel.close();
+      this.channel = null;
+    }
   }
 
   @Override
   public void invoke(T elem) throws IOException {
-    this.writer.write(elem.toString() + "\n");
+    this.encoder.encode(elem, this.buffer);
+    this.buffer.append('\n');
+    this.results.inc();
+    if (this.buffer.size() >= FLUSH_THRESHOLD) {
+      this.flush();
+    }
+  }
+
+  /**
+   * Writes the buffered tuples to the file.
+   * @throws IOException when the file cannot be written.
+   */
+  private void flush() throws IOException {
+    this.bytesWritten.inc(this.buffer.size());
+    this.buffer.writeTo(this.channel);
+    this.buffer.reset();
   }
 }
@@ -0,0 +1,241 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.sink.encode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * A reusable, growable byte buffer that results are encoded into.
+ * Numbers are appended without intermediate strings, except for the rare values that
+ * cannot be formatted exactly by the fast path.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class ByteArrayBuilder {
+
+  /**
+   * The powers of ten, up to the maximum number of decimals.
+   */
+  private static final long[] POW10 = {1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L};
+
+  /**
+   * The largest scaled value formatted by the fast path: above it, the rounding error of the scaling
+   * could move a value across a rounding tie.
+   */
+  private static final double MAX_FAST_SCALED = 1e12;
+
+  /**
+   * The distance from a rounding tie below which the fast path is not trusted.
+   */
+  private static final double TIE_TOLERANCE = 1e-3;
+
+  /**
+   * The encoded bytes.
+   */
+  private byte[] buffer;
+
+  /**
+   * The number of encoded bytes.
+   */
+  private int size;
+
+  /**
+   * Creates a new builder.
+   * @param capacity the initial capacity (bytes).
+   */
+  public ByteArrayBuilder(int capacity) {
+    this.buffer = new byte[capacity];
+  }
+
+  /**
+   * Creates a new builder with 1 KB of initial capacity.
+   */
+  public ByteArrayBuilder() {
+    this(1 << 10);
+  }
+
+  /**
+   * Discards the encoded bytes.
+   * @return this builder.
+   */
+  public ByteArrayBuilder reset() {
+    this.size = 0;
+    return this;
+  }
+
+  /**
+   * Returns the number of encoded bytes.
+   * @return the number of encoded bytes.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  public ByteArrayBuilder append(char c) {
+    this.ensure(1);
+    this.buffer[this.size++] = (byte) c;
+    return this;
+  }
+
+  /**
+   * Appends a string, encoded in UTF-8.
+   * @param string the string.
+   * @return this builder.
+   */
+  public ByteArrayBuilder append(String string) {
+    final int length = string.length();
+    this.ensure(length);
+    for (int i = 0; i < length; i++) {
+      final char c = string.charAt(i);
+      if (c >= 0x80) {
+        return this.appendUtf8(string, i);
+      }
+      this.buffer[this.size++] = (byte) c;
+    }
+    return this;
+  }
+
+  public ByteArrayBuilder append(long value) {
+    this.ensure(20);
+    if (value == Long.MIN_VALUE) {
+      return this.append(Long.toString(value));
+    }
+    if (value < 0) {
+      this.buffer[this.size++] = '-';
+      value = -value;
+    }
+    int digits = 1;
+    for (long v = value; v >= 10; v /= 10) digits++;
+    for (int i = this.size + digits - 1; i >= this.size; i--) {
+      this.buffer[i] = (byte) ('0' + (value % 10));
+      value /= 10;
+    }
+    this.size += digits;
+    return this;
+  }
+
+  /**
+   * Appends a floating-point value in its shortest representation, as {@link Double#toString(double)}.
+   * @param value the value.
+   * @return this builder.
+   */
+  public ByteArrayBuilder append(double value) {
+    return this.append(Double.toString(value));
+  }
+
+  /**
+   * Appends a floating-point value with a fixed number of decimals, as {@code %.<decimals>f} in the root locale.
+   * @param value the value.
+   * @param decimals the number of decimals (at most 8).
+   * @return this builder.
+   */
+  public ByteArrayBuilder appendFixed(double value, int decimals) {
+    final double abs = Math.abs(value);
+    final double scaled = abs * POW10[decimals];
+    final double fraction = scaled - Math.floor(scaled);
+    if (Double.isNaN(value) || scaled >= MAX_FAST_SCALED || Math.abs(fraction - 0.5) < TIE_TOLERANCE) {
+      return this.append(String.format(Locale.ROOT, "%." + decimals + "f", value));
+    }
+    final long rounded = (long) Math.floor(scaled + 0.5);
+    if (Double.doubleToRawLongBits(value) < 0) {
+      this.append('-');
+    }
+    this.append(rounded / POW10[decimals]);
+    if (decimals > 0) {
+      this.append('.');
+      long remainder = rounded % POW10[decimals];
+      this.ensure(decimals);
+      for (int i = this.size + decimals - 1; i >= this.size; i--) {
+        this.buffer[i] = (byte) ('0' + (remainder % 10));
+        remainder /= 10;
+      }
+      this.size += decimals;
+    }
+    return this;
+  }
+
+  /**
+   * Appends a range of bytes.
+   * @param bytes the bytes.
+   * @param offset the offset of the range.
+   * @param length the length of the range.
+   * @return this builder.
+   */
+  public ByteArrayBuilder append(byte[] bytes, int offset, int length) {
+    this.ensure(length);
+    System.arraycopy(bytes, offset, this.buffer, this.size, length);
+    this.size += length;
+    return this;
+  }
+
+  /**
+   * Returns a copy of the encoded bytes.
+   * @return the encoded bytes.
+   */
+  public byte[] toByteArray() {
+    return Arrays.copyOf(this.buffer, this.size);
+  }
+
+  /**
+   * Writes the encoded bytes to a channel.
+   * @param channel the channel.
+   * @throws IOException when the channel cannot be written.
+   */
+  public void writeTo(WritableByteChannel channel) throws IOException {
+    final ByteBuffer bytes = ByteBuffer.wrap(this.buffer, 0, this.size);
+    while (bytes.hasRemaining()) {
+      channel.write(bytes);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new String(this.buffer, 0, this.size, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Ensures room for the given number of bytes.
+   * @param length the number of bytes.
+   */
+  void ensure(int length) {
+    if (this.size + length > this.buffer.length) {
+      this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length * 2, this.size + length));
+    }
+  }
+
+  private ByteArrayBuilder appendUtf8(String string, int from) {
+    final byte[] bytes = string.substring(from).getBytes(StandardCharsets.UTF_8);
+    return this.append(bytes, 0, bytes.length);
+  }
+}
@@ -0,0 +1,241 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.sink.encode;
+
+/**
+ * A reusable encoder of JSON documents into a {@link ByteArrayBuilder}.
+ * Documents are written with a streaming API (objects, arrays, fields and values), with commas
+ * placed automatically; numbers are written without intermediate strings.
+ * The encoder is bound to its output before each document, so that one instance serves a whole sink.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class JsonEncoder {
+
+  /**
+   * The maximum nesting depth.
+   */
+  private static final int MAX_DEPTH = 32;
+
+  /**
+   * The hexadecimal digits, for escaped control characters.
+   */
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  /**
+   * The output.
+   */
+  private ByteArrayBuilder out;
+
+  /**
+   * The current nesting depth.
+   */
+  private int depth;
+
+  /**
+   * For every nesting level, true if no element has been written yet.
+   */
+  private final boolean[] empty = new boolean[MAX_DEPTH];
+
+  /**
+   * True, if the next value follows a field name.
+   */
+  private boolean named;
+
+  /**
+   * Creates a new encoder on its own output.
+   */
+  public JsonEncoder() {
+    this(new ByteArrayBuilder());
+  }
+
+  /**
+   * Creates a new encoder on the given output.
+   * @param out the output.
+   */
+  public JsonEncoder(ByteArrayBuilder out) {
+    this.out = out;
+  }
+
+  /**
+   * Binds the encoder to an output, to append a new document.
+   * @param out the output.
+   * @return this encoder.
+   */
+  public JsonEncoder on(ByteArrayBuilder out) {
+    this.out = out;
+    this.depth = 0;
+    this.named = false;
+    return this;
+  }
+
+  /**
+   * Discards the output, to encode a new document.
+   * @return this encoder.
+   */
+  public JsonEncoder reset() {
+    return this.on(this.out.reset());
+  }
+
+  public JsonEncoder startObject() {
+    return this.open('{');
+  }
+
+  public JsonEncoder endObject() {
+    return this.close('}');
+  }
+
+  public JsonEncoder startArray() {
+    return this.open('[');
+  }
+
+  public JsonEncoder endArray() {
+    return this.close(']');
+  }
+
+  /**
+   * Writes a field name; the next call must write its value.
+   * @param name the field name.
+   * @return this encoder.
+   */
+  public JsonEncoder field(String name) {
+    this.separate();
+    this.string(name);
+    this.out.append(':');
+    this.named = true;
+    return this;
+  }
+
+  public JsonEncoder value(long value) {
+    this.separate();
+    this.out.append(value);
+    return this;
+  }
+
+  /**
+   * Writes a floating-point value; non-finite values are written as {@code null}.
+   * @param value the value.
+   * @return this encoder.
+   */
+  public JsonEncoder value(double value) {
+    this.separate();
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      this.out.append("null");
+    } else {
+      this.out.append(value);
+    }
+    return this;
+  }
+
+  public JsonEncoder value(String value) {
+    this.separate();
+    if (value == null) {
+      this.out.append("null");
+    } else {
+      this.string(value);
+    }
+    return this;
+  }
+
+  /**
+   * Returns a copy of the output.
+   * @return the output bytes.
+   */
+  public byte[] toByteArray() {
+    return this.out.toByteArray();
+  }
+
+  /**
+   * Returns the number of output bytes.
+   * @return the number of output bytes.
+   */
+  public int size() {
+    return this.out.size();
+  }
+
+  @Override
+  public String toString() {
+    return this.out.toString();
+  }
+
+  private JsonEncoder open(char token) {
+    if (this.depth == MAX_DEPTH) {
+      throw new IllegalStateException("Maximum nesting depth exceeded: " + MAX_DEPTH);
+    }
+    this.separate();
+    this.out.append(token);
+    this.empty[this.depth++] = true;
+    return this;
+  }
+
+  private JsonEncoder close(char token) {
+    if (this.depth == 0) {
+      throw new IllegalStateException("No open object or array");
+    }
+    this.depth--;
+    this.out.append(token);
+    return this;
+  }
+
+  /**
+   * Writes the comma before an element, unless it is the first of its container or a field value.
+   */
+  private void separate() {
+    if (this.named) {
+      this.named = false;
+      return;
+    }
+    if (this.depth > 0) {
+      if (this.empty[this.depth - 1]) {
+        this.empty[this.depth - 1] = false;
+      } else {
+        this.out.append(',');
+      }
+    }
+  }
+
+  private void string(String string) {
+    this.out.append('"');
+    int from = 0;
+    final int length = string.length();
+    for (int i = 0; i < length; i++) {
+      final char c = string.charAt(i);
+      if (c == '"' || c == '\\' || c < 0x20) {
+        this.out.append(string.substring(from, i));
+        if (c < 0x20) {
+          this.out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+        } else {
+          this.out.append('\\').append(c);
+        }
+        from = i + 1;
+      }
+    }
+    this.out.append(from == 0 ? string : string.substring(from)).append('"');
+  }
+}
@@ -0,0 +1,72 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+
+package com.acmutv.socstream.common.sink.encode;
+
+import com.acmutv.socstream.common.meta.PlayerKey;
+
+/**
+ * Encodes player keys (see {@link PlayerKey}) in results.
+ * Players of the match {@link PlayerKey#NO_MATCH} are encoded by player id only, so that the
+ * results of single-match jobs are unchanged.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public final class PlayerKeys {
+
+  private PlayerKeys() { }
+
+  /**
+   * Appends a player key as CSV value: {@code matchId:pid}, or {@code pid}.
+   * @param out the output.
+   * @param key the player key.
+   * @return the output.
+   */
+  public static ByteArrayBuilder appendCsv(ByteArrayBuilder out, long key) {
+    final int matchId = PlayerKey.matchId(key);
+    if (matchId != PlayerKey.NO_MATCH) {
+      out.append((long) matchId).append(':');
+    }
+    return out.append(PlayerKey.pid(key));
+  }
+
+  /**
+   * Appends a player key as JSON fields: {@code "match"} (if any) and {@code "pid"}.
+   * @param json the JSON encoder, within an object.
+   * @param key the player key.
+   * @return the JSON encoder.
+   */
+  public static JsonEncoder appendJson(JsonEncoder json, long key) {
+    final int matchId = PlayerKey.matchId(key);
+    if (matchId != PlayerKey.NO_MATCH) {
+      json.field("match").value((long) matchId);
+    }
+    return json.field("pid").value(PlayerKey.pid(key));
+  }
+}
@@ -0,0 +1,70 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.sink.es;
+
+import com.acmutv.socstream.common.metric.MetricNames;
+import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.streaming.connectors.elasticsearch.ElasticsearchSinkFunction;
+import org.apache.flink.streaming.connectors.elasticsearch.RequestIndexer;
+
+/**
+ * An {@link ElasticsearchSinkFunction} that counts the processed elements ({@code documents})
+ * and delegates the creation of requests to another function.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class CountingESSinkFunction<T> implements ElasticsearchSinkFunction<T> {
+
+  /**
+   * The delegate function.
+   */
+  private final ElasticsearchSinkFunction<T> function;
+
+  /**
+   * The number of processed elements, registered on the first element.
+   */
+  private transient Counter documents;
+
+  /**
+   * Creates a new counting function.
+   * @param function the delegate function.
+   */
+  public CountingESSinkFunction(ElasticsearchSinkFunction<T> function) {
+    this.function = function;
+  }
+
+  @Override
+  public void process(T element, RuntimeContext ctx, RequestIndexer indexer) {
+    if (this.documents == null) {
+      this.documents = ctx.getMetricGroup().counter(MetricNames.DOCUMENTS);
+    }
+    this.documents.inc();
+    this.function.process(element, ctx, indexer);
+  }
+}
@@ -27,6 +27,7 @@ package com.acmutv.socstream.common.sink.es;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.apache.flink.api.java.utils.ParameterTool;
 
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
@@ -49,7 +50,13 @@ public class ESProperties extends HashMap<String,String> {
   public static final String CLUSTER_NAME_DEFAULT = "my-es-cluster";
 
   public static final String  BULK_FLUSH_MAX_ACTIONS = "bulk.flush.max.actions";
-  public static final String  BULK_FLUSH_MAX_ACTIONS_DEFAULT = "1";
+  public static final String  BULK_FLUSH_MAX_ACTIONS_DEFAULT = "1000";
+
+  public static final String  BULK_FLUSH_MAX_SIZE_MB = "bulk.flush.max.size.mb";
+  public static final String  BULK_FLUSH_MAX_SIZE_MB_DEFAULT = "5";
+
+  public static final String  BULK_FLUSH_INTERVAL_MS = "bulk.flush.interval.ms";
+  public static final String  BULK_FLUSH_INTERVAL_MS_DEFAULT = "1000";
 
   private List<InetSocketAddress> transportAddresses = new ArrayList<>();
 
@@ -57,10 +64,16 @@ public class ESProperties extends HashMap<String,String> {
 
   private String typeName;
 
+  /**
+   * The number of parallel sink instances.
+   * It is not a map entry, as every entry not consumed by the sink is passed to the Elasticsearch client.
+   */
+  private int parallelism = 1;
+
   public ESProperties(String clusterName, String ...transportAddresses) {
     super();
     super.put(CLUSTER_NAME, clusterName);
-    super.put(BULK_FLUSH_MAX_ACTIONS, BULK_FLUSH_MAX_ACTIONS_DEFAULT);
+    this.putBulkDefaults();
     for (String transportAddress : transportAddresses) {
       String parts[] = transportAddress.split(":");
       try {
@@ -74,12 +87,21 @@ public class ESProperties extends HashMap<String,String> {
   public ESProperties(ESProperties other) {
     super(other);
     this.transportAddresses = new ArrayList<>(other.getTransportAddresses());
+    this.indexName = other.getIndexName();
+    this.typeName = other.getTypeName();
+    this.parallelism = other.getParallelism();
   }
 
   public ESProperties() {
     super();
     super.put(CLUSTER_NAME, CLUSTER_NAME_DEFAULT);
+    this.putBulkDefaults();
+  }
+
+  private void putBulkDefaults() {
     super.put(BULK_FLUSH_MAX_ACTIONS, BULK_FLUSH_MAX_ACTIONS_DEFAULT);
+    super.put(BULK_FLUSH_MAX_SIZE_MB, BULK_FLUSH_MAX_SIZE_MB_DEFAULT);
+    super.put(BULK_FLUSH_INTERVAL_MS, BULK_FLUSH_INTERVAL_MS_DEFAULT);
   }
 
   public static ESProperties fromPropString(String s) throws UnknownHostException {
@@ -98,10 +120,38 @@ public class ESProperties extends HashMap<String,String> {
     return props;
   }
 
+  /**
+   * Creates the Elasticsearch properties from the program options: {@code elasticsearch} (see
+   * {@link #fromPropString(String)}), and the bulk policy {@code elasticsearch.bulk.actions},
+   * {@code elasticsearch.bulk.size} (MB), {@code elasticsearch.bulk.interval} (ms) and
+   * {@code elasticsearch.parallelism}.
+   * @param parameter the program options.
+   * @return the Elasticsearch properties.
+   * @throws UnknownHostException when the transport address cannot be resolved.
+   */
+  public static ESProperties fromParameters(ParameterTool parameter) throws UnknownHostException {
+    ESProperties props = fromPropString(parameter.get("elasticsearch", null));
+    props.put(BULK_FLUSH_MAX_ACTIONS, parameter.get("elasticsearch.bulk.actions", BULK_FLUSH_MAX_ACTIONS_DEFAULT));
+    props.put(BULK_FLUSH_MAX_SIZE_MB, parameter.get("elasticsearch.bulk.size", BULK_FLUSH_MAX_SIZE_MB_DEFAULT));
+    props.put(BULK_FLUSH_INTERVAL_MS, parameter.get("elasticsearch.bulk.interval", BULK_FLUSH_INTERVAL_MS_DEFAULT));
+    props.parallelism = parameter.getInt("elasticsearch.parallelism", 1);
+    return props;
+  }
+
+  /**
+   * Returns the bulk policy, for display.
+   * @return the bulk policy.
+   */
+  public String bulkPolicy() {
+    return String.format("%s actions | %s MB | %s ms | %d instances",
+        super.get(BULK_FLUSH_MAX_ACTIONS), super.get(BULK_FLUSH_MAX_SIZE_MB), super.get(BULK_FLUSH_INTERVAL_MS),
+        this.parallelism);
+  }
+
   @Override
   public String toString() {
-    return String.format("%s,%s,%s,%s",
-        this.transportAddresses, this.indexName, this.typeName, super.toString());
+    return String.format("%s,%s,%s,%d,%s",
+        this.transportAddresses, this.indexName, this.typeName, this.parallelism, super.toString());
   }
 
 }
@@ -30,6 +30,7 @@ import org.apache.flink.streaming.connectors.elasticsearch5.ElasticsearchSink;
 
 /**
  * A general sink that writes to Elasticsearch.
+ * The sink counts the sent documents (see {@link CountingESSinkFunction}).
  * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
  * @author Michele Porretta {@literal <mporretta@acm.org>}
  * @since 1.0
@@ -37,6 +38,6 @@ import org.apache.flink.streaming.connectors.elasticsearch5.ElasticsearchSink;
 public class ESSink<T> extends ElasticsearchSink<T> {
 
   public ESSink(ESProperties config, ElasticsearchSinkFunction<T> function) {
-    super(config, config.getTransportAddresses(), function);
+    super(config, config.getTransportAddresses(), new CountingESSinkFunction<>(function));
   }
 }
@@ -0,0 +1,297 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.source;
+
+import com.acmutv.socstream.common.tuple.PositionSensorEvent;
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import com.acmutv.socstream.query2.tuple.SpeedSensorEvent;
+
+/**
+ * The fixed-width binary wire format for sensor events.
+ * Every record starts with the sensor id (4 bytes) and the timestamp (8 bytes), followed by
+ * the event fields as 4-byte integers, all big-endian:
+ * <ul>
+ *   <li>rich record ({@value #RICH_SIZE} bytes): {@code sid,ts,x,y,v,a,vx,vy,ax,ay};</li>
+ *   <li>position record ({@value #POSITION_SIZE} bytes): {@code sid,ts,x,y};</li>
+ *   <li>speed record ({@value #SPEED_SIZE} bytes): {@code sid,ts,v}.</li>
+ * </ul>
+ * Records are distinguished by their length, so a position record is a prefix of a rich record
+ * and consumers of positions or speeds can read both their own record and the rich one.
+ * Fields are read at fixed offsets, so decoding needs neither scanning nor branching.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class SensorEventBinaryFormat {
+
+  /**
+   * The size of a rich record (bytes).
+   */
+  public static final int RICH_SIZE = 44;
+
+  /**
+   * The size of a position record (bytes).
+   */
+  public static final int POSITION_SIZE = 20;
+
+  /**
+   * The size of a speed record (bytes).
+   */
+  public static final int SPEED_SIZE = 16;
+
+  // Field offsets in rich and position records (bytes).
+  public static final int OFFSET_SID = 0;
+  public static final int OFFSET_TS = 4;
+  public static final int OFFSET_X = 12;
+  public static final int OFFSET_Y = 16;
+  public static final int OFFSET_V = 20;
+  public static final int OFFSET_A = 24;
+  public static final int OFFSET_VX = 28;
+  public static final int OFFSET_VY = 32;
+  public static final int OFFSET_AX = 36;
+  public static final int OFFSET_AY = 40;
+
+  /**
+   * The offset of the speed magnitude in a speed record.
+   */
+  public static final int OFFSET_SPEED_V = 12;
+
+  /**
+   * Encodes a rich sensor event.
+   * @param event the event.
+   * @return the rich record.
+   * @throws ArithmeticException when a field other than the timestamp does not fit 4 bytes.
+   */
+  public static byte[] encode(RichSensorEvent event) throws ArithmeticException {
+    byte[] record = new byte[RICH_SIZE];
+    write(event, record, 0);
+    return record;
+  }
+
+  /**
+   * Writes a rich sensor event into {@code buffer} starting from {@code offset}.
+   * @param event the event.
+   * @param buffer the buffer.
+   * @param offset the starting position.
+   * @return the number of written bytes.
+   * @throws ArithmeticException when a field other than the timestamp does not fit 4 bytes.
+   */
+  public static int write(RichSensorEvent event, byte[] buffer, int offset) throws ArithmeticException {
+    writeInt(buffer, offset + OFFSET_SID, event.getId());
+    writeLong(buffer, offset + OFFSET_TS, event.getTs());
+    writeInt(buffer, offset + OFFSET_X, event.getX());
+    writeInt(buffer, offset + OFFSET_Y, event.getY());
+    writeInt(buffer, offset + OFFSET_V, event.getV());
+    writeInt(buffer, offset + OFFSET_A, event.getA());
+    writeInt(buffer, offset + OFFSET_VX, event.getVx());
+    writeInt(buffer, offset + OFFSET_VY, event.getVy());
+    writeInt(buffer, offset + OFFSET_AX, event.getAx());
+    writeInt(buffer, offset + OFFSET_AY, event.getAy());
+    return RICH_SIZE;
+  }
+
+  /**
+   * Encodes a dataset record (e.g. a parsed CSV record) as a rich record.
+   * @param record the dataset record.
+   * @return the rich record.
+   * @throws ArithmeticException when a field other than the timestamp does not fit 4 bytes.
+   */
+  public static byte[] encode(SensorRecord record) throws ArithmeticException {
+    byte[] buffer = new byte[RICH_SIZE];
+    writeInt(buffer, OFFSET_SID, record.getSid());
+    writeLong(buffer, OFFSET_TS, record.getTs());
+    writeInt(buffer, OFFSET_X, record.getX());
+    writeInt(buffer, OFFSET_Y, record.getY());
+    writeInt(buffer, OFFSET_V, record.getV());
+    writeInt(buffer, OFFSET_A, record.getA());
+    writeInt(buffer, OFFSET_VX, record.getVx());
+    writeInt(buffer, OFFSET_VY, record.getVy());
+    writeInt(buffer, OFFSET_AX, record.getAx());
+    writeInt(buffer, OFFSET_AY, record.getAy());
+    return buffer;
+  }
+
+  /**
+   * Encodes a position sensor event.
+   * @param event the event.
+   * @return the position record.
+   * @throws ArithmeticException when a field other than the timestamp does not fit 4 bytes.
+   */
+  public static byte[] encodePosition(PositionSensorEvent event) throws ArithmeticException {
+    byte[] record = new byte[POSITION_SIZE];
+    writeInt(record, OFFSET_SID, event.getId());
+    writeLong(record, OFFSET_TS, event.getTs());
+    writeInt(record, OFFSET_X, event.getX());
+    writeInt(record, OFFSET_Y, event.getY());
+    return record;
+  }
+
+  /**
+   * Encodes a speed sensor event.
+   * @param event the event.
+   * @return the speed record.
+   * @throws ArithmeticException when a field other than the timestamp does not fit 4 bytes.
+   */
+  public static byte[] encodeSpeed(SpeedSensorEvent event) throws ArithmeticException {
+    byte[] record = new byte[SPEED_SIZE];
+    writeInt(record, OFFSET_SID, event.getId());
+    writeLong(record, OFFSET_TS, event.getTs());
+    writeInt(record, OFFSET_SPEED_V, event.getV());
+    return record;
+  }
+
+  /**
+   * Decodes a rich record.
+   * @param record the rich record.
+   * @return the rich sensor event.
+   * @throws IllegalArgumentException when {@code record} is not a rich record.
+   */
+  public static RichSensorEvent decode(byte[] record) throws IllegalArgumentException {
+    if (record.length != RICH_SIZE) {
+      throw new IllegalArgumentException("Not a rich record: " + record.length + " bytes");
+    }
+    return new RichSensorEvent(readInt(record, OFFSET_SID), readLong(record, OFFSET_TS),
+        readInt(record, OFFSET_X), readInt(record, OFFSET_Y),
+        readInt(record, OFFSET_V), readInt(record, OFFSET_A),
+        readInt(record, OFFSET_VX), readInt(record, OFFSET_VY),
+        readInt(record, OFFSET_AX), readInt(record, OFFSET_AY));
+  }
+
+  /**
+   * Decodes a position or rich record.
+   * @param record the position or rich record.
+   * @return the position sensor event.
+   * @throws IllegalArgumentException when {@code record} is neither a position nor a rich record.
+   */
+  public static PositionSensorEvent decodePosition(byte[] record) throws IllegalArgumentException {
+    if (!isPositionRecord(record)) {
+      throw new IllegalArgumentException("Not a position record: " + record.length + " bytes");
+    }
+    return new PositionSensorEvent(readInt(record, OFFSET_SID), readLong(record, OFFSET_TS),
+        readInt(record, OFFSET_X), readInt(record, OFFSET_Y));
+  }
+
+  /**
+   * Decodes a speed or rich record.
+   * @param record the speed or rich record.
+   * @return the speed sensor event.
+   * @throws IllegalArgumentException when {@code record} is neither a speed nor a rich record.
+   */
+  public static SpeedSensorEvent decodeSpeed(byte[] record) throws IllegalArgumentException {
+    if (!isSpeedRecord(record)) {
+      throw new IllegalArgumentException("Not a speed record: " + record.length + " bytes");
+    }
+    return new SpeedSensorEvent(readInt(record, OFFSET_SID), readLong(record, OFFSET_TS),
+        readInt(record, speedOffset(record)));
+  }
+
+  /**
+   * Checks if the record can be read as a position record.
+   * @param record the record.
+   * @return true, if the record is either a position or a rich record; false, otherwise.
+   */
+  public static boolean isPositionRecord(byte[] record) {
+    return record.length == POSITION_SIZE || record.length == RICH_SIZE;
+  }
+
+  /**
+   * Checks if the record can be read as a speed record.
+   * @param record the record.
+   * @return true, if the record is either a speed or a rich record; false, otherwise.
+   */
+  public static boolean isSpeedRecord(byte[] record) {
+    return record.length == SPEED_SIZE || record.length == RICH_SIZE;
+  }
+
+  /**
+   * Returns the offset of the speed magnitude in a speed or rich record.
+   * @param record the record.
+   * @return the offset of the speed magnitude.
+   */
+  public static int speedOffset(byte[] record) {
+    return (record.length == SPEED_SIZE) ? OFFSET_SPEED_V : OFFSET_V;
+  }
+
+  /**
+   * Reads a big-endian 4-byte signed integer.
+   * @param buffer the buffer.
+   * @param offset the position.
+   * @return the value.
+   */
+  public static long readInt(byte[] buffer, int offset) {
+    return (buffer[offset] << 24)
+        | ((buffer[offset + 1] & 0xff) << 16)
+        | ((buffer[offset + 2] & 0xff) << 8)
+        | (buffer[offset + 3] & 0xff);
+  }
+
+  /**
+   * Reads a big-endian 8-byte signed integer.
+   * @param buffer the buffer.
+   * @param offset the position.
+   * @return the value.
+   */
+  public static long readLong(byte[] buffer, int offset) {
+    return ((long) buffer[offset] << 56)
+        | ((long) (buffer[offset + 1] & 0xff) << 48)
+        | ((long) (buffer[offset + 2] & 0xff) << 40)
+        | ((long) (buffer[offset + 3] & 0xff) << 32)
+        | ((long) (buffer[offset + 4] & 0xff) << 24)
+        | ((buffer[offset + 5] & 0xff) << 16)
+        | ((buffer[offset + 6] & 0xff) << 8)
+        | (buffer[offset + 7] & 0xff);
+  }
+
+  /**
+   * Writes a big-endian 4-byte signed integer.
+   * @param buffer the buffer.
+   * @param offset the position.
+   * @param value the value.
+   * @throws ArithmeticException when {@code value} does not fit 4 bytes.
+   */
+  private static void writeInt(byte[] buffer, int offset, long value) throws ArithmeticException {
+    final int v = Math.toIntExact(value);
+    buffer[offset] = (byte) (v >>> 24);
+    buffer[offset + 1] = (byte) (v >>> 16);
+    buffer[offset + 2] = (byte) (v >>> 8);
+    buffer[offset + 3] = (byte) v;
+  }
+
+  /**
+   * Writes a big-endian 8-byte signed integer.
+   * @param buffer the buffer.
+   * @param offset the position.
+   * @param value the value.
+   */
+  private static void writeLong(byte[] buffer, int offset, long value) {
+    for (int i = 7; i >= 0; i--) {
+      buffer[offset + i] = (byte) value;
+      value >>>= 8;
+    }
+  }
+}
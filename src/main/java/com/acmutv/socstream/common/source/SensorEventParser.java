@@ -0,0 +1,256 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.source;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * A reusable parser for sensor events in the DEBS 2013 dataset format
+ * ({@code sid,ts,x,y,z,|v|,|a|,vx,vy,vz,ax,ay,az}).
+ * The raw bytes are scanned once and fields are written straight into primitive longs,
+ * without creating intermediate strings.
+ * Parsing is split in two steps: {@link #parseHead(byte[], int, int)} reads only the sensor id
+ * and the timestamp, so that callers can discard events before parsing the rest of the record
+ * with {@link #parseBody()}.
+ * Instances are not thread-safe and are meant to be reused by a single reader.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+@Getter
+public class SensorEventParser implements SensorRecord {
+
+  /**
+   * The number of fields in a dataset record.
+   */
+  public static final int NUM_FIELDS = 13;
+
+  /**
+   * The maximum number of digits for a field (longer values may overflow a long).
+   */
+  private static final int MAX_DIGITS = 18;
+
+  /**
+   * The sensor id (SID).
+   */
+  private long sid;
+
+  /**
+   * The timestamp (picoseconds).
+   */
+  private long ts;
+
+  /**
+   * The sensor x-coordinate (mm).
+   */
+  private long x;
+
+  /**
+   * The sensor y-coordinate (mm).
+   */
+  private long y;
+
+  /**
+   * The sensor z-coordinate (mm).
+   */
+  private long z;
+
+  /**
+   * The sensor speed magnitude (um/s).
+   */
+  private long v;
+
+  /**
+   * The sensor acceleration magnitude (um/s^2).
+   */
+  private long a;
+
+  /**
+   * The sensor speed x-component.
+   */
+  private long vx;
+
+  /**
+   * The sensor speed y-component.
+   */
+  private long vy;
+
+  /**
+   * The sensor speed z-component.
+   */
+  private long vz;
+
+  /**
+   * The sensor acceleration x-component.
+   */
+  private long ax;
+
+  /**
+   * The sensor acceleration y-component.
+   */
+  private long ay;
+
+  /**
+   * The sensor acceleration z-component.
+   */
+  private long az;
+
+  /**
+   * The buffer being parsed.
+   */
+  @Getter(AccessLevel.NONE)
+  private byte[] buffer;
+
+  /**
+   * The current read position in {@code buffer}.
+   */
+  @Getter(AccessLevel.NONE)
+  private int position;
+
+  /**
+   * The end position (exclusive) in {@code buffer}.
+   */
+  @Getter(AccessLevel.NONE)
+  private int limit;
+
+  /**
+   * The last parsed value.
+   */
+  @Getter(AccessLevel.NONE)
+  private long value;
+
+  /**
+   * Parses the whole record.
+   * @param message the record bytes.
+   * @return true, if the record is well-formed; false, otherwise.
+   */
+  public boolean parse(byte[] message) {
+    return this.parseHead(message, 0, message.length) && this.parseBody();
+  }
+
+  /**
+   * Parses the sensor id and the timestamp of the record in {@code buffer[from,to)}.
+   * Trailing line terminators are ignored.
+   * @param buffer the buffer.
+   * @param from the record start position (inclusive).
+   * @param to the record end position (exclusive).
+   * @return true, if the record head is well-formed; false, otherwise.
+   */
+  public boolean parseHead(byte[] buffer, int from, int to) {
+    while (to > from && (buffer[to - 1] == '\n' || buffer[to - 1] == '\r')) {
+      to--;
+    }
+    this.buffer = buffer;
+    this.position = from;
+    this.limit = to;
+
+    if (!this.next(false)) return false;
+    this.sid = this.value;
+    if (!this.next(false)) return false;
+    this.ts = this.value;
+
+    return true;
+  }
+
+  /**
+   * Parses the remaining fields of the record whose head has been parsed by
+   * {@link #parseHead(byte[], int, int)}.
+   * @return true, if the record body is well-formed; false, otherwise.
+   */
+  public boolean parseBody() {
+    if (!this.next(false)) return false;
+    this.x = this.value;
+    if (!this.next(false)) return false;
+    this.y = this.value;
+    if (!this.next(false)) return false;
+    this.z = this.value;
+    if (!this.next(false)) return false;
+    this.v = this.value;
+    if (!this.next(false)) return false;
+    this.a = this.value;
+    if (!this.next(false)) return false;
+    this.vx = this.value;
+    if (!this.next(false)) return false;
+    this.vy = this.value;
+    if (!this.next(false)) return false;
+    this.vz = this.value;
+    if (!this.next(false)) return false;
+    this.ax = this.value;
+    if (!this.next(false)) return false;
+    this.ay = this.value;
+    if (!this.next(true)) return false;
+    this.az = this.value;
+
+    return true;
+  }
+
+  /**
+   * Parses the next field into {@code value}, consuming the trailing separator.
+   * @param last true, if the field must be the last one of the record.
+   * @return true, if the field is a well-formed integer; false, otherwise.
+   */
+  private boolean next(boolean last) {
+    final byte[] buf = this.buffer;
+    final int end = this.limit;
+    int i = this.position;
+
+    if (i >= end) return false;
+
+    boolean negative = false;
+    if (buf[i] == '-') {
+      negative = true;
+      i++;
+    } else if (buf[i] == '+') {
+      i++;
+    }
+
+    long result = 0;
+    int digits = 0;
+    while (i < end) {
+      final int digit = buf[i] - '0';
+      if (digit < 0 || digit > 9) break;
+      if (++digits > MAX_DIGITS) return false;
+      result = result * 10 + digit;
+      i++;
+    }
+
+    if (digits == 0) return false;
+
+    if (last) {
+      if (i != end) return false;
+    } else {
+      if (i == end || buf[i] != ',') return false;
+      i++;
+    }
+
+    this.position = i;
+    this.value = negative ? -result : result;
+    return true;
+  }
+}
@@ -35,12 +35,52 @@ package com.acmutv.socstream.common.source;
 public enum SourceType {
 
   FILE ("file"),
-  KAFKA ("kafka");
+  KAFKA ("kafka"),
+  KAFKA_BINARY ("kafka-binary");
 
   private final String name;
 
   SourceType(final String name) {
     this.name = name;
   }
-  
+
+  /**
+   * Returns the name of the source type.
+   * @return the name.
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * Returns the source type with the given name.
+   * @param name the name (e.g. {@code kafka-binary}), optionally followed by {@code :} and an argument
+   *             (e.g. {@code file:/data/full-game}).
+   * @return the source type.
+   * @throws IllegalArgumentException when no source type has the given name.
+   */
+  public static SourceType fromName(String name) throws IllegalArgumentException {
+    final int separator = name.indexOf(':');
+    final String typeName = (separator < 0) ? name : name.substring(0, separator);
+    for (SourceType type : values()) {
+      if (type.name.equalsIgnoreCase(typeName)) {
+        return type;
+      }
+    }
+    throw new IllegalArgumentException("Unknown source type: " + name);
+  }
+
+  /**
+   * Returns the argument of a source (e.g. the dataset path of {@code file:/data/full-game}).
+   * @param source the source, as {@code name[:argument]}.
+   * @return the argument.
+   * @throws IllegalArgumentException when the source has no argument.
+   */
+  public static String argument(String source) throws IllegalArgumentException {
+    final int separator = source.indexOf(':');
+    if (separator < 0 || separator == source.length() - 1) {
+      throw new IllegalArgumentException("Missing argument for source: " + source);
+    }
+    return source.substring(separator + 1);
+  }
 }
@@ -0,0 +1,118 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.source.archive;
+
+import com.acmutv.socstream.common.meta.MatchService;
+import com.acmutv.socstream.common.meta.SensorClass;
+import com.acmutv.socstream.common.meta.SensorDirectory;
+import com.acmutv.socstream.common.source.SensorEventParser;
+import org.apache.flink.api.java.utils.ParameterTool;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Converts a dataset file to an archive (see {@link SensorEventArchive}), that file sources read
+ * without parsing and can seek by timestamp.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see SensorEventArchiveWriter
+ */
+public class DatasetArchiver {
+
+  /**
+   * The program name.
+   */
+  public static final String PROGRAM_NAME = "archive";
+
+  /**
+   * The program description.
+   */
+  public static final String PROGRAM_DESCRIPTION = "Converts a dataset file to a columnar archive";
+
+  /**
+   * The program main method.
+   * @param args the command line arguments.
+   */
+  public static void main(String[] args) throws Exception {
+
+    // CONFIGURATION
+    ParameterTool parameter = ParameterTool.fromArgs(args);
+    final Path datasetPath = FileSystems.getDefault().getPath(parameter.getRequired("dataset"));
+    final Path outputPath = FileSystems.getDefault().getPath(parameter.get("output", datasetPath + ".archive"));
+    final Path metadataPath = FileSystems.getDefault().getPath(parameter.get("metadata", "./metadata.yml"));
+    final long blockLength = parameter.getLong("blockLength", SensorEventArchive.DEFAULT_BLOCK_LENGTH);
+    final SensorDirectory sensors = MatchService.collectSensorDirectory(MatchService.fromYamlFile(metadataPath));
+
+    // CONFIGURATION RESUME
+    System.out.println("############################################################################");
+    System.out.printf("%s\n", PROGRAM_NAME);
+    System.out.println("----------------------------------------------------------------------------");
+    System.out.printf("%s\n", PROGRAM_DESCRIPTION);
+    System.out.println("****************************************************************************");
+    System.out.println("Dataset: " + datasetPath);
+    System.out.println("Output: " + outputPath);
+    System.out.println("Metadata: " + metadataPath);
+    System.out.println("Block Length: " + blockLength + " ps");
+    System.out.println("############################################################################");
+
+    // CONVERSION
+    final SensorEventParser parser = new SensorEventParser();
+    final long archivedByClass[] = new long[SensorClass.values().length];
+    long archived = 0;
+    long malformed = 0;
+    int blocks;
+    final long start = System.nanoTime();
+
+    try (BufferedReader reader = Files.newBufferedReader(datasetPath, StandardCharsets.US_ASCII);
+         SensorEventArchiveWriter writer = new SensorEventArchiveWriter(outputPath, sensors, blockLength)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!parser.parse(line.getBytes(StandardCharsets.US_ASCII))) {
+          malformed++;
+          continue;
+        }
+        writer.write(parser);
+        archivedByClass[sensors.getSensorClass(parser.getSid()).ordinal()]++;
+        archived++;
+      }
+      writer.close();
+      blocks = writer.getBlocks().size();
+    }
+
+    final double seconds = (System.nanoTime() - start) / 1e9;
+    System.out.printf("Archived: %d | Malformed: %d | Blocks: %d | Size: %d -> %d bytes | Time: %.3f s\n",
+        archived, malformed, blocks, Files.size(datasetPath), Files.size(outputPath), seconds);
+    for (SensorClass sensorClass : SensorClass.values()) {
+      System.out.printf("Archived %s: %d\n", sensorClass.name().toLowerCase(), archivedByClass[sensorClass.ordinal()]);
+    }
+  }
+}
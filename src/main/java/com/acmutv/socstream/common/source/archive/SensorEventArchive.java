@@ -0,0 +1,205 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.source.archive;
+
+import com.acmutv.socstream.common.meta.SensorClass;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The chunked columnar archive format for sensor events.
+ * The archive is a sequence of blocks, each holding the events of one {@link SensorClass} within
+ * one time block, followed by a block index and a footer:
+ * <pre>
+ *   header: magic(4) version(4) blockLength(8)
+ *   block:  class(1) count(4) tsMin(8) tsMax(8) length(4) columns(length)
+ *   index:  [offset(8) class(1) count(4) tsMin(8) tsMax(8)] * blocks
+ *   footer: indexOffset(8) blocks(4) magic(4)
+ * </pre>
+ * Columns follow the dataset field order ({@code sid,ts,x,y,z,|v|,|a|,vx,vy,vz,ax,ay,az}) and hold
+ * zig-zag encoded varints; timestamps are delta-encoded from the previous event of the block (the
+ * first one from {@code tsMin}).
+ * Sensor classes are assigned at conversion time, from the match metadata.
+ * Fixed-width integers are big-endian.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see SensorEventArchiveWriter
+ * @see SensorEventArchiveReader
+ */
+public class SensorEventArchive {
+
+  /**
+   * The magic number ({@code SOCA}).
+   */
+  public static final int MAGIC = 0x534f4341;
+
+  /**
+   * The format version.
+   */
+  public static final int VERSION = 1;
+
+  /**
+   * The number of columns.
+   */
+  public static final int NUM_COLUMNS = 13;
+
+  // Column indexes.
+  public static final int SID = 0;
+  public static final int TS = 1;
+  public static final int X = 2;
+  public static final int Y = 3;
+  public static final int Z = 4;
+  public static final int V = 5;
+  public static final int A = 6;
+  public static final int VX = 7;
+  public static final int VY = 8;
+  public static final int VZ = 9;
+  public static final int AX = 10;
+  public static final int AY = 11;
+  public static final int AZ = 12;
+
+  /**
+   * The size of the header (bytes).
+   */
+  public static final int HEADER_SIZE = 16;
+
+  /**
+   * The size of a block header (bytes).
+   */
+  public static final int BLOCK_HEADER_SIZE = 25;
+
+  /**
+   * The size of an index entry (bytes).
+   */
+  public static final int INDEX_ENTRY_SIZE = 29;
+
+  /**
+   * The size of the footer (bytes).
+   */
+  public static final int FOOTER_SIZE = 16;
+
+  /**
+   * The default time block length (picoseconds), one second of match.
+   */
+  public static final long DEFAULT_BLOCK_LENGTH = 1000000000000L;
+
+  /**
+   * The maximum size of an encoded long (bytes).
+   */
+  static final int MAX_VARINT_SIZE = 10;
+
+  /**
+   * An entry of the block index.
+   */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Block {
+
+    /**
+     * The offset of the block in the archive.
+     */
+    private long offset;
+
+    /**
+     * The class of the events in the block.
+     */
+    private SensorClass sensorClass;
+
+    /**
+     * The number of events in the block.
+     */
+    private int count;
+
+    /**
+     * The smallest timestamp in the block (picoseconds).
+     */
+    private long tsMin;
+
+    /**
+     * The greatest timestamp in the block (picoseconds).
+     */
+    private long tsMax;
+  }
+
+  /**
+   * Checks if the given file is an archive, by its magic number.
+   * @param path the file path.
+   * @return true, if the file is an archive; false, otherwise.
+   * @throws IOException when the file cannot be read.
+   */
+  public static boolean isArchive(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final ByteBuffer magic = ByteBuffer.allocate(4);
+      while (magic.hasRemaining() && channel.read(magic) >= 0);
+      return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+    }
+  }
+
+  /**
+   * Writes an unsigned varint.
+   * @param buffer the buffer, with at least {@value #MAX_VARINT_SIZE} bytes available.
+   * @param position the write position.
+   * @param value the value.
+   * @return the new write position.
+   */
+  static int writeVarint(byte[] buffer, int position, long value) {
+    while ((value & ~0x7FL) != 0) {
+      buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer[position++] = (byte) value;
+    return position;
+  }
+
+  /**
+   * Zig-zag encodes a signed value, so that small magnitudes have short varints.
+   * @param value the value.
+   * @return the encoded value.
+   */
+  static long zigzag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  /**
+   * Decodes a zig-zag encoded value.
+   * @param value the encoded value.
+   * @return the value.
+   */
+  static long unzigzag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
@@ -0,0 +1,388 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.source.archive;
+
+import com.acmutv.socstream.common.meta.SensorClass;
+import com.acmutv.socstream.common.source.SensorRecord;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static com.acmutv.socstream.common.source.archive.SensorEventArchive.*;
+
+/**
+ * Reads sensor records from an archive, one block at a time.
+ * Blocks are decoded column-wise into reusable arrays; the reader then exposes the current record
+ * as a {@link SensorRecord}, so that reading never allocates per record.
+ * Blocks can be skipped without decoding, either by seeking to a timestamp or with a block filter.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see SensorEventArchive
+ */
+public class SensorEventArchiveReader implements SensorRecord, Closeable {
+
+  /**
+   * The archive channel.
+   */
+  private final FileChannel channel;
+
+  /**
+   * The time block length (picoseconds).
+   */
+  private final long blockLength;
+
+  /**
+   * The block index.
+   */
+  private final List<Block> index;
+
+  /**
+   * The decoded columns of the current block.
+   */
+  private long[][] columns = new long[NUM_COLUMNS][0];
+
+  /**
+   * The raw current block.
+   */
+  private ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+
+  /**
+   * The filter for blocks to decode.
+   */
+  private Predicate<Block> filter = block -> true;
+
+  /**
+   * The index of the next block.
+   */
+  private int nextBlock;
+
+  /**
+   * The current block.
+   */
+  private Block block;
+
+  /**
+   * The number of records in the current block.
+   */
+  private int count;
+
+  /**
+   * The index of the current record in the current block.
+   */
+  private int row = -1;
+
+  /**
+   * The decoding position in the current block.
+   */
+  private int position;
+
+  /**
+   * Opens an archive.
+   * @param path the archive path.
+   * @throws IOException when the archive cannot be read or is malformed.
+   */
+  public SensorEventArchiveReader(Path path) throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      final ByteBuffer header = this.read(0, HEADER_SIZE);
+      if (header.getInt() != MAGIC) {
+        throw new IOException("Not an archive: " + path);
+      }
+      final int version = header.getInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported archive version " + version + ": " + path);
+      }
+      this.blockLength = header.getLong();
+
+      final ByteBuffer footer = this.read(this.channel.size() - FOOTER_SIZE, FOOTER_SIZE);
+      final long indexOffset = footer.getLong();
+      final int blocks = footer.getInt();
+      if (footer.getInt() != MAGIC) {
+        throw new IOException("Truncated archive: " + path);
+      }
+
+      final ByteBuffer entries = this.read(indexOffset, blocks * INDEX_ENTRY_SIZE);
+      final SensorClass[] classes = SensorClass.values();
+      final List<Block> index = new ArrayList<>(blocks);
+      for (int i = 0; i < blocks; i++) {
+        index.add(new Block(entries.getLong(), classes[entries.get()], entries.getInt(),
+            entries.getLong(), entries.getLong()));
+      }
+      this.index = Collections.unmodifiableList(index);
+    } catch (IOException | RuntimeException exc) {
+      this.channel.close();
+      throw exc;
+    }
+  }
+
+  /**
+   * Returns the time block length.
+   * @return the time block length (picoseconds).
+   */
+  public long getBlockLength() {
+    return this.blockLength;
+  }
+
+  /**
+   * Returns the block index.
+   * @return the block index, in archive order.
+   */
+  public List<Block> getBlocks() {
+    return this.index;
+  }
+
+  /**
+   * Sets the filter for blocks to decode; rejected blocks are skipped without being read.
+   * @param filter the block filter.
+   */
+  public void setFilter(Predicate<Block> filter) {
+    this.filter = filter;
+  }
+
+  /**
+   * Moves to the first block that may contain records not earlier than the given timestamp.
+   * Records earlier than {@code ts} may still be returned from that block.
+   * @param ts the timestamp (picoseconds).
+   */
+  public void seek(long ts) {
+    int i = 0;
+    while (i < this.index.size() && this.index.get(i).getTsMax() < ts) i++;
+    this.nextBlock = i;
+    this.block = null;
+    this.count = 0;
+    this.row = -1;
+  }
+
+  /**
+   * Moves to the next record.
+   * @return true, if there is a next record; false, at the end of the archive.
+   * @throws IOException when the archive cannot be read.
+   */
+  public boolean next() throws IOException {
+    while (++this.row >= this.count) {
+      if (!this.nextBlock()) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Returns the block of the current record.
+   * @return the block of the current record.
+   */
+  public Block getBlock() {
+    return this.block;
+  }
+
+  /**
+   * Decodes the next accepted block, positioning the cursor before its first record.
+   * @return true, if a block has been decoded; false, at the end of the archive.
+   * @throws IOException when the archive cannot be read.
+   */
+  private boolean nextBlock() throws IOException {
+    while (this.nextBlock < this.index.size()) {
+      final Block block = this.index.get(this.nextBlock++);
+      if (!this.filter.test(block)) continue;
+
+      final ByteBuffer header = this.read(block.getOffset(), BLOCK_HEADER_SIZE);
+      header.position(BLOCK_HEADER_SIZE - 4);
+      final int length = header.getInt();
+      if (this.buffer.capacity() < length) {
+        this.buffer = ByteBuffer.allocate(length);
+      }
+      this.readFully(block.getOffset() + BLOCK_HEADER_SIZE, length, this.buffer);
+
+      final int count = block.getCount();
+      if (this.columns[0].length < count) {
+        this.columns = new long[NUM_COLUMNS][count];
+      }
+      this.decode(count, block.getTsMin());
+
+      this.block = block;
+      this.count = count;
+      this.row = -1;
+      return true;
+    }
+    this.block = null;
+    this.count = 0;
+    this.row = -1;
+    return false;
+  }
+
+  /**
+   * Decodes the columns of the raw current block.
+   * @param count the number of records.
+   * @param tsMin the smallest timestamp in the block.
+   */
+  private void decode(int count, long tsMin) {
+    this.position = 0;
+    for (int i = 0; i < NUM_COLUMNS; i++) {
+      final long[] col = this.columns[i];
+      if (i == TS) {
+        long previous = tsMin;
+        for (int n = 0; n < count; n++) {
+          previous += unzigzag(this.readVarint());
+          col[n] = previous;
+        }
+      } else {
+        for (int n = 0; n < count; n++) {
+          col[n] = unzigzag(this.readVarint());
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads an unsigned varint from the raw current block.
+   * @return the value.
+   */
+  private long readVarint() {
+    final byte[] bytes = this.buffer.array();
+    long value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = bytes[this.position++];
+      value |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while (b < 0);
+    return value;
+  }
+
+  /**
+   * Reads a region of the archive into a new buffer.
+   * @param offset the region offset.
+   * @param length the region length.
+   * @return the buffer, ready to be read.
+   * @throws IOException when the region cannot be read.
+   */
+  private ByteBuffer read(long offset, int length) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.allocate(length);
+    this.readFully(offset, length, buffer);
+    return buffer;
+  }
+
+  /**
+   * Reads a region of the archive into the given buffer.
+   * @param offset the region offset.
+   * @param length the region length.
+   * @param buffer the buffer, with at least {@code length} bytes of capacity.
+   * @throws IOException when the region cannot be read.
+   */
+  private void readFully(long offset, int length, ByteBuffer buffer) throws IOException {
+    buffer.clear().limit(length);
+    long position = offset;
+    while (buffer.hasRemaining()) {
+      final int read = this.channel.read(buffer, position);
+      if (read < 0) {
+        throw new EOFException("Unexpected end of archive at " + position);
+      }
+      position += read;
+    }
+    buffer.flip();
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.channel.close();
+  }
+
+  @Override
+  public long getSid() {
+    return this.columns[SID][this.row];
+  }
+
+  @Override
+  public long getTs() {
+    return this.columns[TS][this.row];
+  }
+
+  @Override
+  public long getX() {
+    return this.columns[X][this.row];
+  }
+
+  @Override
+  public long getY() {
+    return this.columns[Y][this.row];
+  }
+
+  @Override
+  public long getZ() {
+    return this.columns[Z][this.row];
+  }
+
+  @Override
+  public long getV() {
+    return this.columns[V][this.row];
+  }
+
+  @Override
+  public long getA() {
+    return this.columns[A][this.row];
+  }
+
+  @Override
+  public long getVx() {
+    return this.columns[VX][this.row];
+  }
+
+  @Override
+  public long getVy() {
+    return this.columns[VY][this.row];
+  }
+
+  @Override
+  public long getVz() {
+    return this.columns[VZ][this.row];
+  }
+
+  @Override
+  public long getAx() {
+    return this.columns[AX][this.row];
+  }
+
+  @Override
+  public long getAy() {
+    return this.columns[AY][this.row];
+  }
+
+  @Override
+  public long getAz() {
+    return this.columns[AZ][this.row];
+  }
+}
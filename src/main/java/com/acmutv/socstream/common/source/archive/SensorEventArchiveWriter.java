@@ -0,0 +1,254 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.source.archive;
+
+import com.acmutv.socstream.common.meta.SensorClass;
+import com.acmutv.socstream.common.meta.SensorDirectory;
+import com.acmutv.socstream.common.source.SensorRecord;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.acmutv.socstream.common.source.archive.SensorEventArchive.*;
+
+/**
+ * Writes sensor records to an archive.
+ * Records are buffered per sensor class and flushed as one block per class whenever a record
+ * falls in a later time block.
+ * Records are expected in (roughly) time order, as in the dataset; out-of-order records stay in
+ * the current block.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see SensorEventArchive
+ */
+public class SensorEventArchiveWriter implements Closeable {
+
+  /**
+   * The initial capacity of a class buffer (records).
+   */
+  private static final int INITIAL_CAPACITY = 1 << 12;
+
+  /**
+   * The output stream.
+   */
+  private final DataOutputStream out;
+
+  /**
+   * The sensor directory, used to classify records.
+   */
+  private final SensorDirectory sensors;
+
+  /**
+   * The time block length (picoseconds).
+   */
+  private final long blockLength;
+
+  /**
+   * The buffered columns, per sensor class.
+   */
+  private final long[][][] columns = new long[SensorClass.values().length][NUM_COLUMNS][INITIAL_CAPACITY];
+
+  /**
+   * The number of buffered records, per sensor class.
+   */
+  private final int[] counts = new int[SensorClass.values().length];
+
+  /**
+   * The block index.
+   */
+  private final List<Block> index = new ArrayList<>();
+
+  /**
+   * The encoding buffer.
+   */
+  private byte[] payload = new byte[INITIAL_CAPACITY * NUM_COLUMNS * MAX_VARINT_SIZE];
+
+  /**
+   * The current time block.
+   */
+  private long timeBlock = Long.MIN_VALUE;
+
+  /**
+   * The number of bytes written so far.
+   */
+  private long offset;
+
+  /**
+   * True, if the archive has been closed.
+   */
+  private boolean closed;
+
+  /**
+   * Creates a new archive writer.
+   * @param path the archive path.
+   * @param sensors the sensor directory, used to classify records.
+   * @param blockLength the time block length (picoseconds).
+   * @throws IOException when the archive cannot be created.
+   */
+  public SensorEventArchiveWriter(Path path, SensorDirectory sensors, long blockLength) throws IOException {
+    if (blockLength <= 0) {
+      throw new IllegalArgumentException("Block length must be positive: " + blockLength);
+    }
+    this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+    this.sensors = sensors;
+    this.blockLength = blockLength;
+    this.out.writeInt(MAGIC);
+    this.out.writeInt(VERSION);
+    this.out.writeLong(blockLength);
+    this.offset = HEADER_SIZE;
+  }
+
+  /**
+   * Appends a record.
+   * @param record the record.
+   * @throws IOException when the archive cannot be written.
+   */
+  public void write(SensorRecord record) throws IOException {
+    final long ts = record.getTs();
+    final long timeBlock = Math.floorDiv(ts, this.blockLength);
+    if (timeBlock > this.timeBlock) {
+      this.flush();
+      this.timeBlock = timeBlock;
+    }
+
+    final int c = this.sensors.getSensorClass(record.getSid()).ordinal();
+    if (this.counts[c] == this.columns[c][0].length) {
+      for (int i = 0; i < NUM_COLUMNS; i++) {
+        this.columns[c][i] = Arrays.copyOf(this.columns[c][i], this.counts[c] * 2);
+      }
+    }
+    final long[][] cols = this.columns[c];
+    final int n = this.counts[c]++;
+    cols[SID][n] = record.getSid();
+    cols[TS][n] = ts;
+    cols[X][n] = record.getX();
+    cols[Y][n] = record.getY();
+    cols[Z][n] = record.getZ();
+    cols[V][n] = record.getV();
+    cols[A][n] = record.getA();
+    cols[VX][n] = record.getVx();
+    cols[VY][n] = record.getVy();
+    cols[VZ][n] = record.getVz();
+    cols[AX][n] = record.getAx();
+    cols[AY][n] = record.getAy();
+    cols[AZ][n] = record.getAz();
+  }
+
+  /**
+   * Writes the buffered records, one block per sensor class.
+   * @throws IOException when the archive cannot be written.
+   */
+  private void flush() throws IOException {
+    for (SensorClass sensorClass : SensorClass.values()) {
+      final int c = sensorClass.ordinal();
+      final int count = this.counts[c];
+      if (count == 0) continue;
+      final long[][] cols = this.columns[c];
+
+      long tsMin = Long.MAX_VALUE;
+      long tsMax = Long.MIN_VALUE;
+      for (int n = 0; n < count; n++) {
+        tsMin = Math.min(tsMin, cols[TS][n]);
+        tsMax = Math.max(tsMax, cols[TS][n]);
+      }
+
+      final int capacity = count * NUM_COLUMNS * MAX_VARINT_SIZE;
+      if (this.payload.length < capacity) {
+        this.payload = new byte[capacity];
+      }
+      int length = 0;
+      for (int i = 0; i < NUM_COLUMNS; i++) {
+        final long[] col = cols[i];
+        if (i == TS) {
+          long previous = tsMin;
+          for (int n = 0; n < count; n++) {
+            length = writeVarint(this.payload, length, zigzag(col[n] - previous));
+            previous = col[n];
+          }
+        } else {
+          for (int n = 0; n < count; n++) {
+            length = writeVarint(this.payload, length, zigzag(col[n]));
+          }
+        }
+      }
+
+      this.index.add(new Block(this.offset, sensorClass, count, tsMin, tsMax));
+      this.out.writeByte(c);
+      this.out.writeInt(count);
+      this.out.writeLong(tsMin);
+      this.out.writeLong(tsMax);
+      this.out.writeInt(length);
+      this.out.write(this.payload, 0, length);
+      this.offset += BLOCK_HEADER_SIZE + length;
+      this.counts[c] = 0;
+    }
+  }
+
+  /**
+   * Returns the blocks written so far.
+   * @return the blocks written so far.
+   */
+  public List<Block> getBlocks() {
+    return this.index;
+  }
+
+  /**
+   * Flushes the buffered records and writes the block index and the footer.
+   * Closing an already closed writer has no effect.
+   * @throws IOException when the archive cannot be written.
+   */
+  @Override
+  public void close() throws IOException {
+    if (this.closed) return;
+    this.closed = true;
+    try {
+      this.flush();
+      final long indexOffset = this.offset;
+      for (Block block : this.index) {
+        this.out.writeLong(block.getOffset());
+        this.out.writeByte(block.getSensorClass().ordinal());
+        this.out.writeInt(block.getCount());
+        this.out.writeLong(block.getTsMin());
+        this.out.writeLong(block.getTsMax());
+      }
+      this.out.writeLong(indexOffset);
+      this.out.writeInt(this.index.size());
+      this.out.writeInt(MAGIC);
+    } finally {
+      this.out.close();
+    }
+  }
+}
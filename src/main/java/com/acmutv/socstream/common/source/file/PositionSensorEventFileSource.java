@@ -0,0 +1,64 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.source.file;
+
+import com.acmutv.socstream.common.meta.SensorDirectory;
+import com.acmutv.socstream.common.source.SensorRecord;
+import com.acmutv.socstream.common.tuple.PositionSensorEvent;
+
+/**
+ * A source that produces {@link PositionSensorEvent} from a dataset file.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see SensorEventFileSource
+ */
+public class PositionSensorEventFileSource extends SensorEventFileSource<PositionSensorEvent> {
+
+  /**
+   * Creates a new file source.
+   * @param path the dataset path.
+   * @param speedup the replay speed as a multiple of match speed (0 means as fast as possible).
+   * @param tsStart the starting timestamp (events before this will be ignored).
+   * @param tsEnd the ending timestamp (events after this end the stream).
+   * @param tsStartIgnore the starting timestamp to ignore.
+   * @param tsEndIgnore the ending timestamp to ignore.
+   * @param sensors the sensor directory.
+   */
+  public PositionSensorEventFileSource(String path, double speedup,
+                                       long tsStart, long tsEnd,
+                                       long tsStartIgnore, long tsEndIgnore,
+                                       SensorDirectory sensors) {
+    super(path, speedup, tsStart, tsEnd, tsStartIgnore, tsEndIgnore, sensors, PositionSensorEvent.class);
+  }
+
+  @Override
+  protected PositionSensorEvent create(long pid, SensorRecord record, PositionSensorEvent reuse) {
+    return ((reuse != null) ? reuse : new PositionSensorEvent()).set(pid, record.getTs(), record.getX(), record.getY());
+  }
+}
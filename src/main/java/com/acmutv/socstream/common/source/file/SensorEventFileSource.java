@@ -0,0 +1,445 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.source.file;
+
+import com.acmutv.socstream.common.meta.MetadataWatcher;
+import com.acmutv.socstream.common.meta.SensorClass;
+import com.acmutv.socstream.common.meta.SensorDirectory;
+import com.acmutv.socstream.common.metric.DropCounters;
+import com.acmutv.socstream.common.metric.DropReason;
+import com.acmutv.socstream.common.metric.MetricNames;
+import com.acmutv.socstream.common.producer.ReplayPacer;
+import com.acmutv.socstream.common.source.SensorEventParser;
+import com.acmutv.socstream.common.source.SensorRecord;
+import com.acmutv.socstream.common.source.archive.SensorEventArchive;
+import com.acmutv.socstream.common.source.archive.SensorEventArchiveReader;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.java.typeutils.ResultTypeQueryable;
+import org.apache.flink.api.java.typeutils.TypeExtractor;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.streaming.api.functions.source.RichParallelSourceFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A parallel source that reads sensor events from a dataset file, memory-mapped in segments.
+ * Lines are parsed in place from chunks of the mapped file with {@link SensorEventParser}, and are
+ * filtered as in the Kafka deserialization schemas; the first event after the match end, from any
+ * sensor, ends the stream of every reader.
+ * The dataset is split among readers by player id, so that each player's events are read by a
+ * single reader in file (i.e. time) order, as required by the keyed operators downstream.
+ * The file can also be an archive (see {@link SensorEventArchive}): readers then seek to the match
+ * start, skip the blocks of other sensor classes and of the halftime interval without decoding
+ * them, and stop at the first block after the match end.
+ * Readers either run as fast as possible or are paced at a multiple of match speed.
+ * When the job enables object reuse, every reader emits a single, mutated event instance.
+ * With a metadata watcher (see {@link MetadataWatcher}), readers map sensors with the latest metadata;
+ * archives keep skipping the blocks of sensors that were not players when archived.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see ReplayPacer
+ * @see SensorEventArchiveReader
+ */
+public abstract class SensorEventFileSource<T> extends RichParallelSourceFunction<T> implements ResultTypeQueryable<T> {
+
+  /**
+   * The logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(SensorEventFileSource.class);
+
+  /**
+   * The size of a mapped segment (bytes).
+   */
+  private static final long SEGMENT_SIZE = 1L << 28;
+
+  /**
+   * The size of a chunk, i.e. the maximum length of a line (bytes).
+   */
+  private static final int CHUNK_SIZE = 1 << 16;
+
+  /**
+   * The dataset path.
+   */
+  private final String path;
+
+  /**
+   * The replay speed as a multiple of match speed (0 means as fast as possible).
+   */
+  private final double speedup;
+
+  /**
+   * The starting timestamp (events before this will be ignored).
+   */
+  private final long tsStart;
+
+  /**
+   * The ending timestamp (events after this end the stream).
+   */
+  private final long tsEnd;
+
+  /**
+   * The starting timestamp to ignore (events between this and {@code tsEndIgnore} will be ignored).
+   */
+  private final long tsStartIgnore;
+
+  /**
+   * The ending timestamp to ignore (events between {@code tsStartIgnore} and this will be ignored).
+   */
+  private final long tsEndIgnore;
+
+  /**
+   * The sensor directory, mapping (SID)->(PID) and marking ignored sensors.
+   */
+  private final SensorDirectory sensors;
+
+  /**
+   * The watcher of metadata updates, or null.
+   */
+  private MetadataWatcher metadataWatcher;
+
+  /**
+   * The type of produced events.
+   */
+  private final Class<T> type;
+
+  /**
+   * True, while the source is running.
+   */
+  private volatile boolean running = true;
+
+  /**
+   * True, if readers reuse the emitted event instance.
+   */
+  private transient boolean objectReuse;
+
+  /**
+   * Creates a new file source.
+   * @param path the dataset path.
+   * @param speedup the replay speed as a multiple of match speed (0 means as fast as possible).
+   * @param tsStart the starting timestamp (events before this will be ignored).
+   * @param tsEnd the ending timestamp (events after this end the stream).
+   * @param tsStartIgnore the starting timestamp to ignore.
+   * @param tsEndIgnore the ending timestamp to ignore.
+   * @param sensors the sensor directory.
+   * @param type the type of produced events.
+   */
+  protected SensorEventFileSource(String path, double speedup,
+                                  long tsStart, long tsEnd,
+                                  long tsStartIgnore, long tsEndIgnore,
+                                  SensorDirectory sensors, Class<T> type) {
+    if (speedup < 0) {
+      throw new IllegalArgumentException("Speedup must be non-negative: " + speedup);
+    }
+    this.path = path;
+    this.speedup = speedup;
+    this.tsStart = tsStart;
+    this.tsEnd = tsEnd;
+    this.tsStartIgnore = tsStartIgnore;
+    this.tsEndIgnore = tsEndIgnore;
+    this.sensors = sensors;
+    this.type = type;
+  }
+
+  /**
+   * Creates the event from a fully parsed record.
+   * @param pid the player id.
+   * @param record the record fields.
+   * @param reuse the event to fill, or null to create a new one.
+   * @return the event.
+   */
+  protected abstract T create(long pid, SensorRecord record, T reuse);
+
+  @Override
+  public void run(SourceContext<T> ctx) throws Exception {
+    this.objectReuse = super.getRuntimeContext().getExecutionConfig().isObjectReuseEnabled();
+    if (this.metadataWatcher != null) {
+      this.metadataWatcher.open("metadata-watcher " + super.getRuntimeContext().getTaskNameWithSubtasks());
+      super.getRuntimeContext().getMetricGroup().gauge(MetricNames.METADATA_UPDATES,
+          (Gauge<Long>) this.metadataWatcher::getUpdates);
+    }
+    try {
+      this.read(ctx, super.getRuntimeContext().getNumberOfParallelSubtasks(), super.getRuntimeContext().getIndexOfThisSubtask(),
+          new DropCounters(super.getRuntimeContext().getMetricGroup()));
+    } finally {
+      if (this.metadataWatcher != null) {
+        this.metadataWatcher.close();
+      }
+    }
+  }
+
+  /**
+   * Sets the watcher of metadata updates, opened by every reader.
+   * @param metadataWatcher the watcher, or null to keep the metadata at job submission.
+   * @return this source.
+   */
+  public SensorEventFileSource<T> setMetadataWatcher(MetadataWatcher metadataWatcher) {
+    this.metadataWatcher = metadataWatcher;
+    return this;
+  }
+
+  /**
+   * Sets whether readers reuse the emitted event instance (otherwise taken from the execution config on run).
+   * @param objectReuse true, to reuse the emitted event instance; false, to emit new ones.
+   */
+  void setObjectReuse(boolean objectReuse) {
+    this.objectReuse = objectReuse;
+  }
+
+  /**
+   * Reads the events of the given reader.
+   * @param ctx the source context.
+   * @param readers the number of readers.
+   * @param reader the index of this reader.
+   * @throws IOException when the dataset cannot be read.
+   */
+  void read(SourceContext<T> ctx, int readers, int reader) throws IOException {
+    this.read(ctx, readers, reader, new DropCounters());
+  }
+
+  /**
+   * Reads the events of the given reader, counting the discarded ones.
+   * @param ctx the source context.
+   * @param readers the number of readers.
+   * @param reader the index of this reader.
+   * @param drops the counters of discarded events.
+   * @throws IOException when the dataset cannot be read.
+   */
+  void read(SourceContext<T> ctx, int readers, int reader, DropCounters drops) throws IOException {
+    final Reader state = new Reader(ctx, readers, reader, drops);
+    final Path path = FileSystems.getDefault().getPath(this.path);
+
+    if (SensorEventArchive.isArchive(path)) {
+      this.readArchive(path, state);
+    } else {
+      this.readDataset(path, state);
+    }
+
+    LOG.info("Reader {}/{} done: {} events emitted, dropped: {}", reader + 1, readers, state.emitted, drops);
+  }
+
+  /**
+   * Reads the events of the given reader from a dataset file.
+   * @param path the dataset path.
+   * @param state the reader state.
+   * @throws IOException when the dataset cannot be read.
+   */
+  private void readDataset(Path path, Reader state) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final long size = channel.size();
+      final byte[] chunk = new byte[CHUNK_SIZE];
+      int carry = 0;
+      long position = 0;
+
+      while (this.running && position < size) {
+        final MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, position,
+            Math.min(SEGMENT_SIZE, size - position));
+        position += segment.capacity();
+
+        while (this.running && segment.hasRemaining()) {
+          final int read = Math.min(chunk.length - carry, segment.remaining());
+          segment.get(chunk, carry, read);
+          final int limit = carry + read;
+
+          int from = 0;
+          for (int i = carry; i < limit; i++) {
+            if (chunk[i] == '\n') {
+              if (!state.process(chunk, from, i)) return;
+              from = i + 1;
+            }
+          }
+
+          carry = limit - from;
+          if (carry == chunk.length) {
+            throw new IOException("Line longer than " + chunk.length + " bytes in " + this.path);
+          }
+          System.arraycopy(chunk, from, chunk, 0, carry);
+        }
+      }
+
+      if (this.running && carry > 0) {
+        state.process(chunk, 0, carry);
+      }
+    }
+  }
+
+  /**
+   * Reads the events of the given reader from an archive.
+   * @param path the archive path.
+   * @param state the reader state.
+   * @throws IOException when the archive cannot be read.
+   */
+  private void readArchive(Path path, Reader state) throws IOException {
+    try (SensorEventArchiveReader archive = new SensorEventArchiveReader(path)) {
+      archive.seek(this.tsStart);
+      archive.setFilter(block -> block.getSensorClass() == SensorClass.PLAYERS
+          && !(block.getTsMin() > this.tsStartIgnore && block.getTsMax() < this.tsEndIgnore));
+      while (this.running && archive.next()) {
+        if (!state.process(archive)) return;
+      }
+    }
+  }
+
+  @Override
+  public void cancel() {
+    this.running = false;
+  }
+
+  @Override
+  public TypeInformation<T> getProducedType() {
+    return TypeExtractor.getForClass(this.type);
+  }
+
+  /**
+   * The state of a reader.
+   */
+  private final class Reader {
+
+    private final SourceContext<T> ctx;
+
+    private final int readers;
+
+    private final int reader;
+
+    private final SensorEventParser parser = new SensorEventParser();
+
+    private final ReplayPacer pacer = new ReplayPacer(speedup);
+
+    private final DropCounters drops;
+
+    private long emitted;
+
+    private T reuse;
+
+    Reader(SourceContext<T> ctx, int readers, int reader, DropCounters drops) {
+      this.ctx = ctx;
+      this.readers = readers;
+      this.reader = reader;
+      this.drops = drops;
+    }
+
+    /**
+     * Processes the line in {@code buffer[from,to)}.
+     * @param buffer the buffer.
+     * @param from the line start (inclusive).
+     * @param to the line end (exclusive).
+     * @return false, if the end of the match has been reached; true, otherwise.
+     */
+    boolean process(byte[] buffer, int from, int to) {
+      final SensorEventParser p = this.parser;
+
+      if (!p.parseHead(buffer, from, to)) {
+        if (to > from && this.reader == 0) this.drops.inc(DropReason.MALFORMED);
+        return true;
+      }
+
+      final long ts = p.getTs();
+      if (ts > tsEnd) return false;
+
+      final long pid = this.accept(p.getSid(), ts);
+      if (pid == SensorDirectory.NO_PID) return true;
+
+      if (!p.parseBody()) {
+        this.drops.inc(DropReason.MALFORMED);
+        return true;
+      }
+
+      this.emit(pid, p);
+      return true;
+    }
+
+    /**
+     * Processes a fully decoded record.
+     * @param record the record.
+     * @return false, if the end of the match has been reached; true, otherwise.
+     */
+    boolean process(SensorRecord record) {
+      final long ts = record.getTs();
+      if (ts > tsEnd) return false;
+
+      final long pid = this.accept(record.getSid(), ts);
+      if (pid != SensorDirectory.NO_PID) {
+        this.emit(pid, record);
+      }
+      return true;
+    }
+
+    /**
+     * Checks if this reader must emit the record with the given sensor id and timestamp.
+     * Records of other readers are skipped. As every reader scans the whole file, discarded records are counted
+     * by the reader of their player, or by the first reader when they have none.
+     * @param sid the sensor id.
+     * @param ts the timestamp.
+     * @return the player id, if the record must be emitted; {@link SensorDirectory#NO_PID}, otherwise.
+     */
+    private long accept(long sid, long ts) {
+      final SensorDirectory sensors = (metadataWatcher != null) ? metadataWatcher.getSensors() : SensorEventFileSource.this.sensors;
+      if (sensors.isIgnored(sid)) {
+        if (this.reader == 0) this.drops.inc(DropReason.IGNORED_SENSOR);
+        return SensorDirectory.NO_PID;
+      }
+
+      final long pid = sensors.getPid(sid);
+      if (Math.floorMod(pid, (long) this.readers) != this.reader) return SensorDirectory.NO_PID;
+
+      if (ts < tsStart) {
+        this.drops.inc(DropReason.BEFORE_START);
+        return SensorDirectory.NO_PID;
+      }
+      if (ts > tsStartIgnore && ts < tsEndIgnore) {
+        this.drops.inc(DropReason.INTERVAL);
+        return SensorDirectory.NO_PID;
+      }
+
+      return pid;
+    }
+
+    /**
+     * Emits the event for the given record, paced to the replay speed.
+     * @param pid the player id.
+     * @param record the record.
+     */
+    private void emit(long pid, SensorRecord record) {
+      this.pacer.await(record.getTs());
+
+      final T event = create(pid, record, this.reuse);
+      if (objectReuse) this.reuse = event;
+      synchronized (this.ctx.getCheckpointLock()) {
+        this.ctx.collect(event);
+      }
+      this.emitted++;
+    }
+  }
+}
@@ -0,0 +1,146 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+
+package com.acmutv.socstream.common.source.kafka;
+
+import com.acmutv.socstream.common.meta.Field;
+import com.acmutv.socstream.common.meta.MetadataWatcher;
+import com.acmutv.socstream.common.meta.SensorDirectory;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Watches a Kafka control topic carrying the metadata of a match, one YAML document per record.
+ * Every watcher reads all partitions of the topic from the beginning, without consumer group, so
+ * that every source instance receives every record; the latest record wins, also after restarts.
+ * The control topic should have a single partition, so that records are applied in order.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see MetadataWatcher
+ */
+public class MetadataKafkaWatcher extends MetadataWatcher {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The control topic.
+   */
+  private final String topic;
+
+  /**
+   * The Kafka properties.
+   */
+  private final Properties props;
+
+  /**
+   * The consumer (created by the polling thread).
+   */
+  private transient KafkaConsumer<byte[],byte[]> consumer;
+
+  /**
+   * Creates a new watcher of the given control topic.
+   * @param matchId the match id.
+   * @param field the field of the match.
+   * @param sensors the sensor directory at job submission.
+   * @param topic the control topic.
+   * @param props the Kafka properties.
+   * @param interval the polling interval (ms).
+   */
+  public MetadataKafkaWatcher(int matchId, Field field, SensorDirectory sensors, String topic, Properties props,
+                              long interval) {
+    super(matchId, field, sensors, interval);
+    this.topic = topic;
+    this.props = new Properties();
+    this.props.putAll(props);
+  }
+
+  @Override
+  protected void poll() throws Exception {
+    if (this.consumer == null) {
+      this.consumer = this.subscribe();
+      if (this.consumer == null) {
+        Thread.sleep(super.getInterval());
+        return;
+      }
+    }
+    for (ConsumerRecord<byte[],byte[]> record : this.consumer.poll(super.getInterval())) {
+      if (record.value() != null) {
+        super.update(new ByteArrayInputStream(record.value()));
+      }
+    }
+  }
+
+  /**
+   * Creates a consumer assigned to all partitions of the control topic, from the beginning.
+   * @return the consumer, or null if the topic does not exist yet.
+   */
+  private KafkaConsumer<byte[],byte[]> subscribe() {
+    final Properties config = new Properties();
+    config.putAll(this.props);
+    config.remove(ConsumerConfig.GROUP_ID_CONFIG);
+    config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+    config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+    final KafkaConsumer<byte[],byte[]> consumer =
+        new KafkaConsumer<>(config, new ByteArrayDeserializer(), new ByteArrayDeserializer());
+    final List<PartitionInfo> partitions = consumer.partitionsFor(this.topic);
+    if (partitions == null || partitions.isEmpty()) {
+      consumer.close();
+      return null;
+    }
+    final List<TopicPartition> assigned = new ArrayList<>();
+    for (PartitionInfo partition : partitions) {
+      assigned.add(new TopicPartition(partition.topic(), partition.partition()));
+    }
+    consumer.assign(assigned);
+    consumer.seekToBeginning(assigned);
+    return consumer;
+  }
+
+  @Override
+  protected void release() {
+    if (this.consumer != null) {
+      this.consumer.close();
+      this.consumer = null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "kafka:" + this.topic;
+  }
+}
@@ -25,22 +25,23 @@
  */
 package com.acmutv.socstream.common.source.kafka;
 
+import com.acmutv.socstream.common.meta.SensorDirectory;
+import com.acmutv.socstream.common.source.SourceType;
+import com.acmutv.socstream.common.source.kafka.schema.PositionSensorEventBinaryDeserializationSchema;
 import com.acmutv.socstream.common.source.kafka.schema.PositionSensorEventDeserializationSchema;
 import com.acmutv.socstream.common.tuple.PositionSensorEvent;
-import org.apache.flink.streaming.connectors.kafka.FlinkKafkaConsumer010;
+import org.apache.flink.streaming.util.serialization.DeserializationSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Map;
 import java.util.Properties;
-import java.util.Set;
 
 /**
  * A source that produces {@link com.acmutv.socstream.common.tuple.PositionSensorEvent} from a Kafka topic.
  * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
  * @since 1.0
  */
-public class PositionSensorEventKafkaSource extends FlinkKafkaConsumer010<PositionSensorEvent> {
+public class PositionSensorEventKafkaSource extends SensorEventKafkaSource<PositionSensorEvent> {
 
   /**
    * The logger.
@@ -53,7 +54,7 @@ public class PositionSensorEventKafkaSource extends FlinkKafkaConsumer010<Positi
   public static final PositionSensorEvent END_OF_STREAM = new PositionSensorEvent(0, Long.MAX_VALUE, 0, 0);
 
   /**
-   * Constructs a new Kafka source for sensor events with ignoring features.
+   * Constructs a new Kafka source for sensor events with ignoring features, reading CSV records.
    *
    * @param topic Kafka topics.
    * @param props Kafka properties.
@@ -61,16 +62,79 @@ public class PositionSensorEventKafkaSource extends FlinkKafkaConsumer010<Positi
    * @param tsEnd the ending timestamp (events after this will be ignored).
    * @param tsStartIgnore the starting timestamp to ignore (events between this and {@code tsEndIgnore} will be ignored).
    * @param tsEndIgnore the ending timestamp to ignore (events between {@code tsStartIgnore} and this will be ignored).
-   * @param ignoredSensors the list of sensors id to be ignored.
-   * @param sid2Pid the map (SID->(PID).
+   * @param sensors the sensor directory, mapping (SID)->(PID) and marking ignored sensors.
    */
   public PositionSensorEventKafkaSource(String topic, Properties props,
                                         long tsStart, long tsEnd,
                                         long tsStartIgnore, long tsEndIgnore,
-                                        Set<Long> ignoredSensors,
-                                        Map<Long,Long> sid2Pid) {
-    super(topic, new PositionSensorEventDeserializationSchema(
-        tsStart, tsEnd, tsStartIgnore, tsEndIgnore, ignoredSensors, sid2Pid, END_OF_STREAM
-    ), props);
+                                        SensorDirectory sensors) {
+    this(topic, props, SourceType.KAFKA, tsStart, tsEnd, tsStartIgnore, tsEndIgnore, sensors);
+  }
+
+  /**
+   * Constructs a new Kafka source for sensor events with ignoring features.
+   *
+   * @param topic Kafka topics.
+   * @param props Kafka properties.
+   * @param type the source type, selecting the wire format ({@code KAFKA} or {@code KAFKA_BINARY}).
+   * @param tsStart the starting timestamp (events before this will be ignored).
+   * @param tsEnd the ending timestamp (events after this will be ignored).
+   * @param tsStartIgnore the starting timestamp to ignore (events between this and {@code tsEndIgnore} will be ignored).
+   * @param tsEndIgnore the ending timestamp to ignore (events between {@code tsStartIgnore} and this will be ignored).
+   * @param sensors the sensor directory, mapping (SID)->(PID) and marking ignored sensors.
+   */
+  public PositionSensorEventKafkaSource(String topic, Properties props, SourceType type,
+                                        long tsStart, long tsEnd,
+                                        long tsStartIgnore, long tsEndIgnore,
+                                        SensorDirectory sensors) {
+    this(topic, props, type, tsStart, tsEnd, tsStartIgnore, tsEndIgnore, sensors, false);
+  }
+
+  /**
+   * Constructs a new Kafka source for sensor events with ignoring features, optionally bounded by the match end.
+   *
+   * @param topic Kafka topics.
+   * @param props Kafka properties.
+   * @param type the source type, selecting the wire format ({@code KAFKA} or {@code KAFKA_BINARY}).
+   * @param tsStart the starting timestamp (events before this will be ignored).
+   * @param tsEnd the ending timestamp (events after this will be ignored).
+   * @param tsStartIgnore the starting timestamp to ignore (events between this and {@code tsEndIgnore} will be ignored).
+   * @param tsEndIgnore the ending timestamp to ignore (events between {@code tsStartIgnore} and this will be ignored).
+   * @param sensors the sensor directory, mapping (SID)->(PID) and marking ignored sensors.
+   * @param bounded true, if the source must stop once all its partitions have reached the match end.
+   */
+  public PositionSensorEventKafkaSource(String topic, Properties props, SourceType type,
+                                        long tsStart, long tsEnd,
+                                        long tsStartIgnore, long tsEndIgnore,
+                                        SensorDirectory sensors, boolean bounded) {
+    super(topic, createSchema(type, tsStart, tsEnd, tsStartIgnore, tsEndIgnore, sensors), props, bounded);
+  }
+
+  /**
+   * Creates the deserialization schema for the given source type.
+   *
+   * @param type the source type.
+   * @param tsStart the starting timestamp (events before this will be ignored).
+   * @param tsEnd the ending timestamp (events after this will be ignored).
+   * @param tsStartIgnore the starting timestamp to ignore.
+   * @param tsEndIgnore the ending timestamp to ignore.
+   * @param sensors the sensor directory.
+   * @return the deserialization schema.
+   * @throws IllegalArgumentException when {@code type} is not a Kafka source type.
+   */
+  private static DeserializationSchema<PositionSensorEvent> createSchema(SourceType type,
+                                                                         long tsStart, long tsEnd,
+                                                                         long tsStartIgnore, long tsEndIgnore,
+                                                                         SensorDirectory sensors) {
+    switch (type) {
+      case KAFKA:
+        return new PositionSensorEventDeserializationSchema(
+            tsStart, tsEnd, tsStartIgnore, tsEndIgnore, sensors, END_OF_STREAM);
+      case KAFKA_BINARY:
+        return new PositionSensorEventBinaryDeserializationSchema(
+            tsStart, tsEnd, tsStartIgnore, tsEndIgnore, sensors, END_OF_STREAM);
+      default:
+        throw new IllegalArgumentException("Not a Kafka source type: " + type);
+    }
   }
 }
@@ -0,0 +1,191 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.source.kafka;
+
+import com.acmutv.socstream.common.meta.MetadataWatcher;
+import com.acmutv.socstream.common.metric.DropCounters;
+import com.acmutv.socstream.common.metric.DropCounting;
+import com.acmutv.socstream.common.metric.MetricNames;
+import com.acmutv.socstream.common.source.MetadataReloading;
+import com.acmutv.socstream.common.source.ObjectReusing;
+import com.acmutv.socstream.common.source.kafka.schema.BoundedDeserializationSchema;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.streaming.connectors.kafka.FlinkKafkaConsumer010;
+import org.apache.flink.streaming.connectors.kafka.config.StartupMode;
+import org.apache.flink.streaming.connectors.kafka.internals.KafkaTopicPartition;
+import org.apache.flink.streaming.util.serialization.DeserializationSchema;
+import org.apache.flink.streaming.util.serialization.KeyedDeserializationSchema;
+import org.apache.flink.streaming.util.serialization.KeyedDeserializationSchemaWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * A Kafka source for sensor events, either unbounded or bounded by the match end.
+ * An unbounded source instance stops as soon as any of its partitions delivers an event after the
+ * match end, while the other instances keep polling.
+ * A bounded source stops once all of its partitions have delivered an event after the match end
+ * (see {@link BoundedDeserializationSchema}); a bounded source with no partitions stops
+ * immediately. Either way, the source then emits the final watermark, so that the job drains all
+ * open windows and terminates.
+ * Events discarded by the schema are counted in the source metric group {@code dropped}
+ * (see {@link DropCounters}).
+ * When the job enables object reuse, schemas that support it (see {@link ObjectReusing}) emit a
+ * single, mutated event instance.
+ * With a metadata watcher (see {@link MetadataWatcher}), schemas that support it (see {@link MetadataReloading})
+ * map sensors with the latest metadata; applied updates are counted in the metric {@code metadataUpdates}.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see BoundedDeserializationSchema
+ */
+public abstract class SensorEventKafkaSource<T> extends FlinkKafkaConsumer010<T> {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(SensorEventKafkaSource.class);
+
+  /**
+   * The topic.
+   */
+  private final String topic;
+
+  /**
+   * True, if the source is bounded by the match end.
+   */
+  private final boolean bounded;
+
+  /**
+   * The deserialization schema.
+   */
+  private final DeserializationSchema<T> schema;
+
+  /**
+   * The watcher of metadata updates, or null.
+   */
+  private MetadataWatcher metadataWatcher;
+
+  /**
+   * The number of partitions assigned to this source instance (bounded sources only).
+   */
+  private transient int numPartitions;
+
+  /**
+   * Creates a new Kafka source.
+   * @param topic the topic.
+   * @param schema the deserialization schema.
+   * @param props the Kafka properties.
+   * @param bounded true, if the source is bounded by the match end.
+   */
+  protected SensorEventKafkaSource(String topic, DeserializationSchema<T> schema, Properties props,
+                                   boolean bounded) {
+    super(topic, bounded ? new BoundedDeserializationSchema<>(schema) : wrap(schema), props);
+    this.topic = topic;
+    this.bounded = bounded;
+    this.schema = schema;
+  }
+
+  private static <T> KeyedDeserializationSchema<T> wrap(DeserializationSchema<T> schema) {
+    return new KeyedDeserializationSchemaWrapper<>(schema);
+  }
+
+  @Override
+  public void open(Configuration configuration) {
+    super.open(configuration);
+    if (this.schema instanceof DropCounting) {
+      ((DropCounting) this.schema).setDropCounters(new DropCounters(super.getRuntimeContext().getMetricGroup()));
+    }
+    if (this.schema instanceof ObjectReusing) {
+      ((ObjectReusing) this.schema).setObjectReuse(super.getRuntimeContext().getExecutionConfig().isObjectReuseEnabled());
+    }
+    if (this.metadataWatcher != null) {
+      this.metadataWatcher.open("metadata-watcher " + super.getRuntimeContext().getTaskNameWithSubtasks());
+      if (this.schema instanceof MetadataReloading) {
+        ((MetadataReloading) this.schema).setMetadataWatcher(this.metadataWatcher);
+      }
+      super.getRuntimeContext().getMetricGroup().gauge(MetricNames.METADATA_UPDATES,
+          (Gauge<Long>) this.metadataWatcher::getUpdates);
+    }
+    if (this.bounded) {
+      final Map<KafkaTopicPartition,Long> assigned = new HashMap<>();
+      initializeSubscribedPartitionsToStartOffsets(assigned, this.getKafkaPartitions(Collections.singletonList(this.topic)),
+          super.getRuntimeContext().getIndexOfThisSubtask(), super.getRuntimeContext().getNumberOfParallelSubtasks(),
+          StartupMode.GROUP_OFFSETS, null);
+      ((BoundedDeserializationSchema<T>) this.deserializer).setPartitions(assigned.keySet());
+      this.numPartitions = assigned.size();
+      LOG.info("Bounded source {}/{} reading {} partitions of {}",
+          super.getRuntimeContext().getIndexOfThisSubtask() + 1, super.getRuntimeContext().getNumberOfParallelSubtasks(),
+          this.numPartitions, this.topic);
+    }
+  }
+
+  @Override
+  public void run(SourceContext<T> sourceContext) throws Exception {
+    if (this.bounded && this.numPartitions == 0) {
+      return;
+    }
+    super.run(sourceContext);
+  }
+
+  @Override
+  public void close() throws Exception {
+    try {
+      super.close();
+    } finally {
+      if (this.metadataWatcher != null) {
+        this.metadataWatcher.close();
+      }
+    }
+  }
+
+  /**
+   * Sets the watcher of metadata updates, opened by every source instance.
+   * @param metadataWatcher the watcher, or null to keep the metadata at job submission.
+   * @return this source.
+   */
+  public SensorEventKafkaSource<T> setMetadataWatcher(MetadataWatcher metadataWatcher) {
+    this.metadataWatcher = metadataWatcher;
+    return this;
+  }
+
+  /**
+   * Checks if the source is bounded by the match end.
+   * @return true, if the source is bounded; false, otherwise.
+   */
+  public boolean isBounded() {
+    return this.bounded;
+  }
+}
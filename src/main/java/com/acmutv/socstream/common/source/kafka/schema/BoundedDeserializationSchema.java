@@ -0,0 +1,114 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.source.kafka.schema;
+
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.streaming.connectors.kafka.internals.KafkaTopicPartition;
+import org.apache.flink.streaming.util.serialization.DeserializationSchema;
+import org.apache.flink.streaming.util.serialization.KeyedDeserializationSchema;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A deserialization schema that ends the stream once every assigned partition has reached the end
+ * of the match.
+ * A partition reaches the end of the match with its first record that the wrapped schema marks as
+ * end of stream; that record is dropped, and the partition keeps being read until all the others
+ * have reached the end too.
+ * Until the assigned partitions are set, the stream never ends.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class BoundedDeserializationSchema<T> implements KeyedDeserializationSchema<T> {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The wrapped schema.
+   */
+  private final DeserializationSchema<T> schema;
+
+  /**
+   * The partitions that reached the end of the match, per topic.
+   */
+  private transient Map<String,BitSet> ended;
+
+  /**
+   * The number of assigned partitions that have not reached the end of the match yet.
+   */
+  private transient int pending;
+
+  /**
+   * Creates a new bounded schema.
+   * @param schema the wrapped schema.
+   */
+  public BoundedDeserializationSchema(DeserializationSchema<T> schema) {
+    this.schema = schema;
+  }
+
+  /**
+   * Sets the partitions assigned to this source instance.
+   * @param partitions the assigned partitions.
+   */
+  public void setPartitions(Collection<KafkaTopicPartition> partitions) {
+    this.ended = new HashMap<>();
+    this.pending = partitions.size();
+  }
+
+  @Override
+  public T deserialize(byte[] messageKey, byte[] message, String topic, int partition, long offset) throws IOException {
+    final T event = this.schema.deserialize(message);
+    if (event == null || !this.schema.isEndOfStream(event)) {
+      return event;
+    }
+
+    if (this.ended != null) {
+      final BitSet partitions = this.ended.computeIfAbsent(topic, t -> new BitSet());
+      if (!partitions.get(partition)) {
+        partitions.set(partition);
+        this.pending--;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public boolean isEndOfStream(T event) {
+    return this.ended != null && this.pending == 0;
+  }
+
+  @Override
+  public TypeInformation<T> getProducedType() {
+    return this.schema.getProducedType();
+  }
+}
@@ -0,0 +1,210 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+package com.acmutv.socstream.common.source.kafka.schema;
+
+import com.acmutv.socstream.common.meta.MetadataWatcher;
+import com.acmutv.socstream.common.meta.SensorDirectory;
+import com.acmutv.socstream.common.metric.DropCounters;
+import com.acmutv.socstream.common.metric.DropCounting;
+import com.acmutv.socstream.common.metric.DropReason;
+import com.acmutv.socstream.common.source.MetadataReloading;
+import com.acmutv.socstream.common.source.ObjectReusing;
+import com.acmutv.socstream.common.source.SensorEventBinaryFormat;
+import com.acmutv.socstream.common.tuple.PositionSensorEvent;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.apache.flink.streaming.util.serialization.AbstractDeserializationSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+import static com.acmutv.socstream.common.source.SensorEventBinaryFormat.*;
+
+/**
+ * The Kafka deserialization schema for {@link PositionSensorEvent},
+ * reading records in {@link SensorEventBinaryFormat}.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @since 1.0
+ */
+@Data
+@EqualsAndHashCode(callSuper=false)
+public class PositionSensorEventBinaryDeserializationSchema extends AbstractDeserializationSchema<PositionSensorEvent> implements DropCounting, ObjectReusing, MetadataReloading {
+
+  /**
+   * The logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(PositionSensorEventBinaryDeserializationSchema.class);
+
+  /**
+   * The starting timestamp (events before this will be ignored).
+   */
+  private Long tsStart;
+
+  /**
+   * The ending timestamp (events after this will be ignored).
+   */
+  private Long tsEnd;
+
+  /**
+   * The starting timestamp to ignore (events between this and {@code tsEndIgnore} will be ignored).
+   */
+  private Long tsStartIgnore;
+
+  /**
+   * The ending timestamp to ignore (events between {@code tsStartIgnore} and this will be ignored).
+   */
+  private Long tsEndIgnore;
+
+  /**
+   * The sensor directory, mapping (SID)->(PID) and marking ignored sensors.
+   */
+  private SensorDirectory sensors;
+
+  /**
+   * The watcher of metadata updates, replacing {@code sensors} (if set by the source).
+   */
+  private transient MetadataWatcher metadataWatcher;
+
+  /**
+   * The tuple signaling the end of stream.
+   */
+  private PositionSensorEvent eos;
+
+  /**
+   * The counters of discarded events (local, unless registered by the source).
+   */
+  private transient DropCounters dropCounters;
+
+  /**
+   * The reused event, if object reuse is enabled (the end of stream tuple is never reused).
+   */
+  private transient PositionSensorEvent reuse;
+
+  /**
+   * Creates a new deserialization schema.
+   */
+  public PositionSensorEventBinaryDeserializationSchema() {
+    super();
+  }
+
+  /**
+   * Creates a new deserialization schema.
+   * @param tsStart the starting timestamp (events before this will be ignored).
+   * @param tsEnd the ending timestamp (events after this will be ignored).
+   * @param tsStartIgnore the starting timestamp to ignore.
+   * @param tsEndIgnore the ending timestamp to ignore.
+   * @param sensors the sensor directory.
+   * @param eos the tuple signaling the end of stream.
+   */
+  public PositionSensorEventBinaryDeserializationSchema(Long tsStart, Long tsEnd,
+                                                        Long tsStartIgnore, Long tsEndIgnore,
+                                                        SensorDirectory sensors, PositionSensorEvent eos) {
+    super();
+    this.tsStart = tsStart;
+    this.tsEnd = tsEnd;
+    this.tsStartIgnore = tsStartIgnore;
+    this.tsEndIgnore = tsEndIgnore;
+    this.sensors = sensors;
+    this.eos = eos;
+  }
+
+  /**
+   * De-serializes the byte message.
+   *
+   * @param message The message, as a position or rich record.
+   * @return The de-serialized message as an object.
+   */
+  @Override
+  public PositionSensorEvent deserialize(byte[] message) throws IOException {
+    if (!SensorEventBinaryFormat.isPositionRecord(message)) {
+      this.getDropCounters().inc(DropReason.MALFORMED);
+      return null;
+    }
+
+    final long sid = readInt(message, OFFSET_SID);
+    final long ts = readLong(message, OFFSET_TS);
+
+    if (ts > this.tsEnd) {
+      //LOG.debug("Ignored sensor event (after match end): {}", ts);
+      //LOG.debug("Emitting EOS tuple: {}", this.eos);
+      return eos;
+    }
+
+    final SensorDirectory sensors = (this.metadataWatcher != null) ? this.metadataWatcher.getSensors() : this.sensors;
+    if (sensors.isIgnored(sid)) {
+      this.getDropCounters().inc(DropReason.IGNORED_SENSOR);
+      return null;
+    }
+
+    if (ts < this.tsStart) {
+      this.getDropCounters().inc(DropReason.BEFORE_START);
+      return null;
+    } else if (ts > tsStartIgnore && ts < tsEndIgnore) {
+      this.getDropCounters().inc(DropReason.INTERVAL);
+      return null;
+    }
+
+    final PositionSensorEvent event = ((this.reuse != null) ? this.reuse : new PositionSensorEvent()).set(sensors.getPid(sid), ts,
+        readInt(message, OFFSET_X), readInt(message, OFFSET_Y));
+
+    //LOG.info("Emitting event: {}", event);
+
+    return event;
+  }
+
+  /**
+   * Sets whether the emitted event instance is reused.
+   * @param objectReuse true, to reuse the emitted event instance; false, to emit new ones.
+   */
+  @Override
+  public void setObjectReuse(boolean objectReuse) {
+    this.reuse = objectReuse ? new PositionSensorEvent() : null;
+  }
+
+  /**
+   * Returns the counters of discarded events, creating local ones if none has been set.
+   * @return the counters.
+   */
+  @Override
+  public DropCounters getDropCounters() {
+    if (this.dropCounters == null) {
+      this.dropCounters = new DropCounters();
+    }
+    return this.dropCounters;
+  }
+
+  /**
+   * Checks if the end of stream has been reached.
+   * @param event the current event.
+   * @return true, if the end of stream has been reached; false, otherwise.
+   */
+  @Override
+  public boolean isEndOfStream(PositionSensorEvent event) {
+    return (event != null) && event.getTs() > this.getTsEnd();
+  }
+}
@@ -25,8 +25,15 @@
  */
 package com.acmutv.socstream.common.source.kafka.schema;
 
+import com.acmutv.socstream.common.meta.MetadataWatcher;
+import com.acmutv.socstream.common.meta.SensorDirectory;
+import com.acmutv.socstream.common.metric.DropCounters;
+import com.acmutv.socstream.common.metric.DropCounting;
+import com.acmutv.socstream.common.metric.DropReason;
+import com.acmutv.socstream.common.source.MetadataReloading;
+import com.acmutv.socstream.common.source.ObjectReusing;
+import com.acmutv.socstream.common.source.SensorEventParser;
 import com.acmutv.socstream.common.tuple.RichSensorEvent;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import org.apache.flink.streaming.util.serialization.AbstractDeserializationSchema;
@@ -34,8 +41,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.Map;
-import java.util.Set;
 
 /**
  * The Kafka deserialization schema for {@link RichSensorEvent}.
@@ -44,9 +49,8 @@ import java.util.Set;
  * @since 1.0
  */
 @Data
-@AllArgsConstructor
 @EqualsAndHashCode(callSuper = false)
-public class RichSensorEventDeserializationSchema extends AbstractDeserializationSchema<RichSensorEvent> {
+public class RichSensorEventDeserializationSchema extends AbstractDeserializationSchema<RichSensorEvent> implements DropCounting, ObjectReusing, MetadataReloading {
 
   /**
    * The logger.
@@ -74,20 +78,35 @@ public class RichSensorEventDeserializationSchema extends AbstractDeserializatio
   private Long tsEndIgnore;
 
   /**
-   * The ignore list for sensors id.
+   * The sensor directory, mapping (SID)->(PID) and marking ignored sensors.
    */
-  private Set<Long> ignoredSensors;
+  private SensorDirectory sensors;
 
   /**
-   * The map (SID)->(PID).
+   * The watcher of metadata updates, replacing {@code sensors} (if set by the source).
    */
-  private Map<Long,Long> sid2Pid;
+  private transient MetadataWatcher metadataWatcher;
 
   /**
    * The tuple signaling the end of stream.
    */
   private RichSensorEvent eos;
 
+  /**
+   * The counters of discarded events (local, unless registered by the source).
+   */
+  private transient DropCounters dropCounters;
+
+  /**
+   * The reused event, if object reuse is enabled (the end of stream tuple is never reused).
+   */
+  private transient RichSensorEvent reuse;
+
+  /**
+   * The parser for raw sensor events (created lazily on the consumer side).
+   */
+  private transient SensorEventParser parser;
+
   /**
    * Creates a new deserialization schema.
    */
@@ -95,6 +114,27 @@ public class RichSensorEventDeserializationSchema extends AbstractDeserializatio
     super();
   }
 
+  /**
+   * Creates a new deserialization schema.
+   * @param tsStart the starting timestamp (events before this will be ignored).
+   * @param tsEnd the ending timestamp (events after this will be ignored).
+   * @param tsStartIgnore the starting timestamp to ignore.
+   * @param tsEndIgnore the ending timestamp to ignore.
+   * @param sensors the sensor directory.
+   * @param eos the tuple signaling the end of stream.
+   */
+  public RichSensorEventDeserializationSchema(Long tsStart, Long tsEnd,
+                                              Long tsStartIgnore, Long tsEndIgnore,
+                                              SensorDirectory sensors, RichSensorEvent eos) {
+    super();
+    this.tsStart = tsStart;
+    this.tsEnd = tsEnd;
+    this.tsStartIgnore = tsStartIgnore;
+    this.tsEndIgnore = tsEndIgnore;
+    this.sensors = sensors;
+    this.eos = eos;
+  }
+
   /**
    * De-serializes the byte message.
    *
@@ -103,43 +143,76 @@ public class RichSensorEventDeserializationSchema extends AbstractDeserializatio
    */
   @Override
   public RichSensorEvent deserialize(byte[] message) throws IOException {
-    RichSensorEvent event;
-
-    final String strEvent = new String(message);
+    if (this.parser == null) {
+      this.parser = new SensorEventParser();
+    }
+    final SensorEventParser p = this.parser;
 
-    try {
-      event = RichSensorEvent.fromDataset(strEvent);
-    } catch (IllegalArgumentException exc) {
-      //LOG.warn("Malformed sensor event: {}", strEvent);
+    if (!p.parseHead(message, 0, message.length)) {
+      this.getDropCounters().inc(DropReason.MALFORMED);
       return null;
     }
 
-    if (this.ignoredSensors.contains(event.getId())) {
-      //LOG.debug("Ignored sensor event (untracked SID): {}", strEvent);
-      return null;
+    final long sid = p.getSid();
+    final long ts = p.getTs();
+
+    if (ts > this.tsEnd) {
+      //LOG.debug("Ignored sensor event (after match end): {}", ts);
+      //LOG.debug("Emitting EOS tuple: {}", this.eos);
+      return eos;
     }
 
-    final long ts = event.getTs();
+    final SensorDirectory sensors = (this.metadataWatcher != null) ? this.metadataWatcher.getSensors() : this.sensors;
+    if (sensors.isIgnored(sid)) {
+      this.getDropCounters().inc(DropReason.IGNORED_SENSOR);
+      return null;
+    }
 
     if (ts < this.tsStart) {
-      //LOG.debug("Ignored sensor event (before match start): {}", strEvent);
+      this.getDropCounters().inc(DropReason.BEFORE_START);
       return null;
     } else if (ts > tsStartIgnore && ts < tsEndIgnore) {
-      //LOG.debug("Ignored sensor event (within match interval): {}", strEvent);
+      this.getDropCounters().inc(DropReason.INTERVAL);
       return null;
-    } else if (ts > this.tsEnd) {
-      //LOG.debug("Ignored sensor event (after match end): {}", strEvent);
-      //LOG.debug("Emitting EOS tuple: {}", this.eos);
-      return eos;
     }
 
-    event.setId(this.sid2Pid.get(event.getId()));
+    if (!p.parseBody()) {
+      this.getDropCounters().inc(DropReason.MALFORMED);
+      return null;
+    }
+
+    final RichSensorEvent event = ((this.reuse != null) ? this.reuse : new RichSensorEvent()).set(sensors.getPid(sid), ts,
+        p.getX(), p.getY(),
+        p.getV(), p.getA(),
+        p.getVx(), p.getVy(),
+        p.getAx(), p.getAy());
 
     //LOG.info("Emitting event: {}", event);
 
     return event;
   }
 
+  /**
+   * Sets whether the emitted event instance is reused.
+   * @param objectReuse true, to reuse the emitted event instance; false, to emit new ones.
+   */
+  @Override
+  public void setObjectReuse(boolean objectReuse) {
+    this.reuse = objectReuse ? new RichSensorEvent() : null;
+  }
+
+  /**
+   * Returns the counters of discarded events, creating local ones if none has been set.
+   * @return the counters.
+   */
+  @Override
+  public DropCounters getDropCounters() {
+    if (this.dropCounters == null) {
+      this.dropCounters = new DropCounters();
+    }
+    return this.dropCounters;
+  }
+
   /**
    * Checks if the end of stream has been reached.
    * @param event the current event.
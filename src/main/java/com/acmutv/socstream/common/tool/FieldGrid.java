@@ -0,0 +1,230 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.tool;
+
+import com.acmutv.socstream.common.meta.Field;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.io.Serializable;
+
+/**
+ * A grid of {@code rows x columns} cells laid on the pitch.
+ * Columns split the x-axis and rows split the y-axis; the cell id of column {@code cx} and
+ * row {@code cy} is {@code cx * rows + cy}, so ids are dense in {@code [0,rows*columns)}.
+ * Scales are precomputed, so mapping a position to its cell takes only subtractions and
+ * multiplications.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+@Getter
+@EqualsAndHashCode
+public class FieldGrid implements Serializable {
+
+  /**
+   * The number of rows (y-axis).
+   */
+  private final int rows;
+
+  /**
+   * The number of columns (x-axis).
+   */
+  private final int columns;
+
+  /**
+   * The minimum x-coordinate (mm).
+   */
+  private final long xMin;
+
+  /**
+   * The maximum x-coordinate (mm).
+   */
+  private final long xMax;
+
+  /**
+   * The minimum y-coordinate (mm).
+   */
+  private final long yMin;
+
+  /**
+   * The maximum y-coordinate (mm).
+   */
+  private final long yMax;
+
+  /**
+   * The number of columns per mm.
+   */
+  private final double xScale;
+
+  /**
+   * The number of rows per mm.
+   */
+  private final double yScale;
+
+  /**
+   * Creates a new {@link FieldGrid} on the specified pitch.
+   * @param field the pitch bounds.
+   * @param rows the number of rows (y-axis).
+   * @param columns the number of columns (x-axis).
+   * @throws IllegalArgumentException when the pitch is empty or the resolution is not positive.
+   */
+  public FieldGrid(Field field, int rows, int columns) throws IllegalArgumentException {
+    if (rows <= 0 || columns <= 0) {
+      throw new IllegalArgumentException("Grid resolution must be positive: " + rows + "x" + columns);
+    }
+    if (field.getXMax() <= field.getXMin() || field.getYMax() <= field.getYMin()) {
+      throw new IllegalArgumentException("Empty field: " + field);
+    }
+    this.rows = rows;
+    this.columns = columns;
+    this.xMin = field.getXMin();
+    this.xMax = field.getXMax();
+    this.yMin = field.getYMin();
+    this.yMax = field.getYMax();
+    this.xScale = ((double) columns) / (this.xMax - this.xMin);
+    this.yScale = ((double) rows) / (this.yMax - this.yMin);
+  }
+
+  /**
+   * Parses a grid from its resolution ({@code <rows>x<columns>}, e.g. {@code 8x13}).
+   * @param field the pitch bounds.
+   * @param resolution the resolution to parse.
+   * @return the parsed grid.
+   * @throws IllegalArgumentException when {@code resolution} cannot be parsed.
+   */
+  public static FieldGrid valueOf(Field field, String resolution) throws IllegalArgumentException {
+    if (resolution == null) throw new IllegalArgumentException();
+    final String[] parts = resolution.trim().toLowerCase().split("x");
+    if (parts.length != 2) throw new IllegalArgumentException(resolution);
+    try {
+      return new FieldGrid(field, Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+    } catch (NumberFormatException exc) {
+      throw new IllegalArgumentException(resolution);
+    }
+  }
+
+  /**
+   * Parses a comma-separated list of grid resolutions (e.g. {@code 8x13,16x26,32x52}).
+   * @param field the pitch bounds.
+   * @param resolutions the resolutions to parse.
+   * @return the parsed grids.
+   * @throws IllegalArgumentException when {@code resolutions} cannot be parsed.
+   */
+  public static FieldGrid[] parse(Field field, String resolutions) throws IllegalArgumentException {
+    if (resolutions == null) throw new IllegalArgumentException();
+    final String[] parts = resolutions.split(",");
+    final FieldGrid[] grids = new FieldGrid[parts.length];
+    for (int i = 0; i < parts.length; i++) {
+      grids[i] = valueOf(field, parts[i]);
+    }
+    return grids;
+  }
+
+  /**
+   * Returns the number of cells.
+   * @return the number of cells.
+   */
+  public int numCells() {
+    return this.rows * this.columns;
+  }
+
+  /**
+   * Computes the id of the cell containing the given position.
+   * Positions on the far border belong to the last row/column, and positions out of the pitch
+   * are clamped to the nearest border cell.
+   * @param x the x-coordinate (mm).
+   * @param y the y-coordinate (mm).
+   * @return the cell id.
+   */
+  public int cellId(long x, long y) {
+    final int cx = clamp((x - this.xMin) * this.xScale, this.columns);
+    final int cy = clamp((y - this.yMin) * this.yScale, this.rows);
+    return cx * this.rows + cy;
+  }
+
+  /**
+   * Clamps a scaled coordinate to a cell index in {@code [0,size)}.
+   * @param scaled the coordinate, in cells from the pitch origin.
+   * @param size the number of cells on the axis.
+   * @return the cell index.
+   */
+  private static int clamp(double scaled, int size) {
+    if (scaled <= 0) return 0;
+    return (scaled >= size) ? size - 1 : (int) scaled;
+  }
+
+  /**
+   * Returns the column (x-index) of the given cell.
+   * @param cellId the cell id.
+   * @return the column.
+   */
+  public int cellX(int cellId) {
+    return cellId / this.rows;
+  }
+
+  /**
+   * Returns the row (y-index) of the given cell.
+   * @param cellId the cell id.
+   * @return the row.
+   */
+  public int cellY(int cellId) {
+    return cellId % this.rows;
+  }
+
+  /**
+   * Returns the key ({@code x;y}) of the given cell, as in {@link com.acmutv.socstream.common.tuple.GridCoordinate#getKey()}.
+   * @param cellId the cell id.
+   * @return the cell key.
+   */
+  public String cellKey(int cellId) {
+    return cellKey(cellId, this.rows);
+  }
+
+  /**
+   * Returns the key ({@code x;y}) of the given cell in a grid with the given number of rows.
+   * @param cellId the cell id.
+   * @param rows the number of rows of the grid.
+   * @return the cell key.
+   */
+  public static String cellKey(int cellId, int rows) {
+    return (cellId / rows) + ";" + (cellId % rows);
+  }
+
+  /**
+   * Returns the grid resolution ({@code <rows>x<columns>}).
+   * @return the grid resolution.
+   */
+  public String getResolution() {
+    return this.rows + "x" + this.columns;
+  }
+
+  @Override
+  public String toString() {
+    return this.getResolution();
+  }
+}
@@ -25,6 +25,7 @@
  */
 package com.acmutv.socstream.common.tool;
 
+import com.acmutv.socstream.common.meta.Field;
 import com.acmutv.socstream.common.tuple.Coordinate;
 import com.acmutv.socstream.common.tuple.GridCoordinate;
 
@@ -37,10 +38,15 @@ import com.acmutv.socstream.common.tuple.GridCoordinate;
  */
 public class GridTool {
 
+  /**
+   * The default grid (8 rows by 13 columns on the default pitch).
+   */
+  public static final FieldGrid DEFAULT_GRID = new FieldGrid(new Field(), 8, 13);
+
   public static GridCoordinate computeCell(Coordinate position) {
 
-    long x = (long)  (position.getX()/4037.154);
-    long y = (long)  ((position.getY()+33960)/8490.625);
+    long x = (long)  ((position.getX() - DEFAULT_GRID.getXMin()) * DEFAULT_GRID.getXScale());
+    long y = (long)  ((position.getY() - DEFAULT_GRID.getYMin()) * DEFAULT_GRID.getYScale());
 
     return new GridCoordinate(x,y,position);
   }
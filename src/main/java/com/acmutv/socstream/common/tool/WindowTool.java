@@ -0,0 +1,104 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.tool;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class parses window lengths and computes the panes they can share.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class WindowTool {
+
+  /**
+   * The length of the window covering the whole match.
+   */
+  public static final long FULL = Long.MAX_VALUE;
+
+  /**
+   * Parses a comma-separated list of window lengths (e.g. {@code 1m,5m,20m,full}).
+   * Every length is a number followed by a unit ({@code ms}, {@code s}, {@code m}, {@code h});
+   * {@code full} stands for the whole match.
+   * @param string the string to parse.
+   * @return the window lengths (ms), {@link #FULL} for the whole match.
+   * @throws IllegalArgumentException when {@code string} cannot be parsed.
+   */
+  public static long[] parseLengths(String string) throws IllegalArgumentException {
+    if (string == null || string.trim().isEmpty()) throw new IllegalArgumentException("No window lengths");
+    String parts[] = string.split(",");
+    long lengths[] = new long[parts.length];
+    for (int i = 0; i < parts.length; i++) {
+      lengths[i] = parseLength(parts[i].trim().toLowerCase());
+    }
+    return lengths;
+  }
+
+  /**
+   * Computes the pane length, that is the greatest common divisor of window lengths.
+   * @param lengths the window lengths (ms), possibly including {@link #FULL}.
+   * @param fallback the pane length when {@code lengths} contains only {@link #FULL}.
+   * @return the pane length (ms).
+   */
+  public static long paneLength(long lengths[], long fallback) {
+    long pane = 0;
+    for (long length : lengths) {
+      if (length == FULL) continue;
+      pane = (pane == 0) ? length : gcd(pane, length);
+    }
+    return (pane == 0) ? fallback : pane;
+  }
+
+  private static long parseLength(String string) throws IllegalArgumentException {
+    if (string.equals("full")) return FULL;
+    int i = 0;
+    while (i < string.length() && Character.isDigit(string.charAt(i))) i++;
+    if (i == 0) throw new IllegalArgumentException("Malformed window length: " + string);
+    final long value = Long.parseLong(string.substring(0, i));
+    final TimeUnit unit;
+    switch (string.substring(i)) {
+      case "ms": unit = TimeUnit.MILLISECONDS; break;
+      case "s": unit = TimeUnit.SECONDS; break;
+      case "m": unit = TimeUnit.MINUTES; break;
+      case "h": unit = TimeUnit.HOURS; break;
+      default: throw new IllegalArgumentException("Malformed window length: " + string);
+    }
+    final long length = unit.toMillis(value);
+    if (length <= 0) throw new IllegalArgumentException("Window length must be positive: " + string);
+    return length;
+  }
+
+  private static long gcd(long a, long b) {
+    while (b != 0) {
+      long t = a % b;
+      a = b;
+      b = t;
+    }
+    return a;
+  }
+}
@@ -27,6 +27,7 @@
 package com.acmutv.socstream.common.tuple;
 
 import lombok.Data;
+import org.apache.flink.api.common.typeinfo.TypeInfo;
 
 import java.io.Serializable;
 import java.util.regex.Matcher;
@@ -39,6 +40,7 @@ import java.util.regex.Pattern;
  * @since 1.0
  */
 @Data
+@TypeInfo(PositionSensorEventTypeInfo.Factory.class)
 public class PositionSensorEvent implements Serializable {
 
   /**
@@ -76,6 +78,23 @@ public class PositionSensorEvent implements Serializable {
    */
   public PositionSensorEvent(){}
 
+  /**
+   * Sets all the fields, so that the event can be reused.
+   * @param id the SID or PID.
+   * @param ts the timestamp (picoseconds).
+   * @param x the x-coordinate (mm).
+   * @param y the y-coordinate (mm).
+   * @return this event.
+   */
+  public PositionSensorEvent set(long id, long ts,
+                                 long x, long y) {
+    this.id = id;
+    this.ts = ts;
+    this.x = x;
+    this.y = y;
+    return this;
+  }
+
   public static PositionSensorEvent fromDataset(String string) throws IllegalArgumentException {
     String fields[] = string.split(",");
     if (fields.length != 13) {
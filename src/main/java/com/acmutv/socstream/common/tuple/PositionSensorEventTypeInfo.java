@@ -0,0 +1,61 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.tuple;
+
+import com.acmutv.socstream.common.typeutils.SerializerTypeInfo;
+import org.apache.flink.api.common.typeinfo.TypeInfoFactory;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+
+/**
+ * The type information for {@link PositionSensorEvent}, which makes Flink use {@link PositionSensorEventSerializer}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class PositionSensorEventTypeInfo extends SerializerTypeInfo<PositionSensorEvent> {
+
+  /**
+   * Creates a new type information.
+   */
+  public PositionSensorEventTypeInfo() {
+    super(PositionSensorEvent.class, PositionSensorEventSerializer.INSTANCE);
+  }
+
+  /**
+   * The factory referenced by {@link org.apache.flink.api.common.typeinfo.TypeInfo} on {@link PositionSensorEvent}.
+   */
+  public static class Factory extends TypeInfoFactory<PositionSensorEvent> {
+
+    @Override
+    public TypeInformation<PositionSensorEvent> createTypeInfo(Type t, Map<String,TypeInformation<?>> genericParameters) {
+      return new PositionSensorEventTypeInfo();
+    }
+  }
+}
@@ -28,6 +28,7 @@ package com.acmutv.socstream.common.tuple;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.apache.flink.api.common.typeinfo.TypeInfo;
 
 import java.io.Serializable;
 import java.util.regex.Matcher;
@@ -41,6 +42,7 @@ import java.util.regex.Pattern;
  */
 @Data
 @EqualsAndHashCode(callSuper=false)
+@TypeInfo(RichSensorEventTypeInfo.Factory.class)
 public class RichSensorEvent extends PositionSensorEvent implements Serializable {
 
   /**
@@ -96,6 +98,35 @@ public class RichSensorEvent extends PositionSensorEvent implements Serializable
     super();
   }
 
+  /**
+   * Sets all the fields, so that the event can be reused.
+   * @param id the SID or PID.
+   * @param ts the timestamp (picoseconds).
+   * @param x the x-coordinate (mm).
+   * @param y the y-coordinate (mm).
+   * @param v the speed magnitude (um/s).
+   * @param a the acceleration magnitude (um/s).
+   * @param vx the speed x-coordinate.
+   * @param vy the speed y-coordinate.
+   * @param ax the acceleration x-coordinate.
+   * @param ay the acceleration y-coordinate.
+   * @return this event.
+   */
+  public RichSensorEvent set(long id, long ts,
+                             long x, long y,
+                             long v, long a,
+                             long vx, long vy,
+                             long ax, long ay) {
+    super.set(id, ts, x, y);
+    this.v = v;
+    this.a = a;
+    this.vx = vx;
+    this.vy = vy;
+    this.ax = ax;
+    this.ay = ay;
+    return this;
+  }
+
   public static RichSensorEvent fromDataset(String string) throws IllegalArgumentException {
     String fields[] = string.split(",");
     if (fields.length != 13) {
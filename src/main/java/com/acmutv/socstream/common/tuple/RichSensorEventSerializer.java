@@ -0,0 +1,105 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.tuple;
+
+import com.acmutv.socstream.common.typeutils.FixedLengthSerializer;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+
+import java.io.IOException;
+
+/**
+ * A fixed-length serializer for {@link RichSensorEvent}: id, ts, x, y, v, a, vx, vy, ax and ay as 8-byte longs (80 bytes).
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public final class RichSensorEventSerializer extends FixedLengthSerializer<RichSensorEvent> {
+
+  /**
+   * The singleton instance.
+   */
+  public static final RichSensorEventSerializer INSTANCE = new RichSensorEventSerializer();
+
+  /**
+   * The record length (bytes).
+   */
+  public static final int LENGTH = 80;
+
+  private RichSensorEventSerializer() {
+    super(LENGTH);
+  }
+
+  @Override
+  public RichSensorEvent createInstance() {
+    return new RichSensorEvent();
+  }
+
+  @Override
+  public RichSensorEvent copy(RichSensorEvent from, RichSensorEvent reuse) {
+    reuse.setId(from.getId());
+    reuse.setTs(from.getTs());
+    reuse.setX(from.getX());
+    reuse.setY(from.getY());
+    reuse.setV(from.getV());
+    reuse.setA(from.getA());
+    reuse.setVx(from.getVx());
+    reuse.setVy(from.getVy());
+    reuse.setAx(from.getAx());
+    reuse.setAy(from.getAy());
+    return reuse;
+  }
+
+  @Override
+  public void serialize(RichSensorEvent record, DataOutputView target) throws IOException {
+    target.writeLong(record.getId());
+    target.writeLong(record.getTs());
+    target.writeLong(record.getX());
+    target.writeLong(record.getY());
+    target.writeLong(record.getV());
+    target.writeLong(record.getA());
+    target.writeLong(record.getVx());
+    target.writeLong(record.getVy());
+    target.writeLong(record.getAx());
+    target.writeLong(record.getAy());
+  }
+
+  @Override
+  public RichSensorEvent deserialize(RichSensorEvent reuse, DataInputView source) throws IOException {
+    reuse.setId(source.readLong());
+    reuse.setTs(source.readLong());
+    reuse.setX(source.readLong());
+    reuse.setY(source.readLong());
+    reuse.setV(source.readLong());
+    reuse.setA(source.readLong());
+    reuse.setVx(source.readLong());
+    reuse.setVy(source.readLong());
+    reuse.setAx(source.readLong());
+    reuse.setAy(source.readLong());
+    return reuse;
+  }
+}
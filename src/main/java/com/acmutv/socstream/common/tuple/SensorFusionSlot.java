@@ -0,0 +1,203 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.tuple;
+
+import lombok.Data;
+import org.apache.flink.api.common.typeinfo.TypeInfo;
+
+import java.io.Serializable;
+
+/**
+ * The readings of a player's sensors falling into the same time slot.
+ * Positions are averaged, i.e. the fused position is the center of gravity of the sensors.
+ * Speed and acceleration moduli are averaged, while their directions are weighted by the moduli,
+ * so that the mean of each component (e.g. {@code v*vx}) is preserved by the fused event.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+@Data
+@TypeInfo(SensorFusionSlotTypeInfo.Factory.class)
+public class SensorFusionSlot implements Serializable {
+
+  /**
+   * The player id (PID).
+   */
+  private long pid;
+
+  /**
+   * The slot index ({@code ts / slotLength}).
+   */
+  private long slot;
+
+  /**
+   * The number of readings.
+   */
+  private long numEvents;
+
+  /**
+   * The timestamp of the latest reading (picoseconds).
+   */
+  private long ts;
+
+  /**
+   * The sum of x-coordinates (mm).
+   */
+  private long sumX;
+
+  /**
+   * The sum of y-coordinates (mm).
+   */
+  private long sumY;
+
+  /**
+   * The sum of speed moduli.
+   */
+  private long sumV;
+
+  /**
+   * The sum of acceleration moduli.
+   */
+  private long sumA;
+
+  /**
+   * The sum of x-speeds, weighted by the speed modulo.
+   */
+  private long sumVx;
+
+  /**
+   * The sum of y-speeds, weighted by the speed modulo.
+   */
+  private long sumVy;
+
+  /**
+   * The sum of x-accelerations, weighted by the acceleration modulo.
+   */
+  private long sumAx;
+
+  /**
+   * The sum of y-accelerations, weighted by the acceleration modulo.
+   */
+  private long sumAy;
+
+  /**
+   * Empties the slot and moves it to the given index.
+   * @param slot the slot index.
+   */
+  public void reset(long slot) {
+    this.slot = slot;
+    this.numEvents = 0;
+    this.ts = 0;
+    this.sumX = 0;
+    this.sumY = 0;
+    this.sumV = 0;
+    this.sumA = 0;
+    this.sumVx = 0;
+    this.sumVy = 0;
+    this.sumAx = 0;
+    this.sumAy = 0;
+  }
+
+  /**
+   * Adds a reading.
+   * Speed and acceleration are accumulated only for {@link RichSensorEvent}.
+   * @param event the reading.
+   */
+  public void add(PositionSensorEvent event) {
+    this.pid = event.getId();
+    this.numEvents++;
+    this.ts = Math.max(this.ts, event.getTs());
+    this.sumX += event.getX();
+    this.sumY += event.getY();
+    if (event instanceof RichSensorEvent) {
+      final RichSensorEvent rich = (RichSensorEvent) event;
+      this.sumV += rich.getV();
+      this.sumA += rich.getA();
+      this.sumVx += rich.getV() * rich.getVx();
+      this.sumVy += rich.getV() * rich.getVy();
+      this.sumAx += rich.getA() * rich.getAx();
+      this.sumAy += rich.getA() * rich.getAy();
+    }
+  }
+
+  /**
+   * Checks if the slot has no reading.
+   * @return true, if the slot is empty; false, otherwise.
+   */
+  public boolean isEmpty() {
+    return this.numEvents == 0;
+  }
+
+  /**
+   * Returns the fused position event.
+   * @return the fused event.
+   */
+  public PositionSensorEvent toPositionSensorEvent() {
+    return this.toPositionSensorEvent(null);
+  }
+
+  /**
+   * Returns the fused position event.
+   * @param reuse the event to fill, or null to create a new one.
+   * @return the fused event.
+   */
+  public PositionSensorEvent toPositionSensorEvent(PositionSensorEvent reuse) {
+    return ((reuse != null) ? reuse : new PositionSensorEvent())
+        .set(this.pid, this.ts, this.sumX / this.numEvents, this.sumY / this.numEvents);
+  }
+
+  /**
+   * Returns the fused rich event.
+   * @return the fused event.
+   */
+  public RichSensorEvent toRichSensorEvent() {
+    return this.toRichSensorEvent(null);
+  }
+
+  /**
+   * Returns the fused rich event.
+   * @param reuse the event to fill, or null to create a new one.
+   * @return the fused event.
+   */
+  public RichSensorEvent toRichSensorEvent(RichSensorEvent reuse) {
+    final long n = this.numEvents;
+    return ((reuse != null) ? reuse : new RichSensorEvent()).set(this.pid, this.ts, this.sumX / n, this.sumY / n,
+        this.sumV / n, this.sumA / n,
+        direction(this.sumVx, this.sumV), direction(this.sumVy, this.sumV),
+        direction(this.sumAx, this.sumA), direction(this.sumAy, this.sumA));
+  }
+
+  /**
+   * Returns the fused direction component.
+   * @param weightedSum the sum of components weighted by the modulo.
+   * @param sumModulo the sum of moduli.
+   * @return the fused direction component.
+   */
+  private static long direction(long weightedSum, long sumModulo) {
+    return (sumModulo == 0) ? 0 : Math.round((double) weightedSum / sumModulo);
+  }
+}
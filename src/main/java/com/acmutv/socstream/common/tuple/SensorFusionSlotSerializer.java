@@ -0,0 +1,112 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.tuple;
+
+import com.acmutv.socstream.common.typeutils.FixedLengthSerializer;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+
+import java.io.IOException;
+
+/**
+ * A fixed-length serializer for {@link SensorFusionSlot}: pid, slot, numEvents, ts and the sums
+ * of x, y, v, a, vx, vy, ax and ay as 8-byte longs (96 bytes).
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public final class SensorFusionSlotSerializer extends FixedLengthSerializer<SensorFusionSlot> {
+
+  /**
+   * The singleton instance.
+   */
+  public static final SensorFusionSlotSerializer INSTANCE = new SensorFusionSlotSerializer();
+
+  /**
+   * The record length (bytes).
+   */
+  public static final int LENGTH = 96;
+
+  private SensorFusionSlotSerializer() {
+    super(LENGTH);
+  }
+
+  @Override
+  public SensorFusionSlot createInstance() {
+    return new SensorFusionSlot();
+  }
+
+  @Override
+  public SensorFusionSlot copy(SensorFusionSlot from, SensorFusionSlot reuse) {
+    reuse.setPid(from.getPid());
+    reuse.setSlot(from.getSlot());
+    reuse.setNumEvents(from.getNumEvents());
+    reuse.setTs(from.getTs());
+    reuse.setSumX(from.getSumX());
+    reuse.setSumY(from.getSumY());
+    reuse.setSumV(from.getSumV());
+    reuse.setSumA(from.getSumA());
+    reuse.setSumVx(from.getSumVx());
+    reuse.setSumVy(from.getSumVy());
+    reuse.setSumAx(from.getSumAx());
+    reuse.setSumAy(from.getSumAy());
+    return reuse;
+  }
+
+  @Override
+  public void serialize(SensorFusionSlot record, DataOutputView target) throws IOException {
+    target.writeLong(record.getPid());
+    target.writeLong(record.getSlot());
+    target.writeLong(record.getNumEvents());
+    target.writeLong(record.getTs());
+    target.writeLong(record.getSumX());
+    target.writeLong(record.getSumY());
+    target.writeLong(record.getSumV());
+    target.writeLong(record.getSumA());
+    target.writeLong(record.getSumVx());
+    target.writeLong(record.getSumVy());
+    target.writeLong(record.getSumAx());
+    target.writeLong(record.getSumAy());
+  }
+
+  @Override
+  public SensorFusionSlot deserialize(SensorFusionSlot reuse, DataInputView source) throws IOException {
+    reuse.setPid(source.readLong());
+    reuse.setSlot(source.readLong());
+    reuse.setNumEvents(source.readLong());
+    reuse.setTs(source.readLong());
+    reuse.setSumX(source.readLong());
+    reuse.setSumY(source.readLong());
+    reuse.setSumV(source.readLong());
+    reuse.setSumA(source.readLong());
+    reuse.setSumVx(source.readLong());
+    reuse.setSumVy(source.readLong());
+    reuse.setSumAx(source.readLong());
+    reuse.setSumAy(source.readLong());
+    return reuse;
+  }
+}
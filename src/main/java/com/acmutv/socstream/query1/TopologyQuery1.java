@@ -28,22 +28,38 @@ package com.acmutv.socstream.query1;
 
 import com.acmutv.socstream.common.tuple.RichSensorEvent;
 import com.acmutv.socstream.query1.operator.RichSensorEventKeyer;
+import com.acmutv.socstream.common.sink.FileWriterSink;
+import com.acmutv.socstream.common.sink.encode.ResultEncoder;
+import com.acmutv.socstream.common.sink.encode.ResultFormat;
 import com.acmutv.socstream.common.sink.es.ESProperties;
 import com.acmutv.socstream.common.sink.es.ESSink;
 import com.acmutv.socstream.common.source.kafka.KafkaProperties;
 import com.acmutv.socstream.common.source.kafka.RichSensorEventKafkaSource;
-import com.acmutv.socstream.common.meta.Match;
-import com.acmutv.socstream.common.meta.MatchService;
+import com.acmutv.socstream.common.operator.EventCounter;
+import com.acmutv.socstream.common.operator.EventMeter;
+import com.acmutv.socstream.common.operator.PartialKeyer;
+import com.acmutv.socstream.common.operator.RichSensorEventFusion;
+import com.acmutv.socstream.common.operator.SensorFusion;
+import com.acmutv.socstream.common.operator.SubKeys;
+import com.acmutv.socstream.common.meta.MatchRegistry;
+import com.acmutv.socstream.common.meta.MetadataReload;
+import com.acmutv.socstream.common.meta.MetadataWatcher;
+import com.acmutv.socstream.common.meta.SensorClass;
+import com.acmutv.socstream.common.source.SourceType;
+import com.acmutv.socstream.common.source.file.RichSensorEventFileSource;
+import com.acmutv.socstream.common.tool.WindowTool;
 import com.acmutv.socstream.query1.operator.*;
 import com.acmutv.socstream.query1.tuple.PlayerRunningStatistics;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatisticsAccumulator;
 import com.acmutv.socstream.tool.runtime.RuntimeManager;
+import org.apache.flink.api.common.JobExecutionResult;
+import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.api.java.utils.ParameterTool;
-import org.apache.flink.core.fs.FileSystem;
 import org.apache.flink.streaming.api.TimeCharacteristic;
 import org.apache.flink.streaming.api.datastream.DataStream;
 import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
-import org.apache.flink.streaming.api.windowing.time.Time;
 
+import java.io.IOException;
 import java.nio.file.FileSystems;
 import java.nio.file.Path;
 import java.util.*;
@@ -79,25 +95,46 @@ public class TopologyQuery1 {
     final String kafkaZookeeper = parameter.get("kafka.zookeeper", "localhost:2181");
     final String kafkaBootstrap = parameter.get("kafka.bootstrap", "localhost:9092");
     final String kafkaTopic = parameter.get("kafka.topic", "socstream");
+    final boolean kafkaSplit = parameter.getBoolean("kafka.split", false);
+    final String source = parameter.get("source", "kafka");
+    final SourceType sourceType = SourceType.fromName(source);
+    final double speedup = parameter.getDouble("speedup", 0);
+    final boolean bounded = parameter.getBoolean("bounded", sourceType == SourceType.FILE);
     final Path outputPath = FileSystems.getDefault().getPath(parameter.get("output", PROGRAM_NAME + ".out"));
+    final ResultFormat outputFormat = ResultFormat.fromName(parameter.get("format", ResultFormat.CSV.getName()));
     final String elasticsearch = parameter.get("elasticsearch", null);
     final Path metadataPath = FileSystems.getDefault().getPath(parameter.get("metadata", "./metadata.yml"));
     final long windowSize = parameter.getLong("windowSize", 70);
     final TimeUnit windowUnit = TimeUnit.valueOf(parameter.get("windowUnit", "MINUTES"));
+    final String windows = parameter.get("windows", null);
+    final long windowLengths[] = (windows != null) ?
+        WindowTool.parseLengths(windows) : new long[]{windowUnit.toMillis(windowSize)};
     final long matchStart = parameter.getLong("match.start", 10753295594424116L);
     final long matchEnd = parameter.getLong("match.end", 14879639146403495L);
     final long matchIntervalStart = parameter.getLong("match.interval.start", 12557295594424116L);
     final long matchIntervalEnd = parameter.getLong("match.interval.end", 13086639146403495L);
+    final boolean fusion = parameter.getBoolean("fusion", false);
+    final long fusionSlot = parameter.getLong("fusion.slot", SensorFusion.DEFAULT_SLOT_LENGTH);
     final int parallelism = parameter.getInt("parallelism", 1);
-    final Match match = MatchService.fromYamlFile(metadataPath);
-    final Set<Long> ignoredSensors = MatchService.collectIgnoredSensors(match);
-    final Map<Long,Long> sid2Pid = MatchService.collectSid2Pid(match);
+    final long latencyInterval = parameter.getLong("latencyInterval", 2000);
+    final boolean objectReuse = parameter.getBoolean("objectReuse", false);
+    final SubKeys subKeys = SubKeys.fromParameters(parameter);
+    final String matchesPath = parameter.get("matches", null);
+    final MatchRegistry matches = (matchesPath != null) ?
+        MatchRegistry.fromYamlFile(FileSystems.getDefault().getPath(matchesPath), source,
+            matchStart, matchEnd, matchIntervalStart, matchIntervalEnd) :
+        MatchRegistry.single(metadataPath, source, matchStart, matchEnd, matchIntervalStart, matchIntervalEnd);
+    final MetadataReload metadataReload = MetadataReload.fromParameters(parameter);
 
     // ENVIRONMENT
     final StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
     env.setStreamTimeCharacteristic(TimeCharacteristic.EventTime);
+    env.getConfig().setLatencyTrackingInterval(latencyInterval);
+    if (objectReuse) {
+      env.getConfig().enableObjectReuse();
+    }
     final KafkaProperties kafkaProps = new KafkaProperties(kafkaBootstrap);
-    final ESProperties elasticsearchProps = ESProperties.fromPropString(elasticsearch);
+    final ESProperties elasticsearchProps = ESProperties.fromParameters(parameter);
 
     // CONFIGURATION RESUME
     System.out.println("############################################################################");
@@ -107,41 +144,141 @@ public class TopologyQuery1 {
     System.out.println("****************************************************************************");
     System.out.println("Kafka Zookeeper: " + kafkaZookeeper);
     System.out.println("Kafka Bootstrap: " + kafkaBootstrap);
-    System.out.println("Kafka Topic: " + kafkaTopic);
-    System.out.println("Output: " + outputPath);
+    System.out.println("Kafka Topic: " + (kafkaSplit ? SensorClass.PLAYERS.topic(kafkaTopic) : kafkaTopic));
+    System.out.println("Source: " + source);
+    if (sourceType == SourceType.FILE) {
+      System.out.println("Speedup: " + ((speedup == 0) ? "max" : speedup + "x"));
+    }
+    System.out.println("Bounded: " + bounded);
+    System.out.println("Output: " + outputPath + " (" + outputFormat.getName() + ")");
     System.out.println("Elasticsearch: " + elasticsearch);
-    System.out.println("Metadata: " + metadataPath);
-    System.out.println("Window: " + windowSize + " " + windowUnit);
+    if (elasticsearch != null) {
+      System.out.println("Elasticsearch Bulk: " + elasticsearchProps.bulkPolicy());
+    }
+    System.out.println("Metadata: " + ((matchesPath != null) ? matchesPath : metadataPath));
+    System.out.println("Windows: " + ((windows != null) ? windows : windowSize + " " + windowUnit));
     System.out.println("Match Start: " + matchStart);
     System.out.println("Match End: " + matchEnd);
     System.out.println("Match Interval Start: " + matchIntervalStart);
     System.out.println("Match Interval End: " + matchIntervalEnd);
-    System.out.println("Ignored Sensors: " + ignoredSensors);
+    System.out.println("Matches: " + matches);
+    System.out.println("Metadata Reload: " + metadataReload.describe());
+    System.out.println("Fusion: " + (fusion ? fusionSlot + " ms" : "disabled"));
     System.out.println("Parallelism: " + parallelism);
+    System.out.println("Sub-keys: " + subKeys.describe());
+    System.out.println("Latency Tracking: " + ((latencyInterval > 0) ? latencyInterval + " ms" : "disabled"));
+    System.out.println("Object Reuse: " + objectReuse);
     System.out.println("############################################################################");
 
     // TOPOLOGY
-    DataStream<RichSensorEvent> sensorEvents = env.addSource(
-        new RichSensorEventKafkaSource(kafkaTopic, kafkaProps, matchStart, matchEnd,
-            matchIntervalStart, matchIntervalEnd, ignoredSensors, sid2Pid
-        )
+    DataStream<RichSensorEvent> sensorEvents = null;
+    for (MatchRegistry.Entry match : matches) {
+      final DataStream<RichSensorEvent> matchEvents =
+          source(env, match, kafkaTopic, kafkaSplit, kafkaProps, metadataReload, speedup, bounded, parallelism);
+      sensorEvents = (sensorEvents == null) ? matchEvents : sensorEvents.union(matchEvents);
+    }
+
+    sensorEvents = sensorEvents.map(new EventMeter<>(new RichSensorEventKeyer())).setParallelism(parallelism);
+
+    if (bounded) {
+      sensorEvents = sensorEvents.map(new EventCounter<>()).setParallelism(parallelism);
+    }
+
+    if (fusion) {
+      sensorEvents = sensorEvents.keyBy(new RichSensorEventKeyer())
+          .process(new RichSensorEventFusion(fusionSlot))
+          .setParallelism(parallelism);
+    }
+
+    DataStream<PlayerRunningStatistics> statistics = topology(sensorEvents, windowLengths, parallelism, subKeys);
+
+    sink(statistics, outputPath, outputFormat, elasticsearchProps);
+
+    // EXECUTION
+    final JobExecutionResult result = env.execute(PROGRAM_NAME);
+    if (bounded) {
+      System.out.println(EventCounter.summary(result));
+    }
+  }
+
+  /**
+   * Builds the timestamped sensor events of a match.
+   * @param env the execution environment.
+   * @param match the match.
+   * @param kafkaTopic the base Kafka topic (see {@link MatchRegistry.Entry#topic(String, boolean)}).
+   * @param kafkaSplit true, if the Kafka stream is split by sensor class.
+   * @param kafkaProps the Kafka properties.
+   * @param metadataReload the reload of match metadata.
+   * @param speedup the replay speedup of file sources (0 for max).
+   * @param bounded true, if Kafka sources stop at the match end.
+   * @param parallelism the parallelism.
+   * @return the sensor events, labelled with player keys.
+   * @throws IOException when the metadata file cannot be read.
+   */
+  public static DataStream<RichSensorEvent> source(StreamExecutionEnvironment env, MatchRegistry.Entry match,
+                                                   String kafkaTopic, boolean kafkaSplit, KafkaProperties kafkaProps,
+                                                   MetadataReload metadataReload, double speedup, boolean bounded,
+                                                   int parallelism) throws IOException {
+    final SourceType sourceType = SourceType.fromName(match.getSource());
+    final MetadataWatcher watcher = metadataReload.watcher(match, kafkaProps);
+    if (sourceType == SourceType.FILE) {
+      return env.addSource(
+          new RichSensorEventFileSource(SourceType.argument(match.getSource()), speedup, match.getStart(), match.getEnd(),
+              match.getIntervalStart(), match.getIntervalEnd(), match.getSensors()
+          ).setMetadataWatcher(watcher)
+      ).setParallelism(parallelism)
+          .assignTimestampsAndWatermarks(new RichSensorEventTimestampExtractor()).setParallelism(parallelism);
+    }
+    return env.addSource(
+        new RichSensorEventKafkaSource(match.topic(kafkaTopic, kafkaSplit), kafkaProps, sourceType, match.getStart(), match.getEnd(),
+            match.getIntervalStart(), match.getIntervalEnd(), match.getSensors(), bounded
+        ).setMetadataWatcher(watcher)
     ).assignTimestampsAndWatermarks(new RichSensorEventTimestampExtractor()).setParallelism(parallelism);
+  }
 
-    DataStream<PlayerRunningStatistics> statistics = sensorEvents.keyBy(new RichSensorEventKeyer())
-        .timeWindow(Time.of(windowSize, windowUnit))
-        .aggregate(new PlayerRunningStatisticsCalculatorAggregator(), new PlayerRunningStatisticsCalculatorWindowFunction())
+  /**
+   * Builds the query pipeline on a stream of timestamped sensor events.
+   * @param sensorEvents the sensor events, labelled with player ids.
+   * @param windowLengths the window lengths (ms), {@link WindowTool#FULL} for the whole match.
+   * @param parallelism the parallelism.
+   * @param subKeys the sub-keys of players statistics.
+   * @return the players running statistics.
+   */
+  public static DataStream<PlayerRunningStatistics> topology(DataStream<RichSensorEvent> sensorEvents,
+                                                             long windowLengths[], int parallelism,
+                                                             SubKeys subKeys) {
+    if (subKeys.isEnabled()) {
+      DataStream<Tuple2<Long,PlayerRunningStatisticsAccumulator>> partials = subKeys.partials(sensorEvents,
+          new RichSensorEventKeyer(), new RichSensorEventTimestampExtractor(),
+          new PlayerRunningStatisticsCalculatorAggregator(), PlayerRunningStatisticsAccumulator.class,
+          WindowTool.paneLength(windowLengths, TimeUnit.MINUTES.toMillis(1)), parallelism);
+      return partials.keyBy(new PartialKeyer<PlayerRunningStatisticsAccumulator>())
+          .process(new PlayerRunningStatisticsMultiWindowCombiner(windowLengths, TimeUnit.MINUTES.toMillis(1)))
+          .setParallelism(parallelism);
+    }
+    return sensorEvents.keyBy(new RichSensorEventKeyer())
+        .process(new PlayerRunningStatisticsMultiWindowCalculator(windowLengths, TimeUnit.MINUTES.toMillis(1)))
         .setParallelism(parallelism);
+  }
 
-    statistics.writeAsText(outputPath.toAbsolutePath().toString(), FileSystem.WriteMode.OVERWRITE).setParallelism(1);
+  /**
+   * Writes the query results to the output file and, if configured, to Elasticsearch.
+   * @param statistics the players running statistics.
+   * @param outputPath the output file.
+   * @param outputFormat the output format.
+   * @param elasticsearchProps the Elasticsearch properties (no index means no Elasticsearch sink).
+   */
+  public static void sink(DataStream<PlayerRunningStatistics> statistics, Path outputPath,
+                          ResultFormat outputFormat, ESProperties elasticsearchProps) {
+    final ResultEncoder<PlayerRunningStatistics> encoder = (outputFormat == ResultFormat.JSON) ?
+        new PlayerRunningStatisticsJsonEncoder() : new PlayerRunningStatisticsCsvEncoder();
+    statistics.addSink(new FileWriterSink<>(outputPath.toAbsolutePath().toString(), encoder)).setParallelism(1);
 
-    if (elasticsearch != null) {
+    if (elasticsearchProps.getIndexName() != null) {
       statistics.addSink(new ESSink<>(elasticsearchProps,
           new PlayerRunningStatisticsESSinkFunction(elasticsearchProps.getIndexName(), elasticsearchProps.getTypeName()))
-      ).setParallelism(1);
+      ).setParallelism(elasticsearchProps.getParallelism());
     }
-
-    // EXECUTION
-    env.execute(PROGRAM_NAME);
   }
 
 }
@@ -27,9 +27,9 @@ package com.acmutv.socstream.query1.operator;
 
 import com.acmutv.socstream.common.tuple.RichSensorEvent;
 import com.acmutv.socstream.query1.tuple.PlayerRunningStatistics;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatisticsAccumulator;
 import com.acmutv.socstream.tool.physics.PhysicsUtil;
 import org.apache.flink.api.common.functions.AggregateFunction;
-import org.apache.flink.api.java.tuple.Tuple3;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,7 +40,7 @@ import org.slf4j.LoggerFactory;
  * @author Michele Porretta {@literal <mporretta@acm.org>}
  * @since 1.0
  */
-public class PlayerRunningStatisticsCalculatorAggregator implements AggregateFunction<RichSensorEvent,Tuple3<Long,Double,Double>,PlayerRunningStatistics> {
+public class PlayerRunningStatisticsCalculatorAggregator implements AggregateFunction<RichSensorEvent,PlayerRunningStatisticsAccumulator,PlayerRunningStatistics> {
 
   /**
    * The logger.
@@ -60,26 +60,23 @@ public class PlayerRunningStatisticsCalculatorAggregator implements AggregateFun
    * @return A new accumulator, corresponding to an empty aggregate.
    */
   @Override
-  public Tuple3<Long,Double,Double> createAccumulator() {
-    return new Tuple3<>(0L, 0.0, 0.0);
+  public PlayerRunningStatisticsAccumulator createAccumulator() {
+    return new PlayerRunningStatisticsAccumulator();
   }
 
   /**
    * Adds the given value to the given accumulator.
    *
    * @param event       The value to add
-   * @param accumulator The accumulator (numEvents,totalDistance,averageSpeed)
+   * @param accumulator The accumulator
    */
   @Override
-  public void add(RichSensorEvent event, Tuple3<Long,Double,Double> accumulator) {
-    long numEvents = ++accumulator.f0;
-
-    //LOG.debug("IN ({}): {}", numEvents, event);
+  public void add(RichSensorEvent event, PlayerRunningStatisticsAccumulator accumulator) {
+    //LOG.debug("IN: {}", event);
 
     final double distanceSpeed[] = PhysicsUtil.computeDistanceAndSpeed(event.getV(), event.getVx(), event.getVy(), event.getA(), event.getAx(), event.getAy());
 
-    accumulator.f1 = accumulator.f1 + distanceSpeed[0];
-    accumulator.f2 = ((accumulator.f2 * (numEvents - 1)) + distanceSpeed[1]) / numEvents;
+    accumulator.add(distanceSpeed[0], distanceSpeed[1]);
 
     //LOG.debug("ACC: {}", accumulator);
   }
@@ -91,8 +88,8 @@ public class PlayerRunningStatisticsCalculatorAggregator implements AggregateFun
    * @return The final aggregation result.
    */
   @Override
-  public PlayerRunningStatistics getResult(Tuple3<Long,Double,Double> accumulator) {
-    return new PlayerRunningStatistics(0, 0, 0, accumulator.f1, accumulator.f2);
+  public PlayerRunningStatistics getResult(PlayerRunningStatisticsAccumulator accumulator) {
+    return new PlayerRunningStatistics(0, 0, 0, accumulator.getTotalDistance(), accumulator.averageSpeed());
   }
 
   /**
@@ -107,7 +104,7 @@ public class PlayerRunningStatisticsCalculatorAggregator implements AggregateFun
    * @return The accumulator with the merged state
    */
   @Override
-  public Tuple3<Long,Double,Double> merge(Tuple3<Long,Double,Double> a, Tuple3<Long,Double,Double> b) {
-    return null;
+  public PlayerRunningStatisticsAccumulator merge(PlayerRunningStatisticsAccumulator a, PlayerRunningStatisticsAccumulator b) {
+    return a.merge(b);
   }
 }
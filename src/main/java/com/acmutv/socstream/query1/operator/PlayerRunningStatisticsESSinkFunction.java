@@ -26,6 +26,8 @@
 package com.acmutv.socstream.query1.operator;
 
 import com.acmutv.socstream.query1.tuple.PlayerRunningStatistics;
+import com.acmutv.socstream.common.sink.encode.ByteArrayBuilder;
+import com.acmutv.socstream.common.sink.encode.ResultEncoder;
 import org.apache.flink.api.common.functions.RuntimeContext;
 import org.apache.flink.streaming.connectors.elasticsearch.ElasticsearchSinkFunction;
 import org.apache.flink.streaming.connectors.elasticsearch.RequestIndexer;
@@ -60,6 +62,16 @@ public class PlayerRunningStatisticsESSinkFunction implements ElasticsearchSinkF
    */
   private String typeName;
 
+  /**
+   * The document encoder.
+   */
+  private final ResultEncoder<PlayerRunningStatistics> encoder = new PlayerRunningStatisticsJsonEncoder();
+
+  /**
+   * The document buffer, reused across elements.
+   */
+  private transient ByteArrayBuilder buffer;
+
   /**
    * Creates a new {@link PlayerRunningStatisticsESSinkFunction} with the specified index and type.
    * @param indexName the name of Elasticsearch index.
@@ -81,18 +93,16 @@ public class PlayerRunningStatisticsESSinkFunction implements ElasticsearchSinkF
    * @return the Elasticsearch request.
    */
   private IndexRequest createWindowWordRanking(PlayerRunningStatistics value) {
-    String json =
-        "{\"tsStart\":" + value.getTsStart() +
-            ",\"tsStop\":" + value.getTsStop() +
-            ",\"pid\":" + value.getPid() +
-            ",\"totalDistance\":" + value.getTotalDistance() +
-            ",\"averageSpeed\":" + value.getAverageSpeed() + "}";
+    if (this.buffer == null) {
+      this.buffer = new ByteArrayBuilder();
+    }
+    this.encoder.encode(value, this.buffer.reset());
 
-    //LOG.debug("JSON: {}", json);
+    //LOG.debug("JSON: {}", this.buffer);
 
     return Requests.indexRequest()
         .index(this.indexName)
         .type(this.typeName)
-        .source(json);
+        .source(this.buffer.toByteArray());
   }
 }
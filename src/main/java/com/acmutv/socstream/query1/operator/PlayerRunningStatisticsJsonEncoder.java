@@ -0,0 +1,62 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.query1.operator;
+
+import com.acmutv.socstream.common.sink.encode.ByteArrayBuilder;
+import com.acmutv.socstream.common.sink.encode.JsonEncoder;
+import com.acmutv.socstream.common.sink.encode.PlayerKeys;
+import com.acmutv.socstream.common.sink.encode.ResultEncoder;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatistics;
+
+/**
+ * Encodes {@link PlayerRunningStatistics} as JSON documents, as indexed in Elasticsearch.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class PlayerRunningStatisticsJsonEncoder implements ResultEncoder<PlayerRunningStatistics> {
+
+  /**
+   * The JSON encoder, reused across results.
+   */
+  private transient JsonEncoder json;
+
+  @Override
+  public void encode(PlayerRunningStatistics value, ByteArrayBuilder out) {
+    if (this.json == null) {
+      this.json = new JsonEncoder(out);
+    }
+    final JsonEncoder json = this.json.on(out).startObject()
+        .field("tsStart").value(value.getTsStart())
+        .field("tsStop").value(value.getTsStop());
+    PlayerKeys.appendJson(json, value.getPid())
+        .field("totalDistance").value(value.getTotalDistance())
+        .field("averageSpeed").value(value.getAverageSpeed())
+        .endObject();
+  }
+}
@@ -0,0 +1,174 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.query1.operator;
+
+import com.acmutv.socstream.common.metric.MetricNames;
+import com.acmutv.socstream.common.tool.WindowTool;
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatistics;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatisticsAccumulator;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatisticsPanes;
+import com.acmutv.socstream.tool.physics.PhysicsUtil;
+import org.apache.flink.api.common.state.MapState;
+import org.apache.flink.api.common.state.MapStateDescriptor;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.streaming.api.TimerService;
+import org.apache.flink.streaming.api.functions.ProcessFunction;
+import org.apache.flink.util.Collector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The operator that calculates players running statistics over several window lengths at once
+ * (e.g. 1, 5 and 20 minutes and the whole match), sharing per-player panes among them.
+ * Events are accumulated into pending panes, one per pane start, so that events arriving out of
+ * order are kept until the watermark passes the end of their pane, as in a tumbling event-time window;
+ * then the pane is accumulated into the per-player panes. Events of a pane whose end has already been
+ * passed by the watermark are late, and dropped.
+ * It must be applied to a stream keyed by player id, with event-time timestamps in milliseconds.
+ * When the job enables object reuse, the statistics are emitted into a single instance.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see PlayerRunningStatisticsPanes
+ */
+public class PlayerRunningStatisticsMultiWindowCalculator extends ProcessFunction<RichSensorEvent,PlayerRunningStatistics> {
+
+  /**
+   * The logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(PlayerRunningStatisticsMultiWindowCalculator.class);
+
+  /**
+   * The window lengths (ms), {@link WindowTool#FULL} for the whole match.
+   */
+  private final long lengths[];
+
+  /**
+   * The pane length (ms).
+   */
+  private final long paneLength;
+
+  /**
+   * The per-player panes.
+   */
+  private transient ValueState<PlayerRunningStatisticsPanes> state;
+
+  /**
+   * The pending panes, by pane start.
+   */
+  private transient MapState<Long,PlayerRunningStatisticsAccumulator> pending;
+
+  /**
+   * The number of fired pane and window timers.
+   */
+  private transient Counter windowFires;
+
+  /**
+   * The reused statistics, if object reuse is enabled.
+   */
+  private transient PlayerRunningStatistics reuse;
+
+  /**
+   * Creates a new operator.
+   * @param lengths the window lengths (ms), {@link WindowTool#FULL} for the whole match.
+   * @param fullPaneLength the pane length (ms) when the only window is {@link WindowTool#FULL}.
+   */
+  public PlayerRunningStatisticsMultiWindowCalculator(long lengths[], long fullPaneLength) {
+    this.lengths = lengths;
+    this.paneLength = WindowTool.paneLength(lengths, fullPaneLength);
+  }
+
+  @Override
+  public void open(Configuration parameters) throws Exception {
+    this.state = super.getRuntimeContext().getState(
+        new ValueStateDescriptor<>("panes", PlayerRunningStatisticsPanes.class));
+    this.pending = super.getRuntimeContext().getMapState(
+        new MapStateDescriptor<>("pending", Long.class, PlayerRunningStatisticsAccumulator.class));
+    this.windowFires = super.getRuntimeContext().getMetricGroup().counter(MetricNames.WINDOW_FIRES);
+    this.reuse = super.getRuntimeContext().getExecutionConfig().isObjectReuseEnabled() ? new PlayerRunningStatistics() : null;
+  }
+
+  @Override
+  public void processElement(RichSensorEvent event, Context ctx, Collector<PlayerRunningStatistics> out) throws Exception {
+    final long ts = ctx.timestamp();
+    final long paneStart = ts - Math.floorMod(ts, this.paneLength);
+    final TimerService timers = ctx.timerService();
+    if (paneStart + this.paneLength - 1 <= timers.currentWatermark()) {
+      return; // late event
+    }
+
+    final double distanceSpeed[] = PhysicsUtil.computeDistanceAndSpeed(event.getV(), event.getVx(), event.getVy(), event.getA(), event.getAx(), event.getAy());
+
+    PlayerRunningStatisticsAccumulator pane = this.pending.get(paneStart);
+    if (pane != null) {
+      pane.add(distanceSpeed[0], distanceSpeed[1]);
+      this.pending.put(paneStart, pane);
+      return;
+    }
+    pane = new PlayerRunningStatisticsAccumulator();
+    pane.add(distanceSpeed[0], distanceSpeed[1]);
+    this.pending.put(paneStart, pane);
+
+    if (this.state.value() == null) {
+      this.state.update(new PlayerRunningStatisticsPanes(event.getId(), this.lengths, this.paneLength));
+    }
+
+    timers.registerEventTimeTimer(paneStart + this.paneLength - 1);
+    for (long length : this.lengths) {
+      timers.registerEventTimeTimer((length == WindowTool.FULL) ?
+          Long.MAX_VALUE : paneStart - Math.floorMod(paneStart, length) + length - 1);
+    }
+  }
+
+  @Override
+  public void onTimer(long timestamp, OnTimerContext ctx, Collector<PlayerRunningStatistics> out) throws Exception {
+    final PlayerRunningStatisticsPanes panes = this.state.value();
+    if (panes == null) return;
+
+    this.windowFires.inc();
+    if (timestamp != Long.MAX_VALUE) {
+      final long paneStart = timestamp + 1 - this.paneLength;
+      final PlayerRunningStatisticsAccumulator pane = this.pending.get(paneStart);
+      if (pane != null) {
+        this.pending.remove(paneStart);
+        panes.addPane(paneStart, pane, out, this.reuse);
+      }
+    }
+    panes.fire(timestamp, out, this.reuse);
+
+    if (panes.isEmpty() && !this.pending.keys().iterator().hasNext()) {
+      this.state.clear();
+    } else {
+      this.state.update(panes);
+    }
+  }
+}
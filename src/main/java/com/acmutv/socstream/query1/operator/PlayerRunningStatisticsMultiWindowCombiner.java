@@ -0,0 +1,160 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+
+package com.acmutv.socstream.query1.operator;
+
+import com.acmutv.socstream.common.metric.MetricNames;
+import com.acmutv.socstream.common.operator.SubKeys;
+import com.acmutv.socstream.common.tool.WindowTool;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatistics;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatisticsAccumulator;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatisticsPanes;
+import org.apache.flink.api.common.state.MapState;
+import org.apache.flink.api.common.state.MapStateDescriptor;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.streaming.api.TimerService;
+import org.apache.flink.streaming.api.functions.ProcessFunction;
+import org.apache.flink.util.Collector;
+
+/**
+ * The operator that combines the partial running statistics (pid,accumulator) of a player into
+ * statistics over several window lengths at once, as {@link PlayerRunningStatisticsMultiWindowCalculator}.
+ * Partial statistics cover slices of panes, and may arrive out of order from different sub-keys:
+ * they are merged per pane until the watermark passes the pane end, then the pane is accumulated
+ * into the per-player panes.
+ * It must be applied to a stream keyed by player id, with event-time timestamps in milliseconds.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see SubKeys
+ * @see PlayerRunningStatisticsPanes
+ */
+public class PlayerRunningStatisticsMultiWindowCombiner extends ProcessFunction<Tuple2<Long,PlayerRunningStatisticsAccumulator>,PlayerRunningStatistics> {
+
+  /**
+   * The window lengths (ms), {@link WindowTool#FULL} for the whole match.
+   */
+  private final long lengths[];
+
+  /**
+   * The pane length (ms).
+   */
+  private final long paneLength;
+
+  /**
+   * The per-player panes.
+   */
+  private transient ValueState<PlayerRunningStatisticsPanes> state;
+
+  /**
+   * The pending partial statistics, merged per pane start.
+   */
+  private transient MapState<Long,PlayerRunningStatisticsAccumulator> pending;
+
+  /**
+   * The number of fired pane and window timers.
+   */
+  private transient Counter windowFires;
+
+  /**
+   * The reused statistics, if object reuse is enabled.
+   */
+  private transient PlayerRunningStatistics reuse;
+
+  /**
+   * Creates a new operator.
+   * @param lengths the window lengths (ms), {@link WindowTool#FULL} for the whole match.
+   * @param fullPaneLength the pane length (ms) when the only window is {@link WindowTool#FULL}.
+   */
+  public PlayerRunningStatisticsMultiWindowCombiner(long lengths[], long fullPaneLength) {
+    this.lengths = lengths;
+    this.paneLength = WindowTool.paneLength(lengths, fullPaneLength);
+  }
+
+  @Override
+  public void open(Configuration parameters) throws Exception {
+    this.state = super.getRuntimeContext().getState(
+        new ValueStateDescriptor<>("panes", PlayerRunningStatisticsPanes.class));
+    this.pending = super.getRuntimeContext().getMapState(
+        new MapStateDescriptor<>("pending", Long.class, PlayerRunningStatisticsAccumulator.class));
+    this.windowFires = super.getRuntimeContext().getMetricGroup().counter(MetricNames.WINDOW_FIRES);
+    this.reuse = super.getRuntimeContext().getExecutionConfig().isObjectReuseEnabled() ? new PlayerRunningStatistics() : null;
+  }
+
+  @Override
+  public void processElement(Tuple2<Long,PlayerRunningStatisticsAccumulator> partial, Context ctx,
+                             Collector<PlayerRunningStatistics> out) throws Exception {
+    final long ts = ctx.timestamp();
+    final long paneStart = ts - Math.floorMod(ts, this.paneLength);
+
+    final PlayerRunningStatisticsAccumulator pane = this.pending.get(paneStart);
+    if (pane != null) {
+      this.pending.put(paneStart, pane.merge(partial.f1));
+      return;
+    }
+    this.pending.put(paneStart, partial.f1);
+
+    if (this.state.value() == null) {
+      this.state.update(new PlayerRunningStatisticsPanes(partial.f0, this.lengths, this.paneLength));
+    }
+
+    final TimerService timers = ctx.timerService();
+    timers.registerEventTimeTimer(paneStart + this.paneLength - 1);
+    for (long length : this.lengths) {
+      timers.registerEventTimeTimer((length == WindowTool.FULL) ?
+          Long.MAX_VALUE : paneStart - Math.floorMod(paneStart, length) + length - 1);
+    }
+  }
+
+  @Override
+  public void onTimer(long timestamp, OnTimerContext ctx, Collector<PlayerRunningStatistics> out) throws Exception {
+    final PlayerRunningStatisticsPanes panes = this.state.value();
+    if (panes == null) return;
+
+    this.windowFires.inc();
+    if (timestamp != Long.MAX_VALUE) {
+      final long paneStart = timestamp + 1 - this.paneLength;
+      final PlayerRunningStatisticsAccumulator pane = this.pending.get(paneStart);
+      if (pane != null) {
+        this.pending.remove(paneStart);
+        panes.addPane(paneStart, pane, out, this.reuse);
+      }
+    }
+    panes.fire(timestamp, out, this.reuse);
+
+    if (panes.isEmpty() && !this.pending.keys().iterator().hasNext()) {
+      this.state.clear();
+    } else {
+      this.state.update(panes);
+    }
+  }
+}
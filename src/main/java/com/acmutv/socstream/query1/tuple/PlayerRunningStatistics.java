@@ -27,6 +27,7 @@
 package com.acmutv.socstream.query1.tuple;
 
 import lombok.Data;
+import org.apache.flink.api.common.typeinfo.TypeInfo;
 
 import java.io.Serializable;
 import java.util.regex.Matcher;
@@ -39,6 +40,7 @@ import java.util.regex.Pattern;
  * @since 1.0
  */
 @Data
+@TypeInfo(PlayerRunningStatisticsTypeInfo.Factory.class)
 public class PlayerRunningStatistics implements Serializable {
 
   /**
@@ -100,6 +102,25 @@ public class PlayerRunningStatistics implements Serializable {
    */
   public PlayerRunningStatistics(){}
 
+  /**
+   * Sets all the fields, so that the statistics can be reused.
+   * @param tsStart the start timestamp.
+   * @param tsStop the stop timestamp.
+   * @param pid the player id (PID).
+   * @param totalDistance the average distance (m).
+   * @param averageSpeed the average speed (m/s).
+   * @return these statistics.
+   */
+  public PlayerRunningStatistics set(long tsStart, long tsStop,
+                                     long pid, double totalDistance, double averageSpeed) {
+    this.tsStart = tsStart;
+    this.tsStop = tsStop;
+    this.pid = pid;
+    this.totalDistance = totalDistance;
+    this.averageSpeed = averageSpeed;
+    return this;
+  }
+
   /**
    * Parses {@link PlayerRunningStatistics} from string.
    * @param string the string to parse.
@@ -0,0 +1,94 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.query1.tuple;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.flink.api.common.typeinfo.TypeInfo;
+
+import java.io.Serializable;
+
+/**
+ * The mergeable accumulator for players running statistics.
+ * Speeds are summed rather than averaged, so that partial aggregates combine exactly.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@TypeInfo(PlayerRunningStatisticsAccumulatorTypeInfo.Factory.class)
+public class PlayerRunningStatisticsAccumulator implements Serializable {
+
+  /**
+   * The number of events.
+   */
+  private long numEvents;
+
+  /**
+   * The total distance (m).
+   */
+  private double totalDistance;
+
+  /**
+   * The sum of speeds (m/s).
+   */
+  private double totalSpeed;
+
+  /**
+   * Accumulates an event.
+   * @param distance the distance covered since the previous event (m).
+   * @param speed the speed (m/s).
+   */
+  public void add(double distance, double speed) {
+    this.numEvents++;
+    this.totalDistance += distance;
+    this.totalSpeed += speed;
+  }
+
+  /**
+   * Merges another accumulator into this one.
+   * @param other the accumulator to merge.
+   * @return this accumulator.
+   */
+  public PlayerRunningStatisticsAccumulator merge(PlayerRunningStatisticsAccumulator other) {
+    this.numEvents += other.numEvents;
+    this.totalDistance += other.totalDistance;
+    this.totalSpeed += other.totalSpeed;
+    return this;
+  }
+
+  /**
+   * Returns the average speed.
+   * @return the average speed (m/s), or 0 if no event has been accumulated.
+   */
+  public double averageSpeed() {
+    return (this.numEvents == 0) ? 0.0 : this.totalSpeed / this.numEvents;
+  }
+}
@@ -0,0 +1,289 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.query1.tuple;
+
+import com.acmutv.socstream.common.tool.WindowTool;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.flink.api.common.typeinfo.TypeInfo;
+import org.apache.flink.util.Collector;
+
+import java.io.Serializable;
+
+/**
+ * The per-player state of multi-length running statistics.
+ * Events are accumulated once into panes as long as the greatest common divisor of window lengths;
+ * every closed pane is merged into the window of each length it belongs to, so windows of
+ * different lengths share the per-event work.
+ * Windows are aligned to multiples of their length (as tumbling event-time windows); the
+ * {@link WindowTool#FULL} window spans the whole match and is emitted at the end of the stream.
+ * Timestamps are in milliseconds.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+@Data
+@NoArgsConstructor
+@TypeInfo(PlayerRunningStatisticsPanesTypeInfo.Factory.class)
+public class PlayerRunningStatisticsPanes implements Serializable {
+
+  /**
+   * The pane start when no pane is open.
+   */
+  private static final long NO_PANE = Long.MIN_VALUE;
+
+  /**
+   * The player id.
+   */
+  private long pid;
+
+  /**
+   * The window lengths (ms).
+   */
+  private long lengths[];
+
+  /**
+   * The pane length (ms).
+   */
+  private long paneLength;
+
+  /**
+   * The start of the open pane, or {@code NO_PANE}.
+   */
+  private long paneStart = NO_PANE;
+
+  /**
+   * The end of the last closed pane (events before this are late).
+   */
+  private long watermark = Long.MIN_VALUE;
+
+  /**
+   * The open pane.
+   */
+  private PlayerRunningStatisticsAccumulator pane;
+
+  /**
+   * The start of the open window, per length.
+   */
+  private long windowStarts[];
+
+  /**
+   * The open window, per length.
+   */
+  private PlayerRunningStatisticsAccumulator windows[];
+
+  /**
+   * Creates the state for a player.
+   * @param pid the player id.
+   * @param lengths the window lengths (ms).
+   * @param paneLength the pane length (ms), dividing every window length but {@link WindowTool#FULL}.
+   */
+  public PlayerRunningStatisticsPanes(long pid, long lengths[], long paneLength) {
+    this.pid = pid;
+    this.lengths = lengths;
+    this.paneLength = paneLength;
+    this.windowStarts = new long[lengths.length];
+    this.windows = new PlayerRunningStatisticsAccumulator[lengths.length];
+  }
+
+  /**
+   * Accumulates an event, closing the open pane if the event belongs to a later one.
+   * @param ts the event timestamp (ms).
+   * @param distance the distance covered since the previous event (m).
+   * @param speed the speed (m/s).
+   * @param out the collector for windows completed by closing the pane.
+   * @return true, if a new pane has been opened (see {@link #getPaneEnd()}); false, otherwise.
+   */
+  public boolean add(long ts, double distance, double speed, Collector<PlayerRunningStatistics> out) {
+    return this.add(ts, distance, speed, out, null);
+  }
+
+  /**
+   * Accumulates an event, closing the open pane if the event belongs to a later one.
+   * @param ts the event timestamp (ms).
+   * @param distance the distance covered since the previous event (m).
+   * @param speed the speed (m/s).
+   * @param out the collector for windows completed by closing the pane.
+   * @param reuse the statistics to emit windows into, or null to emit new ones.
+   * @return true, if a new pane has been opened (see {@link #getPaneEnd()}); false, otherwise.
+   */
+  public boolean add(long ts, double distance, double speed, Collector<PlayerRunningStatistics> out,
+                     PlayerRunningStatistics reuse) {
+    final long start = ts - Math.floorMod(ts, this.paneLength);
+    boolean opened = false;
+    if (start != this.paneStart) {
+      if (start < this.paneStart || ts < this.watermark) {
+        return false; // late event
+      }
+      if (this.paneStart != NO_PANE) {
+        this.closePane(out, reuse);
+      }
+      this.paneStart = start;
+      this.pane = new PlayerRunningStatisticsAccumulator();
+      opened = true;
+    }
+    this.pane.add(distance, speed);
+    return opened;
+  }
+
+  /**
+   * Accumulates the partial aggregate of a pane, closing the open pane if it is an earlier one.
+   * @param start the pane start (ms), a multiple of the pane length.
+   * @param partial the partial aggregate, which may become the open pane.
+   * @param out the collector for windows completed by closing the pane.
+   * @param reuse the statistics to emit windows into, or null to emit new ones.
+   * @return true, if a new pane has been opened (see {@link #getPaneEnd()}); false, otherwise.
+   */
+  public boolean addPane(long start, PlayerRunningStatisticsAccumulator partial,
+                         Collector<PlayerRunningStatistics> out, PlayerRunningStatistics reuse) {
+    if (start == this.paneStart) {
+      this.pane.merge(partial);
+      return false;
+    }
+    if (start < this.paneStart || start < this.watermark) {
+      return false; // late pane
+    }
+    if (this.paneStart != NO_PANE) {
+      this.closePane(out, reuse);
+    }
+    this.paneStart = start;
+    this.pane = partial;
+    return true;
+  }
+
+  /**
+   * Returns the end of the open pane.
+   * @return the end of the open pane (ms, exclusive).
+   */
+  public long getPaneEnd() {
+    return this.paneStart + this.paneLength;
+  }
+
+  /**
+   * Returns the end of the window of the given length containing the open pane.
+   * @param i the window length index.
+   * @return the window end (ms, exclusive), or {@link Long#MAX_VALUE} for {@link WindowTool#FULL}.
+   */
+  public long getWindowEnd(int i) {
+    final long length = this.lengths[i];
+    if (length == WindowTool.FULL) return Long.MAX_VALUE;
+    return this.paneStart - Math.floorMod(this.paneStart, length) + length;
+  }
+
+  /**
+   * Closes panes and emits windows ending no later than {@code time}.
+   * At {@link Long#MAX_VALUE} (end of stream) every open window is emitted.
+   * @param time the event time (ms, inclusive), typically the watermark.
+   * @param out the collector for completed windows.
+   */
+  public void fire(long time, Collector<PlayerRunningStatistics> out) {
+    this.fire(time, out, null);
+  }
+
+  /**
+   * Closes panes and emits windows ending no later than {@code time}.
+   * At {@link Long#MAX_VALUE} (end of stream) every open window is emitted.
+   * @param time the event time (ms, inclusive), typically the watermark.
+   * @param out the collector for completed windows.
+   * @param reuse the statistics to emit windows into, or null to emit new ones.
+   */
+  public void fire(long time, Collector<PlayerRunningStatistics> out, PlayerRunningStatistics reuse) {
+    if (this.paneStart != NO_PANE && this.getPaneEnd() - 1 <= time) {
+      this.closePane(out, reuse);
+    }
+    for (int i = 0; i < this.lengths.length; i++) {
+      if (this.windows[i] == null) continue;
+      final long length = this.lengths[i];
+      if (time == Long.MAX_VALUE || (length != WindowTool.FULL && this.windowStarts[i] + length - 1 <= time)) {
+        this.emit(i, out, reuse);
+      }
+    }
+  }
+
+  /**
+   * Checks if there is no open pane and no open window.
+   * @return true, if the state can be discarded; false, otherwise.
+   */
+  public boolean isEmpty() {
+    if (this.paneStart != NO_PANE) return false;
+    for (PlayerRunningStatisticsAccumulator window : this.windows) {
+      if (window != null) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Merges the open pane into the windows of every length.
+   * @param out the collector for completed windows.
+   * @param reuse the statistics to emit windows into, or null to emit new ones.
+   */
+  private void closePane(Collector<PlayerRunningStatistics> out, PlayerRunningStatistics reuse) {
+    final long paneEnd = this.getPaneEnd();
+    for (int i = 0; i < this.lengths.length; i++) {
+      final long length = this.lengths[i];
+      if (length == WindowTool.FULL) {
+        if (this.windows[i] == null) {
+          this.windowStarts[i] = this.paneStart;
+          this.windows[i] = new PlayerRunningStatisticsAccumulator();
+        }
+        this.windows[i].merge(this.pane);
+        continue;
+      }
+      final long start = this.paneStart - Math.floorMod(this.paneStart, length);
+      if (this.windows[i] != null && this.windowStarts[i] != start) {
+        this.emit(i, out, reuse);
+      }
+      if (this.windows[i] == null) {
+        this.windowStarts[i] = start;
+        this.windows[i] = new PlayerRunningStatisticsAccumulator();
+      }
+      this.windows[i].merge(this.pane);
+      if (paneEnd == start + length) {
+        this.emit(i, out, reuse);
+      }
+    }
+    this.watermark = paneEnd;
+    this.paneStart = NO_PANE;
+    this.pane = null;
+  }
+
+  /**
+   * Emits and clears the window of the given length.
+   * @param i the window length index.
+   * @param out the collector.
+   * @param reuse the statistics to emit the window into, or null to emit new ones.
+   */
+  private void emit(int i, Collector<PlayerRunningStatistics> out, PlayerRunningStatistics reuse) {
+    final PlayerRunningStatisticsAccumulator window = this.windows[i];
+    final long length = this.lengths[i];
+    final long start = this.windowStarts[i];
+    final long stop = (length == WindowTool.FULL) ? this.watermark : start + length;
+    out.collect(((reuse != null) ? reuse : new PlayerRunningStatistics())
+        .set(start, stop, this.pid, window.getTotalDistance(), window.averageSpeed()));
+    this.windows[i] = null;
+  }
+}
@@ -0,0 +1,163 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.query1.tuple;
+
+import org.apache.flink.api.common.typeutils.base.TypeSerializerSingleton;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+
+import java.io.IOException;
+
+/**
+ * A serializer for {@link PlayerRunningStatisticsPanes}: pid, paneLength, paneStart and watermark as 8-byte longs,
+ * the number of window lengths as 4-byte int, the (length, window start) pairs as 8-byte longs, then the open pane
+ * and the open windows, each as a presence byte followed by a {@link PlayerRunningStatisticsAccumulatorSerializer} record.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public final class PlayerRunningStatisticsPanesSerializer extends TypeSerializerSingleton<PlayerRunningStatisticsPanes> {
+
+  /**
+   * The singleton instance.
+   */
+  public static final PlayerRunningStatisticsPanesSerializer INSTANCE = new PlayerRunningStatisticsPanesSerializer();
+
+  /**
+   * The accumulator serializer.
+   */
+  private static final PlayerRunningStatisticsAccumulatorSerializer ACCUMULATOR = PlayerRunningStatisticsAccumulatorSerializer.INSTANCE;
+
+  private PlayerRunningStatisticsPanesSerializer() { }
+
+  @Override
+  public boolean isImmutableType() {
+    return false;
+  }
+
+  @Override
+  public PlayerRunningStatisticsPanes createInstance() {
+    return new PlayerRunningStatisticsPanes();
+  }
+
+  @Override
+  public PlayerRunningStatisticsPanes copy(PlayerRunningStatisticsPanes from) {
+    final int n = from.getLengths().length;
+    final PlayerRunningStatisticsPanes copy = new PlayerRunningStatisticsPanes(from.getPid(), from.getLengths().clone(), from.getPaneLength());
+    copy.setPaneStart(from.getPaneStart());
+    copy.setWatermark(from.getWatermark());
+    copy.setPane(copyAccumulator(from.getPane()));
+    System.arraycopy(from.getWindowStarts(), 0, copy.getWindowStarts(), 0, n);
+    for (int i = 0; i < n; i++) {
+      copy.getWindows()[i] = copyAccumulator(from.getWindows()[i]);
+    }
+    return copy;
+  }
+
+  @Override
+  public PlayerRunningStatisticsPanes copy(PlayerRunningStatisticsPanes from, PlayerRunningStatisticsPanes reuse) {
+    return this.copy(from);
+  }
+
+  @Override
+  public int getLength() {
+    return -1;
+  }
+
+  @Override
+  public void serialize(PlayerRunningStatisticsPanes record, DataOutputView target) throws IOException {
+    target.writeLong(record.getPid());
+    target.writeLong(record.getPaneLength());
+    target.writeLong(record.getPaneStart());
+    target.writeLong(record.getWatermark());
+    final long[] lengths = record.getLengths();
+    final long[] windowStarts = record.getWindowStarts();
+    target.writeInt(lengths.length);
+    for (int i = 0; i < lengths.length; i++) {
+      target.writeLong(lengths[i]);
+      target.writeLong(windowStarts[i]);
+    }
+    serializeAccumulator(record.getPane(), target);
+    for (PlayerRunningStatisticsAccumulator window : record.getWindows()) {
+      serializeAccumulator(window, target);
+    }
+  }
+
+  @Override
+  public PlayerRunningStatisticsPanes deserialize(DataInputView source) throws IOException {
+    final long pid = source.readLong();
+    final long paneLength = source.readLong();
+    final long paneStart = source.readLong();
+    final long watermark = source.readLong();
+    final int n = source.readInt();
+    final long[] lengths = new long[n];
+    final long[] windowStarts = new long[n];
+    for (int i = 0; i < n; i++) {
+      lengths[i] = source.readLong();
+      windowStarts[i] = source.readLong();
+    }
+    final PlayerRunningStatisticsPanes panes = new PlayerRunningStatisticsPanes(pid, lengths, paneLength);
+    panes.setPaneStart(paneStart);
+    panes.setWatermark(watermark);
+    panes.setWindowStarts(windowStarts);
+    panes.setPane(deserializeAccumulator(source));
+    for (int i = 0; i < n; i++) {
+      panes.getWindows()[i] = deserializeAccumulator(source);
+    }
+    return panes;
+  }
+
+  @Override
+  public PlayerRunningStatisticsPanes deserialize(PlayerRunningStatisticsPanes reuse, DataInputView source) throws IOException {
+    return this.deserialize(source);
+  }
+
+  @Override
+  public void copy(DataInputView source, DataOutputView target) throws IOException {
+    this.serialize(this.deserialize(source), target);
+  }
+
+  @Override
+  public boolean canEqual(Object obj) {
+    return obj instanceof PlayerRunningStatisticsPanesSerializer;
+  }
+
+  private static PlayerRunningStatisticsAccumulator copyAccumulator(PlayerRunningStatisticsAccumulator from) {
+    return (from == null) ? null : ACCUMULATOR.copy(from);
+  }
+
+  private static void serializeAccumulator(PlayerRunningStatisticsAccumulator acc, DataOutputView target) throws IOException {
+    target.writeBoolean(acc != null);
+    if (acc != null) {
+      ACCUMULATOR.serialize(acc, target);
+    }
+  }
+
+  private static PlayerRunningStatisticsAccumulator deserializeAccumulator(DataInputView source) throws IOException {
+    return source.readBoolean() ? ACCUMULATOR.deserialize(source) : null;
+  }
+}
@@ -0,0 +1,98 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.query2.operator;
+
+import com.acmutv.socstream.query2.tuple.PlayersSpeedRanking;
+import com.acmutv.socstream.query2.tuple.RankingAccumulator;
+import org.apache.flink.api.common.functions.AggregateFunction;
+
+/**
+ * The operator that merges partial rankings into the global ranking of players by average speed (second phase).
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class GlobalRankerAggregator implements AggregateFunction<PlayersSpeedRanking,RankingAccumulator,RankingAccumulator> {
+
+  /**
+   * The size of the top-K ranking.
+   */
+  private final int rankSize;
+
+  /**
+   * Creates a new {@link GlobalRankerAggregator} with the specified rank size.
+   * @param rankSize the size of the top-k ranking.
+   */
+  public GlobalRankerAggregator(int rankSize) {
+    this.rankSize = rankSize;
+  }
+
+  /**
+   * Creates a new accumulator, starting a new aggregate.
+   *
+   * @return A new accumulator, corresponding to an empty aggregate.
+   */
+  @Override
+  public RankingAccumulator createAccumulator() {
+    return new RankingAccumulator(this.rankSize);
+  }
+
+  /**
+   * Adds the given value to the given accumulator.
+   *
+   * @param value       The value to add
+   * @param accumulator The accumulator
+   */
+  @Override
+  public void add(PlayersSpeedRanking value, RankingAccumulator accumulator) {
+    accumulator.addAll(value.getRank());
+  }
+
+  /**
+   * Gets the result of the aggregation from the accumulator.
+   *
+   * @param accumulator The accumulator of the aggregation
+   * @return The final aggregation result.
+   */
+  @Override
+  public RankingAccumulator getResult(RankingAccumulator accumulator) {
+    return accumulator;
+  }
+
+  /**
+   * Merges two accumulators, returning an accumulator with the merged state.
+   *
+   * @param a An accumulator to merge
+   * @param b Another accumulator to merge
+   * @return The accumulator with the merged state
+   */
+  @Override
+  public RankingAccumulator merge(RankingAccumulator a, RankingAccumulator b) {
+    return a.merge(b);
+  }
+}
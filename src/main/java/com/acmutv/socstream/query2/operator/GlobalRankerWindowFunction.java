@@ -25,28 +25,31 @@
  */
 package com.acmutv.socstream.query2.operator;
 
-import com.acmutv.socstream.query2.tuple.PlayerSpeedStatistics;
+import com.acmutv.socstream.common.metric.MetricNames;
 import com.acmutv.socstream.query2.tuple.PlayersSpeedRanking;
-import com.acmutv.socstream.query2.tuple.RankingElement;
+import com.acmutv.socstream.query2.tuple.RankingAccumulator;
 import lombok.Data;
-import org.apache.flink.streaming.api.functions.windowing.AllWindowFunction;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.SimpleCounter;
+import org.apache.flink.streaming.api.functions.windowing.RichWindowFunction;
 import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
 import org.apache.flink.util.Collector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Comparator;
-import java.util.List;
-
 /**
- * The operator that calculates the global ranking of players by average speed.
+ * The operator that emits the global ranking of players by average speed (second phase), per match
+ * (see {@link PlayersSpeedRankingMatchKeyer}).
+ * The ranking is computed incrementally by {@link GlobalRankerAggregator}, so the window
+ * holds only the top-k candidates.
  *
  * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
  * @author Michele Porretta {@literal <mporretta@acm.org>}
  * @since 1.0
  */
 @Data
-public class GlobalRankerWindowFunction implements AllWindowFunction<PlayerSpeedStatistics, PlayersSpeedRanking, TimeWindow> {
+public class GlobalRankerWindowFunction extends RichWindowFunction<RankingAccumulator, PlayersSpeedRanking, Integer, TimeWindow> {
 
   /**
    * The logger.
@@ -54,43 +57,36 @@ public class GlobalRankerWindowFunction implements AllWindowFunction<PlayerSpeed
   private static final Logger LOG = LoggerFactory.getLogger(GlobalRankerWindowFunction.class);
 
   /**
-   * The size of the top-K ranking.
+   * The number of fired windows.
    */
-  private int rankSize;
+  private transient Counter windowFires = new SimpleCounter();
 
   /**
    * The output: ranking.
    */
   private PlayersSpeedRanking ranking = new PlayersSpeedRanking();
 
-  /**
-   * Creates a new {@link GlobalRankerWindowFunction} with the specified rank size.
-   * @param rankSize the size of the top-k ranking.
-   */
-  public GlobalRankerWindowFunction(int rankSize) {
-    this.rankSize = rankSize;
+  @Override
+  public void open(Configuration parameters) throws Exception {
+    this.windowFires = super.getRuntimeContext().getMetricGroup().counter(MetricNames.WINDOW_FIRES);
   }
 
   /**
    * Evaluates the window and outputs none or several elements.
    *
+   * @param key    The match id of the window that is being evaluated.
    * @param window The window that is being evaluated.
    * @param values The elements in the window being evaluated.
    * @param out    A collector for emitting elements.
    * @throws Exception The function may throw exceptions to fail the program and trigger recovery.
    */
   @Override
-  public void apply(TimeWindow window, Iterable<PlayerSpeedStatistics> values, Collector<PlayersSpeedRanking> out) throws Exception {
+  public void apply(Integer key, TimeWindow window, Iterable<RankingAccumulator> values, Collector<PlayersSpeedRanking> out) throws Exception {
+    this.windowFires.inc();
     this.ranking.setTsStart(window.getStart());
     this.ranking.setTsStop(window.getEnd());
 
-    List<RankingElement> rank = this.ranking.getRank();
-
-    rank.clear();
-    values.forEach(e -> rank.add(new RankingElement(e.getPid(), e.getAverageSpeed())));
-    rank.sort(Comparator.reverseOrder());
-    int size = rank.size();
-    rank.subList(Math.min(this.rankSize, size), size).clear();
+    values.iterator().next().fill(this.ranking.getRank());
 
     //LOG.debug("WOUT: {}", this.ranking);
 
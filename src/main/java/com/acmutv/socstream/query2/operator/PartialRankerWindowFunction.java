@@ -0,0 +1,82 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.query2.operator;
+
+import com.acmutv.socstream.common.metric.MetricNames;
+import com.acmutv.socstream.query2.tuple.PlayersSpeedRanking;
+import com.acmutv.socstream.query2.tuple.RankingAccumulator;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.SimpleCounter;
+import org.apache.flink.streaming.api.functions.windowing.RichWindowFunction;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.util.Collector;
+
+/**
+ * The operator that emits the partial ranking of a group of players (first phase).
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class PartialRankerWindowFunction extends RichWindowFunction<RankingAccumulator,PlayersSpeedRanking,Integer,TimeWindow> {
+
+  /**
+   * The number of fired windows.
+   */
+  private transient Counter windowFires = new SimpleCounter();
+
+  /**
+   * The output: partial ranking.
+   */
+  private PlayersSpeedRanking ranking = new PlayersSpeedRanking();
+
+  @Override
+  public void open(Configuration parameters) throws Exception {
+    this.windowFires = super.getRuntimeContext().getMetricGroup().counter(MetricNames.WINDOW_FIRES);
+  }
+
+  /**
+   * Evaluates the window and outputs none or several elements.
+   *
+   * @param key    The key for which this window is evaluated.
+   * @param window The window that is being evaluated.
+   * @param inputs The elements in the window being evaluated.
+   * @param out    A collector for emitting elements.
+   * @throws Exception The function may throw exceptions to fail the program and trigger recovery.
+   */
+  @Override
+  public void apply(Integer key, TimeWindow window, Iterable<RankingAccumulator> inputs, Collector<PlayersSpeedRanking> out) throws Exception {
+    this.windowFires.inc();
+    this.ranking.setTsStart(window.getStart());
+    this.ranking.setTsStop(window.getEnd());
+
+    inputs.iterator().next().fill(this.ranking.getRank());
+
+    out.collect(this.ranking);
+  }
+}
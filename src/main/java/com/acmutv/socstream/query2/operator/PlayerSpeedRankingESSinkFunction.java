@@ -28,6 +28,8 @@ package com.acmutv.socstream.query2.operator;
 import com.acmutv.socstream.query1.tuple.PlayerRunningStatistics;
 import com.acmutv.socstream.query2.tuple.PlayersSpeedRanking;
 import com.acmutv.socstream.query2.tuple.RankingElement;
+import com.acmutv.socstream.common.sink.encode.ByteArrayBuilder;
+import com.acmutv.socstream.common.sink.encode.ResultEncoder;
 import org.apache.flink.api.common.functions.RuntimeContext;
 import org.apache.flink.streaming.connectors.elasticsearch.ElasticsearchSinkFunction;
 import org.apache.flink.streaming.connectors.elasticsearch.RequestIndexer;
@@ -39,7 +41,6 @@ import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * A sink that writes {@link PlayersSpeedRanking} to Elasticsearch.
@@ -64,6 +65,16 @@ public class PlayerSpeedRankingESSinkFunction implements ElasticsearchSinkFuncti
    */
   private String typeName;
 
+  /**
+   * The document encoder.
+   */
+  private final ResultEncoder<PlayersSpeedRanking> encoder = new PlayersSpeedRankingJsonEncoder();
+
+  /**
+   * The document buffer, reused across elements.
+   */
+  private transient ByteArrayBuilder buffer;
+
   /**
    * Creates a new {@link PlayerSpeedRankingESSinkFunction} with the specified index and type.
    * @param indexName the name of Elasticsearch index.
@@ -85,20 +96,16 @@ public class PlayerSpeedRankingESSinkFunction implements ElasticsearchSinkFuncti
    * @return the Elasticsearch request.
    */
   private IndexRequest createWindowWordRanking(PlayersSpeedRanking value) {
-    String rankJson = value.getRank().stream()
-        .map(e -> "{" + "\"pid\":" + e.getPid() + ",\"averageSpeed\":" + e.getAverageSpeed() + "}")
-        .collect(Collectors.joining(","));
-
-    String json =
-        "{\"tsStart\":" + value.getTsStart() +
-        ",\"tsStop\":" + value.getTsStop() +
-        ",\"rank\":[" + rankJson + "]}";
+    if (this.buffer == null) {
+      this.buffer = new ByteArrayBuilder();
+    }
+    this.encoder.encode(value, this.buffer.reset());
 
-    //LOG.debug("JSON: {}", json);
+    //LOG.debug("JSON: {}", this.buffer);
 
     return Requests.indexRequest()
         .index(this.indexName)
         .type(this.typeName)
-        .source(json);
+        .source(this.buffer.toByteArray());
   }
 }
@@ -27,10 +27,10 @@ package com.acmutv.socstream.query2.operator;
 
 import com.acmutv.socstream.common.tuple.RichSensorEvent;
 import com.acmutv.socstream.query2.tuple.PlayerSpeedStatistics;
+import com.acmutv.socstream.query2.tuple.PlayerSpeedStatisticsAccumulator;
 import com.acmutv.socstream.query2.tuple.SpeedSensorEvent;
 import com.acmutv.socstream.tool.physics.PhysicsUtil;
 import org.apache.flink.api.common.functions.AggregateFunction;
-import org.apache.flink.api.java.tuple.Tuple2;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,7 +41,7 @@ import org.slf4j.LoggerFactory;
  * @author Michele Porretta {@literal <mporretta@acm.org>}
  * @since 1.0
  */
-public class PlayerSpeedStatisticsCalculatorAggregator implements AggregateFunction<SpeedSensorEvent,Tuple2<Long,Double>,PlayerSpeedStatistics> {
+public class PlayerSpeedStatisticsCalculatorAggregator implements AggregateFunction<SpeedSensorEvent,PlayerSpeedStatisticsAccumulator,PlayerSpeedStatistics> {
 
   /**
    * The logger.
@@ -61,25 +61,21 @@ public class PlayerSpeedStatisticsCalculatorAggregator implements AggregateFunct
    * @return A new accumulator, corresponding to an empty aggregate.
    */
   @Override
-  public Tuple2<Long,Double> createAccumulator() {
-    return new Tuple2<Long,Double>(0L, 0.0);
+  public PlayerSpeedStatisticsAccumulator createAccumulator() {
+    return new PlayerSpeedStatisticsAccumulator();
   }
 
   /**
    * Adds the given value to the given accumulator.
    *
    * @param event       The value to add
-   * @param accumulator The accumulator (numEvents,avgSpeed).
+   * @param accumulator The accumulator
    */
   @Override
-  public void add(SpeedSensorEvent event, Tuple2<Long,Double> accumulator) {
-    long numEvents = ++accumulator.f0;
+  public void add(SpeedSensorEvent event, PlayerSpeedStatisticsAccumulator accumulator) {
+    //LOG.debug("IN: {}", event);
 
-    //LOG.debug("IN ({}): {}", numEvents, event);
-
-    final double newAverageSpeed = ((accumulator.f1 * (numEvents - 1)) + event.getV()) / numEvents;
-
-    accumulator.setFields(numEvents, newAverageSpeed);
+    accumulator.add(event.getV());
 
     //LOG.debug("ACC: {}", accumulator);
   }
@@ -91,8 +87,8 @@ public class PlayerSpeedStatisticsCalculatorAggregator implements AggregateFunct
    * @return The final aggregation result.
    */
   @Override
-  public PlayerSpeedStatistics getResult(Tuple2<Long,Double> accumulator) {
-    return new PlayerSpeedStatistics(0L, 0L, 0L, accumulator.f1);
+  public PlayerSpeedStatistics getResult(PlayerSpeedStatisticsAccumulator accumulator) {
+    return new PlayerSpeedStatistics(0L, 0L, 0L, accumulator.averageSpeed());
   }
 
   /**
@@ -107,7 +103,7 @@ public class PlayerSpeedStatisticsCalculatorAggregator implements AggregateFunct
    * @return The accumulator with the merged state
    */
   @Override
-  public Tuple2<Long,Double> merge(Tuple2<Long,Double> a, Tuple2<Long,Double> b) {
-    return null;
+  public PlayerSpeedStatisticsAccumulator merge(PlayerSpeedStatisticsAccumulator a, PlayerSpeedStatisticsAccumulator b) {
+    return a.merge(b);
   }
 }
@@ -25,8 +25,12 @@
  */
 package com.acmutv.socstream.query2.operator;
 
+import com.acmutv.socstream.common.metric.MetricNames;
 import com.acmutv.socstream.query2.tuple.PlayerSpeedStatistics;
-import org.apache.flink.streaming.api.functions.windowing.WindowFunction;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.SimpleCounter;
+import org.apache.flink.streaming.api.functions.windowing.RichWindowFunction;
 import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
 import org.apache.flink.util.Collector;
 import org.slf4j.Logger;
@@ -39,13 +43,23 @@ import org.slf4j.LoggerFactory;
  * @author Michele Porretta {@literal <mporretta@acm.org>}
  * @since 1.0
  */
-public class PlayerSpeedStatisticsCalculatorWindowFunction implements WindowFunction<PlayerSpeedStatistics,PlayerSpeedStatistics,Long,TimeWindow> {
+public class PlayerSpeedStatisticsCalculatorWindowFunction extends RichWindowFunction<PlayerSpeedStatistics,PlayerSpeedStatistics,Long,TimeWindow> {
 
   /**
    * The logger.
    */
   private static final Logger LOG = LoggerFactory.getLogger(PlayerSpeedStatisticsCalculatorWindowFunction.class);
 
+  /**
+   * The number of fired windows.
+   */
+  private transient Counter windowFires = new SimpleCounter();
+
+  @Override
+  public void open(Configuration parameters) throws Exception {
+    this.windowFires = super.getRuntimeContext().getMetricGroup().counter(MetricNames.WINDOW_FIRES);
+  }
+
   /**
    * Evaluates the window and outputs none or several elements.
    *
@@ -57,6 +71,7 @@ public class PlayerSpeedStatisticsCalculatorWindowFunction implements WindowFunc
    */
   @Override
   public void apply(Long key, TimeWindow window, Iterable<PlayerSpeedStatistics> inputs, Collector<PlayerSpeedStatistics> out) throws Exception {
+    this.windowFires.inc();
     PlayerSpeedStatistics stats = inputs.iterator().next();
 
     stats.setPid(key);
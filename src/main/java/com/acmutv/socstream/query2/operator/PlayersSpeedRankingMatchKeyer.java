@@ -0,0 +1,57 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+
+package com.acmutv.socstream.query2.operator;
+
+import com.acmutv.socstream.common.meta.PlayerKey;
+import com.acmutv.socstream.query2.tuple.PlayersSpeedRanking;
+import org.apache.flink.api.java.functions.KeySelector;
+
+/**
+ * A keyselector that extracts the match of partial rankings, so that the global ranking is computed per match.
+ * Partial rankings never mix matches (see {@link PlayerSpeedStatisticsGroupKeyer}).
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class PlayersSpeedRankingMatchKeyer implements KeySelector<PlayersSpeedRanking,Integer> {
+
+  /**
+   * Extracts the match id of the partial ranking.
+   *
+   * @param value The object to get the key from.
+   * @return The extracted key.
+   * @throws Exception Throwing an exception will cause the execution of the respective task to fail,
+   *                   and trigger recovery or cancellation of the program.
+   */
+  @Override
+  public Integer getKey(PlayersSpeedRanking value) throws Exception {
+    if (value.getRank().isEmpty()) return PlayerKey.NO_MATCH;
+    return PlayerKey.matchId(value.getRank().get(0).getPid());
+  }
+}
@@ -0,0 +1,58 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.query2.operator;
+
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import com.acmutv.socstream.query2.tuple.SpeedSensorEvent;
+import org.apache.flink.api.common.functions.RichMapFunction;
+import org.apache.flink.configuration.Configuration;
+
+/**
+ * The operator that projects a sensor event onto its speed, for topologies sharing a single source.
+ * When the job enables object reuse, the projections are emitted into a single instance.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public class SpeedSensorEventProjector extends RichMapFunction<RichSensorEvent,SpeedSensorEvent> {
+
+  /**
+   * The reused projection, if object reuse is enabled.
+   */
+  private transient SpeedSensorEvent reuse;
+
+  @Override
+  public void open(Configuration parameters) throws Exception {
+    this.reuse = super.getRuntimeContext().getExecutionConfig().isObjectReuseEnabled() ? new SpeedSensorEvent() : null;
+  }
+
+  @Override
+  public SpeedSensorEvent map(RichSensorEvent event) throws Exception {
+    return ((this.reuse != null) ? this.reuse : new SpeedSensorEvent()).set(event.getId(), event.getTs(), event.getV());
+  }
+}
@@ -27,6 +27,7 @@
 package com.acmutv.socstream.query2.tuple;
 
 import lombok.Data;
+import org.apache.flink.api.common.typeinfo.TypeInfo;
 
 import java.io.Serializable;
 import java.util.regex.Matcher;
@@ -39,6 +40,7 @@ import java.util.regex.Pattern;
  * @since 1.0
  */
 @Data
+@TypeInfo(PlayerSpeedStatisticsTypeInfo.Factory.class)
 public class PlayerSpeedStatistics implements Serializable {
 
   /**
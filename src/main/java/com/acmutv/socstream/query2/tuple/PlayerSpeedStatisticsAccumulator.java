@@ -0,0 +1,86 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.query2.tuple;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.flink.api.common.typeinfo.TypeInfo;
+
+import java.io.Serializable;
+
+/**
+ * The mergeable accumulator for players speed statistics.
+ * Speeds are integers (um/s), so their sum combines exactly across partial aggregates.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@TypeInfo(PlayerSpeedStatisticsAccumulatorTypeInfo.Factory.class)
+public class PlayerSpeedStatisticsAccumulator implements Serializable {
+
+  /**
+   * The number of events.
+   */
+  private long numEvents;
+
+  /**
+   * The sum of speeds (um/s).
+   */
+  private long totalSpeed;
+
+  /**
+   * Accumulates an event.
+   * @param speed the speed (um/s).
+   */
+  public void add(long speed) {
+    this.numEvents++;
+    this.totalSpeed += speed;
+  }
+
+  /**
+   * Merges another accumulator into this one.
+   * @param other the accumulator to merge.
+   * @return this accumulator.
+   */
+  public PlayerSpeedStatisticsAccumulator merge(PlayerSpeedStatisticsAccumulator other) {
+    this.numEvents += other.numEvents;
+    this.totalSpeed += other.totalSpeed;
+    return this;
+  }
+
+  /**
+   * Returns the average speed.
+   * @return the average speed (um/s), or 0 if no event has been accumulated.
+   */
+  public double averageSpeed() {
+    return (this.numEvents == 0) ? 0.0 : ((double) this.totalSpeed) / this.numEvents;
+  }
+}
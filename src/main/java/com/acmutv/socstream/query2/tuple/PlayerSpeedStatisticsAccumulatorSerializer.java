@@ -0,0 +1,81 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.query2.tuple;
+
+import com.acmutv.socstream.common.typeutils.FixedLengthSerializer;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+
+import java.io.IOException;
+
+/**
+ * A fixed-length serializer for {@link PlayerSpeedStatisticsAccumulator}: numEvents and totalSpeed as 8-byte longs (16 bytes).
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public final class PlayerSpeedStatisticsAccumulatorSerializer extends FixedLengthSerializer<PlayerSpeedStatisticsAccumulator> {
+
+  /**
+   * The singleton instance.
+   */
+  public static final PlayerSpeedStatisticsAccumulatorSerializer INSTANCE = new PlayerSpeedStatisticsAccumulatorSerializer();
+
+  /**
+   * The record length (bytes).
+   */
+  public static final int LENGTH = 16;
+
+  private PlayerSpeedStatisticsAccumulatorSerializer() {
+    super(LENGTH);
+  }
+
+  @Override
+  public PlayerSpeedStatisticsAccumulator createInstance() {
+    return new PlayerSpeedStatisticsAccumulator();
+  }
+
+  @Override
+  public PlayerSpeedStatisticsAccumulator copy(PlayerSpeedStatisticsAccumulator from, PlayerSpeedStatisticsAccumulator reuse) {
+    reuse.setNumEvents(from.getNumEvents());
+    reuse.setTotalSpeed(from.getTotalSpeed());
+    return reuse;
+  }
+
+  @Override
+  public void serialize(PlayerSpeedStatisticsAccumulator record, DataOutputView target) throws IOException {
+    target.writeLong(record.getNumEvents());
+    target.writeLong(record.getTotalSpeed());
+  }
+
+  @Override
+  public PlayerSpeedStatisticsAccumulator deserialize(PlayerSpeedStatisticsAccumulator reuse, DataInputView source) throws IOException {
+    reuse.setNumEvents(source.readLong());
+    reuse.setTotalSpeed(source.readLong());
+    return reuse;
+  }
+}
@@ -28,6 +28,7 @@ package com.acmutv.socstream.query2.tuple;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.apache.flink.api.common.typeinfo.TypeInfo;
 
 import java.io.Serializable;
 import java.util.*;
@@ -42,6 +43,7 @@ import java.util.regex.Pattern;
  */
 @Data
 @EqualsAndHashCode(callSuper = false)
+@TypeInfo(PlayersSpeedRankingTypeInfo.Factory.class)
 public class PlayersSpeedRanking implements Serializable {
 
   /**
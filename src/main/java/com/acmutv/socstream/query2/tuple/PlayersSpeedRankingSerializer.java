@@ -0,0 +1,162 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.query2.tuple;
+
+import org.apache.flink.api.common.typeutils.base.TypeSerializerSingleton;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A serializer for {@link PlayersSpeedRanking}: tsStart and tsStop as 8-byte longs, the ranking size as 4-byte int,
+ * and the ranking elements as (pid, averageSpeed) pairs of 8-byte long and double.
+ * Deserializing into an instance reuses the elements of its ranking.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public final class PlayersSpeedRankingSerializer extends TypeSerializerSingleton<PlayersSpeedRanking> {
+
+  /**
+   * The singleton instance.
+   */
+  public static final PlayersSpeedRankingSerializer INSTANCE = new PlayersSpeedRankingSerializer();
+
+  /**
+   * The length (bytes) of a ranking element.
+   */
+  static final int ELEMENT_LENGTH = 16;
+
+  private PlayersSpeedRankingSerializer() { }
+
+  @Override
+  public boolean isImmutableType() {
+    return false;
+  }
+
+  @Override
+  public PlayersSpeedRanking createInstance() {
+    return new PlayersSpeedRanking();
+  }
+
+  @Override
+  public PlayersSpeedRanking copy(PlayersSpeedRanking from) {
+    return this.copy(from, new PlayersSpeedRanking());
+  }
+
+  @Override
+  public PlayersSpeedRanking copy(PlayersSpeedRanking from, PlayersSpeedRanking reuse) {
+    reuse.setTsStart(from.getTsStart());
+    reuse.setTsStop(from.getTsStop());
+    final List<RankingElement> source = from.getRank();
+    final List<RankingElement> rank = reuse.getRank();
+    for (int i = 0; i < source.size(); i++) {
+      final RankingElement elem = element(rank, i);
+      elem.setPid(source.get(i).getPid());
+      elem.setAverageSpeed(source.get(i).getAverageSpeed());
+    }
+    truncate(rank, source.size());
+    return reuse;
+  }
+
+  @Override
+  public int getLength() {
+    return -1;
+  }
+
+  @Override
+  public void serialize(PlayersSpeedRanking record, DataOutputView target) throws IOException {
+    target.writeLong(record.getTsStart());
+    target.writeLong(record.getTsStop());
+    final List<RankingElement> rank = record.getRank();
+    target.writeInt(rank.size());
+    for (int i = 0; i < rank.size(); i++) {
+      final RankingElement elem = rank.get(i);
+      target.writeLong(elem.getPid());
+      target.writeDouble(elem.getAverageSpeed());
+    }
+  }
+
+  @Override
+  public PlayersSpeedRanking deserialize(DataInputView source) throws IOException {
+    return this.deserialize(new PlayersSpeedRanking(), source);
+  }
+
+  @Override
+  public PlayersSpeedRanking deserialize(PlayersSpeedRanking reuse, DataInputView source) throws IOException {
+    reuse.setTsStart(source.readLong());
+    reuse.setTsStop(source.readLong());
+    final int size = source.readInt();
+    final List<RankingElement> rank = reuse.getRank();
+    for (int i = 0; i < size; i++) {
+      final RankingElement elem = element(rank, i);
+      elem.setPid(source.readLong());
+      elem.setAverageSpeed(source.readDouble());
+    }
+    truncate(rank, size);
+    return reuse;
+  }
+
+  @Override
+  public void copy(DataInputView source, DataOutputView target) throws IOException {
+    target.write(source, 16);
+    final int size = source.readInt();
+    target.writeInt(size);
+    target.write(source, size * ELEMENT_LENGTH);
+  }
+
+  @Override
+  public boolean canEqual(Object obj) {
+    return obj instanceof PlayersSpeedRankingSerializer;
+  }
+
+  /**
+   * Returns the i-th element of the ranking, appending a new one if the ranking is shorter.
+   * @param rank the ranking.
+   * @param i the element index (at most the ranking size).
+   * @return the element.
+   */
+  private static RankingElement element(List<RankingElement> rank, int i) {
+    if (i < rank.size()) return rank.get(i);
+    final RankingElement elem = new RankingElement();
+    rank.add(elem);
+    return elem;
+  }
+
+  /**
+   * Removes the elements of the ranking beyond the given size.
+   * @param rank the ranking.
+   * @param size the size.
+   */
+  private static void truncate(List<RankingElement> rank, int size) {
+    for (int i = rank.size() - 1; i >= size; i--) {
+      rank.remove(i);
+    }
+  }
+}
@@ -0,0 +1,139 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.query2.tuple;
+
+import lombok.Getter;
+import org.apache.flink.api.common.typeinfo.TypeInfo;
+
+import java.io.Serializable;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The mergeable accumulator for a top-k ranking based on average speed.
+ * It keeps only the best {@code rankSize} elements in a bounded min-heap, so that adding an element
+ * costs O(log k) and no window content needs to be buffered.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+@Getter
+@TypeInfo(RankingAccumulatorTypeInfo.Factory.class)
+public class RankingAccumulator implements Serializable {
+
+  /**
+   * The size of the top-K ranking.
+   */
+  private int rankSize;
+
+  /**
+   * The candidates, with the worst one on top.
+   */
+  private PriorityQueue<RankingElement> heap;
+
+  /**
+   * Creates a new {@link RankingAccumulator} with the specified rank size.
+   * @param rankSize the size of the top-k ranking.
+   */
+  public RankingAccumulator(int rankSize) {
+    if (rankSize <= 0) throw new IllegalArgumentException("rankSize must be positive");
+    this.rankSize = rankSize;
+    this.heap = new PriorityQueue<>(rankSize);
+  }
+
+  /**
+   * Empty constructor.
+   * This constructor is mandatory for Flink serialization.
+   */
+  public RankingAccumulator() {
+    this(1);
+  }
+
+  /**
+   * Accumulates a player average speed.
+   * The worst element is recycled when it is evicted, so a full accumulator does not allocate.
+   * @param pid the player id (PID).
+   * @param averageSpeed the player average speed.
+   */
+  public void add(long pid, double averageSpeed) {
+    if (this.heap.size() < this.rankSize) {
+      this.heap.offer(new RankingElement(pid, averageSpeed));
+    } else if (averageSpeed > this.heap.peek().getAverageSpeed()) {
+      RankingElement worst = this.heap.poll();
+      worst.setPid(pid);
+      worst.setAverageSpeed(averageSpeed);
+      this.heap.offer(worst);
+    }
+  }
+
+  /**
+   * Accumulates all the elements of a (partial) ranking.
+   * @param rank the ranking elements.
+   */
+  public void addAll(List<RankingElement> rank) {
+    for (RankingElement elem : rank) {
+      this.add(elem.getPid(), elem.getAverageSpeed());
+    }
+  }
+
+  /**
+   * Merges another accumulator into this one.
+   * @param other the accumulator to merge.
+   * @return this accumulator.
+   */
+  public RankingAccumulator merge(RankingAccumulator other) {
+    for (RankingElement elem : other.heap) {
+      this.add(elem.getPid(), elem.getAverageSpeed());
+    }
+    return this;
+  }
+
+  /**
+   * Writes the ranking, from the fastest player, into {@code rank}, replacing its content.
+   * The list is reused, so only the at most {@code rankSize} candidates are sorted.
+   * @param rank the list to fill.
+   */
+  public void fill(List<RankingElement> rank) {
+    rank.clear();
+    rank.addAll(this.heap);
+    rank.sort(Comparator.reverseOrder());
+  }
+
+  /**
+   * Returns the number of candidates.
+   * @return the number of candidates.
+   */
+  public int size() {
+    return this.heap.size();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("RankingAccumulator(rankSize=%d, heap=%s)", this.rankSize, this.heap);
+  }
+}
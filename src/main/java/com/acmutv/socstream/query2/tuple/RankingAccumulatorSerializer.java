@@ -0,0 +1,122 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.query2.tuple;
+
+import org.apache.flink.api.common.typeutils.base.TypeSerializerSingleton;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+
+import java.io.IOException;
+
+/**
+ * A serializer for {@link RankingAccumulator}: the rank size and the number of candidates as 4-byte ints,
+ * and the candidates as (pid, averageSpeed) pairs of 8-byte long and double, in heap order.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public final class RankingAccumulatorSerializer extends TypeSerializerSingleton<RankingAccumulator> {
+
+  /**
+   * The singleton instance.
+   */
+  public static final RankingAccumulatorSerializer INSTANCE = new RankingAccumulatorSerializer();
+
+  private RankingAccumulatorSerializer() { }
+
+  @Override
+  public boolean isImmutableType() {
+    return false;
+  }
+
+  @Override
+  public RankingAccumulator createInstance() {
+    return new RankingAccumulator();
+  }
+
+  @Override
+  public RankingAccumulator copy(RankingAccumulator from) {
+    return new RankingAccumulator(from.getRankSize()).merge(from);
+  }
+
+  @Override
+  public RankingAccumulator copy(RankingAccumulator from, RankingAccumulator reuse) {
+    if (reuse.getRankSize() != from.getRankSize()) {
+      return this.copy(from);
+    }
+    reuse.getHeap().clear();
+    return reuse.merge(from);
+  }
+
+  @Override
+  public int getLength() {
+    return -1;
+  }
+
+  @Override
+  public void serialize(RankingAccumulator record, DataOutputView target) throws IOException {
+    target.writeInt(record.getRankSize());
+    target.writeInt(record.size());
+    for (RankingElement elem : record.getHeap()) {
+      target.writeLong(elem.getPid());
+      target.writeDouble(elem.getAverageSpeed());
+    }
+  }
+
+  @Override
+  public RankingAccumulator deserialize(DataInputView source) throws IOException {
+    return this.deserialize(null, source);
+  }
+
+  @Override
+  public RankingAccumulator deserialize(RankingAccumulator reuse, DataInputView source) throws IOException {
+    final int rankSize = source.readInt();
+    if (reuse == null || reuse.getRankSize() != rankSize) {
+      reuse = new RankingAccumulator(rankSize);
+    } else {
+      reuse.getHeap().clear();
+    }
+    final int size = source.readInt();
+    for (int i = 0; i < size; i++) {
+      reuse.add(source.readLong(), source.readDouble());
+    }
+    return reuse;
+  }
+
+  @Override
+  public void copy(DataInputView source, DataOutputView target) throws IOException {
+    target.writeInt(source.readInt());
+    final int size = source.readInt();
+    target.writeInt(size);
+    target.write(source, size * PlayersSpeedRankingSerializer.ELEMENT_LENGTH);
+  }
+
+  @Override
+  public boolean canEqual(Object obj) {
+    return obj instanceof RankingAccumulatorSerializer;
+  }
+}
@@ -28,6 +28,7 @@ package com.acmutv.socstream.query2.tuple;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.apache.flink.api.common.typeinfo.TypeInfo;
 
 import java.io.Serializable;
 
@@ -39,6 +40,7 @@ import java.io.Serializable;
  */
 @Data
 @EqualsAndHashCode(callSuper=false)
+@TypeInfo(SpeedSensorEventTypeInfo.Factory.class)
 public class SpeedSensorEvent implements Serializable {
 
   /**
@@ -71,6 +73,21 @@ public class SpeedSensorEvent implements Serializable {
     super();
   }
 
+  /**
+   * Sets all the fields, so that the event can be reused.
+   * @param id the SID or PID.
+   * @param ts the timestamp (picoseconds).
+   * @param v the speed magnitude (um/s).
+   * @return this event.
+   */
+  public SpeedSensorEvent set(long id, long ts,
+                              long v) {
+    this.id = id;
+    this.ts = ts;
+    this.v = v;
+    return this;
+  }
+
   public static SpeedSensorEvent fromDataset(String string) throws IllegalArgumentException {
     String fields[] = string.split(",");
     if (fields.length != 13) {
@@ -0,0 +1,84 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.query2.tuple;
+
+import com.acmutv.socstream.common.typeutils.FixedLengthSerializer;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+
+import java.io.IOException;
+
+/**
+ * A fixed-length serializer for {@link SpeedSensorEvent}: id, ts and v as 8-byte longs (24 bytes).
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public final class SpeedSensorEventSerializer extends FixedLengthSerializer<SpeedSensorEvent> {
+
+  /**
+   * The singleton instance.
+   */
+  public static final SpeedSensorEventSerializer INSTANCE = new SpeedSensorEventSerializer();
+
+  /**
+   * The record length (bytes).
+   */
+  public static final int LENGTH = 24;
+
+  private SpeedSensorEventSerializer() {
+    super(LENGTH);
+  }
+
+  @Override
+  public SpeedSensorEvent createInstance() {
+    return new SpeedSensorEvent();
+  }
+
+  @Override
+  public SpeedSensorEvent copy(SpeedSensorEvent from, SpeedSensorEvent reuse) {
+    reuse.setId(from.getId());
+    reuse.setTs(from.getTs());
+    reuse.setV(from.getV());
+    return reuse;
+  }
+
+  @Override
+  public void serialize(SpeedSensorEvent record, DataOutputView target) throws IOException {
+    target.writeLong(record.getId());
+    target.writeLong(record.getTs());
+    target.writeLong(record.getV());
+  }
+
+  @Override
+  public SpeedSensorEvent deserialize(SpeedSensorEvent reuse, DataInputView source) throws IOException {
+    reuse.setId(source.readLong());
+    reuse.setTs(source.readLong());
+    reuse.setV(source.readLong());
+    return reuse;
+  }
+}
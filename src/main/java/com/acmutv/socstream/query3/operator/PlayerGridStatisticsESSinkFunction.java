@@ -25,8 +25,9 @@
  */
 package com.acmutv.socstream.query3.operator;
 
-import com.acmutv.socstream.query1.tuple.PlayerRunningStatistics;
 import com.acmutv.socstream.query3.tuple.PlayerGridStatistics;
+import com.acmutv.socstream.common.sink.encode.ByteArrayBuilder;
+import com.acmutv.socstream.common.sink.encode.ResultEncoder;
 import org.apache.flink.api.common.functions.RuntimeContext;
 import org.apache.flink.streaming.connectors.elasticsearch.ElasticsearchSinkFunction;
 import org.apache.flink.streaming.connectors.elasticsearch.RequestIndexer;
@@ -35,10 +36,6 @@ import org.elasticsearch.client.Requests;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.stream.Collectors;
-
 /**
  * A sink that writes {@link PlayerGridStatistics} to Elasticsearch.
  *
@@ -62,6 +59,16 @@ public class PlayerGridStatisticsESSinkFunction implements ElasticsearchSinkFunc
    */
   private String typeName;
 
+  /**
+   * The document encoder.
+   */
+  private final ResultEncoder<PlayerGridStatistics> encoder = new PlayerGridStatisticsJsonEncoder();
+
+  /**
+   * The document buffer, reused across elements.
+   */
+  private transient ByteArrayBuilder buffer;
+
   /**
    * Creates a new {@link PlayerGridStatisticsESSinkFunction} with the specified index and type.
    * @param indexName the name of Elasticsearch index.
@@ -83,19 +90,16 @@ public class PlayerGridStatisticsESSinkFunction implements ElasticsearchSinkFunc
    * @return the Elasticsearch request.
    */
   private IndexRequest createWindowWordRanking(PlayerGridStatistics value) {
-    String cellsJson = value.getStats().entrySet().stream()
-        .map(e -> "{" + "\"cid\":\"" + e.getKey() + "\",\"presence\":" + e.getValue() + "}")
-        .collect(Collectors.joining(","));
-    String json =
-        "{\"ts\":" + value.getTsStart() +
-        ",\"pid\":" + value.getPid() +
-        ",\"cells\":[" + cellsJson + "]}";
+    if (this.buffer == null) {
+      this.buffer = new ByteArrayBuilder();
+    }
+    this.encoder.encode(value, this.buffer.reset());
 
-    //LOG.debug("JSON: {}", json);
+    //LOG.debug("JSON: {}", this.buffer);
 
     return Requests.indexRequest()
         .index(this.indexName)
         .type(this.typeName)
-        .source(json);
+        .source(this.buffer.toByteArray());
   }
 }
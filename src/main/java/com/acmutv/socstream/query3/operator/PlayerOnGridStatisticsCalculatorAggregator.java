@@ -25,34 +25,80 @@
  */
 package com.acmutv.socstream.query3.operator;
 
-import com.acmutv.socstream.common.tool.ComputeCenterOfGravity;
+import com.acmutv.socstream.common.tool.FieldGrid;
 import com.acmutv.socstream.common.tool.GridTool;
-import com.acmutv.socstream.common.tuple.Coordinate;
-import com.acmutv.socstream.common.tuple.GridCoordinate;
 import com.acmutv.socstream.common.tuple.PositionSensorEvent;
-import com.acmutv.socstream.query3.tuple.PlayerGridStatistics;
+import com.acmutv.socstream.query3.tuple.PlayerGridStatisticsAccumulator;
 import org.apache.flink.api.common.functions.AggregateFunction;
-import org.apache.flink.api.java.tuple.Tuple4;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * The operator that calculates palyers running statistics (with window).
+ * Dwell times are accumulated for several grids in one pass; events out of the pitch count in the nearest border cell.
  *
  * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
  * @author Michele Porretta {@literal <mporretta@acm.org>}
  * @since 1.0
  */
-public class PlayerOnGridStatisticsCalculatorAggregator implements AggregateFunction<PositionSensorEvent,Tuple4<Long,Long,GridCoordinate,Map<String,Long>>,PlayerGridStatistics> {
+public class PlayerOnGridStatisticsCalculatorAggregator implements AggregateFunction<PositionSensorEvent,PlayerGridStatisticsAccumulator,PlayerGridStatisticsAccumulator> {
 
   /**
    * The logger.
    */
   private static final Logger LOG = LoggerFactory.getLogger(PlayerOnGridStatisticsCalculatorAggregator.class);
 
+  /**
+   * The grids.
+   */
+  private final FieldGrid[] grids;
+
+  /**
+   * The offset of the cells of each grid in the accumulator.
+   */
+  private final int[] offsets;
+
+  /**
+   * The total number of cells.
+   */
+  private final int numCells;
+
+  /**
+   * The cells of the current event, per grid (reused).
+   */
+  private final int[] cells;
+
+  /**
+   * Creates a new {@link PlayerOnGridStatisticsCalculatorAggregator} on the specified grids.
+   * @param grids the grids.
+   */
+  public PlayerOnGridStatisticsCalculatorAggregator(FieldGrid... grids) {
+    this.grids = grids;
+    this.offsets = offsets(grids);
+    this.numCells = this.offsets[grids.length];
+    this.cells = new int[grids.length];
+  }
+
+  /**
+   * Creates a new {@link PlayerOnGridStatisticsCalculatorAggregator} on the default grid.
+   */
+  public PlayerOnGridStatisticsCalculatorAggregator() {
+    this(GridTool.DEFAULT_GRID);
+  }
+
+  /**
+   * Computes the offset of the cells of each grid in a shared array.
+   * @param grids the grids.
+   * @return the offsets, followed by the total number of cells.
+   */
+  public static int[] offsets(FieldGrid[] grids) {
+    final int[] offsets = new int[grids.length + 1];
+    for (int g = 0; g < grids.length; g++) {
+      offsets[g + 1] = offsets[g] + grids[g].numCells();
+    }
+    return offsets;
+  }
+
   /**
    * Creates a new accumulator, starting a new aggregate.
    * <p>
@@ -66,8 +112,8 @@ public class PlayerOnGridStatisticsCalculatorAggregator implements AggregateFunc
    * @return A new accumulator, corresponding to an empty aggregate.
    */
   @Override
-  public Tuple4<Long,Long,GridCoordinate,Map<String,Long>> createAccumulator() {
-    return new Tuple4<Long,Long,GridCoordinate,Map<String,Long>>(0L, 0L, new GridCoordinate(0,0,new Coordinate(0,0)), new HashMap<>());
+  public PlayerGridStatisticsAccumulator createAccumulator() {
+    return new PlayerGridStatisticsAccumulator(this.grids.length, this.numCells);
   }
 
   /**
@@ -77,34 +123,14 @@ public class PlayerOnGridStatisticsCalculatorAggregator implements AggregateFunc
    * @param accumulator The accumulator to add the value to
    */
   @Override
-  public void add(PositionSensorEvent event, Tuple4<Long,Long,GridCoordinate,Map<String,Long>> accumulator) {
-    long numEvents = ++accumulator.f0;
-
-    //LOG.info("IN_1 ({}): {}", numEvents, event);
-
-    long x = event.getX();
-    long y = event.getY();
-    long currentTimestamp = event.getTs();
-
-    long lastTs = accumulator.f1;
-    long cellLifeTime = 0L;
-    long newCellLifeTime = 0L;
-
-    GridCoordinate lastCell = accumulator.f2;
-    Coordinate currentCenter = ComputeCenterOfGravity.computeWithCell(numEvents,x,y,lastCell);
-    GridCoordinate currentCell = GridTool.computeCell(currentCenter);
-    String cellkey = currentCell.getKey();
-
-    if(currentCell.equals(lastCell)){
-      cellLifeTime = accumulator.f3.get(cellkey);
-      newCellLifeTime = cellLifeTime + (currentTimestamp - lastTs);
-      accumulator.f3.put(cellkey,newCellLifeTime);
-    } else {
-      accumulator.f3.put(cellkey, 0L);
+  public void add(PositionSensorEvent event, PlayerGridStatisticsAccumulator accumulator) {
+    //LOG.info("IN: {}", event);
+
+    for (int g = 0; g < this.grids.length; g++) {
+      this.cells[g] = this.offsets[g] + this.grids[g].cellId(event.getX(), event.getY());
     }
 
-    accumulator.f2 = currentCell;
-    accumulator.f1 = currentTimestamp;
+    accumulator.add(event.getTs(), this.cells);
 
     //LOG.info("ACC: {}", accumulator);
   }
@@ -116,8 +142,8 @@ public class PlayerOnGridStatisticsCalculatorAggregator implements AggregateFunc
    * @return The final aggregation result.
    */
   @Override
-  public PlayerGridStatistics getResult(Tuple4<Long,Long,GridCoordinate,Map<String,Long>> accumulator) {
-    return new PlayerGridStatistics(0, 0, accumulator.f3);
+  public PlayerGridStatisticsAccumulator getResult(PlayerGridStatisticsAccumulator accumulator) {
+    return accumulator;
   }
 
   /**
@@ -132,8 +158,7 @@ public class PlayerOnGridStatisticsCalculatorAggregator implements AggregateFunc
    * @return The accumulator with the merged state
    */
   @Override
-  public Tuple4<Long,Long,GridCoordinate,Map<String,Long>> merge(Tuple4<Long,Long,GridCoordinate,Map<String,Long>> a,
-                                                                 Tuple4<Long,Long,GridCoordinate,Map<String,Long>> b) {
-    return null;
+  public PlayerGridStatisticsAccumulator merge(PlayerGridStatisticsAccumulator a, PlayerGridStatisticsAccumulator b) {
+    return PlayerGridStatisticsAccumulator.merge(a, b);
   }
 }
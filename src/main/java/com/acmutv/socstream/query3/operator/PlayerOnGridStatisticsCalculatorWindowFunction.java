@@ -25,27 +25,85 @@
  */
 package com.acmutv.socstream.query3.operator;
 
+import com.acmutv.socstream.common.metric.MetricNames;
+import com.acmutv.socstream.common.tool.FieldGrid;
+import com.acmutv.socstream.common.tool.GridTool;
 import com.acmutv.socstream.query3.tuple.PlayerGridStatistics;
-import org.apache.flink.streaming.api.functions.windowing.WindowFunction;
+import com.acmutv.socstream.query3.tuple.PlayerGridStatisticsAccumulator;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.SimpleCounter;
+import org.apache.flink.streaming.api.functions.windowing.RichWindowFunction;
 import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
 import org.apache.flink.util.Collector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+
 /**
  * The operator that calculates palyers running statistics (with window).
+ * It emits one {@link PlayerGridStatistics} per grid.
+ * When the job enables object reuse, the statistics of each grid are emitted into a single instance.
  *
  * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
  * @author Michele Porretta {@literal <mporretta@acm.org>}
  * @since 1.0
  */
-public class PlayerOnGridStatisticsCalculatorWindowFunction implements WindowFunction<PlayerGridStatistics,PlayerGridStatistics,Long,TimeWindow> {
+public class PlayerOnGridStatisticsCalculatorWindowFunction extends RichWindowFunction<PlayerGridStatisticsAccumulator,PlayerGridStatistics,Long,TimeWindow> {
 
   /**
    * The logger.
    */
   private static final Logger LOG = LoggerFactory.getLogger(PlayerOnGridStatisticsCalculatorWindowFunction.class);
 
+  /**
+   * The number of fired windows.
+   */
+  private transient Counter windowFires = new SimpleCounter();
+
+  /**
+   * The grids.
+   */
+  private final FieldGrid[] grids;
+
+  /**
+   * The offset of the cells of each grid in the accumulator.
+   */
+  private final int[] offsets;
+
+  /**
+   * The reused statistics per grid, if object reuse is enabled.
+   */
+  private transient PlayerGridStatistics[] reuse;
+
+  /**
+   * Creates a new {@link PlayerOnGridStatisticsCalculatorWindowFunction} on the specified grids.
+   * @param grids the grids, as given to {@link PlayerOnGridStatisticsCalculatorAggregator}.
+   */
+  public PlayerOnGridStatisticsCalculatorWindowFunction(FieldGrid... grids) {
+    this.grids = grids;
+    this.offsets = PlayerOnGridStatisticsCalculatorAggregator.offsets(grids);
+  }
+
+  /**
+   * Creates a new {@link PlayerOnGridStatisticsCalculatorWindowFunction} on the default grid.
+   */
+  public PlayerOnGridStatisticsCalculatorWindowFunction() {
+    this(GridTool.DEFAULT_GRID);
+  }
+
+  @Override
+  public void open(Configuration parameters) throws Exception {
+    this.windowFires = super.getRuntimeContext().getMetricGroup().counter(MetricNames.WINDOW_FIRES);
+    if (super.getRuntimeContext().getExecutionConfig().isObjectReuseEnabled()) {
+      this.reuse = new PlayerGridStatistics[this.grids.length];
+      for (int g = 0; g < this.grids.length; g++) {
+        this.reuse[g] = new PlayerGridStatistics(0, 0, this.grids[g], new long[this.offsets[g + 1] - this.offsets[g]]);
+      }
+    }
+  }
+
   /**
    * Evaluates the window and outputs none or several elements.
    *
@@ -56,14 +114,25 @@ public class PlayerOnGridStatisticsCalculatorWindowFunction implements WindowFun
    * @throws Exception The function may throw exceptions to fail the program and trigger recovery.
    */
   @Override
-  public void apply(Long key, TimeWindow window, Iterable<PlayerGridStatistics> inputs, Collector<PlayerGridStatistics> out) throws Exception {
-    PlayerGridStatistics stats = inputs.iterator().next();
+  public void apply(Long key, TimeWindow window, Iterable<PlayerGridStatisticsAccumulator> inputs, Collector<PlayerGridStatistics> out) throws Exception {
+    this.windowFires.inc();
+    final long[] cells = inputs.iterator().next().getCells();
 
-    stats.setPid(key);
-    stats.setTsStart(window.getStart());
+    for (int g = 0; g < this.grids.length; g++) {
+      final PlayerGridStatistics stats;
+      if (this.reuse != null) {
+        stats = this.reuse[g];
+        stats.setPid(key);
+        stats.setTsStart(window.getStart());
+        System.arraycopy(cells, this.offsets[g], stats.getCells(), 0, this.offsets[g + 1] - this.offsets[g]);
+      } else {
+        stats = new PlayerGridStatistics(key, window.getStart(), this.grids[g],
+            Arrays.copyOfRange(cells, this.offsets[g], this.offsets[g + 1]));
+      }
 
-    //LOG.info("OUT: {}", stats);
+      //LOG.info("OUT: {}", stats);
 
-    out.collect(stats);
+      out.collect(stats);
+    }
   }
 }
@@ -0,0 +1,121 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+
+package com.acmutv.socstream.query3.operator;
+
+import com.acmutv.socstream.common.operator.SubKeys;
+import com.acmutv.socstream.common.tool.FieldGrid;
+import com.acmutv.socstream.query3.tuple.PlayerGridStatistics;
+import com.acmutv.socstream.query3.tuple.PlayerGridStatisticsAccumulator;
+import org.apache.flink.api.common.functions.util.FunctionUtils;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.functions.windowing.RichWindowFunction;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.util.Collector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The operator that combines the partial grid statistics (pid,accumulator) of a player (with window).
+ * As merging accumulators credits the gap between them to the last cells of the earlier one, partial
+ * statistics are merged in time order.
+ * It emits one {@link PlayerGridStatistics} per grid, as {@link PlayerOnGridStatisticsCalculatorWindowFunction}.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see SubKeys
+ */
+public class PlayerOnGridStatisticsCombinerWindowFunction extends RichWindowFunction<Tuple2<Long,PlayerGridStatisticsAccumulator>,PlayerGridStatistics,Long,TimeWindow> {
+
+  /**
+   * The order of partial statistics.
+   */
+  private static final Comparator<PlayerGridStatisticsAccumulator> BY_FIRST_TS =
+      Comparator.comparingLong(PlayerGridStatisticsAccumulator::getFirstTs);
+
+  /**
+   * The operator emitting the combined statistics.
+   */
+  private final PlayerOnGridStatisticsCalculatorWindowFunction emitter;
+
+  /**
+   * The partial statistics of the window being evaluated.
+   */
+  private transient List<PlayerGridStatisticsAccumulator> partials;
+
+  /**
+   * Creates a new {@link PlayerOnGridStatisticsCombinerWindowFunction} on the specified grids.
+   * @param grids the grids, as given to {@link PlayerOnGridStatisticsCalculatorAggregator}.
+   */
+  public PlayerOnGridStatisticsCombinerWindowFunction(FieldGrid... grids) {
+    this.emitter = new PlayerOnGridStatisticsCalculatorWindowFunction(grids);
+  }
+
+  @Override
+  public void open(Configuration parameters) throws Exception {
+    this.partials = new ArrayList<>();
+    FunctionUtils.setFunctionRuntimeContext(this.emitter, super.getRuntimeContext());
+    FunctionUtils.openFunction(this.emitter, parameters);
+  }
+
+  @Override
+  public void close() throws Exception {
+    FunctionUtils.closeFunction(this.emitter);
+  }
+
+  /**
+   * Evaluates the window and outputs none or several elements.
+   *
+   * @param key    The key for which this window is evaluated.
+   * @param window The window that is being evaluated.
+   * @param inputs The elements in the window being evaluated.
+   * @param out    A collector for emitting elements.
+   * @throws Exception The function may throw exceptions to fail the program and trigger recovery.
+   */
+  @Override
+  public void apply(Long key, TimeWindow window, Iterable<Tuple2<Long,PlayerGridStatisticsAccumulator>> inputs,
+                    Collector<PlayerGridStatistics> out) throws Exception {
+    this.partials.clear();
+    for (Tuple2<Long,PlayerGridStatisticsAccumulator> partial : inputs) {
+      this.partials.add(partial.f1);
+    }
+    this.partials.sort(BY_FIRST_TS);
+
+    PlayerGridStatisticsAccumulator accumulator = this.partials.get(0);
+    for (int i = 1; i < this.partials.size(); i++) {
+      accumulator = PlayerGridStatisticsAccumulator.merge(accumulator, this.partials.get(i));
+    }
+    this.partials.clear();
+
+    this.emitter.apply(key, window, Collections.singletonList(accumulator), out);
+  }
+}
@@ -26,11 +26,11 @@
 
 package com.acmutv.socstream.query3.tuple;
 
+import com.acmutv.socstream.common.tool.FieldGrid;
+import com.acmutv.socstream.common.tool.GridTool;
 import lombok.Data;
+import org.apache.flink.api.common.typeinfo.TypeInfo;
 
-import java.text.DecimalFormat;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -41,6 +41,7 @@ import java.util.regex.Pattern;
  * @since 1.0
  */
 @Data
+@TypeInfo(PlayerGridStatisticsTypeInfo.Factory.class)
 public class PlayerGridStatistics {
 
   /**
@@ -65,15 +66,46 @@ public class PlayerGridStatistics {
   private long tsStart;
 
   /**
-   * The grid statistics.
+   * The number of grid rows (y-axis).
    */
-  private Map<String,Long> stats = new HashMap<>();
+  private int rows = GridTool.DEFAULT_GRID.getRows();
 
+  /**
+   * The number of grid columns (x-axis).
+   */
+  private int columns = GridTool.DEFAULT_GRID.getColumns();
+
+  /**
+   * The grid statistics: the dwell time (picoseconds) per cell id.
+   */
+  private long[] cells = new long[0];
 
-  public PlayerGridStatistics(long pid, long tsStart, Map<String,Long> stats) {
+
+  public PlayerGridStatistics(long pid, long tsStart, long[] cells) {
     this.pid = pid;
     this.tsStart = tsStart;
-    this.stats = stats;
+    this.cells = cells;
+  }
+
+  /**
+   * Creates a new {@link PlayerGridStatistics} on the specified grid.
+   * @param pid the player id (PID).
+   * @param tsStart the timestamp for the start instant.
+   * @param grid the grid.
+   * @param cells the dwell time (picoseconds) per cell id of {@code grid}.
+   */
+  public PlayerGridStatistics(long pid, long tsStart, FieldGrid grid, long[] cells) {
+    this(pid, tsStart, cells);
+    this.rows = grid.getRows();
+    this.columns = grid.getColumns();
+  }
+
+  /**
+   * Returns the grid resolution ({@code <rows>x<columns>}).
+   * @return the grid resolution.
+   */
+  public String getResolution() {
+    return this.rows + "x" + this.columns;
   }
 
   /**
@@ -96,8 +128,8 @@ public class PlayerGridStatistics {
     long pid = Long.valueOf(matcher.group(1));
     long tsStart = Long.valueOf(matcher.group(2));
     String strStats = matcher.group(3);
-    Map<String,Long> stats = new HashMap<>(); //TODO
-    return new PlayerGridStatistics(pid,tsStart,stats);
+    long[] cells = new long[0]; //TODO
+    return new PlayerGridStatistics(pid,tsStart,cells);
   }
 
   @Override
@@ -108,34 +140,23 @@ public class PlayerGridStatistics {
 
   public String printCellOccupation(){
 
-    long lifetime = this.stats.values().stream().mapToLong(i -> i.longValue()).sum();
+    if(this.cells.length == 0)
+      return "";
 
-    String occupation ="";
-    String data = this.stats.toString();
-
-    int length = data.length();
-    data = data.substring(1,length-1);
-
-    if(data.equals(""))
-      return occupation;
-
-    double percentage = 0.0;
-    String[] cells = data.split(",");
+    long lifetime = 0;
+    for (long dwell : this.cells)
+      lifetime += dwell;
 
     if(lifetime == 0)
       return ", NOT AVAILABLE";
 
-    for(int i=0; i<cells.length;i++){
-      String[] cell = cells[i].split("=");
-      String[] coordinate = cell[0].split(";");
-      percentage = (Double) Double.valueOf(cell[1])/lifetime;
-
-      if(percentage != 0.0)
-        occupation += "," + coordinate[0] + ";" + coordinate[1] + ","+ String.format("%.2f", percentage);
-      else
-        occupation +="";
+    StringBuilder occupation = new StringBuilder();
+    for (int cell = 0; cell < this.cells.length; cell++) {
+      if (this.cells[cell] == 0)
+        continue;
+      double percentage = ((double) this.cells[cell]) / lifetime;
+      occupation.append(",").append(FieldGrid.cellKey(cell, this.rows)).append(",").append(String.format("%.2f", percentage));
     }
-    occupation = occupation.replace(" ","");
-    return occupation;
+    return occupation.toString();
   }
 }
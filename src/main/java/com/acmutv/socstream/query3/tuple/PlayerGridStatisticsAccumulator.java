@@ -0,0 +1,164 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.query3.tuple;
+
+import com.acmutv.socstream.common.tool.FieldGrid;
+import com.acmutv.socstream.common.tool.GridTool;
+import lombok.Data;
+import org.apache.flink.api.common.typeinfo.TypeInfo;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * The mergeable accumulator for players grid statistics.
+ * The time between two consecutive events is credited to the cell of the earlier one, so the
+ * only state needed to join two partial aggregates is the last cell and timestamp of the earlier
+ * one and the first timestamp of the later one.
+ * Merging is exact for partial aggregates over consecutive, non-overlapping time ranges.
+ * Dwell times are kept in a dense array indexed by cell id (see {@link FieldGrid#cellId(long, long)}),
+ * so accumulating an event does not allocate.
+ * Several grids can be accumulated in one pass: their cells are laid out one after the other
+ * in the same array, and the last cell is tracked per grid.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+@Data
+@TypeInfo(PlayerGridStatisticsAccumulatorTypeInfo.Factory.class)
+public class PlayerGridStatisticsAccumulator implements Serializable {
+
+  /**
+   * The cell id meaning that no event has been accumulated.
+   */
+  public static final int NO_CELL = -1;
+
+  /**
+   * The number of events.
+   */
+  private long numEvents;
+
+  /**
+   * The timestamp of the first event (picoseconds).
+   */
+  private long firstTs;
+
+  /**
+   * The timestamp of the last event (picoseconds).
+   */
+  private long lastTs;
+
+  /**
+   * The cell of the last event, per grid.
+   */
+  private int[] lastCells;
+
+  /**
+   * The dwell time per cell id (picoseconds).
+   */
+  private long[] cells;
+
+  /**
+   * Creates a new {@link PlayerGridStatisticsAccumulator} for the default grid.
+   */
+  public PlayerGridStatisticsAccumulator() {
+    this(1, GridTool.DEFAULT_GRID.numCells());
+  }
+
+  /**
+   * Creates a new {@link PlayerGridStatisticsAccumulator} with the specified number of grids and cells.
+   * @param numGrids the number of grids.
+   * @param numCells the total number of cells of all grids.
+   */
+  public PlayerGridStatisticsAccumulator(int numGrids, int numCells) {
+    this.lastCells = new int[numGrids];
+    this.cells = new long[numCells];
+    Arrays.fill(this.lastCells, NO_CELL);
+  }
+
+  /**
+   * Accumulates an event.
+   * @param ts the event timestamp (picoseconds).
+   * @param cells the event cell id in the cells array, per grid.
+   */
+  public void add(long ts, int[] cells) {
+    if (this.numEvents == 0) {
+      this.firstTs = ts;
+    } else {
+      final long dwell = ts - this.lastTs;
+      for (int lastCell : this.lastCells) {
+        this.cells[lastCell] += dwell;
+      }
+    }
+    System.arraycopy(cells, 0, this.lastCells, 0, this.lastCells.length);
+    this.lastTs = ts;
+    this.numEvents++;
+  }
+
+  /**
+   * Returns the total dwell time in the cells range {@code [from,to)}.
+   * @param from the first cell (inclusive).
+   * @param to the last cell (exclusive).
+   * @return the total dwell time (picoseconds).
+   */
+  public long totalDwell(int from, int to) {
+    long total = 0;
+    for (int cell = from; cell < to; cell++) {
+      total += this.cells[cell];
+    }
+    return total;
+  }
+
+  /**
+   * Merges two accumulators, in any order.
+   * @param a an accumulator.
+   * @param b another accumulator.
+   * @return the accumulator with the merged state (either {@code a} or {@code b}).
+   */
+  public static PlayerGridStatisticsAccumulator merge(PlayerGridStatisticsAccumulator a,
+                                                      PlayerGridStatisticsAccumulator b) {
+    if (a.numEvents == 0) return b;
+    if (b.numEvents == 0) return a;
+
+    final PlayerGridStatisticsAccumulator earlier = (a.firstTs <= b.firstTs) ? a : b;
+    final PlayerGridStatisticsAccumulator later = (earlier == a) ? b : a;
+
+    for (int cell = 0; cell < earlier.cells.length; cell++) {
+      earlier.cells[cell] += later.cells[cell];
+    }
+    final long gap = Math.max(0, later.firstTs - earlier.lastTs);
+    for (int lastCell : earlier.lastCells) {
+      earlier.cells[lastCell] += gap;
+    }
+    if (later.lastTs >= earlier.lastTs) {
+      earlier.lastTs = later.lastTs;
+      System.arraycopy(later.lastCells, 0, earlier.lastCells, 0, earlier.lastCells.length);
+    }
+    earlier.numEvents += later.numEvents;
+    return earlier;
+  }
+}
@@ -0,0 +1,195 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.query3.tuple;
+
+import org.apache.flink.api.common.typeutils.base.TypeSerializerSingleton;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A compact serializer for {@link PlayerGridStatisticsAccumulator}.
+ * Only visited cells are written, as varint-encoded (cell gap, dwell) pairs, so the window state
+ * of a player that crossed a few cells takes a few dozen bytes instead of the whole grid.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public final class PlayerGridStatisticsAccumulatorSerializer extends TypeSerializerSingleton<PlayerGridStatisticsAccumulator> {
+
+  /**
+   * The singleton instance.
+   */
+  public static final PlayerGridStatisticsAccumulatorSerializer INSTANCE = new PlayerGridStatisticsAccumulatorSerializer();
+
+  @Override
+  public boolean isImmutableType() {
+    return false;
+  }
+
+  @Override
+  public PlayerGridStatisticsAccumulator createInstance() {
+    return new PlayerGridStatisticsAccumulator();
+  }
+
+  @Override
+  public PlayerGridStatisticsAccumulator copy(PlayerGridStatisticsAccumulator from) {
+    return this.copy(from, new PlayerGridStatisticsAccumulator(from.getLastCells().length, from.getCells().length));
+  }
+
+  @Override
+  public PlayerGridStatisticsAccumulator copy(PlayerGridStatisticsAccumulator from, PlayerGridStatisticsAccumulator reuse) {
+    if (reuse.getCells().length != from.getCells().length) {
+      reuse.setCells(new long[from.getCells().length]);
+    }
+    if (reuse.getLastCells().length != from.getLastCells().length) {
+      reuse.setLastCells(new int[from.getLastCells().length]);
+    }
+    System.arraycopy(from.getCells(), 0, reuse.getCells(), 0, from.getCells().length);
+    System.arraycopy(from.getLastCells(), 0, reuse.getLastCells(), 0, from.getLastCells().length);
+    reuse.setNumEvents(from.getNumEvents());
+    reuse.setFirstTs(from.getFirstTs());
+    reuse.setLastTs(from.getLastTs());
+    return reuse;
+  }
+
+  @Override
+  public int getLength() {
+    return -1;
+  }
+
+  @Override
+  public void serialize(PlayerGridStatisticsAccumulator record, DataOutputView target) throws IOException {
+    final long[] cells = record.getCells();
+    final int[] lastCells = record.getLastCells();
+    writeVarLong(cells.length, target);
+    writeVarLong(lastCells.length, target);
+    writeVarLong(record.getNumEvents(), target);
+    if (record.getNumEvents() == 0) return;
+    target.writeLong(record.getFirstTs());
+    target.writeLong(record.getLastTs());
+    for (int lastCell : lastCells) {
+      writeVarLong(lastCell, target);
+    }
+
+    int visited = 0;
+    for (long dwell : cells) {
+      if (dwell != 0) visited++;
+    }
+    writeVarLong(visited, target);
+    int previous = 0;
+    for (int cell = 0; cell < cells.length; cell++) {
+      if (cells[cell] == 0) continue;
+      writeVarLong(cell - previous, target);
+      writeVarLong(cells[cell], target);
+      previous = cell;
+    }
+  }
+
+  @Override
+  public PlayerGridStatisticsAccumulator deserialize(DataInputView source) throws IOException {
+    return this.deserialize(null, source);
+  }
+
+  @Override
+  public PlayerGridStatisticsAccumulator deserialize(PlayerGridStatisticsAccumulator reuse, DataInputView source) throws IOException {
+    final int numCells = (int) readVarLong(source);
+    final int numGrids = (int) readVarLong(source);
+    if (reuse == null || reuse.getCells().length != numCells || reuse.getLastCells().length != numGrids) {
+      reuse = new PlayerGridStatisticsAccumulator(numGrids, numCells);
+    } else {
+      Arrays.fill(reuse.getCells(), 0L);
+      Arrays.fill(reuse.getLastCells(), PlayerGridStatisticsAccumulator.NO_CELL);
+    }
+    final long numEvents = readVarLong(source);
+    reuse.setNumEvents(numEvents);
+    if (numEvents == 0) {
+      reuse.setFirstTs(0);
+      reuse.setLastTs(0);
+      return reuse;
+    }
+    reuse.setFirstTs(source.readLong());
+    reuse.setLastTs(source.readLong());
+    final int[] lastCells = reuse.getLastCells();
+    for (int g = 0; g < numGrids; g++) {
+      lastCells[g] = (int) readVarLong(source);
+    }
+
+    final long[] cells = reuse.getCells();
+    final int visited = (int) readVarLong(source);
+    int cell = 0;
+    for (int i = 0; i < visited; i++) {
+      cell += (int) readVarLong(source);
+      cells[cell] = readVarLong(source);
+    }
+    return reuse;
+  }
+
+  @Override
+  public void copy(DataInputView source, DataOutputView target) throws IOException {
+    this.serialize(this.deserialize(source), target);
+  }
+
+  @Override
+  public boolean canEqual(Object obj) {
+    return obj instanceof PlayerGridStatisticsAccumulatorSerializer;
+  }
+
+  /**
+   * Writes a non-negative long with 7 bits per byte.
+   * @param value the value.
+   * @param target the output view.
+   * @throws IOException when the value cannot be written.
+   */
+  private static void writeVarLong(long value, DataOutputView target) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      target.writeByte((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    target.writeByte((int) value);
+  }
+
+  /**
+   * Reads a long written by {@link #writeVarLong(long, DataOutputView)}.
+   * @param source the input view.
+   * @return the value.
+   * @throws IOException when the value cannot be read.
+   */
+  private static long readVarLong(DataInputView source) throws IOException {
+    long value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = source.readByte();
+      value |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return value;
+  }
+}
@@ -0,0 +1,139 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.query3.tuple;
+
+import org.apache.flink.api.common.typeutils.base.TypeSerializerSingleton;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+
+import java.io.IOException;
+
+/**
+ * A serializer for {@link PlayerGridStatistics}: pid and tsStart as 8-byte longs, rows, columns and
+ * the number of cells as 4-byte ints, and the dwell time per cell as 8-byte longs.
+ * Deserializing into an instance reuses its cells when the number of cells matches.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ */
+public final class PlayerGridStatisticsSerializer extends TypeSerializerSingleton<PlayerGridStatistics> {
+
+  /**
+   * The singleton instance.
+   */
+  public static final PlayerGridStatisticsSerializer INSTANCE = new PlayerGridStatisticsSerializer();
+
+  private PlayerGridStatisticsSerializer() { }
+
+  @Override
+  public boolean isImmutableType() {
+    return false;
+  }
+
+  @Override
+  public PlayerGridStatistics createInstance() {
+    return new PlayerGridStatistics();
+  }
+
+  @Override
+  public PlayerGridStatistics copy(PlayerGridStatistics from) {
+    return this.copy(from, new PlayerGridStatistics());
+  }
+
+  @Override
+  public PlayerGridStatistics copy(PlayerGridStatistics from, PlayerGridStatistics reuse) {
+    reuse.setPid(from.getPid());
+    reuse.setTsStart(from.getTsStart());
+    reuse.setRows(from.getRows());
+    reuse.setColumns(from.getColumns());
+    final long[] cells = cells(reuse, from.getCells().length);
+    System.arraycopy(from.getCells(), 0, cells, 0, cells.length);
+    return reuse;
+  }
+
+  @Override
+  public int getLength() {
+    return -1;
+  }
+
+  @Override
+  public void serialize(PlayerGridStatistics record, DataOutputView target) throws IOException {
+    target.writeLong(record.getPid());
+    target.writeLong(record.getTsStart());
+    target.writeInt(record.getRows());
+    target.writeInt(record.getColumns());
+    final long[] cells = record.getCells();
+    target.writeInt(cells.length);
+    for (long dwell : cells) {
+      target.writeLong(dwell);
+    }
+  }
+
+  @Override
+  public PlayerGridStatistics deserialize(DataInputView source) throws IOException {
+    return this.deserialize(new PlayerGridStatistics(), source);
+  }
+
+  @Override
+  public PlayerGridStatistics deserialize(PlayerGridStatistics reuse, DataInputView source) throws IOException {
+    reuse.setPid(source.readLong());
+    reuse.setTsStart(source.readLong());
+    reuse.setRows(source.readInt());
+    reuse.setColumns(source.readInt());
+    final long[] cells = cells(reuse, source.readInt());
+    for (int i = 0; i < cells.length; i++) {
+      cells[i] = source.readLong();
+    }
+    return reuse;
+  }
+
+  @Override
+  public void copy(DataInputView source, DataOutputView target) throws IOException {
+    target.write(source, 24);
+    final int numCells = source.readInt();
+    target.writeInt(numCells);
+    target.write(source, numCells * 8);
+  }
+
+  @Override
+  public boolean canEqual(Object obj) {
+    return obj instanceof PlayerGridStatisticsSerializer;
+  }
+
+  /**
+   * Returns the cells of the statistics, replaced by a new array if their number does not match.
+   * @param stats the statistics.
+   * @param numCells the number of cells.
+   * @return the cells.
+   */
+  private static long[] cells(PlayerGridStatistics stats, int numCells) {
+    if (stats.getCells() == null || stats.getCells().length != numCells) {
+      stats.setCells(new long[numCells]);
+    }
+    return stats.getCells();
+  }
+}
@@ -23,10 +23,13 @@
   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
   THE SOFTWARE.
  */
+
 package com.acmutv.socstream.tool.physics;
 
 /**
  * This class provides all physics-related utilities.
+ * Besides the scalar methods, it provides an allocation-free variant that writes into a
+ * caller-owned {@link Motion} and a batch variant over primitive columns.
  *
  * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
  * @author Michele Porretta {@literal <mporretta@acm.org>}
@@ -42,17 +45,22 @@ public class PhysicsUtil {
   /**
    * The time interval square (frequency=200Hz).
    */
-  private static final double DELTA_T_SQUARE = Math.pow(DELTA_T, 2);
+  private static final double DELTA_T_SQUARE = DELTA_T * DELTA_T;
+
+  /**
+   * Half of the time interval square, the coefficient of the acceleration in the distance.
+   */
+  private static final double HALF_DELTA_T_SQUARE = 0.5 * DELTA_T_SQUARE;
 
   /**
    * The speed conversion factor (10^-10).
    */
-  private static final double SPEED_CONVERSION_FACTOR = Math.pow(10, -10);
+  private static final double SPEED_CONVERSION_FACTOR = 1e-10;
 
   /**
    * The acceleration conversion factor (10^-10).
    */
-  private static final double ACCELERATION_CONVERSION_FACTOR = Math.pow(10, -10);
+  private static final double ACCELERATION_CONVERSION_FACTOR = 1e-10;
 
   /**
    * Computes the distance.
@@ -69,10 +77,10 @@ public class PhysicsUtil {
     final double vY = v * vy * SPEED_CONVERSION_FACTOR;
     final double aX = a * ax * ACCELERATION_CONVERSION_FACTOR;
     final double aY = a * ay * ACCELERATION_CONVERSION_FACTOR;
-    final double distX = vX * DELTA_T + 0.5 * aX * DELTA_T_SQUARE;
-    final double distY = vY * DELTA_T + 0.5 * aY * DELTA_T_SQUARE;
+    final double distX = vX * DELTA_T + aX * HALF_DELTA_T_SQUARE;
+    final double distY = vY * DELTA_T + aY * HALF_DELTA_T_SQUARE;
 
-    return Math.sqrt(Math.pow(distX, 2) + Math.pow(distY, 2));
+    return Math.sqrt(distX * distX + distY * distY);
   }
 
   /**
@@ -93,37 +101,98 @@ public class PhysicsUtil {
     final double speedX = vX + aX * DELTA_T;
     final double speedY = vY + aY * DELTA_T;
 
-    return Math.sqrt(Math.pow(speedX, 2) + Math.pow(speedY, 2));
+    return Math.sqrt(speedX * speedX + speedY * speedY);
   }
 
   /**
-   * Computes the pair (speed,distance).
+   * Computes the pair (distance,speed).
+   * The scaled components are computed once for both results, in local variables.
+   * On hot paths the returned array does not escape the caller, so that escape analysis removes it.
    * @param v the speed modulo.
    * @param vx the x-speed.
    * @param vy the y-speed.
    * @param a the acceleration modulo.
    * @param ax the x-acceleration.
    * @param ay the y-acceleration.
-   * @return the pair (speed,distance).
+   * @return the pair (distance,speed).
    */
   public static double[] computeDistanceAndSpeed(long v, long vx, long vy, long a, long ax, long ay) {
-    double results[] = new double[2];
-
     final double vX = v * vx * SPEED_CONVERSION_FACTOR;
     final double vY = v * vy * SPEED_CONVERSION_FACTOR;
     final double aX = a * ax * ACCELERATION_CONVERSION_FACTOR;
     final double aY = a * ay * ACCELERATION_CONVERSION_FACTOR;
 
-    final double distX = vX * DELTA_T + 0.5 * aX * DELTA_T_SQUARE;
-    final double distY = vY * DELTA_T + 0.5 * aY * DELTA_T_SQUARE;
+    final double distX = vX * DELTA_T + aX * HALF_DELTA_T_SQUARE;
+    final double distY = vY * DELTA_T + aY * HALF_DELTA_T_SQUARE;
+
+    final double speedX = vX + aX * DELTA_T;
+    final double speedY = vY + aY * DELTA_T;
+
+    return new double[]{Math.sqrt(distX * distX + distY * distY), Math.sqrt(speedX * speedX + speedY * speedY)};
+  }
+
+  /**
+   * Computes the pair (distance,speed) into {@code motion}.
+   * The scaled components are computed once for both results.
+   * In loops over many events, a holder shared across iterations is slower than
+   * {@link #computeDistanceAndSpeed(long, long, long, long, long, long)}, as its stores to the
+   * heap are not eliminated (see benchmarks/results/physics.json).
+   * @param v the speed modulo.
+   * @param vx the x-speed.
+   * @param vy the y-speed.
+   * @param a the acceleration modulo.
+   * @param ax the x-acceleration.
+   * @param ay the y-acceleration.
+   * @param motion the holder to write into.
+   * @return {@code motion}.
+   */
+  public static Motion computeDistanceAndSpeed(long v, long vx, long vy, long a, long ax, long ay, Motion motion) {
+    final double vX = v * vx * SPEED_CONVERSION_FACTOR;
+    final double vY = v * vy * SPEED_CONVERSION_FACTOR;
+    final double aX = a * ax * ACCELERATION_CONVERSION_FACTOR;
+    final double aY = a * ay * ACCELERATION_CONVERSION_FACTOR;
 
-    results[0] =  Math.sqrt(Math.pow(distX, 2) + Math.pow(distY, 2));
+    final double distX = vX * DELTA_T + aX * HALF_DELTA_T_SQUARE;
+    final double distY = vY * DELTA_T + aY * HALF_DELTA_T_SQUARE;
+    motion.setDistance(Math.sqrt(distX * distX + distY * distY));
 
     final double speedX = vX + aX * DELTA_T;
     final double speedY = vY + aY * DELTA_T;
+    motion.setSpeed(Math.sqrt(speedX * speedX + speedY * speedY));
 
-    results[1] = Math.sqrt(Math.pow(speedX, 2) + Math.pow(speedY, 2));
+    return motion;
+  }
 
-    return results;
+  /**
+   * Computes the pairs (distance,speed) of the events in {@code [from,to)}, given as columns.
+   * The loop has no branches and no calls but {@link Math#sqrt(double)}, so that the JIT can
+   * unroll (and, where supported, vectorize) it.
+   * @param v the speed moduli.
+   * @param vx the x-speeds.
+   * @param vy the y-speeds.
+   * @param a the acceleration moduli.
+   * @param ax the x-accelerations.
+   * @param ay the y-accelerations.
+   * @param from the first event (inclusive).
+   * @param to the last event (exclusive).
+   * @param distances the output distances, indexed as the input columns.
+   * @param speeds the output speeds, indexed as the input columns.
+   */
+  public static void computeDistanceAndSpeed(long v[], long vx[], long vy[], long a[], long ax[], long ay[],
+                                             int from, int to, double distances[], double speeds[]) {
+    for (int i = from; i < to; i++) {
+      final double vX = v[i] * vx[i] * SPEED_CONVERSION_FACTOR;
+      final double vY = v[i] * vy[i] * SPEED_CONVERSION_FACTOR;
+      final double aX = a[i] * ax[i] * ACCELERATION_CONVERSION_FACTOR;
+      final double aY = a[i] * ay[i] * ACCELERATION_CONVERSION_FACTOR;
+
+      final double distX = vX * DELTA_T + aX * HALF_DELTA_T_SQUARE;
+      final double distY = vY * DELTA_T + aY * HALF_DELTA_T_SQUARE;
+      distances[i] = Math.sqrt(distX * distX + distY * distY);
+
+      final double speedX = vX + aX * DELTA_T;
+      final double speedY = vY + aY * DELTA_T;
+      speeds[i] = Math.sqrt(speedX * speedX + speedY * speedY);
+    }
   }
 }
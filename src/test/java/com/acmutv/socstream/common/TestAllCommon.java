@@ -27,7 +27,12 @@
 package com.acmutv.socstream.common;
 
 import com.acmutv.socstream.common.meta.TestAllMeta;
+import com.acmutv.socstream.common.operator.TestAllOperator;
+import com.acmutv.socstream.common.producer.TestAllProducer;
+import com.acmutv.socstream.common.sink.TestAllSink;
+import com.acmutv.socstream.common.source.TestAllSource;
 import com.acmutv.socstream.common.tuple.TestAllTuple;
+import com.acmutv.socstream.common.typeutils.TestAllTypeutils;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -39,11 +44,21 @@ import org.junit.runners.Suite;
  * @since 1.0
  * @see TestAllTuple
  * @see TestAllMeta
+ * @see TestAllSource
+ * @see TestAllProducer
+ * @see TestAllSink
+ * @see TestAllTypeutils
+ * @see TestAllOperator
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
     TestAllTuple.class,
-    TestAllMeta.class
+    TestAllMeta.class,
+    TestAllSource.class,
+    TestAllProducer.class,
+    TestAllSink.class,
+    TestAllTypeutils.class,
+    TestAllOperator.class
 })
 public class TestAllCommon {
 }
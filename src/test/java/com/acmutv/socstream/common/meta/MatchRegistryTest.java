@@ -0,0 +1,144 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+
+package com.acmutv.socstream.common.meta;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+
+/**
+ * JUnit test suite for {@link MatchRegistry} and {@link PlayerKey}.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see MatchRegistry
+ * @see PlayerKey
+ */
+public class MatchRegistryTest {
+
+  private static Path metadataPath() throws Exception {
+    return Paths.get(MatchRegistryTest.class.getResource("/common/meta/metadata.yml").toURI());
+  }
+
+  private static Path createRegistry(String yaml) throws IOException {
+    Path path = Files.createTempFile("socstream-matches", ".yml");
+    path.toFile().deleteOnExit();
+    Files.write(path, yaml.getBytes(StandardCharsets.UTF_8));
+    return path;
+  }
+
+  /**
+   * Tests packing and unpacking of player keys.
+   */
+  @Test
+  public void test_playerKey() {
+    Assert.assertEquals(105L, PlayerKey.of(PlayerKey.NO_MATCH, 105));
+    Assert.assertEquals(SensorDirectory.NO_PID, PlayerKey.of(7, SensorDirectory.NO_PID));
+
+    final long key = PlayerKey.of(PlayerKey.MAX_MATCH_ID, 4294967295L);
+    Assert.assertEquals(PlayerKey.MAX_MATCH_ID, PlayerKey.matchId(key));
+    Assert.assertEquals(4294967295L, PlayerKey.pid(key));
+    Assert.assertNotEquals(PlayerKey.of(1, 105), PlayerKey.of(2, 105));
+
+    try {
+      PlayerKey.of(PlayerKey.MAX_MATCH_ID + 1, 105);
+      Assert.fail("Expected an invalid match id");
+    } catch (IllegalArgumentException exc) {
+      // expected
+    }
+  }
+
+  /**
+   * Tests the registry of a single-match job, whose player keys are player ids.
+   */
+  @Test
+  public void test_single() throws Exception {
+    MatchRegistry actual = MatchRegistry.single(metadataPath(), "kafka", 1, 2, 3, 4);
+    MatchRegistry.Entry entry = actual.iterator().next();
+
+    Assert.assertEquals(1, actual.size());
+    Assert.assertEquals(PlayerKey.NO_MATCH, entry.getId());
+    Assert.assertEquals(203L, entry.getSensors().getPid(26));
+    Assert.assertEquals("socstream", entry.topic("socstream", false));
+    Assert.assertEquals("socstream.players", entry.topic("socstream", true));
+    Assert.assertEquals(entry.getSensors().toString(), actual.toString());
+  }
+
+  /**
+   * Tests the parsing of the registry of a multi-match job.
+   */
+  @Test
+  public void test_fromYamlFile() throws Exception {
+    Path registry = createRegistry(
+        "matches:\n" +
+        "  - id: 1\n" +
+        "    metadata: " + metadataPath() + "\n" +
+        "  - id: 2\n" +
+        "    metadata: " + metadataPath() + "\n" +
+        "    source: file:match-2.txt\n" +
+        "    match.start: 10\n");
+    MatchRegistry actual = MatchRegistry.fromYamlFile(registry, "kafka", 1, 2, 3, 4);
+
+    Assert.assertEquals(2, actual.size());
+    Iterator<MatchRegistry.Entry> iter = actual.iterator();
+    MatchRegistry.Entry first = iter.next();
+    MatchRegistry.Entry second = iter.next();
+
+    Assert.assertEquals("kafka", first.getSource());
+    Assert.assertEquals(1, first.getStart());
+    Assert.assertEquals("socstream.1.players", first.topic("socstream", true));
+    Assert.assertEquals(PlayerKey.of(1, 203), first.getSensors().getPid(26));
+
+    Assert.assertEquals("file:" + registry.toAbsolutePath().getParent().resolve("match-2.txt"), second.getSource());
+    Assert.assertEquals(10, second.getStart());
+    Assert.assertEquals(2, second.getEnd());
+    Assert.assertEquals(PlayerKey.of(2, 203), second.getSensors().getPid(26));
+    Assert.assertEquals(first.getSensors().getRole(26), second.getSensors().getRole(26));
+  }
+
+  /**
+   * Tests that duplicate match ids are rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void test_fromYamlFile_duplicate() throws Exception {
+    Path registry = createRegistry(
+        "matches:\n" +
+        "  - id: 1\n" +
+        "    metadata: " + metadataPath() + "\n" +
+        "  - id: 1\n" +
+        "    metadata: " + metadataPath() + "\n");
+    MatchRegistry.fromYamlFile(registry, "kafka", 1, 2, 3, 4);
+  }
+}
@@ -80,6 +80,8 @@ public class MatchServiceTest {
     expected.getTeamB().getPlayers().add(new Person("player-B-2", 23L, 24L, null, null));
     expected.getTeamB().getPlayers().add(new Person("player-B-3", 25L, 26L, null, null));
 
+    expected.setField(new Field(-100, 52000, -34000, 34000));
+
     Assert.assertEquals(expected, actual);
   }
 
@@ -0,0 +1,136 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+
+package com.acmutv.socstream.common.meta;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Scanner;
+
+/**
+ * JUnit test suite for {@link MetadataWatcher}.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see MetadataWatcher
+ * @see MetadataFileWatcher
+ */
+public class MetadataWatcherTest {
+
+  private static String loadMetadata() throws IOException {
+    try (InputStream in = MetadataWatcherTest.class.getResourceAsStream("/common/meta/metadata.yml");
+         Scanner scanner = new Scanner(in, StandardCharsets.UTF_8.name())) {
+      return scanner.useDelimiter("\\A").next();
+    }
+  }
+
+  private static Path createMetadata(String metadata) throws IOException {
+    Path path = Files.createTempFile("socstream-metadata", ".yml");
+    path.toFile().deleteOnExit();
+    Files.write(path, metadata.getBytes(StandardCharsets.UTF_8));
+    return path;
+  }
+
+  private static MetadataWatcher createWatcher(int matchId, Path path, long interval) throws IOException {
+    Match match = MatchService.fromYamlFile(path);
+    return new MetadataFileWatcher(matchId, match.getField(), MatchService.collectSensorDirectory(match, matchId),
+        path, interval);
+  }
+
+  private static InputStream stream(String metadata) {
+    return new ByteArrayInputStream(metadata.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Tests that a sensor swap replaces the sensor directory, keeping the player keys.
+   */
+  @Test
+  public void test_update() throws Exception {
+    String metadata = loadMetadata();
+    MetadataWatcher watcher = createWatcher(3, createMetadata(metadata), MetadataWatcher.DEFAULT_INTERVAL);
+    SensorDirectory before = watcher.getSensors();
+
+    Assert.assertTrue(watcher.update(stream(metadata.replace("leg.left: 15", "leg.left: 27"))));
+    SensorDirectory after = watcher.getSensors();
+
+    Assert.assertEquals(1, watcher.getUpdates());
+    Assert.assertEquals(PlayerKey.of(3, 103), before.getPid(15));
+    Assert.assertTrue(before.isIgnored(27));
+    Assert.assertTrue(after.isIgnored(15));
+    Assert.assertEquals(PlayerKey.of(3, 103), after.getPid(27));
+    Assert.assertEquals(PlayerKey.of(3, 203), after.getPid(26));
+
+    Assert.assertFalse(watcher.update(stream(metadata.replace("leg.left: 15", "leg.left: 27"))));
+    Assert.assertEquals(1, watcher.getUpdates());
+  }
+
+  /**
+   * Tests that invalid metadata and metadata of another field are discarded.
+   */
+  @Test
+  public void test_update_discarded() throws Exception {
+    String metadata = loadMetadata();
+    MetadataWatcher watcher = createWatcher(PlayerKey.NO_MATCH, createMetadata(metadata), MetadataWatcher.DEFAULT_INTERVAL);
+    SensorDirectory before = watcher.getSensors();
+
+    Assert.assertFalse(watcher.update(stream("teamA: [")));
+    Assert.assertFalse(watcher.update(stream(metadata.replace("x.max: 52000", "x.max: 60000"))));
+    Assert.assertSame(before, watcher.getSensors());
+    Assert.assertEquals(0, watcher.getUpdates());
+  }
+
+  /**
+   * Tests that a running file watcher applies a modified file.
+   */
+  @Test
+  public void test_fileWatcher() throws Exception {
+    String metadata = loadMetadata();
+    Path path = createMetadata(metadata);
+    MetadataWatcher watcher = createWatcher(PlayerKey.NO_MATCH, path, 10);
+    watcher.open("metadata-watcher-test");
+    try {
+      Files.write(path, metadata.replace("leg.left: 15", "leg.left: 27").getBytes(StandardCharsets.UTF_8));
+      Files.setLastModifiedTime(path, FileTime.fromMillis(Files.getLastModifiedTime(path).toMillis() + 10000));
+      for (int i = 0; i < 500 && watcher.getUpdates() == 0; i++) {
+        Thread.sleep(10);
+      }
+      Assert.assertEquals(1, watcher.getUpdates());
+      Assert.assertEquals(103L, watcher.getSensors().getPid(27));
+    } finally {
+      watcher.close();
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.meta;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JUnit test suite for {@link SensorDirectory}.
+ *
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see SensorDirectory
+ */
+public class SensorDirectoryTest {
+
+  private static Match loadMatch() throws IOException {
+    try (InputStream in = SensorDirectoryTest.class.getResourceAsStream("/common/meta/metadata.yml")) {
+      return MatchService.fromYamlFile(in);
+    }
+  }
+
+  /**
+   * Tests that the directory agrees with {@link MatchService#collectIgnoredSensors(Match)}
+   * and {@link MatchService#collectSid2Pid(Match)}.
+   */
+  @Test
+  public void test_collectSensorDirectory() throws IOException {
+    Match match = loadMatch();
+    SensorDirectory actual = MatchService.collectSensorDirectory(match);
+    Set<Long> ignored = MatchService.collectIgnoredSensors(match);
+    Map<Long,Long> sid2Pid = MatchService.collectSid2Pid(match);
+
+    for (long sid = -1; sid < 32; sid++) {
+      boolean expectedIgnored = ignored.contains(sid) || !sid2Pid.containsKey(sid);
+      Assert.assertEquals("SID " + sid, expectedIgnored, actual.isIgnored(sid));
+      if (sid2Pid.containsKey(sid)) {
+        Assert.assertEquals("SID " + sid, (long) sid2Pid.get(sid), actual.getPid(sid));
+      }
+    }
+  }
+
+  /**
+   * Tests teams and roles of sensors.
+   */
+  @Test
+  public void test_teamsAndRoles() throws IOException {
+    SensorDirectory actual = MatchService.collectSensorDirectory(loadMatch());
+
+    Assert.assertEquals(SensorRole.BALL, actual.getRole(1));
+    Assert.assertEquals(SensorDirectory.NO_PID, actual.getPid(1));
+    Assert.assertEquals(SensorRole.REFEREE, actual.getRole(5));
+    Assert.assertEquals(SensorDirectory.NO_TEAM, actual.getTeam(5));
+    Assert.assertEquals(SensorRole.LEG, actual.getRole(7));
+    Assert.assertEquals(SensorRole.ARM, actual.getRole(9));
+    Assert.assertEquals(SensorDirectory.TEAM_A, actual.getTeam(9));
+    Assert.assertEquals(SensorDirectory.TEAM_B, actual.getTeam(26));
+    Assert.assertEquals(203L, actual.getPid(26));
+
+    Assert.assertFalse(actual.isRegistered(1000));
+    Assert.assertEquals(SensorRole.UNKNOWN, actual.getRole(1000));
+    Assert.assertEquals(SensorDirectory.NO_PID, actual.getPid(-5));
+  }
+
+  /**
+   * Tests the classes of traffic of sensors.
+   */
+  @Test
+  public void test_sensorClasses() throws IOException {
+    SensorDirectory actual = MatchService.collectSensorDirectory(loadMatch());
+
+    Assert.assertEquals(SensorClass.BALL, actual.getSensorClass(1));
+    Assert.assertEquals(SensorClass.REFEREE, actual.getSensorClass(5));
+    Assert.assertEquals(SensorClass.PLAYERS, actual.getSensorClass(7));
+    Assert.assertEquals(SensorClass.PLAYERS, actual.getSensorClass(26));
+    Assert.assertEquals(SensorClass.IGNORED, actual.getSensorClass(9));
+    Assert.assertEquals(SensorClass.IGNORED, actual.getSensorClass(1000));
+    Assert.assertEquals("socstream.players", SensorClass.PLAYERS.topic("socstream"));
+  }
+
+  /**
+   * Tests Java serialization of the directory, as done when shipping it to Flink operators.
+   */
+  @Test
+  public void test_serialization() throws Exception {
+    SensorDirectory expected = MatchService.collectSensorDirectory(loadMatch());
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(expected);
+    }
+    SensorDirectory actual;
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      actual = (SensorDirectory) in.readObject();
+    }
+
+    Assert.assertEquals(expected, actual);
+    Assert.assertEquals(expected.toString(), actual.toString());
+  }
+}
@@ -36,10 +36,16 @@ import org.junit.runners.Suite;
  * @author Michele Porretta {@literal <mporretta@acm.org>}
  * @since 1.0
  * @see MatchServiceTest
+ * @see MatchRegistryTest
+ * @see MetadataWatcherTest
+ * @see SensorDirectoryTest
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
-    MatchServiceTest.class
+    MatchServiceTest.class,
+    MatchRegistryTest.class,
+    MetadataWatcherTest.class,
+    SensorDirectoryTest.class
 })
 public class TestAllMeta {
 }
@@ -0,0 +1,127 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+
+package com.acmutv.socstream.common.operator;
+
+import com.acmutv.socstream.query2.operator.PlayerSpeedStatisticsCalculatorAggregator;
+import com.acmutv.socstream.query2.operator.SpeedSensorEventKeyer;
+import com.acmutv.socstream.query2.operator.SpeedSensorEventTimestampExtractor;
+import com.acmutv.socstream.query2.tuple.PlayerSpeedStatistics;
+import com.acmutv.socstream.query2.tuple.PlayerSpeedStatisticsAccumulator;
+import com.acmutv.socstream.query2.tuple.SpeedSensorEvent;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.utils.ParameterTool;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JUnit tests for {@link SubKeys}, {@link SubKeyer}, {@link PartialAggregator} and {@link CombiningAggregator}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see SubKeys
+ */
+public class SubKeysTest {
+
+  private static final long PICOS_PER_MILLI = 1000000000L;
+
+  /**
+   * Tests that sub-keys are parsed from program parameters, and that slices must align with windows.
+   */
+  @Test
+  public void test_fromParameters() {
+    SubKeys none = SubKeys.fromParameters(ParameterTool.fromArgs(new String[0]));
+    Assert.assertEquals(SubKeys.none(), none);
+    Assert.assertFalse(none.isEnabled());
+
+    SubKeys subKeys = SubKeys.fromParameters(ParameterTool.fromArgs(new String[]{"--subkeys", "4", "--subkeys.slice", "250"}));
+    Assert.assertEquals(new SubKeys(4, 250), subKeys);
+    Assert.assertTrue(subKeys.isEnabled());
+
+    subKeys.checkAligned(1000);
+    try {
+      subKeys.checkAligned(1100);
+      Assert.fail("Misaligned slice accepted");
+    } catch (IllegalArgumentException exc) {
+      // expected
+    }
+  }
+
+  /**
+   * Tests that a player's slices are spread over every sub-key, and that sub-keys map back to the player.
+   */
+  @Test
+  public void test_subKeyer() throws Exception {
+    SubKeyer<SpeedSensorEvent> keyer = new SubKeyer<>(new SpeedSensorEventKeyer(), new SpeedSensorEventTimestampExtractor(), 4, 250);
+    Set<Long> subKeys = new HashSet<>();
+    for (long ms = 0; ms < 2000; ms += 50) {
+      final long subKey = keyer.getKey(new SpeedSensorEvent(7L, ms * PICOS_PER_MILLI, 0));
+      Assert.assertEquals(7L, SubKeyer.pid(subKey, 4));
+      Assert.assertEquals((long) keyer.getKey(new SpeedSensorEvent(7L, (ms - ms % 250) * PICOS_PER_MILLI, 0)), subKey);
+      subKeys.add(subKey);
+    }
+    Assert.assertEquals(4, subKeys.size());
+  }
+
+  /**
+   * Tests that combining partial aggregates per slice, in any order, gives the single-stage result.
+   */
+  @Test
+  public void test_combine() throws Exception {
+    PlayerSpeedStatisticsCalculatorAggregator aggregator = new PlayerSpeedStatisticsCalculatorAggregator();
+    PartialAggregator<SpeedSensorEvent,PlayerSpeedStatisticsAccumulator> partialAggregator = new PartialAggregator<>(aggregator);
+
+    PlayerSpeedStatisticsAccumulator expected = aggregator.createAccumulator();
+    Map<Long,PlayerSpeedStatisticsAccumulator> slices = new HashMap<>();
+    for (long ms = 0; ms < 2000; ms += 50) {
+      SpeedSensorEvent event = new SpeedSensorEvent(7L, ms * PICOS_PER_MILLI, ms * 3 % 1000);
+      aggregator.add(event, expected);
+      partialAggregator.add(event, slices.computeIfAbsent(ms / 250, slice -> partialAggregator.createAccumulator()));
+    }
+
+    List<Tuple2<Long,PlayerSpeedStatisticsAccumulator>> partials = new ArrayList<>();
+    for (PlayerSpeedStatisticsAccumulator slice : slices.values()) {
+      partials.add(Tuple2.of(7L, partialAggregator.getResult(slice)));
+    }
+    Collections.reverse(partials);
+
+    CombiningAggregator<PlayerSpeedStatisticsAccumulator,PlayerSpeedStatistics> combiner = new CombiningAggregator<>(aggregator);
+    PlayerSpeedStatisticsAccumulator actual = combiner.createAccumulator();
+    for (Tuple2<Long,PlayerSpeedStatisticsAccumulator> partial : partials) {
+      combiner.add(partial, actual);
+    }
+    Assert.assertEquals(aggregator.getResult(expected), combiner.getResult(actual));
+  }
+}
@@ -0,0 +1,156 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+
+package com.acmutv.socstream.common.producer;
+
+import com.acmutv.socstream.common.meta.SensorDirectory;
+import com.acmutv.socstream.common.meta.SensorRole;
+import com.acmutv.socstream.common.source.SensorEventBinaryFormat;
+import com.acmutv.socstream.common.source.SensorEventParser;
+import com.acmutv.socstream.common.source.kafka.PositionSensorEventKafkaSource;
+import com.acmutv.socstream.common.source.kafka.RichSensorEventKafkaSource;
+import com.acmutv.socstream.common.source.kafka.SpeedSensorEventKafkaSource;
+import com.acmutv.socstream.common.source.kafka.schema.PositionSensorEventBinaryDeserializationSchema;
+import com.acmutv.socstream.common.source.kafka.schema.RichSensorEventBinaryDeserializationSchema;
+import com.acmutv.socstream.common.source.kafka.schema.SpeedSensorEventBinaryDeserializationSchema;
+import com.acmutv.socstream.common.tuple.PositionSensorEvent;
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import com.acmutv.socstream.query2.tuple.SpeedSensorEvent;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.internals.DefaultPartitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * JUnit tests for {@link BinaryKafkaProducer}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see BinaryKafkaProducer
+ */
+public class BinaryKafkaProducerTest {
+
+  private static final long MATCH_START = 10753295594424116L;
+  private static final long MATCH_END = 14879639146403495L;
+  private static final long MATCH_INTERVAL_START = 12557295594424116L;
+  private static final long MATCH_INTERVAL_END = 13086639146403495L;
+
+  private static final String TOPIC = "socstream";
+
+  private static final String LINE = "52,10753295594424120,23353,-15050,-108,1001114,6741407,4661,2298,8543,4779,4892,7294";
+
+  /**
+   * Creates a mock Kafka producer, on a cluster with a 2-partition topic.
+   * @return the mock Kafka producer.
+   */
+  private static MockProducer<byte[],byte[]> createMockProducer() {
+    final Node node = new Node(0, "localhost", 9092);
+    final Node nodes[] = {node};
+    final Cluster cluster = new Cluster("socstream", Collections.singletonList(node),
+        Arrays.asList(new PartitionInfo(TOPIC, 0, node, nodes, nodes), new PartitionInfo(TOPIC, 1, node, nodes, nodes)),
+        Collections.emptySet(), Collections.emptySet());
+    return new MockProducer<>(cluster, true, new DefaultPartitioner(), new ByteArraySerializer(), new ByteArraySerializer());
+  }
+
+  /**
+   * Creates the sensor directory (SID 52 mapped to PID 100).
+   * @return the sensor directory.
+   */
+  private static SensorDirectory createSensors() {
+    SensorDirectory sensors = new SensorDirectory(128);
+    sensors.register(52L, 100L, SensorDirectory.TEAM_A, SensorRole.LEG, false);
+    return sensors;
+  }
+
+  /**
+   * Tests that replayed dataset records are read back by the binary schemas.
+   */
+  @Test
+  public void test_sendRecord() throws Exception {
+    MockProducer<byte[],byte[]> mock = createMockProducer();
+    ReplayOptions options = new ReplayOptions();
+    options.setKeyMode(ReplayOptions.KeyMode.SID);
+    BinaryKafkaProducer producer = new BinaryKafkaProducer(mock, options);
+
+    SensorEventParser parser = new SensorEventParser();
+    Assert.assertTrue(parser.parse(LINE.getBytes(StandardCharsets.US_ASCII)));
+    producer.sendRecord(TOPIC, SensorEventBinaryFormat.encode(parser));
+    producer.flush();
+
+    List<ProducerRecord<byte[],byte[]>> history = mock.history();
+    Assert.assertEquals(1, history.size());
+    Assert.assertEquals(1, producer.getAcked());
+    Assert.assertArrayEquals(new byte[]{0, 0, 0, 52}, history.get(0).key());
+    final byte[] record = history.get(0).value();
+    Assert.assertEquals(SensorEventBinaryFormat.RICH_SIZE, record.length);
+
+    RichSensorEventBinaryDeserializationSchema richSchema = new RichSensorEventBinaryDeserializationSchema(
+        MATCH_START, MATCH_END, MATCH_INTERVAL_START, MATCH_INTERVAL_END, createSensors(),
+        RichSensorEventKafkaSource.END_OF_STREAM);
+    Assert.assertEquals(new RichSensorEvent(100L, 10753295594424120L, 23353, -15050, 1001114, 6741407, 4661, 2298, 4779, 4892),
+        richSchema.deserialize(record));
+
+    PositionSensorEventBinaryDeserializationSchema positionSchema = new PositionSensorEventBinaryDeserializationSchema(
+        MATCH_START, MATCH_END, MATCH_INTERVAL_START, MATCH_INTERVAL_END, createSensors(),
+        PositionSensorEventKafkaSource.END_OF_STREAM);
+    Assert.assertEquals(new PositionSensorEvent(100L, 10753295594424120L, 23353, -15050),
+        positionSchema.deserialize(record));
+
+    SpeedSensorEventBinaryDeserializationSchema speedSchema = new SpeedSensorEventBinaryDeserializationSchema(
+        MATCH_START, MATCH_END, MATCH_INTERVAL_START, MATCH_INTERVAL_END, createSensors(),
+        SpeedSensorEventKafkaSource.END_OF_STREAM);
+    Assert.assertEquals(new SpeedSensorEvent(100L, 10753295594424120L, 1001114),
+        speedSchema.deserialize(record));
+  }
+
+  /**
+   * Tests that a record is sent to every partition of a topic.
+   */
+  @Test
+  public void test_sendToAllPartitions() throws Exception {
+    MockProducer<byte[],byte[]> mock = createMockProducer();
+    BinaryKafkaProducer producer = new BinaryKafkaProducer(mock, new ReplayOptions());
+
+    Assert.assertEquals(2, producer.sendToAllPartitions(TOPIC, new byte[SensorEventBinaryFormat.RICH_SIZE]));
+
+    List<ProducerRecord<byte[],byte[]>> history = mock.history();
+    Assert.assertEquals(2, history.size());
+    Assert.assertEquals(Integer.valueOf(0), history.get(0).partition());
+    Assert.assertEquals(Integer.valueOf(1), history.get(1).partition());
+    Assert.assertNull(history.get(0).key());
+  }
+}
@@ -0,0 +1,69 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.producer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * JUnit test suite for {@link ReplayPacer}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see ReplayPacer
+ */
+public class ReplayPacerTest {
+
+  private static final long SECOND_PICOS = 1000000000000L;
+
+  private static final long SECOND_NANOS = 1000000000L;
+
+  /**
+   * Tests pacing at a multiple of match speed.
+   */
+  @Test
+  public void test_delay() throws Exception {
+    ReplayPacer pacer = new ReplayPacer(2);
+    final long ts0 = 10753295594424116L;
+    final long now0 = 5000;
+
+    Assert.assertEquals(0, pacer.delay(ts0, now0));
+    Assert.assertEquals(SECOND_NANOS / 2, pacer.delay(ts0 + SECOND_PICOS, now0));
+    Assert.assertEquals(SECOND_NANOS / 4, pacer.delay(ts0 + SECOND_PICOS, now0 + SECOND_NANOS / 4));
+    Assert.assertEquals(0, pacer.delay(ts0 + SECOND_PICOS, now0 + SECOND_NANOS));
+  }
+
+  /**
+   * Tests that a zero speedup never delays events.
+   */
+  @Test
+  public void test_delay_unpaced() throws Exception {
+    ReplayPacer pacer = new ReplayPacer(0);
+    Assert.assertEquals(0, pacer.delay(0, 0));
+    Assert.assertEquals(0, pacer.delay(60 * SECOND_PICOS, 0));
+  }
+}
@@ -0,0 +1,79 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.sink;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.TaskInfo;
+import org.apache.flink.api.common.functions.util.RuntimeUDFContext;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * JUnit test suite for {@link FileWriterSink}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see FileWriterSink
+ */
+public class FileWriterSinkTest {
+
+  /**
+   * Tests that all tuples are written, across buffer flushes, over a previous longer file.
+   */
+  @Test
+  public void test_write() throws Exception {
+    final Path path = Files.createTempFile("socstream-sink", ".out");
+    Files.write(path, new byte[4 * FileWriterSink.FLUSH_THRESHOLD]);
+    final List<String> expected = new ArrayList<>();
+
+    FileWriterSink<Long> sink = new FileWriterSink<>(path.toString(), (value, out) -> out.append(value).append(",x"));
+    sink.setRuntimeContext(new RuntimeUDFContext(new TaskInfo("sink", 1, 0, 1, 0),
+        getClass().getClassLoader(), new ExecutionConfig(), new HashMap<>(), new HashMap<>(),
+        new UnregisteredMetricsGroup()));
+    sink.open(new Configuration());
+    for (long i = 0; i < 50000; i++) {
+      sink.invoke(i);
+      expected.add(i + ",x");
+    }
+    sink.close();
+
+    try {
+      Assert.assertEquals(expected, Files.readAllLines(path, StandardCharsets.UTF_8));
+    } finally {
+      Files.deleteIfExists(path);
+    }
+  }
+}
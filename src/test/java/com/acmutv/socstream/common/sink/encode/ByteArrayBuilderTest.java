@@ -0,0 +1,85 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.sink.encode;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * JUnit test suite for {@link ByteArrayBuilder}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see ByteArrayBuilder
+ */
+public class ByteArrayBuilderTest {
+
+  /**
+   * Tests appending numbers, characters and strings.
+   */
+  @Test
+  public void test_append() throws Exception {
+    ByteArrayBuilder out = new ByteArrayBuilder(2);
+    out.append(0L).append(',').append(-42L).append(',').append(Long.MAX_VALUE).append(',').append(Long.MIN_VALUE)
+        .append(',').append("città").append(',').append(0.1);
+    Assert.assertEquals("0,-42,9223372036854775807,-9223372036854775808,città,0.1", out.toString());
+    Assert.assertEquals(out.toString().getBytes("UTF-8").length, out.size());
+
+    out.reset().append("x");
+    Assert.assertArrayEquals(new byte[]{'x'}, out.toByteArray());
+  }
+
+  /**
+   * Tests that fixed-point values are formatted as {@code String.format}, ties and special values included.
+   */
+  @Test
+  public void test_appendFixed() throws Exception {
+    final double special[] = {0, -0.0, 0.125, 0.005, 1.005, 2.675, -0.0000001, 0.9999999, 999999.9999996,
+        1e15, -1e20, Double.MIN_VALUE, Double.MAX_VALUE, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+    ByteArrayBuilder out = new ByteArrayBuilder();
+    for (int decimals = 0; decimals <= 6; decimals++) {
+      for (double value : special) {
+        assertFixed(out, value, decimals);
+      }
+    }
+
+    Random random = new Random(42);
+    for (int i = 0; i < 100000; i++) {
+      final double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12));
+      assertFixed(out, value, 2);
+      assertFixed(out, value, 6);
+    }
+  }
+
+  private static void assertFixed(ByteArrayBuilder out, double value, int decimals) {
+    Assert.assertEquals(String.valueOf(value),
+        String.format(Locale.ROOT, "%." + decimals + "f", value), out.reset().appendFixed(value, decimals).toString());
+  }
+}
@@ -0,0 +1,83 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.sink.encode;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * JUnit test suite for {@link JsonEncoder}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see JsonEncoder
+ */
+public class JsonEncoderTest {
+
+  /**
+   * Tests the encoding of nested objects and arrays.
+   */
+  @Test
+  public void test_encode() throws Exception {
+    JsonEncoder encoder = new JsonEncoder(new ByteArrayBuilder(4));
+    encoder.startObject()
+        .field("ts").value(10753295594424116L)
+        .field("neg").value(-42L)
+        .field("min").value(Long.MIN_VALUE)
+        .field("speed").value(1.5)
+        .field("nan").value(Double.NaN)
+        .field("name").value("a\"b\\c\n")
+        .field("cells").startArray();
+    for (int i = 0; i < 3; i++) {
+      encoder.startObject().field("cid").value(i).endObject();
+    }
+    encoder.endArray()
+        .field("empty").startArray().endArray()
+        .endObject();
+
+    String expected = "{\"ts\":10753295594424116,\"neg\":-42,\"min\":-9223372036854775808,\"speed\":1.5,\"nan\":null," +
+        "\"name\":\"a\\\"b\\\\c\\u000a\",\"cells\":[{\"cid\":0},{\"cid\":1},{\"cid\":2}],\"empty\":[]}";
+    Assert.assertEquals(expected, encoder.toString());
+    Assert.assertArrayEquals(expected.getBytes("UTF-8"), encoder.toByteArray());
+  }
+
+  /**
+   * Tests that a reset encoder encodes a new document, and a rebound encoder appends one.
+   */
+  @Test
+  public void test_reset() throws Exception {
+    JsonEncoder encoder = new JsonEncoder();
+    encoder.startObject().field("pid").value(1L);
+    encoder.reset().startObject().field("pid").value(2L).endObject();
+    Assert.assertEquals("{\"pid\":2}", encoder.toString());
+    Assert.assertEquals(9, encoder.size());
+
+    ByteArrayBuilder out = new ByteArrayBuilder().append("[");
+    encoder.on(out).startObject().field("pid").value(3L).endObject();
+    Assert.assertEquals("[{\"pid\":3}", out.toString());
+  }
+}
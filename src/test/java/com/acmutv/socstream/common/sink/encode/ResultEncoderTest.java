@@ -0,0 +1,146 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.sink.encode;
+
+import com.acmutv.socstream.common.meta.PlayerKey;
+import com.acmutv.socstream.common.tool.FieldGrid;
+import com.acmutv.socstream.common.tool.GridTool;
+import com.acmutv.socstream.query1.operator.PlayerRunningStatisticsCsvEncoder;
+import com.acmutv.socstream.query1.operator.PlayerRunningStatisticsJsonEncoder;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatistics;
+import com.acmutv.socstream.query2.operator.PlayersSpeedRankingCsvEncoder;
+import com.acmutv.socstream.query2.operator.PlayersSpeedRankingJsonEncoder;
+import com.acmutv.socstream.query2.tuple.PlayersSpeedRanking;
+import com.acmutv.socstream.query2.tuple.RankingElement;
+import com.acmutv.socstream.query3.operator.PlayerGridStatisticsCsvEncoder;
+import com.acmutv.socstream.query3.operator.PlayerGridStatisticsJsonEncoder;
+import com.acmutv.socstream.query3.tuple.PlayerGridStatistics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * JUnit test suite for the {@link ResultEncoder} of query results.
+ * CSV encodings must be the same as {@code toString()}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see PlayerRunningStatisticsCsvEncoder
+ * @see PlayersSpeedRankingCsvEncoder
+ * @see PlayerGridStatisticsCsvEncoder
+ */
+public class ResultEncoderTest {
+
+  /**
+   * Tests the encodings of query-1 results.
+   */
+  @Test
+  public void test_playerRunningStatistics() throws Exception {
+    ByteArrayBuilder out = new ByteArrayBuilder();
+    for (PlayerRunningStatistics value : Arrays.asList(
+        new PlayerRunningStatistics(10753295594424116L, 10753355594424116L, 4, 1234.5678912, 3.14159265),
+        new PlayerRunningStatistics(1, 2, 3, 0, Double.NaN))) {
+      new PlayerRunningStatisticsCsvEncoder().encode(value, out.reset());
+      Assert.assertEquals(value.toString(), out.toString());
+    }
+
+    new PlayerRunningStatisticsJsonEncoder().encode(new PlayerRunningStatistics(1, 2, 3, 10.5, 2.25), out.reset());
+    Assert.assertEquals("{\"tsStart\":1,\"tsStop\":2,\"pid\":3,\"totalDistance\":10.5,\"averageSpeed\":2.25}",
+        out.toString());
+  }
+
+  /**
+   * Tests the encodings of query-2 results.
+   */
+  @Test
+  public void test_playersSpeedRanking() throws Exception {
+    ByteArrayBuilder out = new ByteArrayBuilder();
+    for (PlayersSpeedRanking value : Arrays.asList(
+        new PlayersSpeedRanking(1, 2, Arrays.asList(new RankingElement(3, 7.5), new RankingElement(4, 6.123456789))),
+        new PlayersSpeedRanking(1, 2, new ArrayList<>()))) {
+      new PlayersSpeedRankingCsvEncoder().encode(value, out.reset());
+      Assert.assertEquals(value.toString(), out.toString());
+    }
+
+    new PlayersSpeedRankingJsonEncoder().encode(new PlayersSpeedRanking(1, 2,
+        Arrays.asList(new RankingElement(3, 7.5), new RankingElement(4, 6.0))), out.reset());
+    Assert.assertEquals(
+        "{\"tsStart\":1,\"tsStop\":2,\"rank\":[{\"pid\":3,\"averageSpeed\":7.5},{\"pid\":4,\"averageSpeed\":6.0}]}",
+        out.toString());
+  }
+
+  /**
+   * Tests the encodings of player keys of multi-match jobs.
+   */
+  @Test
+  public void test_playerKeys() throws Exception {
+    ByteArrayBuilder out = new ByteArrayBuilder();
+    final long key = PlayerKey.of(7, 105);
+
+    new PlayerRunningStatisticsCsvEncoder().encode(new PlayerRunningStatistics(1, 2, key, 10.5, 2.25), out.reset());
+    Assert.assertEquals("1,2,7:105,10.500000,2.250000", out.toString());
+
+    new PlayerRunningStatisticsJsonEncoder().encode(new PlayerRunningStatistics(1, 2, key, 10.5, 2.25), out.reset());
+    Assert.assertEquals("{\"tsStart\":1,\"tsStop\":2,\"match\":7,\"pid\":105,\"totalDistance\":10.5,\"averageSpeed\":2.25}",
+        out.toString());
+
+    new PlayersSpeedRankingCsvEncoder().encode(new PlayersSpeedRanking(1, 2,
+        Arrays.asList(new RankingElement(key, 7.5))), out.reset());
+    Assert.assertEquals("1,2,[(7:105;7.500000)]", out.toString());
+  }
+
+  /**
+   * Tests the encodings of query-3 results, with occupied, empty and unknown grids.
+   */
+  @Test
+  public void test_playerGridStatistics() throws Exception {
+    final FieldGrid grid = GridTool.DEFAULT_GRID;
+    long[] cells = new long[grid.getRows() * grid.getColumns()];
+    for (int cell = 0; cell < cells.length; cell += 3) {
+      cells[cell] = 1000000L * cell + 7;
+    }
+    ByteArrayBuilder out = new ByteArrayBuilder();
+    for (PlayerGridStatistics value : Arrays.asList(
+        new PlayerGridStatistics(3, 1, grid, cells),
+        new PlayerGridStatistics(3, 1, grid, new long[cells.length]),
+        new PlayerGridStatistics(3, 1, new long[0]))) {
+      new PlayerGridStatisticsCsvEncoder().encode(value, out.reset());
+      Assert.assertEquals(value.toString(), out.toString());
+    }
+
+    long[] sparse = new long[cells.length];
+    sparse[1] = 50;
+    sparse[grid.getRows()] = 25;
+    new PlayerGridStatisticsJsonEncoder().encode(new PlayerGridStatistics(3, 1, grid, sparse), out.reset());
+    Assert.assertEquals(
+        "{\"ts\":1,\"pid\":3,\"grid\":\"" + grid.getResolution() + "\",\"cells\":[" +
+            "{\"cid\":\"0;1\",\"presence\":50},{\"cid\":\"1;0\",\"presence\":25}]}",
+        out.toString());
+  }
+}
@@ -0,0 +1,166 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.sink.es;
+
+import com.acmutv.socstream.common.tool.FieldGrid;
+import com.acmutv.socstream.common.tool.GridTool;
+import com.acmutv.socstream.query1.operator.PlayerRunningStatisticsESSinkFunction;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatistics;
+import com.acmutv.socstream.query2.operator.PlayerSpeedRankingESSinkFunction;
+import com.acmutv.socstream.query2.tuple.PlayersSpeedRanking;
+import com.acmutv.socstream.query2.tuple.RankingElement;
+import com.acmutv.socstream.query3.operator.PlayerGridStatisticsESSinkFunction;
+import com.acmutv.socstream.query3.tuple.PlayerGridStatistics;
+import org.apache.flink.streaming.connectors.elasticsearch.RequestIndexer;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JUnit test suite for the Elasticsearch sink functions, run against a local stand-in {@link RequestIndexer}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see PlayerRunningStatisticsESSinkFunction
+ * @see PlayerSpeedRankingESSinkFunction
+ * @see PlayerGridStatisticsESSinkFunction
+ */
+public class ESSinkFunctionTest {
+
+  /**
+   * A stand-in indexer that collects requests, or only counts them and their bytes.
+   */
+  private static class MockRequestIndexer implements RequestIndexer {
+
+    private final boolean collect;
+
+    private final List<IndexRequest> requests = new ArrayList<>();
+
+    private long count;
+
+    private long bytes;
+
+    MockRequestIndexer(boolean collect) {
+      this.collect = collect;
+    }
+
+    @Override
+    public void add(ActionRequest... actionRequests) {
+      for (ActionRequest request : actionRequests) {
+        final IndexRequest indexRequest = (IndexRequest) request;
+        this.count++;
+        this.bytes += indexRequest.source().length();
+        if (this.collect) {
+          this.requests.add(indexRequest);
+        }
+      }
+    }
+  }
+
+  /**
+   * Tests the documents for query-1.
+   */
+  @Test
+  public void test_playerRunningStatistics() throws Exception {
+    MockRequestIndexer indexer = new MockRequestIndexer(true);
+    PlayerRunningStatisticsESSinkFunction function = new PlayerRunningStatisticsESSinkFunction("socstream", "query-1");
+    function.process(new PlayerRunningStatistics(1, 2, 3, 10.5, 2.25), null, indexer);
+    function.process(new PlayerRunningStatistics(4, 5, 6, 0, 0), null, indexer);
+
+    Assert.assertEquals(2, indexer.requests.size());
+    Assert.assertEquals("socstream", indexer.requests.get(0).index());
+    Assert.assertEquals("query-1", indexer.requests.get(0).type());
+    Assert.assertEquals("{\"tsStart\":1,\"tsStop\":2,\"pid\":3,\"totalDistance\":10.5,\"averageSpeed\":2.25}",
+        indexer.requests.get(0).source().utf8ToString());
+    Assert.assertEquals("{\"tsStart\":4,\"tsStop\":5,\"pid\":6,\"totalDistance\":0.0,\"averageSpeed\":0.0}",
+        indexer.requests.get(1).source().utf8ToString());
+  }
+
+  /**
+   * Tests the documents for query-2.
+   */
+  @Test
+  public void test_playersSpeedRanking() throws Exception {
+    MockRequestIndexer indexer = new MockRequestIndexer(true);
+    PlayerSpeedRankingESSinkFunction function = new PlayerSpeedRankingESSinkFunction("socstream", "query-2");
+    function.process(new PlayersSpeedRanking(1, 2,
+        Arrays.asList(new RankingElement(3, 7.5), new RankingElement(4, 6.0))), null, indexer);
+
+    Assert.assertEquals(
+        "{\"tsStart\":1,\"tsStop\":2,\"rank\":[{\"pid\":3,\"averageSpeed\":7.5},{\"pid\":4,\"averageSpeed\":6.0}]}",
+        indexer.requests.get(0).source().utf8ToString());
+  }
+
+  /**
+   * Tests the documents for query-3: only occupied cells are written.
+   */
+  @Test
+  public void test_playerGridStatistics() throws Exception {
+    MockRequestIndexer indexer = new MockRequestIndexer(true);
+    PlayerGridStatisticsESSinkFunction function = new PlayerGridStatisticsESSinkFunction("socstream", "query-3");
+    final FieldGrid grid = GridTool.DEFAULT_GRID;
+    long[] cells = new long[grid.getRows() * grid.getColumns()];
+    cells[1] = 50;
+    cells[grid.getRows()] = 25;
+    function.process(new PlayerGridStatistics(3, 1, grid, cells), null, indexer);
+
+    Assert.assertEquals(
+        "{\"ts\":1,\"pid\":3,\"grid\":\"" + grid.getResolution() + "\",\"cells\":[" +
+            "{\"cid\":\"0;1\",\"presence\":50},{\"cid\":\"1;0\",\"presence\":25}]}",
+        indexer.requests.get(0).source().utf8ToString());
+  }
+
+  /**
+   * Measures the indexing throughput of query-3 documents, the largest ones.
+   */
+  @Test
+  public void test_throughput() throws Exception {
+    MockRequestIndexer indexer = new MockRequestIndexer(false);
+    PlayerGridStatisticsESSinkFunction function = new PlayerGridStatisticsESSinkFunction("socstream", "query-3");
+    final FieldGrid grid = GridTool.DEFAULT_GRID;
+    long[] cells = new long[grid.getRows() * grid.getColumns()];
+    for (int cell = 0; cell < cells.length; cell++) {
+      cells[cell] = 1000000000L * cell;
+    }
+    final int documents = 20000;
+
+    final long start = System.nanoTime();
+    for (int i = 0; i < documents; i++) {
+      function.process(new PlayerGridStatistics(i % 16, i, grid, cells), null, indexer);
+    }
+    final double seconds = (System.nanoTime() - start) / 1e9;
+
+    System.out.printf("Indexed %d documents (%.1f MB) in %.3f s: %.0f documents/s\n",
+        indexer.count, indexer.bytes / 1e6, seconds, indexer.count / seconds);
+    Assert.assertEquals(documents, indexer.count);
+  }
+}
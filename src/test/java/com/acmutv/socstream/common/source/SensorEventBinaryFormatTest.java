@@ -0,0 +1,146 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.source;
+
+import com.acmutv.socstream.common.tuple.PositionSensorEvent;
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import com.acmutv.socstream.query2.tuple.SpeedSensorEvent;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JUnit test suite for {@link SensorEventBinaryFormat}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see SensorEventBinaryFormat
+ */
+public class SensorEventBinaryFormatTest {
+
+  /**
+   * The logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(SensorEventBinaryFormatTest.class);
+
+  /**
+   * Tests encoding/decoding round trip of all record types.
+   */
+  @Test
+  public void test_roundTrip() throws Exception {
+    RichSensorEvent rich = new RichSensorEvent(52, 10753295627242564L, 23353, -15050, 1001114, 6741407, 4661, -2298, 4779, -4892);
+    byte[] richRecord = SensorEventBinaryFormat.encode(rich);
+    Assert.assertEquals(SensorEventBinaryFormat.RICH_SIZE, richRecord.length);
+    Assert.assertEquals(rich, SensorEventBinaryFormat.decode(richRecord));
+
+    PositionSensorEvent position = new PositionSensorEvent(52, 10753295627242564L, 23353, -15050);
+    byte[] positionRecord = SensorEventBinaryFormat.encodePosition(position);
+    Assert.assertEquals(SensorEventBinaryFormat.POSITION_SIZE, positionRecord.length);
+    Assert.assertEquals(position, SensorEventBinaryFormat.decodePosition(positionRecord));
+    Assert.assertEquals(position, SensorEventBinaryFormat.decodePosition(richRecord));
+
+    SpeedSensorEvent speed = new SpeedSensorEvent(52, 10753295627242564L, 1001114);
+    byte[] speedRecord = SensorEventBinaryFormat.encodeSpeed(speed);
+    Assert.assertEquals(SensorEventBinaryFormat.SPEED_SIZE, speedRecord.length);
+    Assert.assertEquals(speed, SensorEventBinaryFormat.decodeSpeed(speedRecord));
+    Assert.assertEquals(speed, SensorEventBinaryFormat.decodeSpeed(richRecord));
+  }
+
+  /**
+   * Tests that values not fitting the record are rejected.
+   */
+  @Test(expected = ArithmeticException.class)
+  public void test_encode_overflow() throws Exception {
+    SensorEventBinaryFormat.encode(new RichSensorEvent(52, 1, 1L << 40, 0, 0, 0, 0, 0, 0, 0));
+  }
+
+  /**
+   * Tests that records of the wrong type are rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void test_decode_malformed() throws Exception {
+    SensorEventBinaryFormat.decodeSpeed(new byte[SensorEventBinaryFormat.POSITION_SIZE]);
+  }
+
+  /**
+   * Tests the round trip on the test dataset, comparing size and decoding throughput
+   * against the CSV records published by {@link com.acmutv.socstream.common.producer.StringKafkaProducer}
+   * (key and value).
+   */
+  @Test
+  public void test_dataset() throws Exception {
+    List<String> lines = Files.readAllLines(Paths.get("data/test/dataset.txt"), StandardCharsets.US_ASCII);
+    List<byte[]> csvRecords = new ArrayList<>(lines.size());
+    List<byte[]> binaryRecords = new ArrayList<>(lines.size());
+    long csvBytes = 0;
+    long binaryBytes = 0;
+
+    for (String line : lines) {
+      RichSensorEvent event = RichSensorEvent.fromDataset(line);
+      byte[] binary = SensorEventBinaryFormat.encode(event);
+      Assert.assertEquals(event, SensorEventBinaryFormat.decode(binary));
+      csvRecords.add(line.getBytes(StandardCharsets.US_ASCII));
+      binaryRecords.add(binary);
+      csvBytes += 2 * event.toString().length();
+      binaryBytes += binary.length;
+    }
+
+    LOG.info("CSV bytes (key+value): {} | binary bytes: {} | ratio: {}", csvBytes, binaryBytes,
+        (double) csvBytes / binaryBytes);
+    Assert.assertTrue(binaryBytes * 3 < csvBytes);
+
+    final int rounds = 50;
+    SensorEventParser parser = new SensorEventParser();
+    long checksum = 0;
+    long start = System.nanoTime();
+    for (int r = 0; r < rounds; r++) {
+      for (byte[] record : csvRecords) {
+        parser.parse(record);
+        checksum += parser.getX();
+      }
+    }
+    long csvNanos = System.nanoTime() - start;
+    start = System.nanoTime();
+    for (int r = 0; r < rounds; r++) {
+      for (byte[] record : binaryRecords) {
+        checksum -= SensorEventBinaryFormat.readInt(record, SensorEventBinaryFormat.OFFSET_X);
+      }
+    }
+    long binaryNanos = System.nanoTime() - start;
+
+    Assert.assertEquals(0, checksum);
+    LOG.info("Decoded {} events | CSV: {} ns/event | binary: {} ns/event", rounds * lines.size(),
+        (double) csvNanos / (rounds * lines.size()), (double) binaryNanos / (rounds * lines.size()));
+  }
+}
@@ -0,0 +1,116 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.source;
+
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JUnit test suite for {@link SensorEventParser}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see SensorEventParser
+ */
+public class SensorEventParserTest {
+
+  /**
+   * The logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(SensorEventParserTest.class);
+
+  /**
+   * Tests that parsing raw bytes matches {@link RichSensorEvent#fromDataset(String)}.
+   */
+  @Test
+  public void test_parse() throws Exception {
+    List<String> events = new ArrayList<>();
+    events.add("1,2,3,4,5,6,7,8,9,10,11,12,13");
+    events.add("1,2,-3,-4,-5,-6,-7,-8,-9,-10,-11,-12,-13");
+    events.add("52,10753295627242564,23353,-15050,-108,1001114,6741407,4661,2298,8543,4779,4892,7294");
+    events.add("23,10753295840467409,26622,-9706,285,922158,3851673,238,9883,1505,-2856,-9319,2234\n");
+
+    SensorEventParser parser = new SensorEventParser();
+
+    for (String event : events) {
+      Assert.assertTrue(parser.parse(event.getBytes(StandardCharsets.US_ASCII)));
+      RichSensorEvent expected = RichSensorEvent.fromDataset(event.trim());
+      RichSensorEvent actual = new RichSensorEvent(parser.getSid(), parser.getTs(),
+          parser.getX(), parser.getY(), parser.getV(), parser.getA(),
+          parser.getVx(), parser.getVy(), parser.getAx(), parser.getAy());
+      Assert.assertEquals(expected, actual);
+    }
+  }
+
+  /**
+   * Tests that the head can be parsed from a slice of a larger buffer.
+   */
+  @Test
+  public void test_parseHead() throws Exception {
+    byte[] buffer = "1,2,3,4,5,6,7,8,9,10,11,12,13\n97,10753295594424120,0,0,0,0,0,0,0,0,0,0,0\n"
+        .getBytes(StandardCharsets.US_ASCII);
+    int from = 30;
+
+    SensorEventParser parser = new SensorEventParser();
+
+    Assert.assertTrue(parser.parseHead(buffer, from, buffer.length));
+    Assert.assertEquals(97L, parser.getSid());
+    Assert.assertEquals(10753295594424120L, parser.getTs());
+    Assert.assertTrue(parser.parseBody());
+  }
+
+  /**
+   * Tests that malformed records are rejected.
+   */
+  @Test
+  public void test_parse_malformed() throws Exception {
+    List<String> events = new ArrayList<>();
+    events.add("");
+    events.add("1,2,3");
+    events.add("1,2,3,4,5,6,7,8,9,10,11,12");
+    events.add("1,2,3,4,5,6,7,8,9,10,11,12,13,14");
+    events.add("1,2,3,4,5,6,7,8,9,10,11,12,");
+    events.add("1,2,3,4,5,x,7,8,9,10,11,12,13");
+    events.add("1,2,3,4,5,-,7,8,9,10,11,12,13");
+    events.add("1,,3,4,5,6,7,8,9,10,11,12,13");
+    events.add("1,12345678901234567890,3,4,5,6,7,8,9,10,11,12,13");
+
+    SensorEventParser parser = new SensorEventParser();
+
+    for (String event : events) {
+      LOG.debug("Malformed event: {}", event);
+      Assert.assertFalse(event, parser.parse(event.getBytes(StandardCharsets.US_ASCII)));
+    }
+  }
+}
@@ -0,0 +1,169 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.source.archive;
+
+import com.acmutv.socstream.common.meta.MatchService;
+import com.acmutv.socstream.common.meta.SensorClass;
+import com.acmutv.socstream.common.meta.SensorDirectory;
+import com.acmutv.socstream.common.source.SensorEventParser;
+import com.acmutv.socstream.common.source.SensorRecord;
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JUnit tests for {@link SensorEventArchiveWriter} and {@link SensorEventArchiveReader}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see SensorEventArchive
+ * @see SensorEventArchiveWriter
+ * @see SensorEventArchiveReader
+ */
+public class SensorEventArchiveTest {
+
+  /**
+   * The time block length used in tests (picoseconds), small enough to produce many blocks.
+   */
+  private static final long BLOCK_LENGTH = 10000000000L;
+
+  private static List<String> lines;
+
+  private static SensorDirectory sensors;
+
+  private static Path archive;
+
+  @BeforeClass
+  public static void setup() throws IOException {
+    lines = Files.readAllLines(Paths.get("data/test/dataset.txt"), StandardCharsets.US_ASCII);
+    sensors = MatchService.collectSensorDirectory(MatchService.fromYamlFile(Paths.get("data/test/metadata.yml")));
+
+    archive = Files.createTempFile("socstream-archive", ".bin");
+    archive.toFile().deleteOnExit();
+    SensorEventParser parser = new SensorEventParser();
+    try (SensorEventArchiveWriter writer = new SensorEventArchiveWriter(archive, sensors, BLOCK_LENGTH)) {
+      for (String line : lines) {
+        Assert.assertTrue(parser.parse(line.getBytes(StandardCharsets.US_ASCII)));
+        writer.write(parser);
+      }
+    }
+  }
+
+  private static String toDataset(SensorRecord record) {
+    return String.format("%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d",
+        record.getSid(), record.getTs(), record.getX(), record.getY(), record.getZ(),
+        record.getV(), record.getA(), record.getVx(), record.getVy(), record.getVz(),
+        record.getAx(), record.getAy(), record.getAz());
+  }
+
+  /**
+   * Tests that the archive returns every record of the dataset, in dataset order within each sensor class.
+   */
+  @Test
+  public void test_roundTrip() throws IOException {
+    for (SensorClass sensorClass : SensorClass.values()) {
+      List<String> expected = new ArrayList<>();
+      for (String line : lines) {
+        if (sensors.getSensorClass(RichSensorEvent.fromDataset(line).getId()) == sensorClass) {
+          expected.add(line);
+        }
+      }
+
+      List<String> actual = new ArrayList<>();
+      try (SensorEventArchiveReader reader = new SensorEventArchiveReader(archive)) {
+        Assert.assertEquals(BLOCK_LENGTH, reader.getBlockLength());
+        Assert.assertTrue(reader.getBlocks().size() > 1);
+        reader.setFilter(block -> block.getSensorClass() == sensorClass);
+        while (reader.next()) {
+          Assert.assertEquals(sensorClass, reader.getBlock().getSensorClass());
+          String line = toDataset(reader);
+          Assert.assertEquals(RichSensorEvent.fromDataset(line), RichSensorEvent.fromDataset(expected.get(actual.size())));
+          actual.add(line);
+        }
+      }
+
+      Assert.assertEquals(expected, actual);
+    }
+  }
+
+  /**
+   * Tests that seeking skips whole blocks earlier than the given timestamp, and nothing later.
+   */
+  @Test
+  public void test_seek() throws IOException {
+    final long ts = RichSensorEvent.fromDataset(lines.get(lines.size() / 2)).getTs();
+    long expected = 0;
+    for (String line : lines) {
+      if (RichSensorEvent.fromDataset(line).getTs() >= ts) expected++;
+    }
+
+    long actual = 0;
+    long read = 0;
+    try (SensorEventArchiveReader reader = new SensorEventArchiveReader(archive)) {
+      reader.seek(ts);
+      while (reader.next()) {
+        Assert.assertTrue(reader.getBlock().getTsMax() >= ts);
+        if (reader.getTs() >= ts) actual++;
+        read++;
+      }
+    }
+
+    Assert.assertEquals(expected, actual);
+    Assert.assertTrue(read < lines.size());
+  }
+
+  /**
+   * Tests that a non-archive file is rejected.
+   */
+  @Test
+  public void test_isArchive() throws IOException {
+    Assert.assertTrue(SensorEventArchive.isArchive(archive));
+    Assert.assertFalse(SensorEventArchive.isArchive(Paths.get("data/test/dataset.txt")));
+  }
+
+  /**
+   * Tests zig-zag encoding of extreme values.
+   */
+  @Test
+  public void test_zigzag() {
+    byte buffer[] = new byte[SensorEventArchive.MAX_VARINT_SIZE];
+    for (long value : new long[]{0, 1, -1, 63, -64, Long.MAX_VALUE, Long.MIN_VALUE}) {
+      long encoded = SensorEventArchive.zigzag(value);
+      Assert.assertEquals(value, SensorEventArchive.unzigzag(encoded));
+      Assert.assertTrue(SensorEventArchive.writeVarint(buffer, 0, encoded) <= SensorEventArchive.MAX_VARINT_SIZE);
+    }
+  }
+}
@@ -0,0 +1,257 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.source.file;
+
+import com.acmutv.socstream.common.meta.SensorDirectory;
+import com.acmutv.socstream.common.meta.SensorRole;
+import com.acmutv.socstream.common.metric.DropCounters;
+import com.acmutv.socstream.common.metric.DropReason;
+import com.acmutv.socstream.common.source.SensorEventParser;
+import com.acmutv.socstream.common.source.archive.SensorEventArchive;
+import com.acmutv.socstream.common.source.archive.SensorEventArchiveWriter;
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import com.acmutv.socstream.common.tuple.RichSensorEventSerializer;
+import org.apache.flink.streaming.api.functions.source.SourceFunction;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JUnit tests for {@link SensorEventFileSource}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see SensorEventFileSource
+ * @see RichSensorEventFileSource
+ */
+public class SensorEventFileSourceTest {
+
+  private static final long MATCH_START = 10753295594424116L;
+  private static final long MATCH_END = 14879639146403495L;
+  private static final long MATCH_INTERVAL_START = 12557295594424116L;
+  private static final long MATCH_INTERVAL_END = 13086639146403495L;
+
+  /**
+   * The dataset: ignored sensor, before match start, within the interval, malformed, accepted
+   * (PIDs 100 and 101), after match end, and a trailing line with no terminator.
+   */
+  private static final String DATASET =
+      "97,10753295594424120,23353,-15050,-108,1001114,6741407,4661,2298,8543,4779,4892,7294\n" +
+      "52,10753295594424000,23353,-15050,-108,1001114,6741407,4661,2298,8543,4779,4892,7294\n" +
+      "52,10753295594424120,23353,-15050,-108,1001114,6741407,4661,2298,8543,4779,4892,7294\n" +
+      "53,10753295594424130,100,200,0,10,20,30,40,0,50,60,0\r\n" +
+      "52,12557295594424120,23353,-15050,-108,1001114,6741407,4661,2298,8543,4779,4892,7294\n" +
+      "52,10753295594424140,23353,-15050,-108,1001114\n" +
+      "\n" +
+      "53,10753295594424150,101,201,0,11,21,31,41,0,51,61,0\n" +
+      "52,14879639146403500,23353,-15050,-108,1001114,6741407,4661,2298,8543,4779,4892,7294\n" +
+      "53,10753295594424160,102,202,0,12,22,32,42,0,52,62,0";
+
+  private static final RichSensorEvent EVENTS[] = {
+      new RichSensorEvent(100L, 10753295594424120L, 23353, -15050, 1001114, 6741407, 4661, 2298, 4779, 4892),
+      new RichSensorEvent(101L, 10753295594424130L, 100, 200, 10, 20, 30, 40, 50, 60),
+      new RichSensorEvent(101L, 10753295594424150L, 101, 201, 11, 21, 31, 41, 51, 61)
+  };
+
+  /**
+   * Creates the source under test (SID 97 ignored, SID 52 mapped to PID 100, SID 53 mapped to PID 101).
+   * @param path the dataset path.
+   * @return the source.
+   */
+  private static RichSensorEventFileSource createSource(Path path) {
+    return new RichSensorEventFileSource(path.toString(), 0, MATCH_START, MATCH_END,
+        MATCH_INTERVAL_START, MATCH_INTERVAL_END, createSensors());
+  }
+
+  private static SensorDirectory createSensors() {
+    SensorDirectory sensors = new SensorDirectory(128);
+    sensors.register(97L, 100L, SensorDirectory.TEAM_A, SensorRole.ARM, true);
+    sensors.register(52L, 100L, SensorDirectory.TEAM_A, SensorRole.LEG, false);
+    sensors.register(53L, 101L, SensorDirectory.TEAM_A, SensorRole.LEG, false);
+    return sensors;
+  }
+
+  private static Path createDataset() throws IOException {
+    Path path = Files.createTempFile("socstream-dataset", ".txt");
+    path.toFile().deleteOnExit();
+    Files.write(path, DATASET.getBytes(StandardCharsets.US_ASCII));
+    return path;
+  }
+
+  /**
+   * Creates the archive of the well-formed records of the dataset.
+   * @return the archive path.
+   */
+  private static Path createArchive() throws IOException {
+    Path path = Files.createTempFile("socstream-archive", ".bin");
+    path.toFile().deleteOnExit();
+    SensorEventParser parser = new SensorEventParser();
+    try (SensorEventArchiveWriter writer = new SensorEventArchiveWriter(path, createSensors(),
+        SensorEventArchive.DEFAULT_BLOCK_LENGTH)) {
+      for (String line : DATASET.split("\n")) {
+        if (parser.parse(line.getBytes(StandardCharsets.US_ASCII))) {
+          writer.write(parser);
+        }
+      }
+    }
+    return path;
+  }
+
+  /**
+   * Tests that a single reader emits the accepted events, in order, and stops at match end.
+   */
+  @Test
+  public void test_read() throws IOException {
+    ListSourceContext ctx = new ListSourceContext();
+    createSource(createDataset()).read(ctx, 1, 0);
+
+    Assert.assertEquals(Arrays.asList(EVENTS), ctx.events);
+  }
+
+  /**
+   * Tests that readers split the dataset by player id.
+   */
+  @Test
+  public void test_read_parallel() throws IOException {
+    Path path = createDataset();
+    RichSensorEventFileSource source = createSource(path);
+
+    ListSourceContext reader0 = new ListSourceContext();
+    ListSourceContext reader1 = new ListSourceContext();
+    source.read(reader0, 2, 0);
+    source.read(reader1, 2, 1);
+
+    Assert.assertEquals(Arrays.asList(EVENTS[0]), reader0.events);
+    Assert.assertEquals(Arrays.asList(EVENTS[1], EVENTS[2]), reader1.events);
+  }
+
+  /**
+   * Tests that discarded records are counted by reason, once whatever the number of readers.
+   */
+  @Test
+  public void test_read_drops() throws IOException {
+    Path path = createDataset();
+    RichSensorEventFileSource source = createSource(path);
+
+    DropCounters drops = new DropCounters();
+    source.read(new ListSourceContext(), 1, 0, drops);
+    Assert.assertEquals(1, drops.getCount(DropReason.MALFORMED));
+    Assert.assertEquals(1, drops.getCount(DropReason.IGNORED_SENSOR));
+    Assert.assertEquals(1, drops.getCount(DropReason.BEFORE_START));
+    Assert.assertEquals(1, drops.getCount(DropReason.INTERVAL));
+
+    DropCounters drops0 = new DropCounters();
+    DropCounters drops1 = new DropCounters();
+    source.read(new ListSourceContext(), 2, 0, drops0);
+    source.read(new ListSourceContext(), 2, 1, drops1);
+    for (DropReason reason : DropReason.values()) {
+      Assert.assertEquals(drops.getCount(reason), drops0.getCount(reason) + drops1.getCount(reason));
+    }
+  }
+
+  /**
+   * Tests that readers emit the same events from the archive of the dataset.
+   */
+  @Test
+  public void test_read_archive() throws IOException {
+    Path path = createArchive();
+
+    ListSourceContext ctx = new ListSourceContext();
+    createSource(path).read(ctx, 1, 0);
+    Assert.assertEquals(Arrays.asList(EVENTS), ctx.events);
+
+    ListSourceContext reader0 = new ListSourceContext();
+    ListSourceContext reader1 = new ListSourceContext();
+    createSource(path).read(reader0, 2, 0);
+    createSource(path).read(reader1, 2, 1);
+    Assert.assertEquals(Arrays.asList(EVENTS[0]), reader0.events);
+    Assert.assertEquals(Arrays.asList(EVENTS[1], EVENTS[2]), reader1.events);
+  }
+
+  /**
+   * Tests that, with object reuse, every reader emits the same events into a single instance.
+   */
+  @Test
+  public void test_read_objectReuse() throws IOException {
+    for (Path path : new Path[]{createDataset(), createArchive()}) {
+      RichSensorEventFileSource source = createSource(path);
+      source.setObjectReuse(true);
+
+      ListSourceContext ctx = new ListSourceContext();
+      source.read(ctx, 1, 0);
+      Assert.assertEquals(Arrays.asList(EVENTS), ctx.copies);
+      for (RichSensorEvent event : ctx.events) {
+        Assert.assertSame(ctx.events.get(0), event);
+      }
+    }
+  }
+
+  /**
+   * A source context collecting events, and their copies as of emission, into lists.
+   */
+  private static final class ListSourceContext implements SourceFunction.SourceContext<RichSensorEvent> {
+
+    private final List<RichSensorEvent> events = new ArrayList<>();
+
+    private final List<RichSensorEvent> copies = new ArrayList<>();
+
+    private final Object lock = new Object();
+
+    @Override
+    public void collect(RichSensorEvent element) {
+      this.events.add(element);
+      this.copies.add(RichSensorEventSerializer.INSTANCE.copy(element));
+    }
+
+    @Override
+    public void collectWithTimestamp(RichSensorEvent element, long timestamp) {
+      this.collect(element);
+    }
+
+    @Override
+    public void emitWatermark(Watermark mark) { }
+
+    @Override
+    public void markAsTemporarilyIdle() { }
+
+    @Override
+    public Object getCheckpointLock() {
+      return this.lock;
+    }
+
+    @Override
+    public void close() { }
+  }
+}
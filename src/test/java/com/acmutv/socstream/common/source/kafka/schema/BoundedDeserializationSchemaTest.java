@@ -0,0 +1,155 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.source.kafka.schema;
+
+import com.acmutv.socstream.common.meta.SensorDirectory;
+import com.acmutv.socstream.common.meta.SensorRole;
+import com.acmutv.socstream.common.producer.DatasetReplay;
+import com.acmutv.socstream.common.source.SensorEventBinaryFormat;
+import com.acmutv.socstream.common.source.kafka.PositionSensorEventKafkaSource;
+import com.acmutv.socstream.common.source.kafka.RichSensorEventKafkaSource;
+import com.acmutv.socstream.common.tuple.PositionSensorEvent;
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import org.apache.flink.streaming.connectors.kafka.internals.KafkaTopicPartition;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * JUnit tests for {@link BoundedDeserializationSchema}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see BoundedDeserializationSchema
+ */
+public class BoundedDeserializationSchemaTest {
+
+  private static final long MATCH_START = 10753295594424116L;
+  private static final long MATCH_END = 14879639146403495L;
+  private static final long MATCH_INTERVAL_START = 12557295594424116L;
+  private static final long MATCH_INTERVAL_END = 13086639146403495L;
+
+  private static final String TOPIC = "socstream";
+
+  private static final byte[] EVENT = bytes("52,10753295594424120,23353,-15050,-108,1001114,6741407,4661,2298,8543,4779,4892,7294");
+
+  private static final byte[] AFTER_END = bytes("52,14879639146403500,23353,-15050,-108,1001114,6741407,4661,2298,8543,4779,4892,7294");
+
+  /**
+   * Creates the schema under test (SID 52 mapped to PID 100), reading partitions 0 and 1.
+   * @return the schema.
+   */
+  private static BoundedDeserializationSchema<RichSensorEvent> createSchema() {
+    SensorDirectory sensors = new SensorDirectory(128);
+    sensors.register(52L, 100L, SensorDirectory.TEAM_A, SensorRole.LEG, false);
+    BoundedDeserializationSchema<RichSensorEvent> schema = new BoundedDeserializationSchema<>(
+        new RichSensorEventDeserializationSchema(MATCH_START, MATCH_END,
+            MATCH_INTERVAL_START, MATCH_INTERVAL_END, sensors,
+            RichSensorEventKafkaSource.END_OF_STREAM));
+    schema.setPartitions(Arrays.asList(new KafkaTopicPartition(TOPIC, 0), new KafkaTopicPartition(TOPIC, 1)));
+    return schema;
+  }
+
+  private static byte[] bytes(String string) {
+    return string.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * Tests that the stream ends only when every partition has reached the match end.
+   */
+  @Test
+  public void test_endOfStream() throws Exception {
+    BoundedDeserializationSchema<RichSensorEvent> schema = createSchema();
+
+    RichSensorEvent event = schema.deserialize(null, EVENT, TOPIC, 0, 0);
+    Assert.assertNotNull(event);
+    Assert.assertFalse(schema.isEndOfStream(event));
+
+    Assert.assertNull(schema.deserialize(null, AFTER_END, TOPIC, 0, 1));
+    Assert.assertFalse(schema.isEndOfStream(null));
+    Assert.assertNull(schema.deserialize(null, AFTER_END, TOPIC, 0, 2));
+    Assert.assertFalse(schema.isEndOfStream(null));
+
+    event = schema.deserialize(null, EVENT, TOPIC, 1, 0);
+    Assert.assertNotNull(event);
+    Assert.assertFalse(schema.isEndOfStream(event));
+
+    Assert.assertNull(schema.deserialize(null, AFTER_END, TOPIC, 1, 1));
+    Assert.assertTrue(schema.isEndOfStream(null));
+  }
+
+  /**
+   * Tests that the stream never ends until the assigned partitions are set.
+   */
+  @Test
+  public void test_endOfStream_unassigned() throws Exception {
+    BoundedDeserializationSchema<RichSensorEvent> schema = new BoundedDeserializationSchema<>(
+        new RichSensorEventDeserializationSchema(MATCH_START, MATCH_END,
+            MATCH_INTERVAL_START, MATCH_INTERVAL_END, new SensorDirectory(128),
+            RichSensorEventKafkaSource.END_OF_STREAM));
+
+    Assert.assertNull(schema.deserialize(null, AFTER_END, TOPIC, 0, 0));
+    Assert.assertFalse(schema.isEndOfStream(null));
+  }
+
+  /**
+   * Tests that the replay end-of-stream record ends the partitions of a binary schema.
+   */
+  @Test
+  public void test_endOfStream_binary() throws Exception {
+    SensorDirectory sensors = new SensorDirectory(128);
+    sensors.register(52L, 100L, SensorDirectory.TEAM_A, SensorRole.LEG, false);
+    BoundedDeserializationSchema<RichSensorEvent> schema = new BoundedDeserializationSchema<>(
+        new RichSensorEventBinaryDeserializationSchema(MATCH_START, MATCH_END,
+            MATCH_INTERVAL_START, MATCH_INTERVAL_END, sensors,
+            RichSensorEventKafkaSource.END_OF_STREAM));
+    schema.setPartitions(Arrays.asList(new KafkaTopicPartition(TOPIC, 0), new KafkaTopicPartition(TOPIC, 1)));
+    final byte[] eos = DatasetReplay.binaryEndOfStream();
+    Assert.assertEquals(SensorEventBinaryFormat.RICH_SIZE, eos.length);
+
+    RichSensorEvent event = schema.deserialize(null,
+        SensorEventBinaryFormat.encode(new RichSensorEvent(52, 10753295594424120L, 23353, -15050, 1001114, 6741407, 4661, 2298, 4779, 4892)),
+        TOPIC, 0, 0);
+    Assert.assertNotNull(event);
+    Assert.assertFalse(schema.isEndOfStream(event));
+
+    Assert.assertNull(schema.deserialize(null, eos, TOPIC, 0, 1));
+    Assert.assertFalse(schema.isEndOfStream(null));
+    Assert.assertNull(schema.deserialize(null, eos, TOPIC, 1, 0));
+    Assert.assertTrue(schema.isEndOfStream(null));
+
+    BoundedDeserializationSchema<PositionSensorEvent> positionSchema = new BoundedDeserializationSchema<>(
+        new PositionSensorEventBinaryDeserializationSchema(MATCH_START, MATCH_END,
+            MATCH_INTERVAL_START, MATCH_INTERVAL_END, sensors,
+            PositionSensorEventKafkaSource.END_OF_STREAM));
+    positionSchema.setPartitions(Arrays.asList(new KafkaTopicPartition(TOPIC, 0)));
+    Assert.assertNull(positionSchema.deserialize(null, eos, TOPIC, 0, 0));
+    Assert.assertTrue(positionSchema.isEndOfStream(null));
+  }
+}
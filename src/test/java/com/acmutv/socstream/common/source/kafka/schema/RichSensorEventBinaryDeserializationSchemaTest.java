@@ -0,0 +1,98 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.source.kafka.schema;
+
+import com.acmutv.socstream.common.meta.SensorDirectory;
+import com.acmutv.socstream.common.meta.SensorRole;
+import com.acmutv.socstream.common.source.SensorEventBinaryFormat;
+import com.acmutv.socstream.common.source.kafka.RichSensorEventKafkaSource;
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * JUnit test suite for {@link RichSensorEventBinaryDeserializationSchema}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see RichSensorEventBinaryDeserializationSchema
+ */
+public class RichSensorEventBinaryDeserializationSchemaTest {
+
+  private static final long MATCH_START = 10753295594424116L;
+  private static final long MATCH_END = 14879639146403495L;
+  private static final long MATCH_INTERVAL_START = 12557295594424116L;
+  private static final long MATCH_INTERVAL_END = 13086639146403495L;
+
+  /**
+   * Creates the schema under test (SID 97 ignored, SID 52 mapped to PID 100).
+   * @return the schema.
+   */
+  private static RichSensorEventBinaryDeserializationSchema createSchema() {
+    SensorDirectory sensors = new SensorDirectory(128);
+    sensors.register(97L, 100L, SensorDirectory.TEAM_A, SensorRole.ARM, true);
+    sensors.register(52L, 100L, SensorDirectory.TEAM_A, SensorRole.LEG, false);
+    return new RichSensorEventBinaryDeserializationSchema(MATCH_START, MATCH_END,
+        MATCH_INTERVAL_START, MATCH_INTERVAL_END, sensors,
+        RichSensorEventKafkaSource.END_OF_STREAM);
+  }
+
+  private static byte[] record(long sid, long ts) {
+    return SensorEventBinaryFormat.encode(new RichSensorEvent(sid, ts, 23353, -15050, 1001114, 6741407, 4661, 2298, 4779, 4892));
+  }
+
+  /**
+   * Tests filtering of sensor events (see data/test/readme.txt).
+   */
+  @Test
+  public void test_deserialize_filter() throws Exception {
+    RichSensorEventBinaryDeserializationSchema schema = createSchema();
+
+    Assert.assertNull(schema.deserialize(record(97, 10753295594424120L)));
+    Assert.assertNull(schema.deserialize(record(52, 10753295594424000L)));
+    Assert.assertNull(schema.deserialize(record(52, 12557295594424120L)));
+    Assert.assertNull(schema.deserialize(new byte[SensorEventBinaryFormat.POSITION_SIZE]));
+
+    RichSensorEvent eos = schema.deserialize(record(52, 14879639146403500L));
+    Assert.assertEquals(RichSensorEventKafkaSource.END_OF_STREAM, eos);
+    Assert.assertTrue(schema.isEndOfStream(eos));
+  }
+
+  /**
+   * Tests deserialization of accepted sensor events.
+   */
+  @Test
+  public void test_deserialize_accepted() throws Exception {
+    RichSensorEventBinaryDeserializationSchema schema = createSchema();
+
+    RichSensorEvent expected = new RichSensorEvent(100L, 10753295594424120L, 23353, -15050, 1001114, 6741407, 4661, 2298, 4779, 4892);
+    RichSensorEvent actual = schema.deserialize(record(52, 10753295594424120L));
+
+    Assert.assertEquals(expected, actual);
+    Assert.assertFalse(schema.isEndOfStream(actual));
+  }
+}
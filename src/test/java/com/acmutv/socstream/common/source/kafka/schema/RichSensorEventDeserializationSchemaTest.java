@@ -0,0 +1,185 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.source.kafka.schema;
+
+import com.acmutv.socstream.common.meta.Field;
+import com.acmutv.socstream.common.meta.MetadataWatcher;
+import com.acmutv.socstream.common.meta.SensorDirectory;
+import com.acmutv.socstream.common.meta.SensorRole;
+import com.acmutv.socstream.common.metric.DropCounters;
+import com.acmutv.socstream.common.metric.DropReason;
+import com.acmutv.socstream.common.producer.DatasetReplay;
+import com.acmutv.socstream.common.source.kafka.RichSensorEventKafkaSource;
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JUnit test suite for {@link RichSensorEventDeserializationSchema}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see RichSensorEventDeserializationSchema
+ */
+public class RichSensorEventDeserializationSchemaTest {
+
+  private static final long MATCH_START = 10753295594424116L;
+  private static final long MATCH_END = 14879639146403495L;
+  private static final long MATCH_INTERVAL_START = 12557295594424116L;
+  private static final long MATCH_INTERVAL_END = 13086639146403495L;
+
+  /**
+   * Creates the schema under test (SID 97 ignored, SID 52 mapped to PID 100).
+   * @return the schema.
+   */
+  private static RichSensorEventDeserializationSchema createSchema() {
+    SensorDirectory sensors = new SensorDirectory(128);
+    sensors.register(97L, 100L, SensorDirectory.TEAM_A, SensorRole.ARM, true);
+    sensors.register(52L, 100L, SensorDirectory.TEAM_A, SensorRole.LEG, false);
+    return new RichSensorEventDeserializationSchema(MATCH_START, MATCH_END,
+        MATCH_INTERVAL_START, MATCH_INTERVAL_END, sensors,
+        RichSensorEventKafkaSource.END_OF_STREAM);
+  }
+
+  private static byte[] bytes(String string) {
+    return string.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * Tests filtering of sensor events (see data/test/readme.txt).
+   */
+  @Test
+  public void test_deserialize_filter() throws Exception {
+    RichSensorEventDeserializationSchema schema = createSchema();
+
+    Assert.assertNull(schema.deserialize(bytes("97,10753295594424120,23353,-15050,-108,1001114,6741407,4661,2298,8543,4779,4892,7294")));
+    Assert.assertNull(schema.deserialize(bytes("52,10753295594424000,23353,-15050,-108,1001114,6741407,4661,2298,8543,4779,4892,7294")));
+    Assert.assertNull(schema.deserialize(bytes("52,12557295594424120,23353,-15050,-108,1001114,6741407,4661,2298,8543,4779,4892,7294")));
+    Assert.assertNull(schema.deserialize(bytes("52,10753295594424120,23353,-15050,-108,1001114")));
+
+    RichSensorEvent eos = schema.deserialize(bytes("52,14879639146403500,23353,-15050,-108,1001114,6741407,4661,2298,8543,4779,4892,7294"));
+    Assert.assertEquals(RichSensorEventKafkaSource.END_OF_STREAM, eos);
+    Assert.assertTrue(schema.isEndOfStream(eos));
+  }
+
+  /**
+   * Tests that filtered sensor events are counted by reason.
+   */
+  @Test
+  public void test_deserialize_drops() throws Exception {
+    RichSensorEventDeserializationSchema schema = createSchema();
+    DropCounters drops = new DropCounters();
+    schema.setDropCounters(drops);
+
+    schema.deserialize(bytes("97,10753295594424120,23353,-15050,-108,1001114,6741407,4661,2298,8543,4779,4892,7294"));
+    schema.deserialize(bytes("52,10753295594424000,23353,-15050,-108,1001114,6741407,4661,2298,8543,4779,4892,7294"));
+    schema.deserialize(bytes("52,12557295594424120,23353,-15050,-108,1001114,6741407,4661,2298,8543,4779,4892,7294"));
+    schema.deserialize(bytes("52,10753295594424120,23353,-15050,-108,1001114"));
+    schema.deserialize(bytes("52,10753295594424120,23353,-15050,-108,1001114,6741407,4661,2298,8543,4779,4892,7294"));
+
+    Assert.assertEquals(1, drops.getCount(DropReason.IGNORED_SENSOR));
+    Assert.assertEquals(1, drops.getCount(DropReason.BEFORE_START));
+    Assert.assertEquals(1, drops.getCount(DropReason.INTERVAL));
+    Assert.assertEquals(1, drops.getCount(DropReason.MALFORMED));
+  }
+
+  /**
+   * Tests that the end-of-stream record of the replay ends the stream, whatever its sensor.
+   */
+  @Test
+  public void test_deserialize_endOfStream() throws Exception {
+    RichSensorEventDeserializationSchema schema = createSchema();
+
+    Assert.assertEquals(RichSensorEventKafkaSource.END_OF_STREAM, schema.deserialize(bytes(DatasetReplay.END_OF_STREAM)));
+    Assert.assertEquals(RichSensorEventKafkaSource.END_OF_STREAM,
+        schema.deserialize(bytes("97,14879639146403500,23353,-15050,-108,1001114,6741407,4661,2298,8543,4779,4892,7294")));
+  }
+
+  /**
+   * Tests deserialization of accepted sensor events.
+   */
+  @Test
+  public void test_deserialize_accepted() throws Exception {
+    RichSensorEventDeserializationSchema schema = createSchema();
+
+    RichSensorEvent expected = new RichSensorEvent(100L, 10753295594424120L, 23353, -15050, 1001114, 6741407, 4661, 2298, 4779, 4892);
+    RichSensorEvent actual = schema.deserialize(bytes("52,10753295594424120,23353,-15050,-108,1001114,6741407,4661,2298,8543,4779,4892,7294"));
+
+    Assert.assertEquals(expected, actual);
+    Assert.assertFalse(schema.isEndOfStream(actual));
+  }
+
+  /**
+   * Tests that, with object reuse, accepted events are deserialized into a single instance,
+   * while the end of stream tuple is left untouched.
+   */
+  @Test
+  public void test_deserialize_objectReuse() throws Exception {
+    RichSensorEventDeserializationSchema schema = createSchema();
+    schema.setObjectReuse(true);
+
+    RichSensorEvent first = schema.deserialize(bytes("52,10753295594424120,23353,-15050,-108,1001114,6741407,4661,2298,8543,4779,4892,7294"));
+    Assert.assertEquals(new RichSensorEvent(100L, 10753295594424120L, 23353, -15050, 1001114, 6741407, 4661, 2298, 4779, 4892), first);
+
+    RichSensorEvent second = schema.deserialize(bytes("52,10753295594424130,100,200,0,10,20,30,40,0,50,60,0"));
+    Assert.assertSame(first, second);
+    Assert.assertEquals(new RichSensorEvent(100L, 10753295594424130L, 100, 200, 10, 20, 30, 40, 50, 60), second);
+
+    RichSensorEvent eos = schema.deserialize(bytes(DatasetReplay.END_OF_STREAM));
+    Assert.assertNotSame(first, eos);
+    Assert.assertEquals(RichSensorEventKafkaSource.END_OF_STREAM, eos);
+
+    schema.setObjectReuse(false);
+    Assert.assertNotSame(first, schema.deserialize(bytes("52,10753295594424130,100,200,0,10,20,30,40,0,50,60,0")));
+  }
+
+  /**
+   * Tests that, with a metadata watcher, sensors are mapped with the latest metadata.
+   */
+  @Test
+  public void test_deserialize_metadataWatcher() throws Exception {
+    RichSensorEventDeserializationSchema schema = createSchema();
+    MetadataWatcher watcher = new MetadataWatcher(0, new Field(), schema.getSensors(), MetadataWatcher.DEFAULT_INTERVAL) {
+      @Override
+      protected void poll() throws Exception {
+      }
+    };
+    schema.setMetadataWatcher(watcher);
+    final String event = ",10753295594424120,23353,-15050,-108,1001114,6741407,4661,2298,8543,4779,4892,7294";
+
+    Assert.assertEquals(100L, schema.deserialize(bytes("52" + event)).getId());
+    Assert.assertNull(schema.deserialize(bytes("97" + event)));
+
+    Assert.assertTrue(watcher.update(new ByteArrayInputStream(bytes("teamA:\n  name: \"A\"\n  players:\n    - name: \"goalkeeper-A\"\n      leg.left: 97\n"))));
+
+    Assert.assertNull(schema.deserialize(bytes("52" + event)));
+    Assert.assertEquals(100L, schema.deserialize(bytes("97" + event)).getId());
+  }
+}
@@ -0,0 +1,89 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.tuple;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * JUnit tests for {@link SensorFusionSlot}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see SensorFusionSlot
+ */
+public class SensorFusionSlotTest {
+
+  /**
+   * Tests the fusion of the readings of two leg sensors.
+   */
+  @Test
+  public void test_fuse() {
+    final RichSensorEvent left = new RichSensorEvent(47, 10000000000L, 1000, -2000, 2000000, 100000, 6000, 8000, 10000, 0);
+    final RichSensorEvent right = new RichSensorEvent(47, 10002000000L, 1200, -2100, 1000000, 300000, 10000, 0, 0, 10000);
+
+    final SensorFusionSlot slot = new SensorFusionSlot();
+    slot.reset(2);
+    Assert.assertTrue(slot.isEmpty());
+    slot.add(left);
+    slot.add(right);
+
+    final RichSensorEvent actual = slot.toRichSensorEvent();
+    Assert.assertEquals(47, actual.getId());
+    Assert.assertEquals(10002000000L, actual.getTs());
+    Assert.assertEquals(1100, actual.getX());
+    Assert.assertEquals(-2050, actual.getY());
+    Assert.assertEquals(1500000, actual.getV());
+    Assert.assertEquals(200000, actual.getA());
+
+    Assert.assertEquals(7333, actual.getVx());
+    Assert.assertEquals(5333, actual.getVy());
+    Assert.assertEquals(2500, actual.getAx());
+    Assert.assertEquals(7500, actual.getAy());
+
+    final PositionSensorEvent position = slot.toPositionSensorEvent();
+    Assert.assertEquals(new PositionSensorEvent(47, 10002000000L, 1100, -2050), position);
+  }
+
+  /**
+   * Tests that readings without speed and acceleration fuse into a still event.
+   */
+  @Test
+  public void test_fuse_positions() {
+    final SensorFusionSlot slot = new SensorFusionSlot();
+    slot.reset(0);
+    slot.add(new PositionSensorEvent(12, 5, 10, 20));
+    slot.add(new PositionSensorEvent(12, 3, 30, 40));
+
+    final RichSensorEvent actual = slot.toRichSensorEvent();
+    Assert.assertEquals(new RichSensorEvent(12, 5, 20, 30, 0, 0, 0, 0, 0, 0), actual);
+
+    slot.reset(1);
+    Assert.assertTrue(slot.isEmpty());
+    Assert.assertEquals(1, slot.getSlot());
+  }
+}
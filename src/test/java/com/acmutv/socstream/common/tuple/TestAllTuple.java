@@ -42,11 +42,13 @@ import org.junit.runners.Suite;
  * @see PositionSensorEventTest
  * @see GridCoordinateTest
  * @see PlayerGridStatisticsTest
+ * @see SensorFusionSlotTest
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
     RichSensorEventTest.class,
-    PositionSensorEventTest.class
+    PositionSensorEventTest.class,
+    SensorFusionSlotTest.class
 })
 public class TestAllTuple {
 }
@@ -0,0 +1,230 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.typeutils;
+
+import com.acmutv.socstream.common.meta.SensorDirectory;
+import com.acmutv.socstream.common.operator.EventMeter;
+import com.acmutv.socstream.common.operator.PositionSensorEventFusion;
+import com.acmutv.socstream.common.operator.RichSensorEventFusion;
+import com.acmutv.socstream.common.operator.SensorFusion;
+import com.acmutv.socstream.common.operator.SubKeys;
+import com.acmutv.socstream.common.sink.encode.ResultFormat;
+import com.acmutv.socstream.common.sink.es.ESProperties;
+import com.acmutv.socstream.common.source.file.PositionSensorEventFileSource;
+import com.acmutv.socstream.common.source.file.RichSensorEventFileSource;
+import com.acmutv.socstream.common.source.file.SpeedSensorEventFileSource;
+import com.acmutv.socstream.common.tool.FieldGrid;
+import com.acmutv.socstream.common.tool.GridTool;
+import com.acmutv.socstream.common.tuple.PositionSensorEvent;
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import com.acmutv.socstream.common.tuple.SensorFusionSlot;
+import com.acmutv.socstream.query1.TopologyQuery1;
+import com.acmutv.socstream.query1.operator.RichSensorEventKeyer;
+import com.acmutv.socstream.query1.operator.RichSensorEventTimestampExtractor;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatistics;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatisticsAccumulator;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatisticsPanes;
+import com.acmutv.socstream.query2.TopologyQuery2;
+import com.acmutv.socstream.query2.operator.SpeedSensorEventKeyer;
+import com.acmutv.socstream.query2.operator.SpeedSensorEventTimestampExtractor;
+import com.acmutv.socstream.query2.tuple.PlayerSpeedStatistics;
+import com.acmutv.socstream.query2.tuple.PlayerSpeedStatisticsAccumulator;
+import com.acmutv.socstream.query2.tuple.PlayersSpeedRanking;
+import com.acmutv.socstream.query2.tuple.RankingAccumulator;
+import com.acmutv.socstream.query2.tuple.SpeedSensorEvent;
+import com.acmutv.socstream.query3.TopologyQuery3;
+import com.acmutv.socstream.query3.operator.PositionSensorEventKeyer;
+import com.acmutv.socstream.query3.operator.PositionSensorEventTimestampExtractor;
+import com.acmutv.socstream.query3.tuple.PlayerGridStatistics;
+import com.acmutv.socstream.query3.tuple.PlayerGridStatisticsAccumulator;
+import org.apache.flink.api.common.state.StateDescriptor;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.typeutils.GenericTypeInfo;
+import org.apache.flink.api.java.typeutils.TypeExtractor;
+import org.apache.flink.api.java.typeutils.runtime.kryo.KryoSerializer;
+import org.apache.flink.api.java.utils.ParameterTool;
+import org.apache.flink.streaming.api.TimeCharacteristic;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.flink.streaming.api.graph.StreamGraph;
+import org.apache.flink.streaming.api.graph.StreamNode;
+import org.apache.flink.streaming.api.operators.StreamOperator;
+import org.apache.flink.streaming.runtime.operators.windowing.WindowOperator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JUnit tests checking that no type in the topologies falls back to Kryo ({@link GenericTypeInfo}).
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see SerializerTypeInfo
+ */
+public class TopologyTypesTest {
+
+  private static final long MATCH_START = 10753295594424116L;
+  private static final long MATCH_END = 14879639146403495L;
+  private static final long MATCH_INTERVAL_START = 12557295594424116L;
+  private static final long MATCH_INTERVAL_END = 13086639146403495L;
+
+  /**
+   * The types of events, accumulators, state and results.
+   */
+  private static final Class<?> TYPES[] = {
+      PositionSensorEvent.class, RichSensorEvent.class, SpeedSensorEvent.class, SensorFusionSlot.class,
+      PlayerRunningStatistics.class, PlayerRunningStatisticsAccumulator.class, PlayerRunningStatisticsPanes.class,
+      PlayerSpeedStatistics.class, PlayerSpeedStatisticsAccumulator.class, RankingAccumulator.class, PlayersSpeedRanking.class,
+      PlayerGridStatistics.class, PlayerGridStatisticsAccumulator.class
+  };
+
+  /**
+   * The sub-keys: none, and 4 per player over 1 second slices.
+   */
+  private static final SubKeys SUB_KEYS[] = {SubKeys.none(), new SubKeys(4, 1000)};
+
+  private static StreamExecutionEnvironment createEnvironment() {
+    StreamExecutionEnvironment env = StreamExecutionEnvironment.createLocalEnvironment(2);
+    env.setStreamTimeCharacteristic(TimeCharacteristic.EventTime);
+    return env;
+  }
+
+  private static ESProperties noElasticsearch() throws Exception {
+    return ESProperties.fromParameters(ParameterTool.fromArgs(new String[0]));
+  }
+
+  /**
+   * Checks that no operator of the job reads, writes or keeps in window state a type serialized by Kryo.
+   * @param env the environment of the job.
+   */
+  private static void assertNoKryo(StreamExecutionEnvironment env) {
+    StreamGraph graph = env.getStreamGraph();
+    for (StreamNode node : graph.getStreamNodes()) {
+      assertNotKryo(node, node.getTypeSerializerIn1());
+      assertNotKryo(node, node.getTypeSerializerIn2());
+      assertNotKryo(node, node.getTypeSerializerOut());
+      StreamOperator<?> operator = node.getOperator();
+      if (operator instanceof WindowOperator) {
+        StateDescriptor<?,?> state = ((WindowOperator<?,?,?,?,?>) operator).getStateDescriptor();
+        state.initializeSerializerUnlessSet(env.getConfig());
+        assertNotKryo(node, state.getSerializer());
+      }
+    }
+  }
+
+  private static void assertNotKryo(StreamNode node, TypeSerializer<?> serializer) {
+    Assert.assertFalse(node.getOperatorName() + ": " + serializer, serializer instanceof KryoSerializer);
+  }
+
+  /**
+   * Tests that every event, accumulator, state and result type has its own type information.
+   */
+  @Test
+  public void test_types() {
+    for (Class<?> type : TYPES) {
+      TypeInformation<?> info = TypeExtractor.getForClass(type);
+      Assert.assertFalse(type.getSimpleName(), info instanceof GenericTypeInfo);
+      Assert.assertTrue(type.getSimpleName() + ": " + info, info instanceof SerializerTypeInfo);
+    }
+  }
+
+  /**
+   * Tests the topology of query 1, with and without sub-keys.
+   */
+  @Test
+  public void test_query1() throws Exception {
+    for (SubKeys subKeys : SUB_KEYS) {
+      this.query1(subKeys);
+    }
+  }
+
+  private void query1(SubKeys subKeys) throws Exception {
+    StreamExecutionEnvironment env = createEnvironment();
+    DataStream<RichSensorEvent> events = env.addSource(new RichSensorEventFileSource("dataset.txt", 0,
+        MATCH_START, MATCH_END, MATCH_INTERVAL_START, MATCH_INTERVAL_END, new SensorDirectory(128)))
+        .assignTimestampsAndWatermarks(new RichSensorEventTimestampExtractor())
+        .map(new EventMeter<>(new RichSensorEventKeyer()))
+        .keyBy(new RichSensorEventKeyer())
+        .process(new RichSensorEventFusion(SensorFusion.DEFAULT_SLOT_LENGTH));
+    DataStream<PlayerRunningStatistics> statistics = TopologyQuery1.topology(events,
+        new long[]{TimeUnit.MINUTES.toMillis(1), TimeUnit.MINUTES.toMillis(5)}, 2, subKeys);
+    TopologyQuery1.sink(statistics, Paths.get("query-1.out"), ResultFormat.CSV, noElasticsearch());
+
+    assertNoKryo(env);
+  }
+
+  /**
+   * Tests the topology of query 2, with and without sub-keys.
+   */
+  @Test
+  public void test_query2() throws Exception {
+    for (SubKeys subKeys : SUB_KEYS) {
+      this.query2(subKeys);
+    }
+  }
+
+  private void query2(SubKeys subKeys) throws Exception {
+    StreamExecutionEnvironment env = createEnvironment();
+    DataStream<SpeedSensorEvent> events = env.addSource(new SpeedSensorEventFileSource("dataset.txt", 0,
+        MATCH_START, MATCH_END, MATCH_INTERVAL_START, MATCH_INTERVAL_END, new SensorDirectory(128)))
+        .assignTimestampsAndWatermarks(new SpeedSensorEventTimestampExtractor())
+        .map(new EventMeter<>(new SpeedSensorEventKeyer()));
+    DataStream<PlayersSpeedRanking> ranking = TopologyQuery2.topology(events, 1, TimeUnit.MINUTES, 5, 2, subKeys);
+    TopologyQuery2.sink(ranking, Paths.get("query-2.out"), ResultFormat.CSV, noElasticsearch());
+
+    assertNoKryo(env);
+  }
+
+  /**
+   * Tests the topology of query 3, with and without sub-keys.
+   */
+  @Test
+  public void test_query3() throws Exception {
+    for (SubKeys subKeys : SUB_KEYS) {
+      this.query3(subKeys);
+    }
+  }
+
+  private void query3(SubKeys subKeys) throws Exception {
+    StreamExecutionEnvironment env = createEnvironment();
+    DataStream<PositionSensorEvent> events = env.addSource(new PositionSensorEventFileSource("dataset.txt", 0,
+        MATCH_START, MATCH_END, MATCH_INTERVAL_START, MATCH_INTERVAL_END, new SensorDirectory(128)))
+        .assignTimestampsAndWatermarks(new PositionSensorEventTimestampExtractor())
+        .map(new EventMeter<>(new PositionSensorEventKeyer()))
+        .keyBy(new PositionSensorEventKeyer())
+        .process(new PositionSensorEventFusion(SensorFusion.DEFAULT_SLOT_LENGTH));
+    DataStream<PlayerGridStatistics> statistics = TopologyQuery3.topology(events, 1, TimeUnit.MINUTES,
+        new FieldGrid[]{GridTool.DEFAULT_GRID}, 2, subKeys);
+    TopologyQuery3.sink(statistics, new FieldGrid[]{GridTool.DEFAULT_GRID}, Paths.get("query-3.out"),
+        ResultFormat.CSV, noElasticsearch());
+
+    assertNoKryo(env);
+  }
+}
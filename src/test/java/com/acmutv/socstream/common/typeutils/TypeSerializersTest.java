@@ -0,0 +1,220 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.common.typeutils;
+
+import com.acmutv.socstream.common.tool.GridTool;
+import com.acmutv.socstream.common.tuple.PositionSensorEvent;
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import com.acmutv.socstream.common.tuple.SensorFusionSlot;
+import com.acmutv.socstream.common.tuple.SensorFusionSlotSerializer;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatistics;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatisticsAccumulator;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatisticsPanes;
+import com.acmutv.socstream.query2.tuple.PlayerSpeedStatistics;
+import com.acmutv.socstream.query2.tuple.PlayerSpeedStatisticsAccumulator;
+import com.acmutv.socstream.query2.tuple.PlayersSpeedRanking;
+import com.acmutv.socstream.query2.tuple.RankingAccumulator;
+import com.acmutv.socstream.query2.tuple.RankingElement;
+import com.acmutv.socstream.query2.tuple.SpeedSensorEvent;
+import com.acmutv.socstream.query3.tuple.PlayerGridStatistics;
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.typeutils.TypeExtractor;
+import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
+import org.apache.flink.util.Collector;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * JUnit tests for the hand-written serializers of events, accumulators and results.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see SerializerTypeInfo
+ * @see FixedLengthSerializer
+ */
+public class TypeSerializersTest {
+
+  @SuppressWarnings("unchecked")
+  private static <T> TypeSerializer<T> serializer(Class<T> type) {
+    return TypeExtractor.getForClass(type).createSerializer(new ExecutionConfig());
+  }
+
+  private static <T> byte[] serialize(TypeSerializer<T> serializer, T value) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    serializer.serialize(value, new DataOutputViewStreamWrapper(bytes));
+    return bytes.toByteArray();
+  }
+
+  private static DataInputViewStreamWrapper input(byte[] bytes) {
+    return new DataInputViewStreamWrapper(new ByteArrayInputStream(bytes));
+  }
+
+  /**
+   * Checks that a value survives a serialization round trip (fresh and reused instance), a copy,
+   * and a copy between views.
+   * @param type the value type.
+   * @param value the value.
+   * @param reuse a non-empty instance to deserialize into.
+   * @param view the view on the value to compare.
+   */
+  private static <T> void assertRoundTrip(Class<T> type, T value, T reuse, Function<T,Object> view) throws IOException {
+    TypeSerializer<T> serializer = serializer(type);
+    Assert.assertTrue(serializer.toString(), serializer.getClass().getName().startsWith("com.acmutv.socstream"));
+
+    byte[] bytes = serialize(serializer, value);
+    if (serializer.getLength() > 0) {
+      Assert.assertEquals(serializer.getLength(), bytes.length);
+    }
+    Assert.assertEquals(view.apply(value), view.apply(serializer.deserialize(input(bytes))));
+    Assert.assertEquals(view.apply(value), view.apply(serializer.deserialize(reuse, input(bytes))));
+
+    T copy = serializer.copy(value);
+    Assert.assertNotSame(value, copy);
+    Assert.assertEquals(view.apply(value), view.apply(copy));
+    Assert.assertEquals(view.apply(value), view.apply(serializer.copy(value, serializer.createInstance())));
+
+    ByteArrayOutputStream copied = new ByteArrayOutputStream();
+    serializer.copy(input(bytes), new DataOutputViewStreamWrapper(copied));
+    Assert.assertArrayEquals(bytes, copied.toByteArray());
+  }
+
+  private static <T> void assertRoundTrip(Class<T> type, T value, T reuse) throws IOException {
+    assertRoundTrip(type, value, reuse, v -> v);
+  }
+
+  private static List<RankingElement> ranking(RankingAccumulator acc) {
+    List<RankingElement> rank = new ArrayList<>();
+    acc.fill(rank);
+    return rank;
+  }
+
+  /**
+   * Tests events.
+   */
+  @Test
+  public void test_events() throws IOException {
+    assertRoundTrip(PositionSensorEvent.class,
+        new PositionSensorEvent(100, 10753295594424116L, -23353, 15050),
+        new PositionSensorEvent(1, 2, 3, 4));
+    assertRoundTrip(RichSensorEvent.class,
+        new RichSensorEvent(100, 10753295594424116L, 23353, -15050, 1001114, 6741407, 4661, -2298, 4779, 4892),
+        new RichSensorEvent(1, 2, 3, 4, 5, 6, 7, 8, 9, 10));
+    assertRoundTrip(SpeedSensorEvent.class,
+        new SpeedSensorEvent(100, 10753295594424116L, 1001114),
+        new SpeedSensorEvent(1, 2, 3));
+
+    SensorFusionSlot slot = new SensorFusionSlot();
+    slot.reset(7);
+    slot.add(new RichSensorEvent(100, 10753295594424116L, 23353, -15050, 1001114, 6741407, 4661, -2298, 4779, 4892));
+    slot.add(new RichSensorEvent(100, 10753295594424120L, 23300, -15000, 1001000, 6741000, 4600, -2200, 4700, 4800));
+    assertRoundTrip(SensorFusionSlot.class, slot, new SensorFusionSlot());
+    Assert.assertEquals(SensorFusionSlotSerializer.LENGTH, serialize(SensorFusionSlotSerializer.INSTANCE, slot).length);
+  }
+
+  /**
+   * Tests query-1 accumulators, state and results.
+   */
+  @Test
+  public void test_query1() throws IOException {
+    assertRoundTrip(PlayerRunningStatistics.class,
+        new PlayerRunningStatistics(0, 60000, 100, 1234.5, 3.25),
+        new PlayerRunningStatistics(1, 2, 3, 4, 5));
+    assertRoundTrip(PlayerRunningStatisticsAccumulator.class,
+        new PlayerRunningStatisticsAccumulator(10, 123.5, 32.5),
+        new PlayerRunningStatisticsAccumulator(1, 2, 3));
+
+    List<PlayerRunningStatistics> out = new ArrayList<>();
+    Collector<PlayerRunningStatistics> collector = new Collector<PlayerRunningStatistics>() {
+      @Override
+      public void collect(PlayerRunningStatistics record) { out.add(record); }
+
+      @Override
+      public void close() { }
+    };
+    PlayerRunningStatisticsPanes panes = new PlayerRunningStatisticsPanes(100, new long[]{60000, 300000, Long.MAX_VALUE}, 60000);
+    panes.add(1000, 1.5, 3.0, collector);
+    panes.add(61000, 2.5, 4.0, collector);
+    panes.add(62000, 0.5, 1.0, collector);
+    assertRoundTrip(PlayerRunningStatisticsPanes.class, panes, new PlayerRunningStatisticsPanes(1, new long[]{1}, 1));
+
+    PlayerRunningStatisticsPanes closed = new PlayerRunningStatisticsPanes(100, new long[]{60000}, 60000);
+    assertRoundTrip(PlayerRunningStatisticsPanes.class, closed, new PlayerRunningStatisticsPanes());
+  }
+
+  /**
+   * Tests query-2 accumulators and results.
+   */
+  @Test
+  public void test_query2() throws IOException {
+    assertRoundTrip(PlayerSpeedStatistics.class,
+        new PlayerSpeedStatistics(0, 60000, 100, 3.25),
+        new PlayerSpeedStatistics(1, 2, 3, 4));
+    assertRoundTrip(PlayerSpeedStatisticsAccumulator.class,
+        new PlayerSpeedStatisticsAccumulator(10, 12345678),
+        new PlayerSpeedStatisticsAccumulator(1, 2));
+
+    PlayersSpeedRanking ranking = new PlayersSpeedRanking(0, 60000, new ArrayList<>(Arrays.asList(
+        new RankingElement(100, 5.5), new RankingElement(101, 4.5), new RankingElement(102, 3.5))));
+    PlayersSpeedRanking longer = new PlayersSpeedRanking(1, 2, new ArrayList<>(Arrays.asList(
+        new RankingElement(1, 5), new RankingElement(2, 4), new RankingElement(3, 3), new RankingElement(4, 2))));
+    assertRoundTrip(PlayersSpeedRanking.class, ranking, longer);
+    assertRoundTrip(PlayersSpeedRanking.class, ranking, new PlayersSpeedRanking());
+
+    RankingAccumulator acc = new RankingAccumulator(3);
+    for (int pid = 100; pid < 110; pid++) {
+      acc.add(pid, (pid * 7919) % 13);
+    }
+    RankingAccumulator reuse = new RankingAccumulator(3);
+    reuse.add(1, 1);
+    assertRoundTrip(RankingAccumulator.class, acc, reuse, TypeSerializersTest::ranking);
+    assertRoundTrip(RankingAccumulator.class, acc, new RankingAccumulator(5), TypeSerializersTest::ranking);
+  }
+
+  /**
+   * Tests query-3 results.
+   */
+  @Test
+  public void test_query3() throws IOException {
+    long[] cells = new long[GridTool.DEFAULT_GRID.numCells()];
+    for (int i = 0; i < cells.length; i += 3) {
+      cells[i] = i * 1000000000L;
+    }
+    assertRoundTrip(PlayerGridStatistics.class,
+        new PlayerGridStatistics(100, 10753295594424116L, GridTool.DEFAULT_GRID, cells),
+        new PlayerGridStatistics(1, 2, new long[]{3, 4}));
+  }
+}
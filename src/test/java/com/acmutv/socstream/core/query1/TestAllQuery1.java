@@ -26,6 +26,7 @@
 
 package com.acmutv.socstream.core.query1;
 
+import com.acmutv.socstream.core.query1.operator.TestAllQuery1Operator;
 import com.acmutv.socstream.core.query1.tuple.TestAllQuery1Tuple;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
@@ -36,10 +37,14 @@ import org.junit.runners.Suite;
  * @author Michele Porretta {@literal <mporretta@acm.org>}
  * @since 1.0
  * @see TestAllQuery1Tuple
+ * @see TestAllQuery1Operator
+ * @see TopologyQuery1Test
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
-    TestAllQuery1Tuple.class
+    TestAllQuery1Tuple.class,
+    TestAllQuery1Operator.class,
+    TopologyQuery1Test.class
 })
 public class TestAllQuery1 {
 }
@@ -0,0 +1,153 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+
+package com.acmutv.socstream.core.query1;
+
+import com.acmutv.socstream.common.meta.MatchRegistry;
+import com.acmutv.socstream.common.meta.MetadataReload;
+import com.acmutv.socstream.common.operator.SubKeys;
+import com.acmutv.socstream.common.sink.encode.ResultFormat;
+import com.acmutv.socstream.common.sink.es.ESProperties;
+import com.acmutv.socstream.common.source.kafka.KafkaProperties;
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import com.acmutv.socstream.query1.TopologyQuery1;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatistics;
+import org.apache.flink.api.java.utils.ParameterTool;
+import org.apache.flink.streaming.api.TimeCharacteristic;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JUnit tests for {@link TopologyQuery1} on many matches.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see TopologyQuery1
+ */
+public class TopologyQuery1Test {
+
+  private static final long MATCH_START = 10753295594424116L;
+  private static final long MATCH_END = 14879639146403495L;
+  private static final long MATCH_INTERVAL_START = 12557295594424116L;
+  private static final long MATCH_INTERVAL_END = 13086639146403495L;
+
+  /**
+   * The time base shift of the second match: one hour (ps), a multiple of the window length.
+   */
+  private static final long SHIFT = TimeUnit.HOURS.toNanos(1) * 1000L;
+
+  /**
+   * Shifts the timestamp of every record of a dataset.
+   * @param lines the dataset records.
+   * @param shift the shift (ps).
+   * @return the shifted records.
+   */
+  private static List<String> shift(List<String> lines, long shift) {
+    List<String> shifted = new ArrayList<>(lines.size());
+    for (String line : lines) {
+      final String fields[] = line.split(",", 3);
+      shifted.add(fields[0] + "," + (Long.parseLong(fields[1]) + shift) + "," + fields[2]);
+    }
+    return shifted;
+  }
+
+  /**
+   * Tests that matches on different time bases are processed in one job as if processed one by one,
+   * once every source has reached its end (all of them share the watermark of the slowest one).
+   */
+  @Test
+  public void test_matches_timeBases() throws Exception {
+    final Path dir = Files.createTempDirectory("socstream-matches");
+    final Path metadata = Paths.get("data/test/metadata.yml").toAbsolutePath();
+    final Path dataset = Paths.get("data/test/dataset.txt").toAbsolutePath();
+    final Path shiftedDataset = dir.resolve("dataset-2.txt");
+    Files.write(shiftedDataset, shift(Files.readAllLines(dataset, StandardCharsets.US_ASCII), SHIFT), StandardCharsets.US_ASCII);
+    final Path registry = dir.resolve("matches.yml");
+    Files.write(registry, Arrays.asList(
+        "matches:",
+        "  - id: 1",
+        "    metadata: " + metadata,
+        "    source: file:" + dataset,
+        "  - id: 2",
+        "    metadata: " + metadata,
+        "    source: file:" + shiftedDataset,
+        "    match.start: " + (MATCH_START + SHIFT),
+        "    match.end: " + (MATCH_END + SHIFT),
+        "    match.interval.start: " + (MATCH_INTERVAL_START + SHIFT),
+        "    match.interval.end: " + (MATCH_INTERVAL_END + SHIFT)
+    ), StandardCharsets.US_ASCII);
+    final Path output = dir.resolve("query-1.out");
+
+    final MatchRegistry matches = MatchRegistry.fromYamlFile(registry, "kafka",
+        MATCH_START, MATCH_END, MATCH_INTERVAL_START, MATCH_INTERVAL_END);
+    final StreamExecutionEnvironment env = StreamExecutionEnvironment.createLocalEnvironment(2);
+    env.setStreamTimeCharacteristic(TimeCharacteristic.EventTime);
+    DataStream<RichSensorEvent> events = null;
+    for (MatchRegistry.Entry match : matches) {
+      final DataStream<RichSensorEvent> matchEvents = TopologyQuery1.source(env, match, "socstream", false,
+          new KafkaProperties("localhost:9092"), MetadataReload.none(), 0, true, 2);
+      events = (events == null) ? matchEvents : events.union(matchEvents);
+    }
+    DataStream<PlayerRunningStatistics> statistics = TopologyQuery1.topology(events,
+        new long[]{TimeUnit.SECONDS.toMillis(1)}, 2, SubKeys.none());
+    TopologyQuery1.sink(statistics, output, ResultFormat.CSV,
+        ESProperties.fromParameters(ParameterTool.fromArgs(new String[0])));
+    env.execute();
+
+    final List<String> lines = Files.readAllLines(output, StandardCharsets.US_ASCII);
+    final Set<String> match1 = new HashSet<>();
+    final Set<String> match2 = new HashSet<>();
+    for (String line : lines) {
+      final String fields[] = line.split(",");
+      if (fields[2].startsWith("1:")) {
+        match1.add(line);
+      } else if (fields[2].startsWith("2:")) {
+        final long shift = TimeUnit.HOURS.toMillis(1);
+        match2.add((Long.parseLong(fields[0]) - shift) + "," + (Long.parseLong(fields[1]) - shift) + ",1:"
+            + fields[2].substring(2) + "," + fields[3] + "," + fields[4]);
+      } else {
+        Assert.fail("Result without match: " + line);
+      }
+    }
+    Assert.assertFalse(match1.isEmpty());
+    Assert.assertEquals(lines.size(), match1.size() + match2.size());
+    Assert.assertEquals(match1, match2);
+  }
+}
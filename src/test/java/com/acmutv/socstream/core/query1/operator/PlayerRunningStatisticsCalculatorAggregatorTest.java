@@ -0,0 +1,84 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.core.query1.operator;
+
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import com.acmutv.socstream.query1.operator.PlayerRunningStatisticsCalculatorAggregator;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatistics;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatisticsAccumulator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * JUnit test suite for {@link PlayerRunningStatisticsCalculatorAggregator}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see PlayerRunningStatisticsCalculatorAggregator
+ */
+public class PlayerRunningStatisticsCalculatorAggregatorTest {
+
+  private static final double DELTA = 1e-9;
+
+  private static PlayerRunningStatisticsAccumulator aggregate(PlayerRunningStatisticsCalculatorAggregator aggregator,
+                                                              List<RichSensorEvent> events) {
+    PlayerRunningStatisticsAccumulator acc = aggregator.createAccumulator();
+    for (RichSensorEvent event : events) {
+      aggregator.add(event, acc);
+    }
+    return acc;
+  }
+
+  /**
+   * Tests that merge(a,b) equals aggregating the concatenated input.
+   */
+  @Test
+  public void test_merge() throws Exception {
+    List<RichSensorEvent> events = Files.readAllLines(Paths.get("data/test/dataset.txt"), StandardCharsets.US_ASCII)
+        .stream().limit(500).map(RichSensorEvent::fromDataset).collect(Collectors.toList());
+    PlayerRunningStatisticsCalculatorAggregator aggregator = new PlayerRunningStatisticsCalculatorAggregator();
+
+    PlayerRunningStatistics expected = aggregator.getResult(aggregate(aggregator, events));
+
+    for (int split : new int[]{0, 1, 137, events.size() - 1, events.size()}) {
+      PlayerRunningStatisticsAccumulator a = aggregate(aggregator, events.subList(0, split));
+      PlayerRunningStatisticsAccumulator b = aggregate(aggregator, events.subList(split, events.size()));
+      PlayerRunningStatisticsAccumulator merged = aggregator.merge(a, b);
+      PlayerRunningStatistics actual = aggregator.getResult(merged);
+
+      Assert.assertEquals(events.size(), merged.getNumEvents());
+      Assert.assertEquals(expected.getTotalDistance(), actual.getTotalDistance(), DELTA * Math.abs(expected.getTotalDistance()));
+      Assert.assertEquals(expected.getAverageSpeed(), actual.getAverageSpeed(), DELTA * Math.abs(expected.getAverageSpeed()));
+    }
+  }
+}
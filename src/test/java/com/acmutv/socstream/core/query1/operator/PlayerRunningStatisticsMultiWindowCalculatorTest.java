@@ -0,0 +1,148 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2017 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+
+package com.acmutv.socstream.core.query1.operator;
+
+import com.acmutv.socstream.common.tuple.RichSensorEvent;
+import com.acmutv.socstream.query1.operator.PlayerRunningStatisticsMultiWindowCalculator;
+import com.acmutv.socstream.query1.operator.RichSensorEventKeyer;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatistics;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatisticsAccumulator;
+import com.acmutv.socstream.tool.physics.PhysicsUtil;
+import org.apache.flink.streaming.api.TimeCharacteristic;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.flink.streaming.api.functions.sink.SinkFunction;
+import org.apache.flink.streaming.api.functions.source.SourceFunction;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * JUnit test suite for {@link PlayerRunningStatisticsMultiWindowCalculator}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see PlayerRunningStatisticsMultiWindowCalculator
+ */
+public class PlayerRunningStatisticsMultiWindowCalculatorTest {
+
+  private static final double DELTA = 1e-9;
+
+  /**
+   * The window length (ms).
+   */
+  private static final long LENGTH = 1000;
+
+  /**
+   * The event timestamps (ms) of a player, out of order, all but the last one ahead of the watermark.
+   */
+  private static final long TIMESTAMPS[] = {100, 1500, 300, 1800, 700, 2100, 900};
+
+  /**
+   * The watermarks emitted after each event (ms), or {@link Long#MIN_VALUE} for none.
+   */
+  private static final long WATERMARKS[] = {Long.MIN_VALUE, Long.MIN_VALUE, Long.MIN_VALUE, Long.MIN_VALUE, Long.MIN_VALUE, 999, Long.MIN_VALUE};
+
+  /**
+   * The collected statistics.
+   */
+  private static final List<PlayerRunningStatistics> RESULTS = Collections.synchronizedList(new ArrayList<>());
+
+  private static RichSensorEvent event(int i) {
+    return new RichSensorEvent(100L, TIMESTAMPS[i], 0, 0, 1000000 + i * 10000, 2000000, 5000 + i, 3000, 1000, 1000);
+  }
+
+  /**
+   * Emits the events of a player with their timestamps, followed by the given watermarks.
+   */
+  private static class OutOfOrderSource implements SourceFunction<RichSensorEvent> {
+    @Override
+    public void run(SourceContext<RichSensorEvent> ctx) throws Exception {
+      for (int i = 0; i < TIMESTAMPS.length; i++) {
+        ctx.collectWithTimestamp(event(i), TIMESTAMPS[i]);
+        if (WATERMARKS[i] != Long.MIN_VALUE) {
+          ctx.emitWatermark(new Watermark(WATERMARKS[i]));
+        }
+      }
+    }
+
+    @Override
+    public void cancel() {
+    }
+  }
+
+  private static class CollectSink implements SinkFunction<PlayerRunningStatistics> {
+    @Override
+    public void invoke(PlayerRunningStatistics value) throws Exception {
+      RESULTS.add(value);
+    }
+  }
+
+  private static PlayerRunningStatisticsAccumulator accumulate(int... indices) {
+    PlayerRunningStatisticsAccumulator acc = new PlayerRunningStatisticsAccumulator();
+    for (int i : indices) {
+      final RichSensorEvent e = event(i);
+      final double distanceSpeed[] = PhysicsUtil.computeDistanceAndSpeed(e.getV(), e.getVx(), e.getVy(), e.getA(), e.getAx(), e.getAy());
+      acc.add(distanceSpeed[0], distanceSpeed[1]);
+    }
+    return acc;
+  }
+
+  /**
+   * Tests that events of a player arriving out of order, but ahead of the watermark, are all counted,
+   * while events behind the watermark are dropped.
+   */
+  @Test
+  public void test_outOfOrder() throws Exception {
+    RESULTS.clear();
+    StreamExecutionEnvironment env = StreamExecutionEnvironment.createLocalEnvironment(1);
+    env.setStreamTimeCharacteristic(TimeCharacteristic.EventTime);
+    env.addSource(new OutOfOrderSource())
+        .keyBy(new RichSensorEventKeyer())
+        .process(new PlayerRunningStatisticsMultiWindowCalculator(new long[]{LENGTH}, LENGTH))
+        .addSink(new CollectSink());
+    env.execute();
+
+    List<PlayerRunningStatistics> actual = new ArrayList<>(RESULTS);
+    actual.sort(Comparator.comparingLong(PlayerRunningStatistics::getTsStart));
+    Assert.assertEquals(3, actual.size());
+
+    final PlayerRunningStatisticsAccumulator expected[] = {accumulate(0, 2, 4), accumulate(1, 3), accumulate(5)};
+    for (int i = 0; i < expected.length; i++) {
+      Assert.assertEquals(i * LENGTH, actual.get(i).getTsStart());
+      Assert.assertEquals((i + 1) * LENGTH, actual.get(i).getTsStop());
+      Assert.assertEquals(100L, actual.get(i).getPid());
+      Assert.assertEquals(expected[i].getTotalDistance(), actual.get(i).getTotalDistance(), DELTA);
+      Assert.assertEquals(expected[i].averageSpeed(), actual.get(i).getAverageSpeed(), DELTA);
+    }
+  }
+}
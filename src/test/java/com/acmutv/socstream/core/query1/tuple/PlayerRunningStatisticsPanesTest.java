@@ -0,0 +1,194 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.core.query1.tuple;
+
+import com.acmutv.socstream.common.tool.WindowTool;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatistics;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatisticsAccumulator;
+import com.acmutv.socstream.query1.tuple.PlayerRunningStatisticsPanes;
+import org.apache.flink.api.common.functions.util.ListCollector;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JUnit test suite for {@link PlayerRunningStatisticsPanes}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see PlayerRunningStatisticsPanes
+ */
+public class PlayerRunningStatisticsPanesTest {
+
+  private static final long MINUTE = 60000;
+
+  /**
+   * Tests that windows of every length are built from shared panes, and emitted when complete.
+   */
+  @Test
+  public void test_multiWindow() throws Exception {
+    final long lengths[] = WindowTool.parseLengths("1m,5m,full");
+    final long origin = 10753295L - 10753295L % (5 * MINUTE);
+    PlayerRunningStatisticsPanes panes = new PlayerRunningStatisticsPanes(100, lengths, WindowTool.paneLength(lengths, MINUTE));
+    List<PlayerRunningStatistics> out = new ArrayList<>();
+    ListCollector<PlayerRunningStatistics> collector = new ListCollector<>(out);
+
+    // one event per 10 seconds for 7 minutes, skipping minute 3: distance 1 m, speed = minute index
+    for (long t = 0; t < 7 * MINUTE; t += 10000) {
+      final long minute = t / MINUTE;
+      if (minute == 3) continue;
+      panes.add(origin + t, 1.0, minute, collector);
+    }
+
+    // minutes 0,1,2,4,5 have been closed by later events; minute 6 is still open
+    Assert.assertEquals(5 + 1, out.size());
+    Assert.assertEquals(new PlayerRunningStatistics(origin, origin + MINUTE, 100, 6.0, 0.0), out.get(0));
+    PlayerRunningStatistics fiveMinutes = out.get(4);
+    Assert.assertEquals(origin, fiveMinutes.getTsStart());
+    Assert.assertEquals(origin + 5 * MINUTE, fiveMinutes.getTsStop());
+    Assert.assertEquals(24.0, fiveMinutes.getTotalDistance(), 1e-9);
+    Assert.assertEquals((0 + 1 + 2 + 4) / 4.0, fiveMinutes.getAverageSpeed(), 1e-9);
+
+    out.clear();
+    panes.fire(Long.MAX_VALUE, collector);
+
+    // minute 6, the open 5-minute window [5,10) and the full match
+    Assert.assertEquals(3, out.size());
+    Assert.assertEquals(new PlayerRunningStatistics(origin + 6 * MINUTE, origin + 7 * MINUTE, 100, 6.0, 6.0), out.get(0));
+    Assert.assertEquals(new PlayerRunningStatistics(origin + 5 * MINUTE, origin + 10 * MINUTE, 100, 12.0, 5.5), out.get(1));
+    PlayerRunningStatistics full = out.get(2);
+    Assert.assertEquals(origin, full.getTsStart());
+    Assert.assertEquals(origin + 7 * MINUTE, full.getTsStop());
+    Assert.assertEquals(36.0, full.getTotalDistance(), 1e-9);
+    Assert.assertEquals((0 + 1 + 2 + 4 + 5 + 6) / 6.0, full.getAverageSpeed(), 1e-9);
+    Assert.assertTrue(panes.isEmpty());
+  }
+
+  /**
+   * Tests that watermarks close panes and windows without further events, and that late events are dropped.
+   */
+  @Test
+  public void test_fire() throws Exception {
+    final long lengths[] = WindowTool.parseLengths("1m,2m");
+    PlayerRunningStatisticsPanes panes = new PlayerRunningStatisticsPanes(100, lengths, WindowTool.paneLength(lengths, MINUTE));
+    List<PlayerRunningStatistics> out = new ArrayList<>();
+    ListCollector<PlayerRunningStatistics> collector = new ListCollector<>(out);
+
+    Assert.assertTrue(panes.add(10, 1.0, 2.0, collector));
+    Assert.assertFalse(panes.add(20, 1.0, 4.0, collector));
+    Assert.assertEquals(MINUTE, panes.getPaneEnd());
+    Assert.assertEquals(2 * MINUTE, panes.getWindowEnd(1));
+
+    panes.fire(MINUTE - 2, collector);
+    Assert.assertTrue(out.isEmpty());
+
+    panes.fire(MINUTE - 1, collector);
+    Assert.assertEquals(1, out.size());
+    Assert.assertEquals(new PlayerRunningStatistics(0, MINUTE, 100, 2.0, 3.0), out.get(0));
+
+    Assert.assertFalse(panes.add(30, 1.0, 1.0, collector));
+
+    panes.fire(2 * MINUTE - 1, collector);
+    Assert.assertEquals(2, out.size());
+    Assert.assertEquals(new PlayerRunningStatistics(0, 2 * MINUTE, 100, 2.0, 3.0), out.get(1));
+    Assert.assertTrue(panes.isEmpty());
+  }
+
+  /**
+   * Tests that windows are emitted into the given statistics, when reused.
+   */
+  @Test
+  public void test_fire_reuse() throws Exception {
+    final long lengths[] = WindowTool.parseLengths("1m,2m");
+    PlayerRunningStatisticsPanes panes = new PlayerRunningStatisticsPanes(100, lengths, WindowTool.paneLength(lengths, MINUTE));
+    List<PlayerRunningStatistics> out = new ArrayList<>();
+    ListCollector<PlayerRunningStatistics> collector = new ListCollector<>(out);
+    PlayerRunningStatistics reuse = new PlayerRunningStatistics();
+
+    panes.add(10, 1.0, 2.0, collector, reuse);
+    panes.add(20, 1.0, 4.0, collector, reuse);
+    panes.fire(MINUTE - 1, collector, reuse);
+    Assert.assertEquals(1, out.size());
+    Assert.assertSame(reuse, out.get(0));
+    Assert.assertEquals(new PlayerRunningStatistics(0, MINUTE, 100, 2.0, 3.0), reuse);
+
+    panes.fire(2 * MINUTE - 1, collector, reuse);
+    Assert.assertEquals(2, out.size());
+    Assert.assertSame(reuse, out.get(1));
+    Assert.assertEquals(new PlayerRunningStatistics(0, 2 * MINUTE, 100, 2.0, 3.0), reuse);
+  }
+
+  /**
+   * Tests parsing of window lengths and pane computation.
+   */
+  @Test
+  public void test_parseLengths() throws Exception {
+    long lengths[] = WindowTool.parseLengths("1m, 5m,20m,full");
+    Assert.assertArrayEquals(new long[]{MINUTE, 5 * MINUTE, 20 * MINUTE, WindowTool.FULL}, lengths);
+    Assert.assertEquals(MINUTE, WindowTool.paneLength(lengths, 1));
+    Assert.assertEquals(30000, WindowTool.paneLength(WindowTool.parseLengths("90s,2m"), 1));
+    Assert.assertEquals(7, WindowTool.paneLength(WindowTool.parseLengths("full"), 7));
+  }
+
+  /**
+   * Tests that panes built from partial aggregates, in any order within a pane, emit the same windows
+   * as panes built from events, and that late partial aggregates are dropped.
+   */
+  @Test
+  public void test_addPane() throws Exception {
+    final long lengths[] = WindowTool.parseLengths("1m,2m,full");
+    final long paneLength = WindowTool.paneLength(lengths, MINUTE);
+    PlayerRunningStatisticsPanes events = new PlayerRunningStatisticsPanes(100, lengths, paneLength);
+    PlayerRunningStatisticsPanes partials = new PlayerRunningStatisticsPanes(100, lengths, paneLength);
+    List<PlayerRunningStatistics> expected = new ArrayList<>();
+    List<PlayerRunningStatistics> actual = new ArrayList<>();
+    ListCollector<PlayerRunningStatistics> expectedCollector = new ListCollector<>(expected);
+    ListCollector<PlayerRunningStatistics> actualCollector = new ListCollector<>(actual);
+
+    // one event per 10 seconds for 5 minutes; partial aggregates of 30 second slices, later slice first
+    for (long minute = 0; minute < 5 * MINUTE; minute += MINUTE) {
+      PlayerRunningStatisticsAccumulator slices[] = {
+          new PlayerRunningStatisticsAccumulator(), new PlayerRunningStatisticsAccumulator()
+      };
+      for (long t = minute; t < minute + MINUTE; t += 10000) {
+        final double speed = (t / 10000) % 7;
+        events.add(t, 1.0, speed, expectedCollector);
+        slices[(int) ((t - minute) / 30000)].add(1.0, speed);
+      }
+      Assert.assertTrue(partials.addPane(minute, slices[1], actualCollector, null));
+      Assert.assertFalse(partials.addPane(minute, slices[0], actualCollector, null));
+    }
+    Assert.assertFalse(partials.addPane(0, new PlayerRunningStatisticsAccumulator(), actualCollector, null));
+
+    events.fire(Long.MAX_VALUE, expectedCollector);
+    partials.fire(Long.MAX_VALUE, actualCollector);
+    Assert.assertEquals(expected, actual);
+    Assert.assertTrue(partials.isEmpty());
+  }
+}
@@ -36,11 +36,13 @@ import org.junit.runners.Suite;
  * @since 1.0
  * @see PlayerRunningStatisticsTest
  * @see RichSensorEventTest
+ * @see PlayerRunningStatisticsPanesTest
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
     PlayerRunningStatisticsTest.class,
-        RichSensorEventTest.class
+        RichSensorEventTest.class,
+        PlayerRunningStatisticsPanesTest.class
 })
 public class TestAllQuery1Tuple {
 }
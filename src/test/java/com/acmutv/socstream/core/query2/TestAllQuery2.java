@@ -26,6 +26,7 @@
 
 package com.acmutv.socstream.core.query2;
 
+import com.acmutv.socstream.core.query2.operator.TestAllQuery2Operator;
 import com.acmutv.socstream.core.query2.tuple.TestAllQuery2Tuple;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
@@ -36,10 +37,12 @@ import org.junit.runners.Suite;
  * @author Michele Porretta {@literal <mporretta@acm.org>}
  * @since 1.0
  * @see com.acmutv.socstream.core.query2.tuple.TestAllQuery2Tuple
+ * @see com.acmutv.socstream.core.query2.operator.TestAllQuery2Operator
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
-    TestAllQuery2Tuple.class
+    TestAllQuery2Tuple.class,
+    TestAllQuery2Operator.class
 })
 public class TestAllQuery2 {
 }
@@ -0,0 +1,94 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.core.query2.operator;
+
+import com.acmutv.socstream.query2.operator.GlobalRankerAggregator;
+import com.acmutv.socstream.query2.operator.PartialRankerAggregator;
+import com.acmutv.socstream.query2.operator.PlayerSpeedStatisticsGroupKeyer;
+import com.acmutv.socstream.query2.tuple.PlayerSpeedStatistics;
+import com.acmutv.socstream.query2.tuple.PlayersSpeedRanking;
+import com.acmutv.socstream.query2.tuple.RankingAccumulator;
+import com.acmutv.socstream.query2.tuple.RankingElement;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * JUnit test suite for {@link GlobalRankerAggregator}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see GlobalRankerAggregator
+ * @see PartialRankerAggregator
+ */
+public class GlobalRankerAggregatorTest {
+
+  /**
+   * Tests that the two-phase ranking equals sorting and truncating all the statistics.
+   */
+  @Test
+  public void test_twoPhase() throws Exception {
+    final int rankSize = 5;
+    final int groups = 4;
+
+    List<PlayerSpeedStatistics> statistics = new ArrayList<>();
+    for (int i = 0; i < 16; i++) {
+      statistics.add(new PlayerSpeedStatistics(0, 60000, 100 + i, (i * 7919) % 3000000));
+    }
+
+    List<RankingElement> expected = new ArrayList<>();
+    statistics.forEach(e -> expected.add(new RankingElement(e.getPid(), e.getAverageSpeed())));
+    expected.sort(Comparator.reverseOrder());
+    expected.subList(rankSize, expected.size()).clear();
+
+    PartialRankerAggregator partialAggregator = new PartialRankerAggregator(rankSize);
+    PlayerSpeedStatisticsGroupKeyer keyer = new PlayerSpeedStatisticsGroupKeyer(groups);
+    List<RankingAccumulator> partials = new ArrayList<>();
+    for (int g = 0; g < groups; g++) {
+      partials.add(partialAggregator.createAccumulator());
+    }
+    for (PlayerSpeedStatistics stats : statistics) {
+      partialAggregator.add(stats, partials.get(keyer.getKey(stats)));
+    }
+
+    GlobalRankerAggregator globalAggregator = new GlobalRankerAggregator(rankSize);
+    RankingAccumulator global = globalAggregator.createAccumulator();
+    for (RankingAccumulator partial : partials) {
+      PlayersSpeedRanking partialRanking = new PlayersSpeedRanking(0, 60000);
+      partialAggregator.getResult(partial).fill(partialRanking.getRank());
+      globalAggregator.add(partialRanking, global);
+    }
+
+    PlayersSpeedRanking actual = new PlayersSpeedRanking(0, 60000);
+    globalAggregator.getResult(global).fill(actual.getRank());
+
+    Assert.assertEquals(expected, actual.getRank());
+  }
+}
@@ -0,0 +1,78 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.core.query2.operator;
+
+import com.acmutv.socstream.query2.operator.PlayerSpeedStatisticsCalculatorAggregator;
+import com.acmutv.socstream.query2.tuple.PlayerSpeedStatisticsAccumulator;
+import com.acmutv.socstream.query2.tuple.SpeedSensorEvent;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JUnit test suite for {@link PlayerSpeedStatisticsCalculatorAggregator}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see PlayerSpeedStatisticsCalculatorAggregator
+ */
+public class PlayerSpeedStatisticsCalculatorAggregatorTest {
+
+  private static PlayerSpeedStatisticsAccumulator aggregate(PlayerSpeedStatisticsCalculatorAggregator aggregator,
+                                                            List<SpeedSensorEvent> events) {
+    PlayerSpeedStatisticsAccumulator acc = aggregator.createAccumulator();
+    for (SpeedSensorEvent event : events) {
+      aggregator.add(event, acc);
+    }
+    return acc;
+  }
+
+  /**
+   * Tests that merge(a,b) equals aggregating the concatenated input.
+   */
+  @Test
+  public void test_merge() throws Exception {
+    List<SpeedSensorEvent> events = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      events.add(new SpeedSensorEvent(100, 10753295594424116L + i * 5000000000L, (i * 7919) % 3000000));
+    }
+    PlayerSpeedStatisticsCalculatorAggregator aggregator = new PlayerSpeedStatisticsCalculatorAggregator();
+
+    PlayerSpeedStatisticsAccumulator expected = aggregate(aggregator, events);
+
+    for (int split : new int[]{0, 1, 42, events.size()}) {
+      PlayerSpeedStatisticsAccumulator a = aggregate(aggregator, events.subList(0, split));
+      PlayerSpeedStatisticsAccumulator b = aggregate(aggregator, events.subList(split, events.size()));
+      PlayerSpeedStatisticsAccumulator actual = aggregator.merge(a, b);
+
+      Assert.assertEquals(expected, actual);
+      Assert.assertEquals(aggregator.getResult(expected), aggregator.getResult(actual));
+    }
+  }
+}
@@ -0,0 +1,95 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.core.query2.tuple;
+
+import com.acmutv.socstream.query2.tuple.RankingAccumulator;
+import com.acmutv.socstream.query2.tuple.RankingElement;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JUnit test suite for {@link RankingAccumulator}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see RankingAccumulator
+ */
+public class RankingAccumulatorTest {
+
+  /**
+   * Tests that only the best {@code rankSize} elements are kept, from the fastest.
+   */
+  @Test
+  public void test_add() throws Exception {
+    RankingAccumulator acc = new RankingAccumulator(3);
+    acc.add(100, 5.0);
+    acc.add(101, 1.0);
+    acc.add(102, 7.0);
+    acc.add(103, 3.0);
+    acc.add(104, 9.0);
+    acc.add(105, 2.0);
+
+    Assert.assertEquals(3, acc.size());
+
+    List<RankingElement> actual = new ArrayList<>();
+    actual.add(new RankingElement(999, 99.0));
+    acc.fill(actual);
+
+    List<RankingElement> expected = Arrays.asList(
+        new RankingElement(104, 9.0),
+        new RankingElement(102, 7.0),
+        new RankingElement(100, 5.0)
+    );
+    Assert.assertEquals(expected, actual);
+  }
+
+  /**
+   * Tests that merging partial accumulators equals accumulating all the elements.
+   */
+  @Test
+  public void test_merge() throws Exception {
+    RankingAccumulator expected = new RankingAccumulator(5);
+    RankingAccumulator a = new RankingAccumulator(5);
+    RankingAccumulator b = new RankingAccumulator(5);
+    for (int i = 0; i < 50; i++) {
+      double speed = (i * 7919) % 1000;
+      expected.add(100 + i, speed);
+      ((i % 3 == 0) ? a : b).add(100 + i, speed);
+    }
+
+    List<RankingElement> expectedRank = new ArrayList<>();
+    expected.fill(expectedRank);
+    List<RankingElement> actualRank = new ArrayList<>();
+    a.merge(b).fill(actualRank);
+
+    Assert.assertEquals(expectedRank, actualRank);
+  }
+}
@@ -36,11 +36,13 @@ import org.junit.runners.Suite;
  * @since 1.0
  * @see PlayersSpeedRankingTest
  * @see RankingElementTest
+ * @see RankingAccumulatorTest
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
     PlayersSpeedRankingTest.class,
-    RankingElementTest.class
+    RankingElementTest.class,
+    RankingAccumulatorTest.class
 })
 public class TestAllQuery2Tuple {
 }
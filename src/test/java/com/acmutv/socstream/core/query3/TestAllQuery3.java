@@ -26,6 +26,7 @@
 
 package com.acmutv.socstream.core.query3;
 
+import com.acmutv.socstream.core.query3.operator.TestAllQuery3Operator;
 import com.acmutv.socstream.core.query3.tuple.TestAllQuery3Tuple;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
@@ -36,10 +37,12 @@ import org.junit.runners.Suite;
  * @author Michele Porretta {@literal <mporretta@acm.org>}
  * @since 1.0
  * @see com.acmutv.socstream.core.query3.tuple.TestAllQuery3Tuple
+ * @see com.acmutv.socstream.core.query3.operator.TestAllQuery3Operator
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
-    TestAllQuery3Tuple.class
+    TestAllQuery3Tuple.class,
+    TestAllQuery3Operator.class
 })
 public class TestAllQuery3 {
 }
@@ -0,0 +1,148 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.core.query3.operator;
+
+import com.acmutv.socstream.common.meta.Field;
+import com.acmutv.socstream.common.tool.FieldGrid;
+import com.acmutv.socstream.common.tuple.PositionSensorEvent;
+import com.acmutv.socstream.query3.operator.PlayerOnGridStatisticsCalculatorAggregator;
+import com.acmutv.socstream.query3.tuple.PlayerGridStatisticsAccumulator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JUnit test suite for {@link PlayerOnGridStatisticsCalculatorAggregator}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see PlayerOnGridStatisticsCalculatorAggregator
+ */
+public class PlayerOnGridStatisticsCalculatorAggregatorTest {
+
+  private static PlayerGridStatisticsAccumulator aggregate(PlayerOnGridStatisticsCalculatorAggregator aggregator,
+                                                           List<PositionSensorEvent> events) {
+    PlayerGridStatisticsAccumulator acc = aggregator.createAccumulator();
+    for (PositionSensorEvent event : events) {
+      aggregator.add(event, acc);
+    }
+    return acc;
+  }
+
+  /**
+   * Creates a player walking back and forth across the field, re-entering cells.
+   * @return the events.
+   */
+  private static List<PositionSensorEvent> walk() {
+    List<PositionSensorEvent> events = new ArrayList<>();
+    long ts = 10753295594424116L;
+    for (int i = 0; i < 400; i++) {
+      long x = 1000 + Math.abs((i % 200) - 100) * 400;
+      long y = -30000 + (i % 37) * 1500;
+      events.add(new PositionSensorEvent(100, ts, x, y));
+      ts += 5000000000L + (i % 3) * 1000000000L;
+    }
+    return events;
+  }
+
+  /**
+   * Tests that merge(a,b) equals aggregating the concatenated input.
+   */
+  @Test
+  public void test_merge() throws Exception {
+    List<PositionSensorEvent> events = walk();
+    PlayerOnGridStatisticsCalculatorAggregator aggregator = new PlayerOnGridStatisticsCalculatorAggregator();
+
+    PlayerGridStatisticsAccumulator expected = aggregate(aggregator, events);
+
+    for (int split : new int[]{0, 1, 150, 399, 400}) {
+      PlayerGridStatisticsAccumulator a = aggregate(aggregator, events.subList(0, split));
+      PlayerGridStatisticsAccumulator b = aggregate(aggregator, events.subList(split, events.size()));
+      Assert.assertEquals(expected, aggregator.merge(a, b));
+
+      a = aggregate(aggregator, events.subList(0, split));
+      b = aggregate(aggregator, events.subList(split, events.size()));
+      Assert.assertEquals(expected, aggregator.merge(b, a));
+    }
+  }
+
+  /**
+   * Tests that the dwell time covers the whole input.
+   */
+  @Test
+  public void test_dwellTime() throws Exception {
+    List<PositionSensorEvent> events = walk();
+    PlayerGridStatisticsAccumulator acc = aggregate(new PlayerOnGridStatisticsCalculatorAggregator(), events);
+
+    long total = acc.totalDwell(0, acc.getCells().length);
+    Assert.assertEquals(events.get(events.size() - 1).getTs() - events.get(0).getTs(), total);
+  }
+
+  /**
+   * Tests that accumulating several grids in one pass equals accumulating each grid alone.
+   */
+  @Test
+  public void test_multiGrid() throws Exception {
+    List<PositionSensorEvent> events = walk();
+    FieldGrid[] grids = FieldGrid.parse(new Field(), "8x13,16x26,32x52");
+    PlayerGridStatisticsAccumulator acc = aggregate(new PlayerOnGridStatisticsCalculatorAggregator(grids), events);
+
+    int offset = 0;
+    for (FieldGrid grid : grids) {
+      PlayerGridStatisticsAccumulator expected = aggregate(new PlayerOnGridStatisticsCalculatorAggregator(grid), events);
+      long[] actual = Arrays.copyOfRange(acc.getCells(), offset, offset + grid.numCells());
+      Assert.assertArrayEquals(expected.getCells(), actual);
+      offset += grid.numCells();
+    }
+    Assert.assertEquals(offset, acc.getCells().length);
+  }
+
+  /**
+   * Tests that events out of the pitch count in the nearest border cell.
+   */
+  @Test
+  public void test_outOfField() throws Exception {
+    Field field = new Field();
+    List<PositionSensorEvent> events = walk();
+    PlayerOnGridStatisticsCalculatorAggregator aggregator = new PlayerOnGridStatisticsCalculatorAggregator();
+
+    List<PositionSensorEvent> border = new ArrayList<>();
+    List<PositionSensorEvent> outside = new ArrayList<>();
+    for (PositionSensorEvent event : events) {
+      border.add(event);
+      border.add(new PositionSensorEvent(100, event.getTs() + 1, field.getXMin(), event.getY()));
+      outside.add(event);
+      outside.add(new PositionSensorEvent(100, event.getTs() + 1, field.getXMin() - 5000, event.getY()));
+    }
+    PlayerGridStatisticsAccumulator expected = aggregate(aggregator, border);
+    Assert.assertEquals(expected, aggregate(aggregator, outside));
+    Assert.assertNotEquals(aggregate(aggregator, events), aggregate(aggregator, outside));
+  }
+}
@@ -62,6 +62,7 @@ public class ComputeCellTest {
     GridCoordinate gc = GridTool.computeCell(base);
     Assert.assertEquals(gc.getX(),9);
     Assert.assertEquals(gc.getY(),4);
+    Assert.assertEquals(gc.getKey(), GridTool.DEFAULT_GRID.cellKey(GridTool.DEFAULT_GRID.cellId(36736,5529)));
 
     base = ComputeCenterOfGravity.computeWithCell(2,36861,5572, gc);
     gc = GridTool.computeCell(base);
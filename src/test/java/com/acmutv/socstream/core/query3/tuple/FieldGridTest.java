@@ -0,0 +1,104 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.core.query3.tuple;
+
+import com.acmutv.socstream.common.meta.Field;
+import com.acmutv.socstream.common.tool.FieldGrid;
+import com.acmutv.socstream.common.tool.GridTool;
+import com.acmutv.socstream.common.tuple.Coordinate;
+import com.acmutv.socstream.common.tuple.GridCoordinate;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * JUnit test suite for {@link FieldGrid}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see FieldGrid
+ */
+public class FieldGridTest {
+
+  /**
+   * Tests that the default grid matches {@link GridTool#computeCell(Coordinate)}.
+   */
+  @Test
+  public void test_defaultGrid() throws Exception {
+    FieldGrid grid = GridTool.DEFAULT_GRID;
+    Assert.assertEquals(104, grid.numCells());
+    for (long x = 0; x < 52483; x += 997) {
+      for (long y = -33960; y < 33965; y += 1009) {
+        GridCoordinate expected = GridTool.computeCell(new Coordinate(x, y));
+        int cell = grid.cellId(x, y);
+        Assert.assertEquals(expected.getX(), grid.cellX(cell));
+        Assert.assertEquals(expected.getY(), grid.cellY(cell));
+        Assert.assertEquals(expected.getKey(), grid.cellKey(cell));
+      }
+    }
+  }
+
+  /**
+   * Tests cell ids at the pitch borders and out of the pitch.
+   */
+  @Test
+  public void test_cellId() throws Exception {
+    FieldGrid grid = new FieldGrid(new Field(-1000, 1000, 0, 4000), 4, 2);
+
+    Assert.assertEquals(0, grid.cellId(-1000, 0));
+    Assert.assertEquals(3, grid.cellId(-1, 3999));
+    Assert.assertEquals(4, grid.cellId(0, 0));
+    Assert.assertEquals(7, grid.cellId(1000, 4000));
+
+    Assert.assertEquals(0, grid.cellId(-1001, 0));
+    Assert.assertEquals(4, grid.cellId(1001, 0));
+    Assert.assertEquals(4, grid.cellId(0, -1));
+    Assert.assertEquals(7, grid.cellId(0, 4001));
+    Assert.assertEquals(3, grid.cellId(Long.MIN_VALUE / 2, Long.MAX_VALUE / 2));
+  }
+
+  /**
+   * Tests parsing of grid resolutions.
+   */
+  @Test
+  public void test_parse() throws Exception {
+    FieldGrid[] grids = FieldGrid.parse(new Field(), "8x13, 16x26,32X52");
+    Assert.assertEquals(3, grids.length);
+    Assert.assertEquals("8x13", grids[0].getResolution());
+    Assert.assertEquals(GridTool.DEFAULT_GRID, grids[0]);
+    Assert.assertEquals(16 * 26, grids[1].numCells());
+    Assert.assertEquals(32, grids[2].getRows());
+    Assert.assertEquals(52, grids[2].getColumns());
+  }
+
+  /**
+   * Tests that malformed resolutions are rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void test_parse_malformed() throws Exception {
+    FieldGrid.parse(new Field(), "8x13,0x4");
+  }
+}
@@ -0,0 +1,108 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.core.query3.tuple;
+
+import com.acmutv.socstream.common.tool.GridTool;
+import com.acmutv.socstream.query3.tuple.PlayerGridStatisticsAccumulator;
+import com.acmutv.socstream.query3.tuple.PlayerGridStatisticsAccumulatorSerializer;
+import com.acmutv.socstream.query3.tuple.PlayerGridStatisticsAccumulatorTypeInfo;
+import org.apache.flink.api.java.typeutils.TypeExtractor;
+import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+/**
+ * JUnit test suite for {@link PlayerGridStatisticsAccumulatorSerializer}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see PlayerGridStatisticsAccumulatorSerializer
+ */
+public class PlayerGridStatisticsAccumulatorSerializerTest {
+
+  private static byte[] serialize(PlayerGridStatisticsAccumulator acc) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    PlayerGridStatisticsAccumulatorSerializer.INSTANCE.serialize(acc, new DataOutputViewStreamWrapper(bytes));
+    return bytes.toByteArray();
+  }
+
+  private static PlayerGridStatisticsAccumulator deserialize(byte[] bytes, PlayerGridStatisticsAccumulator reuse) throws Exception {
+    return PlayerGridStatisticsAccumulatorSerializer.INSTANCE.deserialize(reuse,
+        new DataInputViewStreamWrapper(new ByteArrayInputStream(bytes)));
+  }
+
+  /**
+   * Tests that an accumulator survives a serialization round trip, also into a reused instance.
+   */
+  @Test
+  public void test_roundTrip() throws Exception {
+    PlayerGridStatisticsAccumulator expected = new PlayerGridStatisticsAccumulator();
+    long ts = 10753295594424116L;
+    for (int i = 0; i < 50; i++) {
+      expected.add(ts, new int[]{GridTool.DEFAULT_GRID.cellId(1000 + i * 800, -30000 + (i % 7) * 9000)});
+      ts += 5000000000L;
+    }
+
+    byte[] bytes = serialize(expected);
+    Assert.assertEquals(expected, deserialize(bytes, null));
+
+    PlayerGridStatisticsAccumulator reuse = new PlayerGridStatisticsAccumulator();
+    reuse.add(1, new int[]{3});
+    reuse.add(7, new int[]{5});
+    Assert.assertEquals(expected, deserialize(bytes, reuse));
+
+    PlayerGridStatisticsAccumulator empty = new PlayerGridStatisticsAccumulator();
+    Assert.assertEquals(empty, deserialize(serialize(empty), reuse));
+  }
+
+  /**
+   * Tests that only visited cells are written.
+   */
+  @Test
+  public void test_compact() throws Exception {
+    PlayerGridStatisticsAccumulator acc = new PlayerGridStatisticsAccumulator();
+    acc.add(10753295594424116L, new int[]{3});
+    acc.add(10753300594424116L, new int[]{40});
+    acc.add(10753305594424116L, new int[]{41});
+
+    Assert.assertTrue(serialize(acc).length < 64);
+    Assert.assertTrue(serialize(acc).length < 8 * GridTool.DEFAULT_GRID.numCells());
+  }
+
+  /**
+   * Tests that Flink picks the compact serializer instead of the POJO serializer.
+   */
+  @Test
+  public void test_typeInfo() throws Exception {
+    Assert.assertEquals(new PlayerGridStatisticsAccumulatorTypeInfo(),
+        TypeExtractor.getForClass(PlayerGridStatisticsAccumulator.class));
+  }
+}
@@ -26,6 +26,7 @@
 
 package com.acmutv.socstream.core.query3.tuple;
 
+import com.acmutv.socstream.common.tool.GridTool;
 import com.acmutv.socstream.common.tuple.GridCoordinate;
 import com.acmutv.socstream.query3.tuple.PlayerGridStatistics;
 import org.junit.Assert;
@@ -33,9 +34,6 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * JUnit test suite for {@link PlayerGridStatistics}.
  * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
@@ -53,8 +51,7 @@ public class PlayerGridStatisticsTest {
   @Test
   public void test_serialize_grid_statistics() throws Exception {
     //test put first element (cell for a player)
-    Map<String,Long> grid = new HashMap<>();
-    grid.put("2;3",0L);
+    long[] grid = new long[GridTool.DEFAULT_GRID.numCells()];
     PlayerGridStatistics test = new PlayerGridStatistics(0,1L,grid);
     String expected="1,0, NOT AVAILABLE";
     LOGGER.debug("PlayerGridStatistics serialized: " + expected);
@@ -35,13 +35,17 @@ import org.junit.runners.Suite;
  * @author Michele Porretta {@literal <mporretta@acm.org>}
  * @since 1.0
  * @see PositionSensorEventTest
+ * @see PlayerGridStatisticsAccumulatorSerializerTest
+ * @see FieldGridTest
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
         GridCoordinateTest.class,
         PlayerGridStatisticsTest.class,
         ComputeCellTest.class,
-        PositionSensorEventTest.class
+        PositionSensorEventTest.class,
+        PlayerGridStatisticsAccumulatorSerializerTest.class,
+        FieldGridTest.class
 })
 public class TestAllQuery3Tuple {
 }
@@ -26,6 +26,7 @@
 
 package com.acmutv.socstream.tool;
 
+import com.acmutv.socstream.tool.physics.TestAllToolPhysics;
 import com.acmutv.socstream.tool.runtime.TestAllToolRuntime;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
@@ -35,10 +36,12 @@ import org.junit.runners.Suite;
  * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
  * @author Michele Porretta {@literal <mporretta@acm.org>}
  * @since 1.0
+ * @see TestAllToolPhysics
  * @see TestAllToolRuntime
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
+    TestAllToolPhysics.class,
     TestAllToolRuntime.class
 })
 public class TestAllTool {
@@ -0,0 +1,107 @@
+/*
+  The MIT License (MIT)
+
+  Copyright (c) 2016 Giacomo Marciani and Michele Porretta
+
+  Permission is hereby granted, free of charge, to any person obtaining a copy
+  of this software and associated documentation files (the "Software"), to deal
+  in the Software without restriction, including without limitation the rights
+  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+  copies of the Software, and to permit persons to whom the Software is
+  furnished to do so, subject to the following conditions:
+
+
+  The above copyright notice and this permission notice shall be included in
+  all copies or substantial portions of the Software.
+
+
+  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.  IN NO EVENT SHALL THE
+  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+  THE SOFTWARE.
+ */
+
+package com.acmutv.socstream.tool.physics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * JUnit tests for {@link PhysicsUtil}.
+ * @author Giacomo Marciani {@literal <gmarciani@acm.org>}
+ * @author Michele Porretta {@literal <mporretta@acm.org>}
+ * @since 1.0
+ * @see PhysicsUtil
+ * @see Motion
+ */
+public class PhysicsUtilTest {
+
+  private static final double DELTA = 1e-12;
+
+  private static final long V[] = {1000000, 2500000, 0, 4200000};
+  private static final long VX[] = {10000, -6000, 0, 7071};
+  private static final long VY[] = {0, 8000, 0, -7071};
+  private static final long A[] = {0, 1500000, 3000000, 800000};
+  private static final long AX[] = {0, 10000, -2000, 3000};
+  private static final long AY[] = {0, 0, 9000, 4000};
+
+  /**
+   * Tests the scalar methods against a uniform motion.
+   */
+  @Test
+  public void test_uniformMotion() {
+    Assert.assertEquals(0.005, PhysicsUtil.computeDistance(1000000, 10000, 0, 0, 0, 0), DELTA);
+    Assert.assertEquals(1.0, PhysicsUtil.computeSpeed(1000000, 10000, 0, 0, 0, 0), DELTA);
+
+    final Motion actual = PhysicsUtil.computeDistanceAndSpeed(1000000, 10000, 0, 0, 0, 0, new Motion());
+    Assert.assertEquals(new Motion(0.005, 1.0), actual);
+  }
+
+  /**
+   * Tests that the holder, array and batch variants agree with the scalar methods.
+   */
+  @Test
+  public void test_variants() {
+    final int n = V.length;
+    final double distances[] = new double[n];
+    final double speeds[] = new double[n];
+    PhysicsUtil.computeDistanceAndSpeed(V, VX, VY, A, AX, AY, 0, n, distances, speeds);
+
+    final Motion motion = new Motion();
+    for (int i = 0; i < n; i++) {
+      final double expectedDistance = PhysicsUtil.computeDistance(V[i], VX[i], VY[i], A[i], AX[i], AY[i]);
+      final double expectedSpeed = PhysicsUtil.computeSpeed(V[i], VX[i], VY[i], A[i], AX[i], AY[i]);
+
+      PhysicsUtil.computeDistanceAndSpeed(V[i], VX[i], VY[i], A[i], AX[i], AY[i], motion);
+      Assert.assertEquals(expectedDistance, motion.getDistance(), DELTA);
+      Assert.assertEquals(expectedSpeed, motion.getSpeed(), DELTA);
+
+      final double pair[] = PhysicsUtil.computeDistanceAndSpeed(V[i], VX[i], VY[i], A[i], AX[i], AY[i]);
+      Assert.assertEquals(expectedDistance, pair[0], DELTA);
+      Assert.assertEquals(expectedSpeed, pair[1], DELTA);
+
+      Assert.assertEquals(expectedDistance, distances[i], DELTA);
+      Assert.assertEquals(expectedSpeed, speeds[i], DELTA);
+    }
+  }
+
+  /**
+   * Tests that the batch variant only writes the given range.
+   */
+  @Test
+  public void test_batch_range() {
+    final double distances[] = {-1, -1, -1, -1};
+    final double speeds[] = {-1, -1, -1, -1};
+    PhysicsUtil.computeDistanceAndSpeed(V, VX, VY, A, AX, AY, 1, 3, distances, speeds);
+
+    Assert.assertEquals(-1, distances[0], 0);
+    Assert.assertEquals(-1, speeds[0], 0);
+    Assert.assertTrue(distances[1] > 0 && speeds[1] > 0);
+    Assert.assertTrue(distances[2] > 0 && speeds[2] > 0);
+    Assert.assertEquals(-1, distances[3], 0);
+    Assert.assertEquals(-1, speeds[3], 0);
+  }
+}